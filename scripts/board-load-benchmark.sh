@@ -0,0 +1,95 @@
+#!/usr/bin/env bash
+#
+# Board load benchmark: seeds many projects with task lists and tasks, then times GET /api/projects/{id} on
+# randomly chosen boards and reports min / median / p95 / max.
+#
+# Tasks are seeded interleaved across projects, the way boards that are used side by side fill the table, so
+# that rows of one board are spread over many pages.
+#
+# To compare two builds on the same data, e.g. before and after a migration, seed once and rerun against the
+# same user:
+#
+#   SEED=1 scripts/board-load-benchmark.sh                       # prints the EMAIL of the seeded user
+#   (restart on the other build)
+#   SEED=0 EMAIL=bench-...@example.com scripts/board-load-benchmark.sh
+#
+# Usage: PROJECTS=2000 LISTS=5 TASKS=100 RUNS=500 scripts/board-load-benchmark.sh [base url]
+
+set -euo pipefail
+
+BASE="${1:-http://localhost:8080}"
+SEED="${SEED:-1}"
+PROJECTS="${PROJECTS:-2000}"
+LISTS="${LISTS:-5}"
+TASKS="${TASKS:-100}"
+RUNS="${RUNS:-500}"
+WARMUP="${WARMUP:-100}"
+PSQL="${PSQL:-docker compose exec -T db psql -U postgres -d mini_trello}"
+EMAIL="${EMAIL:-bench-$(date +%s)@example.com}"
+
+fail() {
+    echo "FAIL: $*" >&2
+    exit 1
+}
+
+sql() {
+    $PSQL -v ON_ERROR_STOP=1 -qtA -c "$1"
+}
+
+json_field() {
+    sed -n "s/.*\"$1\":\"\\{0,1\\}\\([^,\"}]*\\).*/\\1/p" | head -n 1
+}
+
+post() {
+    curl -s -X POST "${BASE}$1" -H 'Content-Type: application/json' -d "$2"
+}
+
+if [[ "$SEED" == "1" ]]; then
+    post /api/auth/register "{\"name\":\"Board Benchmark\",\"email\":\"${EMAIL}\",\"password\":\"password123\"}" > /dev/null
+fi
+TOKEN="$(post /api/auth/login "{\"email\":\"${EMAIL}\",\"password\":\"password123\"}" | json_field token)"
+[[ -n "$TOKEN" ]] || fail "login as ${EMAIL} returned no token"
+
+if [[ "$SEED" == "1" ]]; then
+    # Partitioned trees carry the project on every task
+    task_project=""
+    if [[ "$(sql "SELECT count(*) FROM information_schema.columns WHERE table_name = 'tasks' AND column_name = 'project_id'")" == "1" ]]; then
+        task_project=", project_id"
+    fi
+    echo "Seeding ${PROJECTS} projects x ${LISTS} lists x ${TASKS} tasks for ${EMAIL}"
+    sql "WITH owner AS (SELECT id FROM users WHERE email = '${EMAIL}'),
+        p AS (INSERT INTO projects (name, description, owner_id, created_at, updated_at)
+              SELECT 'Board ' || g, 'board load benchmark', owner.id, now(), now()
+              FROM generate_series(1, ${PROJECTS}) g, owner RETURNING id),
+        l AS (INSERT INTO task_lists (name, position, project_id, created_at, updated_at)
+              SELECT 'List ' || n, n, p.id, now(), now() FROM p, generate_series(1, ${LISTS}) n
+              RETURNING id, project_id, position)
+        INSERT INTO tasks (title, description, position, task_list_id, assigned_user_id, created_at, updated_at${task_project})
+        SELECT 'Task ' || n || ' of list ' || l.position, 'Seeded by the board load benchmark', n, l.id,
+               (SELECT id FROM owner), now(), now()${task_project:+, l.project_id}
+        FROM l, generate_series(1, ${TASKS}) n ORDER BY n, l.id"
+    sql "ANALYZE" > /dev/null
+fi
+
+mapfile -t PROJECT_IDS < <(sql "SELECT p.id FROM projects p JOIN users u ON u.id = p.owner_id
+    WHERE u.email = '${EMAIL}' AND p.description = 'board load benchmark' ORDER BY p.id")
+(( ${#PROJECT_IDS[@]} > 0 )) || fail "no seeded projects for ${EMAIL}"
+
+# load <count> -- prints the time of each board load in milliseconds
+load() {
+    for _ in $(seq 1 "$1"); do
+        local id="${PROJECT_IDS[$(( (RANDOM * 32768 + RANDOM) % ${#PROJECT_IDS[@]} ))]}"
+        curl -s -o /dev/null -w '%{http_code} %{time_total}\n' "${BASE}/api/projects/${id}" \
+            -H "Authorization: Bearer ${TOKEN}" \
+            | awk '$1 != 200 { print "FAIL: board load returned " $1 > "/dev/stderr"; exit 1 } { printf "%.2f\n", $2 * 1000 }'
+    done
+}
+
+load "$WARMUP" > /dev/null
+load "$RUNS" | sort -n | awk -v boards="${#PROJECT_IDS[@]}" '
+    { t[NR] = $1 }
+    END {
+        printf "%d board loads over %d boards: min %.1f ms, median %.1f ms, p95 %.1f ms, max %.1f ms\n",
+            NR, boards, t[1], t[int((NR + 1) / 2)], t[int(NR * 0.95)], t[NR]
+    }'
+echo "EMAIL=${EMAIL}"
@@ -0,0 +1,41 @@
+#!/usr/bin/env bash
+#
+# Training run that writes the AppCDS archive (application.jsa) for the extracted application.jar in the
+# current directory. Run by the Dockerfile; the archive is only valid for the same JDK and classpath.
+#
+# With TRAINING_DB_URL set, the application starts against that database and serves the main endpoints
+# (scripts/exercise-endpoints.sh) before it is stopped, so the archive also holds the classes loaded by
+# the first requests. Without it the context is refreshed and closed without touching a database, which
+# covers startup only.
+#
+#   docker build --network host --build-arg TRAINING_DB_URL=jdbc:postgresql://localhost:5432/mini_trello .
+
+set -euo pipefail
+
+ARCHIVE="application.jsa"
+PORT="${PORT:-18080}"
+SCRIPTS="$(dirname "$0")"
+
+if [[ -z "${TRAINING_DB_URL:-}" ]]; then
+    java -XX:ArchiveClassesAtExit="$ARCHIVE" -Dspring.context.exit=onRefresh -jar application.jar \
+        --spring.datasource.url=jdbc:postgresql://localhost:1/unused \
+        --spring.flyway.enabled=false \
+        --spring.jpa.hibernate.ddl-auto=none \
+        --spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect \
+        --spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false
+else
+    java -XX:ArchiveClassesAtExit="$ARCHIVE" -jar application.jar \
+        --spring.datasource.url="$TRAINING_DB_URL" --server.port="$PORT" &
+    pid=$!
+    for _ in $(seq 1 1200); do
+        curl -sf -o /dev/null "http://localhost:${PORT}/actuator/health" && break
+        kill -0 "$pid" 2>/dev/null || { echo "training run exited during startup" >&2; exit 1; }
+        sleep 0.1
+    done
+    "$SCRIPTS/exercise-endpoints.sh" "http://localhost:${PORT}"
+    # The archive is written when the JVM exits after the graceful shutdown
+    kill "$pid"
+    wait "$pid" || true
+fi
+
+[[ -s "$ARCHIVE" ]] || { echo "no CDS archive written" >&2; exit 1; }
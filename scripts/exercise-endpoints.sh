@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+#
+# Exercises the main endpoints once against a running instance: registers and logs in a fresh user,
+# then creates, reads and deletes a project with a task list and a task.
+#
+# Used by scripts/native-smoke-test.sh to check a build, and by the Dockerfile to drive the CDS
+# training run so the archive contains the classes those requests load.
+#
+# Usage: scripts/exercise-endpoints.sh [base url]   (default: http://localhost:8080)
+
+set -euo pipefail
+
+BASE="${1:-http://localhost:8080}"
+BODY_FILE="$(mktemp)"
+trap 'rm -f "$BODY_FILE"' EXIT
+
+fail() {
+    echo "FAIL: $*" >&2
+    exit 1
+}
+
+# call <expected status> <method> <path> [body] -- prints the response body
+call() {
+    local expected="$1" method="$2" path="$3" body="${4:-}"
+    local args=(-s -o "$BODY_FILE" -w '%{http_code}' -X "$method" "${BASE}${path}" -H 'Content-Type: application/json')
+    if [[ -n "${TOKEN:-}" ]]; then
+        args+=(-H "Authorization: Bearer ${TOKEN}")
+    fi
+    if [[ -n "$body" ]]; then
+        args+=(-d "$body")
+    fi
+    local status
+    status="$(curl "${args[@]}")"
+    [[ "$status" == "$expected" ]] || fail "$method $path returned $status, expected $expected: $(cat "$BODY_FILE")"
+    cat "$BODY_FILE"
+}
+
+json_field() {
+    sed -n "s/.*\"$1\":\"\\{0,1\\}\\([^,\"}]*\\).*/\\1/p" | head -n 1
+}
+
+exercise() {
+    local email="check-$(date +%s)-${RANDOM}@example.com"
+    TOKEN=""
+
+    call 201 POST /api/auth/register "{\"name\":\"Endpoint Check\",\"email\":\"${email}\",\"password\":\"password123\"}" > /dev/null
+    TOKEN="$(call 200 POST /api/auth/login "{\"email\":\"${email}\",\"password\":\"password123\"}" | json_field token)"
+    [[ -n "$TOKEN" ]] || fail "login returned no token"
+    local user_id
+    user_id="$(call 200 GET /api/users/me | json_field id)"
+
+    local project_id list_id task_id
+    project_id="$(call 201 POST /api/projects '{"name":"Endpoint check","description":"endpoint check"}' | json_field id)"
+    call 200 GET "/api/projects/${project_id}" > /dev/null
+    list_id="$(call 201 POST /api/tasklists "{\"name\":\"To do\",\"projectId\":${project_id}}" | json_field id)"
+    task_id="$(call 201 POST /api/tasks "{\"title\":\"Endpoint check task\",\"taskListId\":${list_id},\"assignedUserId\":${user_id}}" | json_field id)"
+    call 200 GET "/api/tasks/${task_id}" > /dev/null
+    call 200 GET "/api/tasks/list/${list_id}" > /dev/null
+    call 200 GET /api/users/me/tasks > /dev/null
+    call 204 DELETE "/api/projects/${project_id}" > /dev/null
+    TOKEN=""
+}
+
+exercise
@@ -0,0 +1,85 @@
+#!/usr/bin/env bash
+#
+# Smoke test for the native image, compared with the JVM build.
+#
+# Starts each build against the database configured in application.properties (docker compose up db),
+# runs the auth, project, task list and task endpoints (scripts/exercise-endpoints.sh), and reports time
+# to the first served request and resident memory.
+#
+# Build first:
+#   ./mvnw -Pnative native:compile   # target/mini-trello
+#   ./mvnw package                   # target/mini-trello-0.0.1-SNAPSHOT.jar
+#
+# Usage: scripts/native-smoke-test.sh [native|jvm|aot|both]   (default: both)
+#   aot runs the jar on the JVM with the AOT-generated context (jar built with -Pnative), which checks
+#   the AOT wiring without GraalVM.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PORT="${PORT:-18080}"
+BASE="http://localhost:${PORT}"
+NATIVE_BINARY="target/mini-trello"
+JAR="$(ls target/mini-trello-*.jar 2>/dev/null | grep -v -- '-plain' | head -n 1 || true)"
+
+now_millis() {
+    date +%s%3N
+}
+
+fail() {
+    echo "FAIL: $*" >&2
+    exit 1
+}
+
+run() {
+    local name="$1"
+    shift
+    local start pid ready
+    start="$(now_millis)"
+    "$@" --server.port="${PORT}" > "target/smoke-${name}.log" 2>&1 &
+    pid=$!
+    trap "kill ${pid} 2>/dev/null || true" EXIT
+
+    ready=""
+    for _ in $(seq 1 600); do
+        if curl -s -o /dev/null "${BASE}/actuator/health"; then
+            ready="$(now_millis)"
+            break
+        fi
+        kill -0 "$pid" 2>/dev/null || fail "${name} exited during startup, see target/smoke-${name}.log"
+        sleep 0.1
+    done
+    [[ -n "$ready" ]] || fail "${name} did not start within 60s"
+
+    local startup_rss
+    startup_rss="$(awk '/VmRSS/ {print $2}' "/proc/${pid}/status")"
+    scripts/exercise-endpoints.sh "$BASE" || fail "${name} failed the endpoint checks"
+    local rss peak
+    rss="$(awk '/VmRSS/ {print $2}' "/proc/${pid}/status")"
+    peak="$(awk '/VmHWM/ {print $2}' "/proc/${pid}/status")"
+    local reported
+    reported="$(sed -n 's/.*Started MiniTrelloApplication in \([0-9.]*\) seconds.*/\1/p' "target/smoke-${name}.log")"
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+
+    printf '%-7s first request %6d ms  (Spring reported %ss)  RSS after start %7d KB  after smoke %7d KB  peak %7d KB\n' \
+        "$name" "$((ready - start))" "${reported:-?}" "$startup_rss" "$rss" "$peak"
+}
+
+target="${1:-both}"
+if [[ "$target" == "native" || "$target" == "both" ]]; then
+    [[ -x "$NATIVE_BINARY" ]] || fail "${NATIVE_BINARY} not found, run ./mvnw -Pnative native:compile"
+    run native "$NATIVE_BINARY"
+fi
+if [[ "$target" == "jvm" || "$target" == "both" ]]; then
+    [[ -n "$JAR" ]] || fail "no jar in target/, run ./mvnw package"
+    run jvm java -jar "$JAR"
+fi
+if [[ "$target" == "aot" ]]; then
+    [[ -n "$JAR" ]] || fail "no jar in target/, run ./mvnw -Pnative package"
+    run aot java -Dspring.aot.enabled=true -jar "$JAR"
+fi
+echo "Smoke test passed"
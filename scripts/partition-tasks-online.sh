@@ -0,0 +1,122 @@
+#!/usr/bin/env bash
+#
+# Online preparation for V15__partition_tasks_by_project.sql: creates the partitioned tables of the migration
+# next to the live task_lists and tasks, keeps them in step with triggers and copies the existing rows in
+# batches, while the application keeps running. Deploying the build with V15 afterwards only swaps the tables.
+#
+# Rows are copied in id order, BATCH rows per transaction, each batch sorted by project. Rows that are being
+# copied are locked against changes for the duration of their batch. Safe to rerun after an interruption.
+#
+# Usage: BATCH=10000 scripts/partition-tasks-online.sh
+
+set -euo pipefail
+
+MIGRATION="$(dirname "$0")/../src/main/resources/db/migration/V15__partition_tasks_by_project.sql"
+BATCH="${BATCH:-10000}"
+PSQL="${PSQL:-docker compose exec -T db psql -U postgres -d mini_trello}"
+
+fail() {
+    echo "FAIL: $*" >&2
+    exit 1
+}
+
+sql() {
+    $PSQL -v ON_ERROR_STOP=1 -qtA -c "$1"
+}
+
+# section <name> -- the statements of the migration between "-- <name>: begin" and "-- <name>: end"
+section() {
+    sed -n "/^-- $1: begin$/,/^-- $1: end$/p" "$MIGRATION"
+}
+
+# copy_in_batches <table> <max id> <insert> -- runs the insert, an INSERT ... SELECT with two %d placeholders
+# for an id range, over 1..<max id>
+copy_in_batches() {
+    local from=0
+    while (( from < $2 )); do
+        sql "$(printf "$3" "$from" "$(( from + BATCH ))")" > /dev/null
+        from=$(( from + BATCH ))
+        echo "  $1: $(( from < $2 ? from : $2 )) / $2"
+    done
+}
+
+[[ -f "$MIGRATION" ]] || fail "migration not found: ${MIGRATION}"
+if [[ "$(sql "SELECT to_regclass('tasks_partition_backfill') IS NOT NULL")" == "t" ]]; then
+    echo "The partitioned tables are complete; deploy the build with V15 to swap them in"
+    exit 0
+fi
+[[ "$(sql "SELECT relkind FROM pg_class WHERE oid = 'tasks'::regclass")" == "r" ]] \
+    || fail "tasks is already partitioned"
+
+echo "Creating the partitioned tables"
+sql "$(section 'Partitioned tables')" > /dev/null
+sql "$(section 'Partitioned indexes')" > /dev/null
+
+# Task lists never change project; a row is written back as a whole, so a concurrent batch that copies it
+# either finds it there already or overwrites nothing
+echo "Mirroring changes to task_lists"
+sql "CREATE OR REPLACE FUNCTION mirror_task_lists_to_partitioned() RETURNS trigger AS \$\$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM task_lists_partitioned WHERE id = OLD.id AND project_id = OLD.project_id;
+        RETURN NULL;
+    END IF;
+    INSERT INTO task_lists_partitioned (id, name, position, project_id, created_at, updated_at, archive_after_days)
+    VALUES (NEW.id, NEW.name, NEW.position, NEW.project_id, NEW.created_at, NEW.updated_at, NEW.archive_after_days)
+    ON CONFLICT (id, project_id) DO UPDATE SET name = EXCLUDED.name, position = EXCLUDED.position,
+        created_at = EXCLUDED.created_at, updated_at = EXCLUDED.updated_at,
+        archive_after_days = EXCLUDED.archive_after_days;
+    RETURN NULL;
+END
+\$\$ LANGUAGE plpgsql;
+CREATE OR REPLACE TRIGGER mirror_to_partitioned AFTER INSERT OR UPDATE OR DELETE ON task_lists
+    FOR EACH ROW EXECUTE FUNCTION mirror_task_lists_to_partitioned()" > /dev/null
+
+echo "Copying task_lists"
+copy_in_batches task_lists "$(sql "SELECT COALESCE(max(id), 0) FROM task_lists")" \
+    "INSERT INTO task_lists_partitioned (id, name, position, project_id, created_at, updated_at, archive_after_days)
+     SELECT id, name, position, project_id, created_at, updated_at, archive_after_days FROM task_lists
+     WHERE id > %d AND id <= %d ORDER BY project_id, position, id FOR SHARE
+     ON CONFLICT (id, project_id) DO NOTHING"
+
+# Only now that every list is there can tasks point at theirs. A task that moves to another project moves
+# to the partition of that project.
+echo "Mirroring changes to tasks"
+sql "CREATE OR REPLACE FUNCTION mirror_tasks_to_partitioned() RETURNS trigger AS \$\$
+DECLARE
+    task_project_id BIGINT;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM tasks_partitioned WHERE id = OLD.id;
+        RETURN NULL;
+    END IF;
+    SELECT project_id INTO task_project_id FROM task_lists WHERE id = NEW.task_list_id;
+    IF TG_OP = 'UPDATE' AND NEW.task_list_id <> OLD.task_list_id THEN
+        DELETE FROM tasks_partitioned WHERE id = OLD.id AND project_id <> task_project_id;
+    END IF;
+    INSERT INTO tasks_partitioned (id, title, description, position, task_list_id, project_id, assigned_user_id,
+                                   created_at, updated_at)
+    VALUES (NEW.id, NEW.title, NEW.description, NEW.position, NEW.task_list_id, task_project_id,
+            NEW.assigned_user_id, NEW.created_at, NEW.updated_at)
+    ON CONFLICT (id, project_id) DO UPDATE SET title = EXCLUDED.title, description = EXCLUDED.description,
+        position = EXCLUDED.position, task_list_id = EXCLUDED.task_list_id,
+        assigned_user_id = EXCLUDED.assigned_user_id, created_at = EXCLUDED.created_at,
+        updated_at = EXCLUDED.updated_at;
+    RETURN NULL;
+END
+\$\$ LANGUAGE plpgsql;
+CREATE OR REPLACE TRIGGER mirror_to_partitioned AFTER INSERT OR UPDATE OR DELETE ON tasks
+    FOR EACH ROW EXECUTE FUNCTION mirror_tasks_to_partitioned()" > /dev/null
+
+echo "Copying tasks"
+copy_in_batches tasks "$(sql "SELECT COALESCE(max(id), 0) FROM tasks")" \
+    "INSERT INTO tasks_partitioned (id, title, description, position, task_list_id, project_id, assigned_user_id,
+                                    created_at, updated_at)
+     SELECT t.id, t.title, t.description, t.position, t.task_list_id, l.project_id, t.assigned_user_id,
+            t.created_at, t.updated_at FROM tasks t JOIN task_lists l ON l.id = t.task_list_id
+     WHERE t.id > %d AND t.id <= %d ORDER BY l.project_id, t.task_list_id, t.position, t.id FOR SHARE OF t
+     ON CONFLICT (id, project_id) DO NOTHING"
+
+sql "CREATE TABLE tasks_partition_backfill AS SELECT now() AS completed_at; ANALYZE task_lists_partitioned;
+     ANALYZE tasks_partitioned" > /dev/null
+echo "The partitioned tables are complete; deploy the build with V15 to swap them in"
@@ -0,0 +1,112 @@
+#!/usr/bin/env bash
+#
+# Startup benchmark: time from launch to the first successful request (GET /actuator/health answering 200),
+# repeated for each target and reported as min / median / max.
+#
+# Targets:
+#   <image>[+<profile>]    docker image, e.g. mini-trello:current or mini-trello:cds+fast-start
+#   dir:<path>[+<profile>] extracted application (application.jar, lib/), using application.jsa when present
+#   jar:<path>[+<profile>] executable jar
+#
+# The applications connect to DB_URL (default: the compose database published on localhost), with host
+# networking for containers.
+#
+# Usage: RUNS=5 scripts/startup-benchmark.sh mini-trello:current mini-trello:cds mini-trello:cds+fast-start
+
+set -euo pipefail
+
+RUNS="${RUNS:-5}"
+PORT="${PORT:-18080}"
+DB_URL="${DB_URL:-jdbc:postgresql://localhost:5432/mini_trello}"
+LOG_DIR="${LOG_DIR:-$(dirname "$0")/../target/startup-benchmark}"
+
+now_millis() {
+    date +%s%3N
+}
+
+fail() {
+    echo "FAIL: $*" >&2
+    exit 1
+}
+
+# start <target> <profile> <log> -- starts the target in the background and prints how to stop it
+start() {
+    local target="$1" profile="$2" log="$3"
+    local args=(--server.port="$PORT" --spring.datasource.url="$DB_URL")
+    [[ -n "$profile" ]] && args+=(--spring.profiles.active="$profile")
+    case "$target" in
+        dir:*)
+            local dir="${target#dir:}" cds=()
+            [[ -f "$dir/application.jsa" ]] && cds=(-XX:SharedArchiveFile=application.jsa)
+            (cd "$dir" && exec java "${cds[@]}" -jar application.jar "${args[@]}") > "$log" 2>&1 &
+            echo "pid $!"
+            ;;
+        jar:*)
+            java -jar "${target#jar:}" "${args[@]}" > "$log" 2>&1 &
+            echo "pid $!"
+            ;;
+        *)
+            echo "container $(docker run -d --rm --network host "$target" "${args[@]}")"
+            ;;
+    esac
+}
+
+stop() {
+    local kind="$1" id="$2" log="$3"
+    if [[ "$kind" == "container" ]]; then
+        docker logs "$id" > "$log" 2>&1 || true
+        docker stop "$id" > /dev/null
+    else
+        # Started from a subshell, so not a child to wait for
+        kill "$id"
+        while kill -0 "$id" 2>/dev/null; do
+            sleep 0.1
+        done
+    fi
+}
+
+running() {
+    local kind="$1" id="$2"
+    if [[ "$kind" == "container" ]]; then
+        [[ "$(docker inspect -f '{{.State.Running}}' "$id" 2>/dev/null)" == "true" ]]
+    else
+        kill -0 "$id" 2>/dev/null
+    fi
+}
+
+measure() {
+    local target="$1" profile="$2" log="$3"
+    local begin handle kind id
+    ! curl -s -o /dev/null "http://localhost:${PORT}/" || fail "port ${PORT} is already in use"
+    begin="$(now_millis)"
+    handle="$(start "$target" "$profile" "$log")"
+    kind="${handle%% *}"
+    id="${handle#* }"
+    for _ in $(seq 1 3000); do
+        if curl -sf -o /dev/null "http://localhost:${PORT}/actuator/health"; then
+            echo "$(($(now_millis) - begin))"
+            stop "$kind" "$id" "$log"
+            return
+        fi
+        running "$kind" "$id" || fail "${target} exited during startup, see ${log}"
+        sleep 0.02
+    done
+    stop "$kind" "$id" "$log"
+    fail "${target} did not answer within 60s, see ${log}"
+}
+
+[[ $# -gt 0 ]] || fail "usage: $0 <target>..."
+mkdir -p "$LOG_DIR"
+
+printf '%-40s %8s %8s %8s   (ms to first request, %d runs)\n' target min median max "$RUNS"
+for spec in "$@"; do
+    target="${spec%%+*}"
+    profile=""
+    [[ "$spec" == *+* ]] && profile="${spec#*+}"
+    times=()
+    for run in $(seq 1 "$RUNS"); do
+        times+=("$(measure "$target" "$profile" "${LOG_DIR}/$(echo "$spec" | tr -c 'A-Za-z0-9.\n-' '_')-${run}.log")")
+    done
+    sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+    printf '%-40s %8d %8d %8d\n' "$spec" "${sorted[0]}" "${sorted[$((RUNS / 2))]}" "${sorted[$((RUNS - 1))]}"
+done
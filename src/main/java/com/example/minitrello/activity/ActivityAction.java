@@ -0,0 +1,43 @@
+package com.example.minitrello.activity;
+
+/**
+ * Kinds of activity recorded in the activity log, each tied to the type of entity it concerns.
+ */
+public enum ActivityAction {
+    PROJECT_CREATED("PROJECT"),
+    PROJECT_UPDATED("PROJECT"),
+    PROJECT_DELETED("PROJECT"),
+    PROJECT_RESTORED("PROJECT"),
+    MEMBER_ADDED("USER"),
+    MEMBER_REMOVED("USER"),
+    TASK_LIST_CREATED("TASK_LIST"),
+    TASK_LIST_UPDATED("TASK_LIST"),
+    TASK_LIST_DELETED("TASK_LIST"),
+    TASK_LIST_ARCHIVED("TASK_LIST"),
+    TASK_LIST_RESTORED("TASK_LIST"),
+    TASKS_ARCHIVED("TASK_LIST"),
+    TASK_CREATED("TASK"),
+    TASK_UPDATED("TASK"),
+    TASK_MOVED("TASK"),
+    TASK_ASSIGNED("TASK"),
+    TASK_UNASSIGNED("TASK"),
+    TASK_DELETED("TASK"),
+    TASK_ARCHIVED("TASK"),
+    TASK_RESTORED("TASK"),
+    USER_UPDATED("USER"),
+    USER_ROLE_CHANGED("USER"),
+    USER_ENABLED("USER"),
+    USER_DISABLED("USER"),
+    USER_DELETED("USER"),
+    USER_RESTORED("USER");
+
+    private final String entityType;
+
+    ActivityAction(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.minitrello.activity;
+
+import java.time.LocalDateTime;
+
+/**
+ * A single activity log entry waiting to be written.
+ *
+ * @param projectId the project the activity belongs to, or null for account-level activity
+ * @param actorId the user who performed the action, or null if unknown
+ * @param action what happened
+ * @param entityId the id of the affected entity
+ * @param details short human-readable description, e.g. the task title
+ * @param createdAt when the change was committed
+ */
+public record ActivityEntry(Long projectId, Long actorId, ActivityAction action, Long entityId,
+                            String details, LocalDateTime createdAt) {
+}
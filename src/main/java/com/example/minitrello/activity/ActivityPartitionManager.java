@@ -0,0 +1,89 @@
+package com.example.minitrello.activity;
+
+import com.example.minitrello.config.ActivityConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.repository.ActivityLogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of the activity log in shape: partitions are created a few months
+ * ahead so inserts never fall into the default partition, and partitions older than the retention
+ * period are dropped as a whole instead of deleting rows. Every shard has an activity log of its own.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityPartitionManager {
+
+    private final ActivityLogRepository activityLogRepository;
+    private final ActivityConfig activityConfig;
+    private final ShardRouting shardRouting;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        maintainPartitions();
+    }
+
+    /**
+     * Creates upcoming partitions and drops expired ones. Runs daily and at startup.
+     */
+    @Scheduled(cron = "${app.activity.partition-maintenance-cron:0 15 3 * * *}")
+    public void maintainPartitions() {
+        for (int shard : shardRouting.shards()) {
+            shardRouting.run(shard, this::maintainShardPartitions);
+        }
+    }
+
+    /**
+     * Each step is tried on its own, so that a partition that cannot be created does not keep expired ones
+     * from being dropped, or the other way round.
+     */
+    private void maintainShardPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= activityConfig.getPartitionsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            attempt("create partition for " + month, () -> {
+                int moved = activityLogRepository.createMonthlyPartition(month);
+                if (moved > 0) {
+                    log.info("Moved {} activity log rows for {} out of the default partition", moved, month);
+                }
+            });
+        }
+
+        YearMonth oldestKept = current.minusMonths(activityConfig.getRetentionMonths() - 1L);
+        List<YearMonth> months;
+        try {
+            months = activityLogRepository.findPartitionMonths();
+        } catch (DataAccessException e) {
+            log.warn("Activity log partition maintenance failed to list partitions: {}", e.getMessage());
+            months = List.of();
+        }
+        for (YearMonth month : months) {
+            if (month.isBefore(oldestKept)) {
+                attempt("drop partition for " + month, () -> {
+                    log.info("Dropping activity log partition for {}", month);
+                    activityLogRepository.dropMonthlyPartition(month);
+                });
+            }
+        }
+        attempt("clean up the default partition",
+                () -> activityLogRepository.deleteFromDefaultPartitionBefore(oldestKept.atDay(1).atStartOfDay()));
+    }
+
+    private void attempt(String step, Runnable work) {
+        try {
+            work.run();
+        } catch (DataAccessException e) {
+            log.warn("Activity log partition maintenance failed to {}: {}", step, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.minitrello.activity;
+
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.ProjectChangedEvent;
+import com.example.minitrello.event.ProjectMembershipChangedEvent;
+import com.example.minitrello.event.TaskChangedEvent;
+import com.example.minitrello.event.TaskListChangedEvent;
+import com.example.minitrello.event.TasksArchivedEvent;
+import com.example.minitrello.event.UserChangedEvent;
+import com.example.minitrello.security.UserDetailsImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Turns committed domain changes into activity log entries and hands them to the {@link ActivityWriter}.
+ * Listeners run after commit on the request thread, so they only build the entry and enqueue it. Changes to
+ * users have no project; they are read through the admin feed, {@code GET /api/admin/activity}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ActivityRecorder {
+
+    private static final int MAX_DETAILS_LENGTH = 500;
+
+    private final ActivityWriter activityWriter;
+
+    @TransactionalEventListener
+    public void onProjectChanged(ProjectChangedEvent event) {
+        ActivityAction action = switch (event.getType()) {
+            case CREATED -> ActivityAction.PROJECT_CREATED;
+            case DELETED -> ActivityAction.PROJECT_DELETED;
+            case RESTORED -> ActivityAction.PROJECT_RESTORED;
+            default -> ActivityAction.PROJECT_UPDATED;
+        };
+        record(event.getProjectId(), action, event.getProjectId(), event.getName());
+    }
+
+    @TransactionalEventListener
+    public void onMembershipChanged(ProjectMembershipChangedEvent event) {
+        ActivityAction action = event.getType() == ChangeType.DELETED
+                ? ActivityAction.MEMBER_REMOVED : ActivityAction.MEMBER_ADDED;
+        record(event.getProjectId(), action, event.getUserId(), null);
+    }
+
+    @TransactionalEventListener
+    public void onTaskListChanged(TaskListChangedEvent event) {
+        ActivityAction action = switch (event.getType()) {
+            case CREATED -> ActivityAction.TASK_LIST_CREATED;
+            case DELETED -> ActivityAction.TASK_LIST_DELETED;
+            case ARCHIVED -> ActivityAction.TASK_LIST_ARCHIVED;
+            case RESTORED -> ActivityAction.TASK_LIST_RESTORED;
+            default -> ActivityAction.TASK_LIST_UPDATED;
+        };
+        record(event.getProjectId(), action, event.getTaskListId(), event.getName());
+    }
+
+    @TransactionalEventListener
+    public void onTasksArchived(TasksArchivedEvent event) {
+        record(event.getProjectId(), ActivityAction.TASKS_ARCHIVED, event.getTaskListId(),
+                event.getCount() + " tasks not updated for " + event.getArchiveAfterDays() + " days");
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED -> {
+                record(event.getProjectId(), ActivityAction.TASK_CREATED, event.getTaskId(), event.getTitle());
+                if (event.getAssignedUserId() != null) {
+                    record(event.getProjectId(), ActivityAction.TASK_ASSIGNED, event.getTaskId(),
+                            "assigned to user " + event.getAssignedUserId());
+                }
+            }
+            case UPDATED -> {
+                record(event.getProjectId(), ActivityAction.TASK_UPDATED, event.getTaskId(), event.getTitle());
+                if (!Objects.equals(event.getAssignedUserId(), event.getPreviousAssignedUserId())) {
+                    if (event.getAssignedUserId() != null) {
+                        record(event.getProjectId(), ActivityAction.TASK_ASSIGNED, event.getTaskId(),
+                                "assigned to user " + event.getAssignedUserId());
+                    } else {
+                        record(event.getProjectId(), ActivityAction.TASK_UNASSIGNED, event.getTaskId(),
+                                "unassigned from user " + event.getPreviousAssignedUserId());
+                    }
+                }
+            }
+            case MOVED -> {
+                String details = event.getTitle() + ": list " + event.getPreviousTaskListId()
+                        + " -> " + event.getTaskListId();
+                record(event.getProjectId(), ActivityAction.TASK_MOVED, event.getTaskId(), details);
+                if (event.getPreviousProjectId() != null && !event.getPreviousProjectId().equals(event.getProjectId())) {
+                    record(event.getPreviousProjectId(), ActivityAction.TASK_MOVED, event.getTaskId(), details);
+                }
+            }
+            case DELETED -> record(event.getProjectId(), ActivityAction.TASK_DELETED, event.getTaskId(), event.getTitle());
+            case ARCHIVED -> record(event.getProjectId(), ActivityAction.TASK_ARCHIVED, event.getTaskId(), event.getTitle());
+            case RESTORED -> record(event.getProjectId(), ActivityAction.TASK_RESTORED, event.getTaskId(), event.getTitle());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        ActivityAction action;
+        String details = null;
+        if (event.getType() == ChangeType.DELETED) {
+            action = ActivityAction.USER_DELETED;
+        } else if (event.getType() == ChangeType.RESTORED) {
+            action = ActivityAction.USER_RESTORED;
+        } else if (event.getRole() != null) {
+            action = ActivityAction.USER_ROLE_CHANGED;
+            details = event.getRole().name();
+        } else if (event.getActive() != null) {
+            action = event.getActive() ? ActivityAction.USER_ENABLED : ActivityAction.USER_DISABLED;
+        } else {
+            action = ActivityAction.USER_UPDATED;
+        }
+        record(null, action, event.getUserId(), details);
+    }
+
+    private void record(Long projectId, ActivityAction action, Long entityId, String details) {
+        if (details != null && details.length() > MAX_DETAILS_LENGTH) {
+            details = details.substring(0, MAX_DETAILS_LENGTH);
+        }
+        activityWriter.submit(new ActivityEntry(projectId, currentActorId(), action, entityId, details,
+                LocalDateTime.now()));
+    }
+
+    private static Long currentActorId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            return userDetails.getId();
+        }
+        return null;
+    }
+}
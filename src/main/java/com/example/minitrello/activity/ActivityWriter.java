@@ -0,0 +1,208 @@
+package com.example.minitrello.activity;
+
+import com.example.minitrello.config.ActivityConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.repository.ActivityLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind buffer for the activity log. Entries are accepted into a bounded queue without
+ * blocking the caller and written by a single background thread using batched inserts.
+ * When the queue is full new entries are dropped and counted rather than slowing down requests.
+ * With sharding, the entries of a batch are written to the shards of their projects.
+ */
+@Component
+@Slf4j
+public class ActivityWriter implements SmartLifecycle {
+
+    private static final long POLL_INTERVAL_MILLIS = 200;
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 500;
+
+    private final ActivityLogRepository activityLogRepository;
+    private final ShardRouting shardRouting;
+    private final BlockingQueue<ActivityEntry> queue;
+    private final int batchSize;
+
+    private final Counter overflowCounter;
+    private final Counter failedCounter;
+    private final Counter writtenCounter;
+    private final DistributionSummary batchSummary;
+    private final Timer writeTimer;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public ActivityWriter(ActivityLogRepository activityLogRepository,
+                          ShardRouting shardRouting,
+                          ActivityConfig activityConfig,
+                          MeterRegistry meterRegistry) {
+        this.activityLogRepository = activityLogRepository;
+        this.shardRouting = shardRouting;
+        this.queue = new ArrayBlockingQueue<>(activityConfig.getQueueCapacity());
+        this.batchSize = activityConfig.getBatchSize();
+
+        this.overflowCounter = Counter.builder("activity.dropped")
+                .description("Activity entries discarded before being written")
+                .tag("reason", "overflow")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("activity.dropped")
+                .description("Activity entries discarded before being written")
+                .tag("reason", "write_failure")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("activity.written")
+                .description("Activity entries written to the database")
+                .register(meterRegistry);
+        this.batchSummary = DistributionSummary.builder("activity.batch.size")
+                .description("Number of activity entries per batch insert")
+                .register(meterRegistry);
+        this.writeTimer = Timer.builder("activity.write")
+                .description("Latency of activity batch inserts")
+                .register(meterRegistry);
+        Gauge.builder("activity.queue.size", queue, BlockingQueue::size)
+                .description("Activity entries waiting to be written")
+                .register(meterRegistry);
+        TimeGauge.builder("activity.queue.lag", this, TimeUnit.MILLISECONDS, ActivityWriter::getLagMillis)
+                .description("Age of the oldest activity entry waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues an entry for writing. Never blocks; the entry is dropped if the queue is full.
+     *
+     * @param entry the entry to write
+     * @return true if the entry was queued
+     */
+    public boolean submit(ActivityEntry entry) {
+        if (queue.offer(entry)) {
+            return true;
+        }
+        overflowCounter.increment();
+        log.debug("Activity queue full, dropping {} entry", entry.action());
+        return false;
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        worker = new Thread(this::run, "activity-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Stop before the data source is closed so remaining entries can be flushed
+        return Integer.MAX_VALUE - 100;
+    }
+
+    long getLagMillis() {
+        ActivityEntry oldest = queue.peek();
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest.createdAt(), LocalDateTime.now()).toMillis());
+    }
+
+    private void run() {
+        List<ActivityEntry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                ActivityEntry first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // Shutting down; the remaining entries are flushed below
+                batch.clear();
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Writes everything still queued. Called when the writer stops.
+     */
+    void flush() {
+        List<ActivityEntry> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<ActivityEntry> batch) {
+        // Account-level activity goes to shard 0, with the users
+        Map<Integer, List<ActivityEntry>> byShard = batch.stream().collect(Collectors.groupingBy(
+                entry -> entry.projectId() == null ? 0 : shardRouting.shardOf(entry.projectId()),
+                TreeMap::new, Collectors.toList()));
+        byShard.forEach(this::write);
+    }
+
+    private void write(int shard, List<ActivityEntry> batch) {
+        for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+            try {
+                writeTimer.record(() -> shardRouting.run(shard, () -> activityLogRepository.insertBatch(batch)));
+                writtenCounter.increment(batch.size());
+                batchSummary.record(batch.size());
+                return;
+            } catch (DataAccessException e) {
+                log.warn("Failed to write {} activity entries (attempt {}): {}", batch.size(), attempt, e.getMessage());
+                if (attempt < MAX_WRITE_ATTEMPTS && !sleep(RETRY_BACKOFF_MILLIS * attempt)) {
+                    break;
+                }
+            }
+        }
+        failedCounter.increment(batch.size());
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
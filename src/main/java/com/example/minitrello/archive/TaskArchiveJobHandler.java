@@ -0,0 +1,120 @@
+package com.example.minitrello.archive;
+
+import com.example.minitrello.config.ArchiveConfig;
+import com.example.minitrello.event.TasksArchivedEvent;
+import com.example.minitrello.job.Job;
+import com.example.minitrello.job.JobHandler;
+import com.example.minitrello.job.JobStep;
+import com.example.minitrello.job.JobType;
+import com.example.minitrello.metrics.ReorderMetrics;
+import com.example.minitrello.repository.ArchiveRepository;
+import com.example.minitrello.repository.ArchiveRepository.ArchivePolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Moves the tasks of a list that its archiving policy has made due to the archive, in chunks of at most
+ * {@code app.archive.batch-size} tasks. The checkpoint is the cutoff fixed by the first chunk, so tasks that
+ * become due while the job runs wait for the next one. Once the last chunk has run, the positions of the
+ * remaining tasks are closed up.
+ */
+@Component
+@Slf4j
+public class TaskArchiveJobHandler implements JobHandler {
+
+    private final ArchiveRepository archiveRepository;
+    private final ArchiveConfig archiveConfig;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReorderMetrics reorderMetrics;
+    private final Clock clock;
+
+    private final Counter archivedTasks;
+
+    @Autowired
+    public TaskArchiveJobHandler(ArchiveRepository archiveRepository,
+                                 ArchiveConfig archiveConfig,
+                                 ApplicationEventPublisher eventPublisher,
+                                 ReorderMetrics reorderMetrics,
+                                 MeterRegistry meterRegistry) {
+        this(archiveRepository, archiveConfig, eventPublisher, reorderMetrics, meterRegistry,
+                Clock.systemDefaultZone());
+    }
+
+    TaskArchiveJobHandler(ArchiveRepository archiveRepository,
+                          ArchiveConfig archiveConfig,
+                          ApplicationEventPublisher eventPublisher,
+                          ReorderMetrics reorderMetrics,
+                          MeterRegistry meterRegistry,
+                          Clock clock) {
+        this.archiveRepository = archiveRepository;
+        this.archiveConfig = archiveConfig;
+        this.eventPublisher = eventPublisher;
+        this.reorderMetrics = reorderMetrics;
+        this.clock = clock;
+
+        this.archivedTasks = Counter.builder("archive.policy.tasks")
+                .description("Tasks moved to the archive under the archiving policy of their list")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public JobType type() {
+        return JobType.TASK_ARCHIVE;
+    }
+
+    @Override
+    public JobStep runChunk(Job job) {
+        long taskListId = job.subjectId();
+        long done = job.progressDone();
+        Long total = job.progressTotal();
+
+        Optional<ArchivePolicy> policy = archiveRepository.findArchivePolicy(taskListId);
+        if (policy.isEmpty()) {
+            // The policy was turned off, or the list or its project deleted
+            return finish(taskListId, done, total);
+        }
+
+        long projectId = policy.get().projectId();
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (job.checkpoint() == null) {
+            LocalDateTime cutoff = now.minusDays(policy.get().archiveAfterDays());
+            return JobStep.next(cutoff.toString(), 0, archiveRepository.countTasksUpdatedBefore(projectId, taskListId, cutoff));
+        }
+
+        int batchSize = archiveConfig.getBatchSize();
+        LocalDateTime cutoff = LocalDateTime.parse(job.checkpoint());
+        int archived = archiveRepository.archiveTasksUpdatedBefore(projectId, taskListId, cutoff, batchSize,
+                now);
+        if (archived > 0) {
+            archivedTasks.increment(archived);
+            eventPublisher.publishEvent(TasksArchivedEvent.builder()
+                    .taskListId(taskListId)
+                    .projectId(projectId)
+                    .count(archived)
+                    .archiveAfterDays(policy.get().archiveAfterDays())
+                    .build());
+        }
+        if (archived < batchSize) {
+            return finish(taskListId, done + archived, total);
+        }
+        return JobStep.next(job.checkpoint(), done + archived, total);
+    }
+
+    private JobStep finish(long taskListId, long done, Long total) {
+        if (done > 0) {
+            // Close the gaps the archived tasks left in the list
+            int normalized = archiveRepository.normalizeTaskPositions(taskListId);
+            reorderMetrics.record(ReorderMetrics.TASK, ReorderMetrics.NORMALIZE, normalized);
+            log.info("Archived {} tasks of task list {}", done, taskListId);
+        }
+        return JobStep.finished(done, total, null);
+    }
+}
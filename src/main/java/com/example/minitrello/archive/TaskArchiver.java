@@ -0,0 +1,73 @@
+package com.example.minitrello.archive;
+
+import com.example.minitrello.config.ArchiveConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.job.JobRunner;
+import com.example.minitrello.job.JobType;
+import com.example.minitrello.repository.ArchiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * Finds the task lists whose archiving policy has made some of their tasks due and queues an archive job for
+ * each, so that the tasks move out of the live table in the background rather than on a request. Every shard is
+ * scanned, and each job is queued on the shard of its task list.
+ */
+@Component
+@Slf4j
+public class TaskArchiver {
+
+    private final ArchiveRepository archiveRepository;
+    private final ArchiveConfig archiveConfig;
+    private final JobRunner jobRunner;
+    private final ShardRouting shardRouting;
+    private final Clock clock;
+
+    @Autowired
+    public TaskArchiver(ArchiveRepository archiveRepository,
+                        ArchiveConfig archiveConfig,
+                        JobRunner jobRunner,
+                        ShardRouting shardRouting) {
+        this(archiveRepository, archiveConfig, jobRunner, shardRouting, Clock.systemDefaultZone());
+    }
+
+    TaskArchiver(ArchiveRepository archiveRepository,
+                 ArchiveConfig archiveConfig,
+                 JobRunner jobRunner,
+                 ShardRouting shardRouting,
+                 Clock clock) {
+        this.archiveRepository = archiveRepository;
+        this.archiveConfig = archiveConfig;
+        this.jobRunner = jobRunner;
+        this.shardRouting = shardRouting;
+        this.clock = clock;
+    }
+
+    /**
+     * Queues archive jobs for the task lists with due tasks that have none, up to {@code app.archive.scan-limit}
+     * per run.
+     */
+    @Scheduled(fixedDelayString = "${app.archive.scan-interval-ms:3600000}",
+            initialDelayString = "${app.archive.scan-interval-ms:3600000}")
+    public void archive() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        for (int shard : shardRouting.shards()) {
+            try {
+                shardRouting.run(shard, () -> {
+                    int limit = archiveConfig.getScanLimit();
+                    for (Long taskListId : archiveRepository.findTaskListsToArchive(now, limit)) {
+                        jobRunner.enqueue(JobType.TASK_ARCHIVE, null, taskListId, now);
+                    }
+                });
+            } catch (DataAccessException e) {
+                log.warn("Queueing archive jobs for task lists on shard {} failed: {}", shard, e.getMessage());
+            }
+        }
+    }
+}
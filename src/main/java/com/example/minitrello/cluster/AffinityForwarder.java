@@ -0,0 +1,162 @@
+package com.example.minitrello.cluster;
+
+import com.example.minitrello.config.AffinityConfig;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Passes a request on to the instance that owns its project and copies the answer back, as a single hop. The
+ * forwarded request carries the caller's headers, including its token, so the owner authenticates and
+ * authorizes it as usual, and is marked so that the owner serves it whatever its own view of the cluster.
+ * <p>
+ * {@link #forward} reads the answer completely before anything is written, so a failed hop leaves the response
+ * untouched. {@link #stream} passes large answers on as they arrive instead.
+ */
+@Component
+public class AffinityForwarder {
+
+    /**
+     * Set on forwarded requests to the id of the instance that forwarded them.
+     */
+    public static final String FORWARDED_BY_HEADER = "X-Affinity-Forwarded-By";
+
+    // Hop-by-hop headers, and headers the HTTP client sets itself
+    private static final Set<String> NOT_COPIED = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "proxy-connection", "te", "trailer", "transfer-encoding", "upgrade", "host",
+            "content-length", "expect");
+
+    private final RestClient restClient;
+
+    // The read timeout covers the whole body, so downloads get a client of their own
+    private final RestClient downloadClient;
+
+    public AffinityForwarder(RestClient.Builder restClientBuilder, AffinityConfig affinityConfig) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(affinityConfig.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(affinityConfig.getForwardTimeout());
+        this.restClient = restClientBuilder.clone().requestFactory(requestFactory).build();
+
+        JdkClientHttpRequestFactory downloadRequestFactory = new JdkClientHttpRequestFactory(httpClient);
+        downloadRequestFactory.setReadTimeout(affinityConfig.getDownloadTimeout());
+        this.downloadClient = restClientBuilder.clone().requestFactory(downloadRequestFactory).build();
+    }
+
+    /**
+     * Sends a request to its owner and writes the owner's answer to the response.
+     *
+     * @param request  the request, with its body already read
+     * @param body     the request body
+     * @param owner    the instance to send it to
+     * @param self     this instance
+     * @param response the response to write the answer to
+     * @throws ResourceAccessException when the owner could not be reached or did not answer in time
+     * @throws IOException             when the answer could not be written
+     */
+    public void forward(HttpServletRequest request, byte[] body, ClusterNode owner, ClusterNode self,
+                        HttpServletResponse response) throws IOException {
+        RestClient.RequestBodySpec spec = prepare(restClient, request, owner, self);
+        if (body.length > 0) {
+            spec.body(body);
+        }
+        Answer answer = spec.exchange((clientRequest, clientResponse) -> new Answer(
+                clientResponse.getStatusCode().value(), clientResponse.getHeaders(),
+                clientResponse.getBody().readAllBytes()));
+
+        writeHead(answer.status(), answer.headers(), response);
+        response.setContentLength(answer.body().length);
+        response.getOutputStream().write(answer.body());
+    }
+
+    /**
+     * Sends a request without a body to its owner and streams the owner's answer to the response as it arrives,
+     * for downloads too large to hold in memory. Nothing is written until the owner answers, but a hop that fails
+     * later leaves the response committed and cut short.
+     *
+     * @param request  the request
+     * @param owner    the instance to send it to
+     * @param self     this instance
+     * @param response the response to write the answer to
+     * @throws ResourceAccessException when the owner could not be reached, the download took longer than
+     *                                 {@code download-timeout}, or the answer could not be passed on
+     */
+    public void stream(HttpServletRequest request, ClusterNode owner, ClusterNode self,
+                       HttpServletResponse response) {
+        prepare(downloadClient, request, owner, self).exchange((clientRequest, clientResponse) -> {
+            writeHead(clientResponse.getStatusCode().value(), clientResponse.getHeaders(), response);
+            long contentLength = clientResponse.getHeaders().getContentLength();
+            if (contentLength >= 0) {
+                response.setContentLengthLong(contentLength);
+            }
+            try (InputStream in = clientResponse.getBody()) {
+                in.transferTo(response.getOutputStream());
+            }
+            return null;
+        });
+    }
+
+    private static RestClient.RequestBodySpec prepare(RestClient client, HttpServletRequest request,
+                                                      ClusterNode owner, ClusterNode self) {
+        String target = owner.url() + request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+
+        return client.method(HttpMethod.valueOf(request.getMethod()))
+                .uri(URI.create(target))
+                .headers(headers -> {
+                    for (String name : Collections.list(request.getHeaderNames())) {
+                        if (!NOT_COPIED.contains(name.toLowerCase(Locale.ROOT))) {
+                            headers.addAll(name, Collections.list(request.getHeaders(name)));
+                        }
+                    }
+                    headers.add("X-Forwarded-For", request.getRemoteAddr());
+                    headers.set(FORWARDED_BY_HEADER, self.id());
+                });
+    }
+
+    private static void writeHead(int status, HttpHeaders headers, HttpServletResponse response) {
+        response.setStatus(status);
+        headers.forEach((name, values) -> {
+            if (!NOT_COPIED.contains(name.toLowerCase(Locale.ROOT)) && !values.isEmpty()) {
+                // The owner's headers replace those set on the way in, such as the security headers
+                response.setHeader(name, values.get(0));
+                values.subList(1, values.size()).forEach(value -> response.addHeader(name, value));
+            }
+        });
+    }
+
+    /**
+     * Whether a failed hop failed before the request reached the owner, in which case it is safe to serve it
+     * here instead.
+     *
+     * @param e the failure of {@link #forward}
+     */
+    public static boolean neverArrived(ResourceAccessException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Answer(int status, HttpHeaders headers, byte[] body) {
+    }
+}
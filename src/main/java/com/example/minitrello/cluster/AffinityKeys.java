@@ -0,0 +1,190 @@
+package com.example.minitrello.cluster;
+
+import com.example.minitrello.config.AffinityConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.datasource.ShardRoutingDataSource;
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.TaskChangedEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the project a request is about, which decides the instance that serves it. Project paths carry the
+ * project id; task and task list paths carry an id whose project is looked up once and then remembered. Lists
+ * never change project. Tasks can be moved to another project, which forgets the task here and, through the
+ * invalidation bus, on the other instances. Requests that are not about one project have no key and are served
+ * wherever they arrive.
+ */
+@Component
+public class AffinityKeys {
+
+    private static final Pattern PROJECT = Pattern.compile("/api/projects/(\\d+)(/.*)?");
+    private static final Pattern PROJECT_TASK_LISTS = Pattern.compile("/api/tasklists/project/(\\d+)/?");
+    private static final Pattern TASK_LIST = Pattern.compile("/api/tasklists/(\\d+)(/.*)?");
+    private static final Pattern TASK_LIST_TASKS = Pattern.compile("/api/tasks/list/(\\d+)/?");
+    private static final Pattern TASK = Pattern.compile("/api/tasks/(\\d+)(/.*)?");
+
+    private static final String TASK_LIST_PROJECT = """
+            SELECT project_id FROM task_lists WHERE id = ?
+            UNION ALL
+            SELECT project_id FROM archived_task_lists WHERE id = ?
+            LIMIT 1
+            """;
+
+    private static final String TASK_PROJECT = """
+            SELECT project_id FROM tasks WHERE id = ?
+            UNION ALL
+            SELECT project_id FROM archived_tasks WHERE id = ?
+            LIMIT 1
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouting shardRouting;
+    private final ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource;
+    private final ObjectMapper objectMapper;
+    private final int maxCachedKeys;
+    private final Map<Long, Long> taskListProjects = new ConcurrentHashMap<>();
+    private final Map<Long, Long> taskProjects = new ConcurrentHashMap<>();
+
+    public AffinityKeys(JdbcTemplate jdbcTemplate,
+                        ShardRouting shardRouting,
+                        ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource,
+                        ObjectMapper objectMapper,
+                        AffinityConfig affinityConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouting = shardRouting;
+        this.shardRoutingDataSource = shardRoutingDataSource;
+        this.objectMapper = objectMapper;
+        this.maxCachedKeys = affinityConfig.getMaxCachedKeys();
+    }
+
+    /**
+     * Whether requests to a path may be about one project, and so need their key resolved.
+     *
+     * @param path the request path, without context path
+     */
+    public boolean isCandidate(String path) {
+        return path.startsWith("/api/projects/") || path.startsWith("/api/tasklists") || path.startsWith("/api/tasks");
+    }
+
+    /**
+     * The project a request is about.
+     *
+     * @param method the HTTP method
+     * @param path   the request path, without context path
+     * @param body   the request body, read for the project of new task lists and tasks
+     * @return the project id, or {@code null} when the request has no single project or names an unknown id
+     */
+    public Long projectOf(String method, String path, byte[] body) {
+        Matcher matcher = PROJECT.matcher(path);
+        if (matcher.matches()) {
+            return parseId(matcher.group(1));
+        }
+        matcher = PROJECT_TASK_LISTS.matcher(path);
+        if (matcher.matches()) {
+            return parseId(matcher.group(1));
+        }
+        matcher = TASK_LIST.matcher(path);
+        if (matcher.matches()) {
+            return taskListProject(parseId(matcher.group(1)));
+        }
+        matcher = TASK_LIST_TASKS.matcher(path);
+        if (matcher.matches()) {
+            return taskListProject(parseId(matcher.group(1)));
+        }
+        matcher = TASK.matcher(path);
+        if (matcher.matches()) {
+            return lookup(taskProjects, TASK_PROJECT, parseId(matcher.group(1)));
+        }
+        if ("POST".equals(method) && path.equals("/api/tasklists")) {
+            return bodyId(body, "projectId");
+        }
+        if ("POST".equals(method) && path.equals("/api/tasks")) {
+            return taskListProject(bodyId(body, "taskListId"));
+        }
+        return null;
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        boolean movedProject = event.getPreviousProjectId() != null
+                && !event.getPreviousProjectId().equals(event.getProjectId());
+        if (movedProject || event.getType() == ChangeType.DELETED) {
+            evictTask(event.getTaskId());
+        }
+    }
+
+    /**
+     * Forgets the project of a task so that it is looked up again on next use.
+     */
+    public void evictTask(long taskId) {
+        taskProjects.remove(taskId);
+    }
+
+    /**
+     * Forgets the projects of all tasks, e.g. after invalidations may have been missed. Lists keep theirs.
+     */
+    public void evictAllTasks() {
+        taskProjects.clear();
+    }
+
+    private Long taskListProject(Long taskListId) {
+        return lookup(taskListProjects, TASK_LIST_PROJECT, taskListId);
+    }
+
+    private Long lookup(Map<Long, Long> cache, String sql, Long id) {
+        if (id == null || !shardRouting.isKnown(id)) {
+            return null;
+        }
+        Long projectId = cache.get(id);
+        if (projectId != null) {
+            return projectId;
+        }
+        List<Long> found = jdbc(shardRouting.shardOf(id)).queryForList(sql, Long.class, id, id);
+        if (found.isEmpty()) {
+            // Unknown ids answer 404 wherever they arrive
+            return null;
+        }
+        if (cache.size() >= maxCachedKeys) {
+            cache.clear();
+        }
+        cache.put(id, found.get(0));
+        return found.get(0);
+    }
+
+    private Long bodyId(byte[] body, String field) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode id = objectMapper.readTree(body).get(field);
+            return id != null && id.canConvertToLong() ? id.asLong() : null;
+        } catch (IOException e) {
+            // Malformed bodies are rejected by the instance the request arrived at
+            return null;
+        }
+    }
+
+    private JdbcTemplate jdbc(int shard) {
+        return shardRouting.isEnabled() ? new JdbcTemplate(shardRoutingDataSource.getObject().shard(shard)) : jdbcTemplate;
+    }
+
+    private static Long parseId(String digits) {
+        try {
+            return Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
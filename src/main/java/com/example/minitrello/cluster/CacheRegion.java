@@ -0,0 +1,63 @@
+package com.example.minitrello.cluster;
+
+/**
+ * The in-memory caches that are kept consistent across instances, each with the one-letter code
+ * used for it in invalidation messages.
+ */
+public enum CacheRegion {
+    /**
+     * Member directory of a project, keyed by project id.
+     */
+    PROJECT_MEMBERS('m'),
+
+    /**
+     * Typeahead partition of a project, keyed by project id.
+     */
+    PROJECT_TITLES('t'),
+
+    /**
+     * Cached entries mentioning a user, keyed by user id.
+     */
+    USER('u'),
+
+    /**
+     * Ids of the projects a user can access, keyed by user id.
+     */
+    ACCESSIBLE_PROJECTS('a'),
+
+    /**
+     * Ids of the projects every user can access, dropped as a whole when a project is created, deleted or
+     * restored, keyed by that project's id.
+     */
+    PROJECT_ACCESS('o'),
+
+    /**
+     * Project of a task, remembered for routing requests to the owner of the project, keyed by task id.
+     */
+    TASK_PROJECT('p'),
+
+    /**
+     * Revoked tokens of a user, keyed by user id. Revocations are only ever added, so an invalidation
+     * loads the user's stored revocations instead of dropping anything.
+     */
+    TOKEN_REVOCATIONS('r');
+
+    private final char code;
+
+    CacheRegion(char code) {
+        this.code = code;
+    }
+
+    public char getCode() {
+        return code;
+    }
+
+    public static CacheRegion fromCode(char code) {
+        for (CacheRegion region : values()) {
+            if (region.code == code) {
+                return region;
+            }
+        }
+        throw new IllegalArgumentException("Unknown cache region: " + code);
+    }
+}
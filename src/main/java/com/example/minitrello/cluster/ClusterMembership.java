@@ -0,0 +1,203 @@
+package com.example.minitrello.cluster;
+
+import com.example.minitrello.config.AffinityConfig;
+import com.example.minitrello.search.MemberDirectory;
+import com.example.minitrello.search.TypeaheadIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * The view of which instances are alive, and which of them owns each project.
+ * <p>
+ * Every instance records a heartbeat in the {@code cluster_nodes} table at a fixed interval and reads back the
+ * instances whose heartbeat is recent, from which it builds a {@link HashRing}. All instances read the same
+ * table, so they agree on the owners once their views have caught up, within one heartbeat interval. An instance
+ * that stops deletes its row so the others take over its projects at their next heartbeat; one that crashes is
+ * dropped once the node timeout has passed.
+ * <p>
+ * When the view changes, the member directories and typeahead partitions of projects this instance no longer
+ * owns are dropped, so each instance keeps the caches of its own projects rather than of all of them.
+ */
+@Component
+@Slf4j
+public class ClusterMembership implements SmartLifecycle {
+
+    private static final String HEARTBEAT = """
+            INSERT INTO cluster_nodes (node_id, url, heartbeat_at)
+            VALUES (?, ?, now())
+            ON CONFLICT (node_id) DO UPDATE SET url = EXCLUDED.url, heartbeat_at = EXCLUDED.heartbeat_at
+            """;
+
+    private static final String LIVE_NODES = """
+            SELECT node_id, url
+            FROM cluster_nodes
+            WHERE heartbeat_at > now() - make_interval(secs => ?)
+            """;
+
+    private static final String FORGET_NODES = "DELETE FROM cluster_nodes WHERE heartbeat_at < now() - interval '1 day'";
+
+    private static final String LEAVE = "DELETE FROM cluster_nodes WHERE node_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AffinityConfig affinityConfig;
+    private final MemberDirectory memberDirectory;
+    private final TypeaheadIndex typeaheadIndex;
+    private final ClusterNode self;
+    private final Counter viewChanges;
+
+    private volatile HashRing ring = HashRing.empty();
+    private volatile boolean running;
+    private ScheduledExecutorService heartbeats;
+
+    public ClusterMembership(JdbcTemplate jdbcTemplate,
+                             AffinityConfig affinityConfig,
+                             MemberDirectory memberDirectory,
+                             TypeaheadIndex typeaheadIndex,
+                             MeterRegistry meterRegistry,
+                             @Value("${server.port:8080}") int serverPort) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.affinityConfig = affinityConfig;
+        this.memberDirectory = memberDirectory;
+        this.typeaheadIndex = typeaheadIndex;
+        this.self = self(affinityConfig, serverPort);
+
+        this.viewChanges = Counter.builder("cluster.view.changes")
+                .description("Changes of the set of live instances seen by this instance")
+                .register(meterRegistry);
+        Gauge.builder("cluster.nodes", this, membership -> membership.ring.nodes().size())
+                .description("Live instances in this instance's view of the cluster")
+                .register(meterRegistry);
+    }
+
+    /**
+     * This instance.
+     */
+    public ClusterNode self() {
+        return self;
+    }
+
+    /**
+     * The instance that owns a project in the current view.
+     *
+     * @param projectId the project
+     * @return the owner, or {@code null} while no view has been read, in which case every instance serves
+     * the project itself
+     */
+    public ClusterNode ownerOf(long projectId) {
+        return ring.ownerOf(projectId);
+    }
+
+    /**
+     * Whether this instance owns a project, or no view has been read yet.
+     *
+     * @param projectId the project
+     * @return whether requests for the project are served here
+     */
+    public boolean isLocal(long projectId) {
+        ClusterNode owner = ring.ownerOf(projectId);
+        return owner == null || owner.id().equals(self.id());
+    }
+
+    /**
+     * The live instances in the current view, ordered by id.
+     */
+    public List<ClusterNode> nodes() {
+        return ring.nodes();
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = affinityConfig.getHeartbeatInterval().toMillis();
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, 0, interval, TimeUnit.MILLISECONDS);
+        log.info("Joining the cluster as node {} at {}", self.id(), self.url());
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (heartbeats != null) {
+            heartbeats.shutdownNow();
+            heartbeats = null;
+        }
+        try {
+            jdbcTemplate.update(LEAVE, self.id());
+            log.info("Left the cluster as node {}", self.id());
+        } catch (DataAccessException e) {
+            log.warn("Could not leave the cluster, the other nodes drop node {} after {}: {}",
+                    self.id(), affinityConfig.getNodeTimeout(), e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return affinityConfig.isEnabled();
+    }
+
+    /**
+     * Records this instance as alive and refreshes the view. A failed heartbeat keeps the previous view.
+     */
+    void heartbeat() {
+        try {
+            jdbcTemplate.update(HEARTBEAT, self.id(), self.url());
+            List<ClusterNode> live = jdbcTemplate.query(LIVE_NODES,
+                    (resultSet, rowNum) -> new ClusterNode(resultSet.getString("node_id"), resultSet.getString("url")),
+                    affinityConfig.getNodeTimeout().toMillis() / 1000.0);
+            jdbcTemplate.update(FORGET_NODES);
+            List<ClusterNode> sorted = live.stream().sorted(Comparator.comparing(ClusterNode::id)).toList();
+            if (!sorted.equals(ring.nodes())) {
+                changeView(HashRing.of(sorted, affinityConfig.getVirtualNodes()));
+            }
+        } catch (RuntimeException e) {
+            // Thrown out of here, it would stop the heartbeats for good
+            log.warn("Cluster heartbeat failed, keeping the view of {} nodes: {}", ring.nodes().size(), e.getMessage());
+        }
+    }
+
+    private void changeView(HashRing next) {
+        ring = next;
+        viewChanges.increment();
+        log.info("Cluster view changed to {}", next.nodes().stream().map(ClusterNode::id).collect(Collectors.joining(", ")));
+
+        // Projects that moved to another instance are served there from now on
+        Predicate<Long> owned = this::isLocal;
+        memberDirectory.retainProjects(owned);
+        typeaheadIndex.retainProjects(owned);
+    }
+
+    private static ClusterNode self(AffinityConfig affinityConfig, int serverPort) {
+        String url = affinityConfig.getAdvertisedUrl() != null
+                ? affinityConfig.getAdvertisedUrl() : "http://localhost:" + serverPort;
+        if (url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+        String nodeId = affinityConfig.getNodeId() != null ? affinityConfig.getNodeId() : URI.create(url).getAuthority();
+        return new ClusterNode(nodeId, url);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.minitrello.cluster;
+
+/**
+ * An instance of the application taking part in project affinity.
+ *
+ * @param id  the name of the instance, as sent in the affinity response headers
+ * @param url the base URL other instances forward requests to
+ */
+public record ClusterNode(String id, String url) {
+}
@@ -0,0 +1,126 @@
+package com.example.minitrello.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable consistent hash ring assigning projects to instances. Each instance is placed on the ring at a
+ * number of points derived from its id, and a project belongs to the instance at the first point at or after
+ * the hash of its id. When an instance joins or leaves, only the projects between its points and their
+ * predecessors change owner; every other project stays where it is, and so do its cached entries.
+ * <p>
+ * Points depend only on instance ids, so every instance computes the same ring from the same membership.
+ */
+public final class HashRing {
+
+    private static final HashRing EMPTY = new HashRing(List.of(), new long[0], new ClusterNode[0]);
+
+    private final List<ClusterNode> nodes;
+    private final long[] points;
+    private final ClusterNode[] owners;
+
+    private HashRing(List<ClusterNode> nodes, long[] points, ClusterNode[] owners) {
+        this.nodes = nodes;
+        this.points = points;
+        this.owners = owners;
+    }
+
+    /**
+     * A ring without instances, which owns nothing.
+     */
+    public static HashRing empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds the ring of the given instances.
+     *
+     * @param nodes         the live instances
+     * @param virtualNodes  points per instance
+     * @return the ring
+     */
+    public static HashRing of(Collection<ClusterNode> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            return EMPTY;
+        }
+        List<ClusterNode> sorted = nodes.stream().sorted(Comparator.comparing(ClusterNode::id)).toList();
+        int perNode = Math.max(1, virtualNodes);
+
+        Point[] placed = new Point[sorted.size() * perNode];
+        int next = 0;
+        for (ClusterNode node : sorted) {
+            for (int i = 0; i < perNode; i++) {
+                placed[next++] = new Point(pointHash(node.id() + "#" + i), node);
+            }
+        }
+        // Ties between instances are settled by id, the same way on every instance
+        Arrays.sort(placed, Comparator.comparingLong(Point::hash).thenComparing(point -> point.node().id()));
+
+        long[] points = new long[placed.length];
+        ClusterNode[] owners = new ClusterNode[placed.length];
+        for (int i = 0; i < placed.length; i++) {
+            points[i] = placed[i].hash();
+            owners[i] = placed[i].node();
+        }
+        return new HashRing(sorted, points, owners);
+    }
+
+    /**
+     * The instance owning a project.
+     *
+     * @param projectId the project
+     * @return the owner, or {@code null} when the ring is empty
+     */
+    public ClusterNode ownerOf(long projectId) {
+        if (points.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(points, keyHash(projectId));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * The instances on the ring, ordered by id.
+     */
+    public List<ClusterNode> nodes() {
+        return nodes;
+    }
+
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    /**
+     * Spreads project ids, which are sequential, over the whole ring (the SplitMix64 finalizer).
+     */
+    static long keyHash(long projectId) {
+        long z = projectId + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long pointHash(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(text.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                hash = (hash << 8) | (digest[i] & 0xFF);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+
+    private record Point(long hash, ClusterNode node) {
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.minitrello.cluster;
+
+import com.example.minitrello.config.InvalidationConfig;
+import com.example.minitrello.config.ShardConfig;
+import com.example.minitrello.search.AccessibleProjects;
+import com.example.minitrello.search.MemberDirectory;
+import com.example.minitrello.search.TypeaheadIndex;
+import com.example.minitrello.security.TokenRevocations;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the in-memory caches of several instances consistent through PostgreSQL LISTEN/NOTIFY.
+ * <p>
+ * Keys published during a transaction are collected and sent as one NOTIFY when it commits. PostgreSQL
+ * delivers the notification only if the commit succeeds. Each instance listens on a dedicated connection
+ * outside the pool, gathers a burst of notifications for a short window and evicts the affected entries
+ * once. Notifications sent while an instance is not connected are lost, so every (re)connect flushes
+ * all caches of that instance.
+ * <p>
+ * With sharding, a notification goes out on the shard of the transaction that sends it, so each instance
+ * listens on every shard, with a connection and thread per shard.
+ */
+@Component
+@Slf4j
+public class InvalidationBus implements SmartLifecycle {
+
+    // NOTIFY payloads must stay below 8000 bytes
+    private static final int MAX_PAYLOAD_LENGTH = 7900;
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final InvalidationConfig invalidationConfig;
+    private final ShardConfig shardConfig;
+    private final MemberDirectory memberDirectory;
+    private final TypeaheadIndex typeaheadIndex;
+    private final TokenRevocations tokenRevocations;
+    private final AffinityKeys affinityKeys;
+    private final AccessibleProjects accessibleProjects;
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+
+    private final Counter sentCounter;
+    private final Counter receivedCounter;
+    private final Counter flushCounter;
+
+    private volatile boolean running;
+    private final List<Thread> listeners = new ArrayList<>();
+
+    public InvalidationBus(JdbcTemplate jdbcTemplate,
+                           DataSourceProperties dataSourceProperties,
+                           InvalidationConfig invalidationConfig,
+                           ShardConfig shardConfig,
+                           MemberDirectory memberDirectory,
+                           TypeaheadIndex typeaheadIndex,
+                           TokenRevocations tokenRevocations,
+                           AffinityKeys affinityKeys,
+                           AccessibleProjects accessibleProjects,
+                           MeterRegistry meterRegistry) {
+        if (!CHANNEL_NAME.matcher(invalidationConfig.getChannel()).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel: " + invalidationConfig.getChannel());
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.invalidationConfig = invalidationConfig;
+        this.shardConfig = shardConfig;
+        this.memberDirectory = memberDirectory;
+        this.typeaheadIndex = typeaheadIndex;
+        this.tokenRevocations = tokenRevocations;
+        this.affinityKeys = affinityKeys;
+        this.accessibleProjects = accessibleProjects;
+
+        this.sentCounter = Counter.builder("cache.invalidation.sent")
+                .description("Invalidation notifications sent to other instances")
+                .register(meterRegistry);
+        this.receivedCounter = Counter.builder("cache.invalidation.received")
+                .description("Cache entries invalidated on behalf of other instances")
+                .register(meterRegistry);
+        this.flushCounter = Counter.builder("cache.invalidation.flushes")
+                .description("Full cache flushes after (re)connecting to the notification channel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Invalidates an entry on the other instances once the current transaction commits.
+     * Outside a transaction the invalidation is sent immediately. Does nothing when disabled.
+     *
+     * @param key the entry to invalidate
+     */
+    public void publish(InvalidationKey key) {
+        if (!invalidationConfig.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(List.of(key.encode()));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<String> keys = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, keys);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Runs on the transaction's connection, so the notification is part of the commit
+                    send(keys);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(InvalidationBus.this);
+                }
+            });
+            pending = keys;
+        }
+        pending.add(key.encode());
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        String username = dataSourceProperties.determineUsername();
+        String password = dataSourceProperties.determinePassword();
+        startListener("cache-invalidation-listener", dataSourceProperties.determineUrl(), username, password);
+        if (shardConfig.isEnabled()) {
+            for (int i = 0; i < shardConfig.getUrls().size(); i++) {
+                startListener("cache-invalidation-listener-" + (i + 1), shardConfig.getUrls().get(i),
+                        shardConfig.getUsername() != null ? shardConfig.getUsername() : username,
+                        shardConfig.getPassword() != null ? shardConfig.getPassword() : password);
+            }
+        }
+    }
+
+    private void startListener(String name, String url, String username, String password) {
+        Thread listener = new Thread(() -> listen(url, username, password), name);
+        listener.setDaemon(true);
+        listener.start();
+        listeners.add(listener);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        listeners.forEach(Thread::interrupt);
+        for (Thread listener : listeners) {
+            try {
+                listener.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        listeners.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return invalidationConfig.isEnabled();
+    }
+
+    private void send(Collection<String> keys) {
+        for (String payload : toPayloads(keys)) {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> {
+            }, invalidationConfig.getChannel(), payload);
+            sentCounter.increment();
+        }
+    }
+
+    /**
+     * Builds the notification payloads for the given keys: the sending node followed by space-separated keys,
+     * split so that no payload exceeds the NOTIFY size limit.
+     */
+    List<String> toPayloads(Collection<String> keys) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(nodeId);
+        for (String key : keys) {
+            if (payload.length() + 1 + key.length() > MAX_PAYLOAD_LENGTH) {
+                payloads.add(payload.toString());
+                payload = new StringBuilder(nodeId);
+            }
+            payload.append(' ').append(key);
+        }
+        if (payload.length() > nodeId.length()) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    private void listen(String url, String username, String password) {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + invalidationConfig.getChannel());
+                }
+                log.info("Listening for cache invalidations on channel {} as node {}",
+                        invalidationConfig.getChannel(), nodeId);
+
+                // Anything sent before this point was missed
+                flushAll();
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications == null || notifications.length == 0) {
+                        continue;
+                    }
+                    List<String> payloads = new ArrayList<>();
+                    collect(notifications, payloads);
+
+                    // Let a burst build up and handle it at once
+                    if (!sleep(invalidationConfig.getCoalesceWindow().toMillis())) {
+                        break;
+                    }
+                    collect(pgConnection.getNotifications(), payloads);
+                    handle(payloads);
+                }
+            } catch (SQLException | DataAccessException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Cache invalidation listener disconnected, reconnecting in {}: {}",
+                        invalidationConfig.getReconnectDelay(), e.getMessage());
+                if (!sleep(invalidationConfig.getReconnectDelay().toMillis())) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private static void collect(PGNotification[] notifications, List<String> payloads) {
+        if (notifications != null) {
+            for (PGNotification notification : notifications) {
+                payloads.add(notification.getParameter());
+            }
+        }
+    }
+
+    /**
+     * Applies a batch of received payloads, ignoring those sent by this instance and evicting each entry once.
+     */
+    void handle(List<String> payloads) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String payload : payloads) {
+            String[] parts = payload.split(" ");
+            if (parts[0].equals(nodeId)) {
+                // The local caches were already updated by the originating transaction
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                keys.add(parts[i]);
+            }
+        }
+        for (String key : keys) {
+            try {
+                evict(InvalidationKey.parse(key));
+                receivedCounter.increment();
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring malformed invalidation key {}", key);
+            }
+        }
+    }
+
+    private void evict(InvalidationKey key) {
+        switch (key.region()) {
+            case PROJECT_MEMBERS -> memberDirectory.evict(key.id());
+            case PROJECT_TITLES -> typeaheadIndex.evict(key.id());
+            case USER -> memberDirectory.evictUser(key.id());
+            case ACCESSIBLE_PROJECTS -> accessibleProjects.evictUser(key.id());
+            case PROJECT_ACCESS -> accessibleProjects.evictAll();
+            case TASK_PROJECT -> affinityKeys.evictTask(key.id());
+            case TOKEN_REVOCATIONS -> tokenRevocations.reload(key.id());
+        }
+    }
+
+    private void flushAll() {
+        memberDirectory.evictAll();
+        typeaheadIndex.evictAll();
+        tokenRevocations.reloadAll();
+        affinityKeys.evictAllTasks();
+        accessibleProjects.evictAll();
+        flushCounter.increment();
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
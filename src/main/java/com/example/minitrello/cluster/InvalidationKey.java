@@ -0,0 +1,21 @@
+package com.example.minitrello.cluster;
+
+/**
+ * One cache entry to invalidate, written in messages as the region code followed by the id, e.g. "m42".
+ *
+ * @param region the cache holding the entry
+ * @param id the project or user id the entry is keyed by
+ */
+public record InvalidationKey(CacheRegion region, long id) {
+
+    public static InvalidationKey parse(String text) {
+        if (text.length() < 2) {
+            throw new IllegalArgumentException("Invalid invalidation key: " + text);
+        }
+        return new InvalidationKey(CacheRegion.fromCode(text.charAt(0)), Long.parseLong(text.substring(1)));
+    }
+
+    public String encode() {
+        return region.getCode() + Long.toString(id);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.minitrello.cluster;
+
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.ProjectChangedEvent;
+import com.example.minitrello.event.ProjectMembershipChangedEvent;
+import com.example.minitrello.event.TaskChangedEvent;
+import com.example.minitrello.event.TaskListChangedEvent;
+import com.example.minitrello.event.TasksArchivedEvent;
+import com.example.minitrello.event.TokensRevokedEvent;
+import com.example.minitrello.event.UserChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Translates domain events into invalidations for the caches of other instances. The local caches
+ * update themselves from the same events; this only tells the rest of the cluster. Listeners run
+ * inside the publishing transaction so the invalidations are sent if and only if it commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class InvalidationRecorder {
+
+    private final InvalidationBus invalidationBus;
+
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.getPreviousProjectId() != null && !event.getPreviousProjectId().equals(event.getProjectId())) {
+            invalidationBus.publish(new InvalidationKey(CacheRegion.PROJECT_TITLES, event.getPreviousProjectId()));
+            invalidationBus.publish(new InvalidationKey(CacheRegion.PROJECT_TITLES, event.getProjectId()));
+            invalidationBus.publish(new InvalidationKey(CacheRegion.TASK_PROJECT, event.getTaskId()));
+            return;
+        }
+        // Moves within the project, reassignments and edits that keep the title leave the cached titles as they are
+        boolean titleChanged = switch (event.getType()) {
+            case UPDATED -> !Objects.equals(event.getPreviousTitle(), event.getTitle());
+            case MOVED -> false;
+            default -> true;
+        };
+        if (titleChanged) {
+            invalidationBus.publish(new InvalidationKey(CacheRegion.PROJECT_TITLES, event.getProjectId()));
+        }
+    }
+
+    @EventListener
+    public void onTaskListChanged(TaskListChangedEvent event) {
+        // Only deleting, archiving or restoring a list affects cached titles (its tasks go or come with it)
+        if (event.getType() == ChangeType.DELETED || event.getType() == ChangeType.ARCHIVED
+                || event.getType() == ChangeType.RESTORED) {
+            invalidationBus.publish(new InvalidationKey(CacheRegion.PROJECT_TITLES, event.getProjectId()));
+        }
+    }
+
+    @EventListener
+    public void onTasksArchived(TasksArchivedEvent event) {
+        invalidationBus.publish(new InvalidationKey(CacheRegion.PROJECT_TITLES, event.getProjectId()));
+    }
+
+    @EventListener
+    public void onProjectChanged(ProjectChangedEvent event) {
+        invalidationBus.publish(new InvalidationKey(CacheRegion.PROJECT_TITLES, event.getProjectId()));
+        if (event.getType() == ChangeType.DELETED) {
+            invalidationBus.publish(new InvalidationKey(CacheRegion.PROJECT_MEMBERS, event.getProjectId()));
+        }
+        if (event.getType() != ChangeType.UPDATED) {
+            invalidationBus.publish(new InvalidationKey(CacheRegion.PROJECT_ACCESS, event.getProjectId()));
+        }
+    }
+
+    @EventListener
+    public void onMembershipChanged(ProjectMembershipChangedEvent event) {
+        invalidationBus.publish(new InvalidationKey(CacheRegion.PROJECT_MEMBERS, event.getProjectId()));
+        invalidationBus.publish(new InvalidationKey(CacheRegion.ACCESSIBLE_PROJECTS, event.getUserId()));
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        invalidationBus.publish(new InvalidationKey(CacheRegion.USER, event.getUserId()));
+    }
+
+    @EventListener
+    public void onTokensRevoked(TokensRevokedEvent event) {
+        invalidationBus.publish(new InvalidationKey(CacheRegion.TOKEN_REVOCATIONS, event.getUserId()));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.minitrello.cluster;
+
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.job.Job;
+import com.example.minitrello.repository.JobRepository;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sends downloads of job results to the instance that ran the job, which keeps the file. The request is
+ * forwarded in a single hop and authorized again there, and the file is streamed back. When that instance is gone
+ * or cannot be reached, the request is served here, where the result is not found.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.cluster.affinity", name = "enabled", havingValue = "true")
+@Slf4j
+public class JobResultFilter extends OncePerRequestFilter {
+
+    private static final Pattern JOB_RESULT = Pattern.compile("/api/jobs/(\\d+)/result");
+
+    private final ClusterMembership clusterMembership;
+    private final AffinityForwarder affinityForwarder;
+    private final JobRepository jobRepository;
+    private final ShardRouting shardRouting;
+
+    public JobResultFilter(ClusterMembership clusterMembership,
+                           AffinityForwarder affinityForwarder,
+                           JobRepository jobRepository,
+                           ShardRouting shardRouting) {
+        this.clusterMembership = clusterMembership;
+        this.affinityForwarder = affinityForwarder;
+        this.jobRepository = jobRepository;
+        this.shardRouting = shardRouting;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod())
+                || request.getHeader(AffinityForwarder.FORWARDED_BY_HEADER) != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Matcher matcher = JOB_RESULT.matcher(path);
+        ClusterNode runner = matcher.matches() ? runnerOf(matcher.group(1)) : null;
+        ClusterNode self = clusterMembership.self();
+        if (runner == null || runner.id().equals(self.id())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            // Results can be large, so they are passed on as they arrive rather than held in memory
+            affinityForwarder.stream(request, runner, self, response);
+        } catch (ResourceAccessException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            log.warn("Could not reach node {} for {}, serving it here: {}", runner.id(), path,
+                    e.getMostSpecificCause().toString());
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    /**
+     * The live instance that ran a job, or null if the job is unknown, has not run or ran on an instance that
+     * is gone.
+     */
+    private ClusterNode runnerOf(String digits) {
+        long jobId;
+        try {
+            jobId = Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (!shardRouting.isKnown(jobId)) {
+            return null;
+        }
+        try {
+            Optional<Job> job = shardRouting.read(shardRouting.shardOf(jobId), () -> jobRepository.findById(jobId));
+            String nodeId = job.map(Job::nodeId).orElse(null);
+            return clusterMembership.nodes().stream()
+                    .filter(node -> node.id().equals(nodeId))
+                    .findFirst()
+                    .orElse(null);
+        } catch (DataAccessException e) {
+            log.warn("Could not find where job {} ran, serving its result here: {}", jobId, e.getMessage());
+            return null;
+        }
+    }
+}
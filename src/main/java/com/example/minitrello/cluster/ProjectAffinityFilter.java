@@ -0,0 +1,214 @@
+package com.example.minitrello.cluster;
+
+import com.example.minitrello.exception.ApiErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Serves each project's requests on the instance that owns the project, so that the member directory and
+ * typeahead partition of a project are cached on one instance instead of on all of them.
+ * <p>
+ * Requests under {@code /api/projects/{id}}, {@code /api/tasklists} and {@code /api/tasks} that arrive at
+ * another instance are forwarded to the owner in a single hop. Every answer names the project and its owner in
+ * the {@code X-Affinity-Key} and {@code X-Affinity-Node} headers, and the instance that served it in
+ * {@code X-Served-By}, so that a load balancer can learn to send the next request for the project straight to
+ * its owner. Forwarded requests are always served where they arrive, even while the views of the two instances
+ * disagree, so a request never takes more than one hop.
+ * <p>
+ * When the owner cannot be reached the request is served locally, as long as it never reached the owner or only
+ * reads. A change that reached the owner but got no answer in time is answered with 502 instead of being carried
+ * out twice. Runs after the security filters, so
+ * requests without a valid token are turned away before they are forwarded.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.cluster.affinity", name = "enabled", havingValue = "true")
+@Slf4j
+public class ProjectAffinityFilter extends OncePerRequestFilter {
+
+    public static final String AFFINITY_KEY_HEADER = "X-Affinity-Key";
+    public static final String AFFINITY_NODE_HEADER = "X-Affinity-Node";
+    public static final String SERVED_BY_HEADER = "X-Served-By";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final ClusterMembership clusterMembership;
+    private final AffinityKeys affinityKeys;
+    private final AffinityForwarder affinityForwarder;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public ProjectAffinityFilter(ClusterMembership clusterMembership,
+                                 AffinityKeys affinityKeys,
+                                 AffinityForwarder affinityForwarder,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry) {
+        this.clusterMembership = clusterMembership;
+        this.affinityKeys = affinityKeys;
+        this.affinityForwarder = affinityForwarder;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!affinityKeys.isCandidate(path)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // The body is read here, to find the project of new lists and tasks and to forward it, and replayed
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request, request.getInputStream().readAllBytes());
+        Long projectId = projectOf(cachedRequest, path);
+        if (projectId == null) {
+            filterChain.doFilter(cachedRequest, response);
+            return;
+        }
+
+        ClusterNode self = clusterMembership.self();
+        ClusterNode owner = clusterMembership.ownerOf(projectId);
+        if (owner == null || owner.id().equals(self.id())) {
+            serveLocally(cachedRequest, response, filterChain, projectId, self, "local");
+            return;
+        }
+        if (request.getHeader(AffinityForwarder.FORWARDED_BY_HEADER) != null) {
+            // Our view differs from the forwarder's; serving here keeps it to one hop
+            serveLocally(cachedRequest, response, filterChain, projectId, owner, "received");
+            return;
+        }
+
+        try {
+            affinityForwarder.forward(cachedRequest, cachedRequest.body, owner, self, response);
+            count("forwarded");
+        } catch (ResourceAccessException e) {
+            if (!AffinityForwarder.neverArrived(e) && !READ_METHODS.contains(request.getMethod())) {
+                log.warn("Node {} did not answer {} {} in time: {}", owner.id(), request.getMethod(), path,
+                        e.getMostSpecificCause().toString());
+                count("failed");
+                badGateway(request, response, owner);
+                return;
+            }
+            log.warn("Could not reach node {} for project {}, serving {} {} here: {}",
+                    owner.id(), projectId, request.getMethod(), path, e.getMostSpecificCause().toString());
+            serveLocally(cachedRequest, response, filterChain, projectId, owner, "fallback");
+        }
+    }
+
+    private Long projectOf(CachedBodyRequest request, String path) {
+        try {
+            return affinityKeys.projectOf(request.getMethod(), path, request.body);
+        } catch (DataAccessException e) {
+            log.warn("Could not find the project of {} {}, serving it here: {}", request.getMethod(), path, e.getMessage());
+            return null;
+        }
+    }
+
+    private void serveLocally(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                              long projectId, ClusterNode owner, String outcome) throws ServletException, IOException {
+        response.setHeader(AFFINITY_KEY_HEADER, String.valueOf(projectId));
+        response.setHeader(AFFINITY_NODE_HEADER, owner.id());
+        response.setHeader(SERVED_BY_HEADER, clusterMembership.self().id());
+        count(outcome);
+        filterChain.doFilter(request, response);
+    }
+
+    private void badGateway(HttpServletRequest request, HttpServletResponse response, ClusterNode owner)
+            throws IOException {
+        ApiErrorResponse apiError = ApiErrorResponse.builder()
+                .status(HttpStatus.BAD_GATEWAY)
+                .statusCode(HttpStatus.BAD_GATEWAY.value())
+                .message("The instance serving this project (" + owner.id() + ") did not answer; the request may "
+                        + "or may not have been carried out")
+                .path(request.getRequestURI())
+                .timestamp(LocalDateTime.now())
+                .build();
+        response.setStatus(HttpStatus.BAD_GATEWAY.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), apiError);
+    }
+
+    private void count(String outcome) {
+        Counter.builder("cluster.affinity.requests")
+                .description("Project requests by where they were served")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * A request whose body has been read, handing the same bytes to whoever reads it next.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("The body has already been read");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
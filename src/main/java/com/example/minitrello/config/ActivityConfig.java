@@ -0,0 +1,30 @@
+package com.example.minitrello.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.activity")
+@Data
+public class ActivityConfig {
+    /**
+     * Maximum number of entries waiting to be written; entries beyond this are dropped.
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * Maximum number of entries written per batch insert.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Number of monthly partitions kept, including the current month.
+     */
+    private int retentionMonths = 12;
+
+    /**
+     * Number of future monthly partitions created ahead of time.
+     */
+    private int partitionsAhead = 2;
+}
@@ -0,0 +1,65 @@
+package com.example.minitrello.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.cluster.affinity")
+@Data
+public class AffinityConfig {
+    /**
+     * Whether project requests are routed to the instance that owns the project. Only useful when more than one
+     * instance runs.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Base URL under which the other instances reach this one. Defaults to {@code http://localhost:<server.port>}.
+     */
+    private String advertisedUrl;
+
+    /**
+     * Name of this instance in the cluster and in response headers. Defaults to the host and port of the
+     * advertised URL.
+     */
+    private String nodeId;
+
+    /**
+     * How often an instance records that it is alive and reads which other instances are.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(2);
+
+    /**
+     * An instance that has not recorded a heartbeat for this long is left out of the cluster.
+     */
+    private Duration nodeTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Points per instance on the hash ring; more points spread projects more evenly.
+     */
+    private int virtualNodes = 128;
+
+    /**
+     * Time allowed for connecting to the owning instance before the request is served locally.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Time allowed for the owning instance to answer a forwarded request.
+     */
+    private Duration forwardTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Time allowed for a job result to be downloaded from the instance that ran the job, including streaming it
+     * through.
+     */
+    private Duration downloadTimeout = Duration.ofMinutes(10);
+
+    /**
+     * Number of task and task list ids whose project is remembered for routing.
+     */
+    private int maxCachedKeys = 100_000;
+}
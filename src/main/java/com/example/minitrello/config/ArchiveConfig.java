@@ -0,0 +1,20 @@
+package com.example.minitrello.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.archive")
+@Data
+public class ArchiveConfig {
+    /**
+     * Maximum number of tasks moved to the archive by one chunk of an archive job, each committed on its own.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Maximum number of task lists the periodic check for tasks due under an archiving policy queues per run.
+     */
+    private int scanLimit = 100;
+}
@@ -0,0 +1,79 @@
+package com.example.minitrello.config;
+
+import com.example.minitrello.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Data sources for read-replica routing. Only active when {@code app.read-replicas.enabled} is set;
+ * otherwise Spring Boot configures the single primary pool as usual. Sharding brings its own data sources
+ * and refuses to start together with replicas, see {@link ShardDataSourceConfig}.
+ */
+@Configuration
+@ConditionalOnExpression("${app.read-replicas.enabled:false} && !${app.shards.enabled:false}")
+public class DataSourceConfig {
+
+    private static final Duration REPLICA_CONNECTION_TIMEOUT = Duration.ofSeconds(2);
+
+    /**
+     * The primary pool, configured through the usual {@code spring.datasource.*} properties.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             ReadReplicaConfig readReplicaConfig,
+                                                             MeterRegistry meterRegistry) {
+        if (readReplicaConfig.getUrls().isEmpty()) {
+            throw new IllegalStateException("app.read-replicas.enabled is set but no app.read-replicas.urls are configured");
+        }
+        String username = readReplicaConfig.getUsername() != null
+                ? readReplicaConfig.getUsername() : dataSourceProperties.determineUsername();
+        String password = readReplicaConfig.getPassword() != null
+                ? readReplicaConfig.getPassword() : dataSourceProperties.determinePassword();
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < readReplicaConfig.getUrls().size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(readReplicaConfig.getUrls().get(i));
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(readReplicaConfig.getPoolSize());
+            replica.setConnectionTimeout(REPLICA_CONNECTION_TIMEOUT.toMillis());
+            replica.setReadOnly(true);
+            // Start even if the replica is down; the health check takes it into rotation later
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricRegistry(meterRegistry);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readReplicaConfig, meterRegistry);
+    }
+
+    /**
+     * The data source used by JPA, Flyway and JDBC. Defers fetching a connection until the first statement
+     * so the routing sees whether the surrounding transaction is read-only.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.minitrello.config;
+
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands every {@link Integrator} bean to Hibernate. Hibernate takes a single integrator provider, so features
+ * that need one (tracing, query counting) declare their integrator as a bean instead of setting the provider.
+ */
+@Component
+public class HibernateIntegratorsCustomizer implements HibernatePropertiesCustomizer {
+
+    // EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER, which lives in an internal package
+    private static final String INTEGRATOR_PROVIDER = "hibernate.integrator_provider";
+
+    private final ObjectProvider<Integrator> integrators;
+
+    public HibernateIntegratorsCustomizer(ObjectProvider<Integrator> integrators) {
+        this.integrators = integrators;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        List<Integrator> all = integrators.orderedStream().toList();
+        if (!all.isEmpty()) {
+            hibernateProperties.put(INTEGRATOR_PROVIDER, (IntegratorProvider) () -> all);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.minitrello.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.cluster.invalidation")
+@Data
+public class InvalidationConfig {
+    /**
+     * Whether in-memory caches are invalidated across instances. Only needed when more than one instance runs.
+     */
+    private boolean enabled = false;
+
+    /**
+     * PostgreSQL notification channel shared by all instances.
+     */
+    private String channel = "cache_invalidation";
+
+    /**
+     * How long to keep collecting notifications after the first one before applying them together.
+     */
+    private Duration coalesceWindow = Duration.ofMillis(50);
+
+    /**
+     * Delay between attempts to re-establish the listening connection.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+}
@@ -0,0 +1,64 @@
+package com.example.minitrello.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.jobs")
+@Data
+public class JobConfig {
+    /**
+     * Number of jobs run at the same time on this node.
+     */
+    private int workers = 2;
+
+    /**
+     * Number of jobs of one user run at the same time, so that one user's jobs cannot take every worker.
+     * System jobs count as one user.
+     */
+    private int maxRunningPerUser = 1;
+
+    /**
+     * How long a job runs before it goes back to the queue, letting jobs of higher priority or of other
+     * users run. The job resumes from its checkpoint when it is picked again.
+     */
+    private Duration timeSlice = Duration.ofSeconds(10);
+
+    /**
+     * Number of attempts a job gets. Each failed chunk uses one, after which the job resumes from its last
+     * committed chunk.
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * Delay before a failed chunk is retried, doubled with every attempt.
+     */
+    private Duration retryBackoff = Duration.ofSeconds(30);
+
+    /**
+     * How long the jobs of an instance stay with it without being renewed. A job stays with the instance that
+     * started it, which renews the lease every {@code app.jobs.lease-renew-interval-ms}; the jobs of an instance
+     * that stopped renewing are handed to the others after this.
+     */
+    private Duration lease = Duration.ofMinutes(1);
+
+    /**
+     * How long finished jobs, and the files they produced, are kept.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Directory the files produced by jobs, such as project exports, are written to. Absolute, so that it does
+     * not depend on the directory the application is started from; set it to a data volume in production.
+     */
+    private Path resultDirectory = Path.of(System.getProperty("java.io.tmpdir"), "mini-trello", "job-results");
+
+    /**
+     * Number of tasks written per chunk of a project export.
+     */
+    private int exportBatchSize = 500;
+}
@@ -0,0 +1,80 @@
+package com.example.minitrello.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Fast-start profile: defers beans that no request on the hot path needs (OpenAPI documentation, the admin
+ * endpoints and their services) until first use, instead of making the whole context lazy.
+ * Scheduled jobs, listeners and filters stay eager, so behaviour after startup is unchanged.
+ * <p>
+ * The deferred beans are listed in {@code app.lazy-init.deferred} as class names or package prefixes,
+ * matched against the bean class or, for {@code @Bean} methods, the declaring configuration class.
+ */
+@Configuration
+@Profile("fast-start")
+public class LazyInitializationConfig {
+
+    /**
+     * Marks the configured bean definitions lazy. Static and bound directly from the environment because
+     * it runs before configuration properties beans exist.
+     *
+     * @param environment the application environment
+     * @return the post-processor
+     */
+    @Bean
+    public static BeanFactoryPostProcessor deferredBeansPostProcessor(Environment environment) {
+        List<String> deferred = Binder.get(environment)
+                .bind("app.lazy-init.deferred", Bindable.listOf(String.class))
+                .orElse(List.of());
+        return new DeferredBeansPostProcessor(deferred);
+    }
+
+    @Slf4j
+    static class DeferredBeansPostProcessor implements BeanFactoryPostProcessor {
+
+        private final List<String> deferred;
+
+        DeferredBeansPostProcessor(List<String> deferred) {
+            this.deferred = deferred;
+        }
+
+        @Override
+        public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+            int count = 0;
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (!definition.isLazyInit() && isDeferred(sourceClassName(definition))) {
+                    definition.setLazyInit(true);
+                    count++;
+                }
+            }
+            log.info("Deferred initialization of {} beans until first use", count);
+        }
+
+        private boolean isDeferred(String className) {
+            return className != null && deferred.stream().anyMatch(className::startsWith);
+        }
+
+        /**
+         * The bean class, or the declaring class for beans created by a factory method.
+         */
+        private static String sourceClassName(BeanDefinition definition) {
+            if (definition instanceof AnnotatedBeanDefinition annotated && annotated.getFactoryMethodMetadata() != null) {
+                return annotated.getFactoryMethodMetadata().getDeclaringClassName();
+            }
+            return definition.getBeanClassName();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.minitrello.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.login-admission")
+@Data
+public class LoginAdmissionConfig {
+    /**
+     * Whether login and registration attempts are rate limited per client address and per account.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Attempts a client address can make in a burst on the login and register endpoints.
+     */
+    private int addressBurst = 30;
+
+    /**
+     * Rate at which a client address regains attempts.
+     */
+    private int addressPerMinute = 30;
+
+    /**
+     * Login attempts an account can receive in a burst, from any address.
+     */
+    private int accountBurst = 10;
+
+    /**
+     * Rate at which an account regains login attempts.
+     */
+    private int accountPerMinute = 5;
+}
@@ -0,0 +1,16 @@
+package com.example.minitrello.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.metrics")
+@Data
+public class MetricsConfig {
+    /**
+     * Static bearer token that lets a Prometheus server read {@code /actuator/prometheus} without a user account.
+     * The scrape is for admins only when not set.
+     */
+    private String scrapeToken;
+}
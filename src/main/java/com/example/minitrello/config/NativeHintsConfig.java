@@ -0,0 +1,83 @@
+package com.example.minitrello.config;
+
+import com.example.minitrello.exception.ApiErrorResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.util.ClassUtils;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Hints for the native image that Spring's AOT processing cannot infer from the bean definitions.
+ * Only used when building with {@code -Pnative}; on the JVM the registrar is never called.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.MiniTrelloRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class MiniTrelloRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final String BASE_PACKAGE = "com.example.minitrello";
+
+        // jjwt-api loads its implementation by name, and the codecs and JSON support through ServiceLoader
+        private static final List<String> JJWT_CLASSES = List.of(
+                "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParser",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.impl.DefaultClaims",
+                "io.jsonwebtoken.impl.DefaultHeader",
+                "io.jsonwebtoken.impl.DefaultJwsHeader",
+                "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+                "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+                "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Request and response bodies, error responses and webhook event payloads are bound by Jackson
+            BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+            for (Class<?> type : scan(classLoader, "dto", "event")) {
+                bindingRegistrar.registerReflectionHints(hints.reflection(), type);
+            }
+            bindingRegistrar.registerReflectionHints(hints.reflection(), ApiErrorResponse.class);
+
+            // Entities are instantiated and populated by Hibernate; the mappers copy between them and the DTOs
+            for (Class<?> type : scan(classLoader, "model", "mapper")) {
+                hints.reflection().registerType(type, MemberCategory.values());
+            }
+
+            for (String className : JJWT_CLASSES) {
+                hints.reflection().registerType(TypeReference.of(className),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+            // Flyway finds its migrations by scanning the classpath location
+            hints.resources().registerPattern("db/migration/*.sql");
+
+            // OpenAPI document generated at build time, served by OpenApiSpecController in the prod profile
+            hints.resources().registerPattern("openapi/*");
+        }
+
+        private static Set<Class<?>> scan(ClassLoader classLoader, String... subPackages) {
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+            scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+            Set<Class<?>> types = new LinkedHashSet<>();
+            for (String subPackage : subPackages) {
+                for (BeanDefinition candidate : scanner.findCandidateComponents(BASE_PACKAGE + "." + subPackage)) {
+                    types.add(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+                }
+            }
+            return types;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.minitrello.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.password-hashing")
+@Data
+public class PasswordHashingConfig {
+    /**
+     * Threads hashing and verifying passwords. BCrypt is CPU bound, so more threads than cores only add latency.
+     */
+    private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Hashing requests waiting for a thread; further requests are refused with 429 instead of queueing.
+     */
+    private int queueCapacity = 32;
+
+    /**
+     * Retry-After sent when the queue is full.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
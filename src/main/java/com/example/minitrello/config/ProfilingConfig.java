@@ -0,0 +1,44 @@
+package com.example.minitrello.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.profiling")
+@Data
+public class ProfilingConfig {
+    /**
+     * Directory the JFR recordings are written to. Only recordings started by this application are kept there.
+     */
+    private Path directory = Path.of("recordings");
+
+    /**
+     * Maximum number of recording files kept; the oldest are deleted when a new recording starts.
+     */
+    private int maxRecordings = 5;
+
+    /**
+     * Maximum total size of the directory, counting the new recording at its maximum size.
+     */
+    private DataSize maxDirectorySize = DataSize.ofMegabytes(512);
+
+    /**
+     * Maximum size of a single recording; older data is discarded beyond it.
+     */
+    private DataSize maxRecordingSize = DataSize.ofMegabytes(100);
+
+    /**
+     * Duration of a recording when none is requested.
+     */
+    private Duration defaultDuration = Duration.ofMinutes(1);
+
+    /**
+     * Longest recording that can be requested; recordings stop on their own after it.
+     */
+    private Duration maxDuration = Duration.ofMinutes(10);
+}
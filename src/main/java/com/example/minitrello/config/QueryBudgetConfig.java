@@ -0,0 +1,33 @@
+package com.example.minitrello.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.query-budget")
+@Data
+public class QueryBudgetConfig {
+    /**
+     * Whether requests are counted, reported and checked against their budget. Enabled by the diagnostics profile.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Whether a request over its budget is answered with an error instead of only being logged.
+     */
+    private boolean failOnExceed = false;
+
+    /**
+     * Statement budget for endpoints without their own entry; no limit when not set.
+     */
+    private Integer defaultBudget;
+
+    /**
+     * Statement budgets keyed by method and route pattern, e.g. {@code [GET\ /api/projects/{projectId}]=5}.
+     */
+    private Map<String, Integer> budgets = new LinkedHashMap<>();
+}
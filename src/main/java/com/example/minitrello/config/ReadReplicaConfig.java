@@ -0,0 +1,46 @@
+package com.example.minitrello.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.read-replicas")
+@Data
+public class ReadReplicaConfig {
+    /**
+     * Whether read-only transactions are routed to the replicas below.
+     */
+    private boolean enabled = false;
+
+    /**
+     * JDBC URLs of the replicas.
+     */
+    private List<String> urls = new ArrayList<>();
+
+    /**
+     * Replica credentials; the primary's are used when not set.
+     */
+    private String username;
+
+    private String password;
+
+    /**
+     * Maximum connections per replica pool.
+     */
+    private int poolSize = 10;
+
+    /**
+     * Replicas further behind the primary than this are skipped until they catch up.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * How long after a user's own write their reads keep going to the primary.
+     */
+    private Duration stickyWindow = Duration.ofSeconds(5);
+}
@@ -0,0 +1,12 @@
+package com.example.minitrello.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled maintenance tasks such as activity log partition management.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
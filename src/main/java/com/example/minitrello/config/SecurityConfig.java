@@ -1,11 +1,16 @@
 package com.example.minitrello.config;
 
+import com.example.minitrello.security.BoundedPasswordEncoder;
 import com.example.minitrello.security.JwtAuthenticationEntryPoint;
 import com.example.minitrello.security.JwtAuthenticationFilter;
+import com.example.minitrello.security.ScrapeTokenFilter;
+import com.example.minitrello.security.TimedPasswordEncoder;
 import com.example.minitrello.service.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -28,6 +33,9 @@ public class SecurityConfig {
     private final UserDetailsServiceImpl userDetailsService;
     private final JwtAuthenticationEntryPoint unauthorizedHandler;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final ScrapeTokenFilter scrapeTokenFilter;
+    private final MeterRegistry meterRegistry;
+    private final PasswordHashingConfig passwordHashingConfig;
 
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
@@ -43,8 +51,17 @@ public class SecurityConfig {
     }
 
     @Bean
+    @Primary
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(hashingPasswordEncoder(), passwordHashingConfig, meterRegistry);
+    }
+
+    /**
+     * BCrypt hashing on the calling thread, for callers that bound their own concurrency (bulk user import).
+     */
+    @Bean
+    public TimedPasswordEncoder hashingPasswordEncoder() {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     @Bean
@@ -54,6 +71,9 @@ public class SecurityConfig {
                 .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Logging out revokes the caller's own tokens, so it needs a valid one
+                        .requestMatchers("/api/auth/logout", "/api/auth/logout-all").authenticated()
+
                         // Public endpoints
                         .requestMatchers("/api/auth/**").permitAll()
 
@@ -66,6 +86,12 @@ public class SecurityConfig {
                         .requestMatchers("/v3/api-docs/**").permitAll()
                         .requestMatchers("/webjars/**").permitAll()
 
+                        // Health checks are public; the Prometheus scrape also takes the static scrape token,
+                        // and the other metrics are for admins only
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/prometheus").hasAnyRole("ADMIN", "METRICS")
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                         // Admin endpoints
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
 
@@ -73,6 +99,8 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider())
+                // The scrape token is checked first, so the JWT filter does not try to parse it
+                .addFilterBefore(scrapeTokenFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
                 .build();
     }
@@ -0,0 +1,45 @@
+package com.example.minitrello.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.shards")
+@Data
+public class ShardConfig {
+    /**
+     * Whether projects are spread over the shards below. Shard 0 is the {@code spring.datasource} database.
+     */
+    private boolean enabled = false;
+
+    /**
+     * JDBC URLs of shards 1, 2, ... in order. A shard keeps its index for good: ids carry it.
+     */
+    private List<String> urls = new ArrayList<>();
+
+    /**
+     * Shard credentials; the primary's are used when not set.
+     */
+    private String username;
+
+    private String password;
+
+    /**
+     * Maximum connections per shard pool, for shards other than shard 0.
+     */
+    private int poolSize = 10;
+
+    /**
+     * The shards new projects are placed on, in turn. All shards when empty.
+     */
+    private List<Integer> placement = new ArrayList<>();
+
+    /**
+     * Threads that query the shards in parallel for cross-shard reads.
+     */
+    private int scatterThreads = 8;
+}
@@ -0,0 +1,112 @@
+package com.example.minitrello.config;
+
+import com.example.minitrello.datasource.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data sources for projects sharded over several databases. Only active when {@code app.shards.enabled} is
+ * set; see {@link com.example.minitrello.datasource.ShardRouting}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.shards", name = "enabled", havingValue = "true")
+public class ShardDataSourceConfig {
+
+    /**
+     * Shard 0, configured through the usual {@code spring.datasource.*} properties. It also holds the users.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource homeDataSource(DataSourceProperties dataSourceProperties,
+                                           ReadReplicaConfig readReplicaConfig) {
+        if (readReplicaConfig.isEnabled()) {
+            throw new IllegalStateException("app.shards.enabled and app.read-replicas.enabled cannot be combined");
+        }
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(HikariDataSource homeDataSource,
+                                                         DataSourceProperties dataSourceProperties,
+                                                         ShardConfig shardConfig,
+                                                         MeterRegistry meterRegistry) {
+        if (shardConfig.getUrls().isEmpty()) {
+            throw new IllegalStateException("app.shards.enabled is set but no app.shards.urls are configured");
+        }
+        String username = shardConfig.getUsername() != null
+                ? shardConfig.getUsername() : dataSourceProperties.determineUsername();
+        String password = shardConfig.getPassword() != null
+                ? shardConfig.getPassword() : dataSourceProperties.determinePassword();
+
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(homeDataSource);
+        for (int i = 0; i < shardConfig.getUrls().size(); i++) {
+            HikariDataSource shard = new HikariDataSource();
+            shard.setPoolName("shard-" + (i + 1));
+            shard.setJdbcUrl(shardConfig.getUrls().get(i));
+            shard.setUsername(username);
+            shard.setPassword(password);
+            shard.setMaximumPoolSize(shardConfig.getPoolSize());
+            shard.setMetricRegistry(meterRegistry);
+            shards.add(shard);
+        }
+        return new ShardRoutingDataSource(shards, meterRegistry);
+    }
+
+    /**
+     * The routed connections as a plain data source, which the JDBC observation wraps. It sits behind the lazy
+     * proxy below: the observation reads the metadata of every connection it hands out, which would fetch the
+     * connection at the start of the transaction, before the transaction is routed.
+     */
+    @Bean
+    public DataSource shardConnections(ShardRoutingDataSource shardRoutingDataSource) {
+        return new DelegatingDataSource(shardRoutingDataSource);
+    }
+
+    /**
+     * The data source used by JPA, Flyway and JDBC. Defers fetching a connection until the first statement
+     * so that a transaction can be routed to its shard first.
+     */
+    @Bean
+    @Primary
+    public DataSource shardedDataSource(@Qualifier("shardConnections") DataSource shardConnections) {
+        return new LazyConnectionDataSourceProxy(shardConnections);
+    }
+
+    /**
+     * Migrates every shard in turn, each with its index as the {@code shard_index} placeholder, which gives it
+     * its own range of ids.
+     */
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy(ShardRoutingDataSource shardRoutingDataSource) {
+        return flyway -> {
+            for (int shard = 0; shard < shardRoutingDataSource.size(); shard++) {
+                Map<String, String> placeholders = new HashMap<>(flyway.getConfiguration().getPlaceholders());
+                placeholders.put("shard_index", String.valueOf(shard));
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(shardRoutingDataSource.shard(shard))
+                        .placeholders(placeholders)
+                        .load()
+                        .migrate();
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.minitrello.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.soft-delete")
+@Data
+public class SoftDeleteConfig {
+    /**
+     * How long a deleted project or user can be restored. Rows are purged once this has passed.
+     */
+    private Duration restoreWindow = Duration.ofDays(7);
+
+    /**
+     * Maximum number of rows removed by one chunk of a purge job, each committed on its own.
+     */
+    private int purgeBatchSize = 1000;
+
+    /**
+     * Maximum number of projects and of users the periodic check for rows without a purge job queues per run.
+     */
+    private int purgeLimit = 20;
+}
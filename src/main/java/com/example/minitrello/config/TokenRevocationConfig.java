@@ -0,0 +1,22 @@
+package com.example.minitrello.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.token-revocation")
+@Data
+public class TokenRevocationConfig {
+    /**
+     * Number of individually revoked tokens (logouts) the bloom filter is sized for. The filter is resized
+     * to twice the live count on each prune, so this is a floor rather than a limit.
+     */
+    private int expectedTokens = 100_000;
+
+    /**
+     * Target false positive rate of the bloom filter. A false positive costs one hash lookup, never a
+     * wrongly rejected token.
+     */
+    private double falsePositiveRate = 0.001;
+}
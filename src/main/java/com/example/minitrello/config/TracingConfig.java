@@ -0,0 +1,25 @@
+package com.example.minitrello.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.tracing")
+@Data
+public class TracingConfig {
+    /**
+     * Where finished spans go without a collector: {@code none}, {@code logging} (one log line per span)
+     * or {@code file} (one JSON object per span, appended to {@link #file}).
+     * The share of traces recorded is set with {@code management.tracing.sampling.probability}.
+     */
+    private Exporter exporter = Exporter.NONE;
+
+    private Path file = Path.of("traces.jsonl");
+
+    public enum Exporter {
+        NONE, LOGGING, FILE
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.minitrello.config;
+
+import com.example.minitrello.tracing.JsonFileSpanExporter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Local span exporters, picked up by Spring Boot's OpenTelemetry tracer next to any collector exporter.
+ */
+@Configuration
+public class TracingExportConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.tracing", name = "exporter", havingValue = "logging")
+    public SpanExporter loggingSpanExporter() {
+        return LoggingSpanExporter.create();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.tracing", name = "exporter", havingValue = "file")
+    public SpanExporter jsonFileSpanExporter(TracingConfig tracingConfig, ObjectMapper objectMapper) throws IOException {
+        return new JsonFileSpanExporter(tracingConfig.getFile(), objectMapper);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.minitrello.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.user-import")
+@Data
+public class UserImportConfig {
+    /**
+     * Threads hashing the passwords of an import. They compete with logins for CPU, so the default leaves
+     * half of the cores to the rest of the application.
+     */
+    private int hashingParallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Rows hashed and inserted together; each batch is written with one COPY in its own transaction.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Largest number of rows accepted in one import.
+     */
+    private int maxRows = 100_000;
+
+    /**
+     * Row errors kept per import; further errors are only counted.
+     */
+    private int maxReportedErrors = 1000;
+
+    /**
+     * Finished imports kept for polling; older ones are forgotten.
+     */
+    private int retainedImports = 20;
+}
@@ -0,0 +1,61 @@
+package com.example.minitrello.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.webhooks")
+@Data
+public class WebhookConfig {
+    /**
+     * Whether this instance dispatches outbox rows. Outbox rows are written regardless.
+     */
+    private boolean dispatcherEnabled = true;
+
+    /**
+     * Maximum number of outbox rows of one subscription delivered per round.
+     */
+    private int claimBatchSize = 500;
+
+    /**
+     * Maximum number of events sent to a subscriber in one request.
+     */
+    private int maxEventsPerRequest = 100;
+
+    /**
+     * Number of attempts after which an event is given up on.
+     */
+    private int maxAttempts = 10;
+
+    /**
+     * Delay before the first retry; doubled on every further attempt up to {@link #maxBackoff}.
+     */
+    private Duration initialBackoff = Duration.ofSeconds(5);
+
+    private Duration maxBackoff = Duration.ofHours(1);
+
+    /**
+     * How long a claimed subscription stays invisible to other dispatchers. Must cover the delivery of a full round.
+     */
+    private Duration lease = Duration.ofMinutes(1);
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Number of subscribers delivered to in parallel, and claimed per round.
+     */
+    private int deliveryThreads = 4;
+
+    /**
+     * Hosts that webhooks may be sent to although they resolve to a loopback, private or link-local address, such
+     * as a receiver on the internal network. Webhooks to any other such address are refused.
+     */
+    private List<String> allowedHosts = new ArrayList<>();
+}
@@ -1,8 +1,19 @@
 package com.example.minitrello.controller;
 
+import com.example.minitrello.dto.activity.ActivityDto;
+import com.example.minitrello.dto.common.KeysetPageDto;
+import com.example.minitrello.dto.profiling.RecordingDto;
+import com.example.minitrello.dto.profiling.RecordingStartDto;
+import com.example.minitrello.dto.profiling.RecordingSummaryDto;
 import com.example.minitrello.dto.user.UserDto;
+import com.example.minitrello.dto.user.UserImportDto;
+import com.example.minitrello.dto.user.UserImportRow;
 import com.example.minitrello.dto.user.UserRoleUpdateDto;
+import com.example.minitrello.service.interfaces.ActivityService;
 import com.example.minitrello.service.interfaces.AdminService;
+import com.example.minitrello.service.interfaces.ProfilingService;
+import com.example.minitrello.service.interfaces.UserImportService;
+import com.example.minitrello.service.interfaces.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,15 +25,27 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+
 /**
  * Controller for admin-only operations.
- * Provides APIs for user management tasks that require administrative privileges.
+ * Provides APIs for user management tasks that require administrative privileges,
+ * bulk user provisioning, and on-demand JFR profiling of the node serving the request.
  * Only handles DTOs for request/response, never entities.
  */
 @RestController
@@ -30,11 +53,15 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 @Slf4j
 @PreAuthorize("hasRole('ADMIN')")
-@Tag(name = "Admin", description = "Admin-only APIs for user management")
+@Tag(name = "Admin", description = "Admin-only APIs for user management and profiling")
 @SecurityRequirement(name = "bearerAuth")
 public class AdminController {
 
     private final AdminService adminService;
+    private final ProfilingService profilingService;
+    private final UserImportService userImportService;
+    private final UserService userService;
+    private final ActivityService activityService;
 
     /**
      * Retrieves detailed information about all users with pagination.
@@ -128,4 +155,261 @@ public class AdminController {
         UserDto enabledUser = adminService.enableUser(userId);
         return ResponseEntity.ok(enabledUser);
     }
-}
\ No newline at end of file
+
+    /**
+     * Deletes a user account together with the projects it owns. The account can be restored
+     * until the restore window has passed.
+     *
+     * @param userId ID of the user to delete
+     * @return ResponseEntity with no content if successful
+     */
+    @DeleteMapping("/users/{userId}")
+    @Operation(summary = "Delete user", description = "Deletes a user account and the projects it owns (admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "User deleted successfully"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<Void> deleteUser(
+            @Parameter(description = "User ID", required = true) @PathVariable Long userId) {
+        log.info("Admin deleting user ID: {}", userId);
+        boolean deleted = userService.deleteUser(userId);
+        return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Restores a deleted user account together with the projects deleted with it.
+     *
+     * @param userId ID of the deleted user
+     * @return ResponseEntity containing the restored user DTO
+     */
+    @PostMapping("/users/{userId}/restore")
+    @Operation(summary = "Restore user",
+            description = "Restores a deleted user account and its projects within the restore window (admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "User restored successfully",
+                    content = @Content(schema = @Schema(implementation = UserDto.class))),
+            @ApiResponse(responseCode = "400", ref = "BadRequest"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<UserDto> restoreUser(
+            @Parameter(description = "User ID", required = true) @PathVariable Long userId) {
+        log.info("Admin restoring user ID: {}", userId);
+        UserDto restoredUser = userService.restoreUser(userId);
+        return ResponseEntity.ok(restoredUser);
+    }
+
+    /**
+     * Retrieves the account-level activity feed, newest first: role changes, disables, enables, deletes and
+     * restores of users.
+     *
+     * @param cursor the cursor returned with the previous page
+     * @param size the maximum number of entries to return
+     * @return ResponseEntity containing a page of activity entries
+     */
+    @GetMapping("/activity")
+    @Operation(summary = "Get account activity", description = "Retrieves the changes made to users, paginated with a cursor (admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Activity retrieved successfully"),
+            @ApiResponse(responseCode = "400", ref = "BadRequest"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<KeysetPageDto<ActivityDto>> getAccountActivity(
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        log.debug("Admin fetching account activity");
+        return ResponseEntity.ok(activityService.getAccountActivity(cursor, size));
+    }
+
+    /**
+     * Starts a bulk import of users from a CSV or NDJSON body.
+     *
+     * @param contentType text/csv or application/x-ndjson, optionally with a charset
+     * @param body the users, streamed
+     * @return ResponseEntity containing the started import, with the location to poll for its progress
+     */
+    @PostMapping(value = "/users/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Import users", description = "Creates users in bulk from CSV (header email,name,password,role) "
+            + "or NDJSON with the same fields (admin only). Invalid rows are reported at once; the rest are hashed and "
+            + "written in the background on this node, whose progress is polled. Only one import runs at a time")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true, content = {
+            @Content(mediaType = "text/csv", schema = @Schema(type = "string",
+                    example = "email,name,password,role\njane@example.com,Jane Doe,changeme123,USER")),
+            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                    schema = @Schema(implementation = UserImportRow.class))
+    })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Import started",
+                    content = @Content(schema = @Schema(implementation = UserImportDto.class))),
+            @ApiResponse(responseCode = "400", ref = "BadRequest"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<UserImportDto> importUsers(
+            @Parameter(hidden = true) @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @Parameter(hidden = true) InputStream body) {
+        log.info("Admin starting user import");
+        UserImportDto started = userImportService.startImport(body, MediaType.parseMediaType(contentType));
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/admin/users/imports/" + started.getId()))
+                .body(started);
+    }
+
+    /**
+     * Lists the user imports of this node.
+     *
+     * @return ResponseEntity containing the imports, newest first
+     */
+    @GetMapping("/users/imports")
+    @Operation(summary = "Get user imports", description = "Lists the bulk user imports started on this node (admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Imports retrieved successfully"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<List<UserImportDto>> getUserImports() {
+        return ResponseEntity.ok(userImportService.getImports());
+    }
+
+    /**
+     * Gets the progress of a user import.
+     *
+     * @param importId ID of the import
+     * @return ResponseEntity containing the import's progress and row errors
+     */
+    @GetMapping("/users/imports/{importId}")
+    @Operation(summary = "Get user import", description = "Returns the progress and row errors of a bulk user import (admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = UserImportDto.class))),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<UserImportDto> getUserImport(
+            @Parameter(description = "Import ID", required = true) @PathVariable Long importId) {
+        return ResponseEntity.ok(userImportService.getImport(importId));
+    }
+
+    /**
+     * Starts a JFR recording on this node.
+     *
+     * @param startDto the preset (CPU, ALLOCATION or LOCKS) and optional duration
+     * @return ResponseEntity containing the started recording
+     */
+    @PostMapping("/profiling/recordings")
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Start recording", description = "Starts a Java Flight Recorder recording on the node serving the request (admin only). Only one recording runs at a time")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Recording started",
+                    content = @Content(schema = @Schema(implementation = RecordingDto.class))),
+            @ApiResponse(responseCode = "400", ref = "BadRequest"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<RecordingDto> startRecording(@Valid @RequestBody RecordingStartDto startDto) {
+        log.info("Admin starting {} recording", startDto.getPreset());
+        RecordingDto recording = profilingService.startRecording(startDto);
+        return ResponseEntity.status(HttpStatus.CREATED).body(recording);
+    }
+
+    /**
+     * Lists the recordings of this node.
+     *
+     * @return ResponseEntity containing the recordings, newest first
+     */
+    @GetMapping("/profiling/recordings")
+    @Operation(summary = "Get recordings", description = "Lists the JFR recordings started on this node (admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Recordings retrieved successfully"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<List<RecordingDto>> getRecordings() {
+        return ResponseEntity.ok(profilingService.getRecordings());
+    }
+
+    /**
+     * Stops a running recording.
+     *
+     * @param recordingId ID of the recording
+     * @return ResponseEntity containing the stopped recording
+     */
+    @PostMapping("/profiling/recordings/{recordingId}/stop")
+    @Operation(summary = "Stop recording", description = "Stops a JFR recording and writes it to disk (admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Recording stopped",
+                    content = @Content(schema = @Schema(implementation = RecordingDto.class))),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<RecordingDto> stopRecording(
+            @Parameter(description = "Recording ID", required = true) @PathVariable Long recordingId) {
+        log.info("Admin stopping recording ID: {}", recordingId);
+        return ResponseEntity.ok(profilingService.stopRecording(recordingId));
+    }
+
+    /**
+     * Downloads a stopped recording for analysis in JDK Mission Control.
+     *
+     * @param recordingId ID of the recording
+     * @return ResponseEntity containing the .jfr file
+     */
+    @GetMapping("/profiling/recordings/{recordingId}/file")
+    @Operation(summary = "Download recording", description = "Downloads a stopped JFR recording (admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Recording file"),
+            @ApiResponse(responseCode = "400", ref = "BadRequest"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<Resource> downloadRecording(
+            @Parameter(description = "Recording ID", required = true) @PathVariable Long recordingId) {
+        Path file = profilingService.getRecordingFile(recordingId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(file));
+    }
+
+    /**
+     * Summarizes a stopped recording on the server.
+     *
+     * @param recordingId ID of the recording
+     * @param top maximum number of entries per list
+     * @return ResponseEntity containing the top hot methods, allocation sites and lock sites
+     */
+    @GetMapping("/profiling/recordings/{recordingId}/summary")
+    @Operation(summary = "Summarize recording", description = "Returns the top hot methods, allocation sites and lock sites of a stopped JFR recording (admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Summary created",
+                    content = @Content(schema = @Schema(implementation = RecordingSummaryDto.class))),
+            @ApiResponse(responseCode = "400", ref = "BadRequest"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<RecordingSummaryDto> summarizeRecording(
+            @Parameter(description = "Recording ID", required = true) @PathVariable Long recordingId,
+            @Parameter(description = "Maximum entries per list") @RequestParam(defaultValue = "20") int top) {
+        return ResponseEntity.ok(profilingService.summarizeRecording(recordingId, top));
+    }
+}
@@ -10,17 +10,19 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 /**
  * Controller for handling authentication-related endpoints.
- * Provides APIs for user registration and login.
+ * Provides APIs for user registration, login and logout.
  * Only handles DTOs for request/response, never entities.
  */
 @RestController
@@ -30,6 +32,8 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Authentication", description = "Authentication management APIs")
 public class AuthController {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     private final AuthService authService;
 
     /**
@@ -72,6 +76,48 @@ public class AuthController {
         return ResponseEntity.ok(loginResponse);
     }
 
+    /**
+     * Revokes the token used for this request.
+     *
+     * @param authorization the Authorization header carrying the bearer token
+     * @return ResponseEntity with no content
+     */
+    @PostMapping("/logout")
+    @Operation(summary = "Log out", description = "Revokes the bearer token used for this request",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Token revoked"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        log.info("Received logout request");
+        if (!authorization.startsWith(BEARER_PREFIX)) {
+            throw new IllegalArgumentException("Authorization header must carry a bearer token");
+        }
+        authService.logout(authorization.substring(BEARER_PREFIX.length()));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Revokes every token issued to the current user so far.
+     *
+     * @return ResponseEntity with no content
+     */
+    @PostMapping("/logout-all")
+    @Operation(summary = "Log out everywhere", description = "Revokes every token issued to the current user so far",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Tokens revoked"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<Void> logoutEverywhere() {
+        log.info("Received logout request for all sessions");
+        authService.logoutEverywhere();
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Validates a JWT token.
      *
@@ -0,0 +1,125 @@
+package com.example.minitrello.controller;
+
+import com.example.minitrello.dto.job.JobDto;
+import com.example.minitrello.service.interfaces.JobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Controller for background jobs.
+ * Provides APIs for polling the progress of long-running operations such as project exports and purges,
+ * cancelling them and downloading what they produced.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Jobs", description = "Background job progress APIs")
+@SecurityRequirement(name = "bearerAuth")
+public class JobController {
+
+    private final JobService jobService;
+
+    /**
+     * Lists the recent jobs of the current user.
+     *
+     * @return ResponseEntity containing the jobs, newest first
+     */
+    @GetMapping
+    @Operation(summary = "Get my jobs", description = "Lists the most recent background jobs run for the current user")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Jobs retrieved successfully"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<List<JobDto>> getJobs() {
+        return ResponseEntity.ok(jobService.getJobs());
+    }
+
+    /**
+     * Gets the progress of a job.
+     *
+     * @param jobId ID of the job
+     * @return ResponseEntity containing the job
+     */
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get job", description = "Returns the state and progress of a background job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = JobDto.class))),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<JobDto> getJob(
+            @Parameter(description = "Job ID", required = true) @PathVariable Long jobId) {
+        return ResponseEntity.ok(jobService.getJob(jobId));
+    }
+
+    /**
+     * Cancels a job.
+     *
+     * @param jobId ID of the job
+     * @return ResponseEntity containing the job after the request
+     */
+    @PostMapping("/{jobId}/cancel")
+    @Operation(summary = "Cancel job", description = "Cancels a queued job at once, or a running job after its current chunk")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cancellation requested",
+                    content = @Content(schema = @Schema(implementation = JobDto.class))),
+            @ApiResponse(responseCode = "400", ref = "BadRequest"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<JobDto> cancelJob(
+            @Parameter(description = "Job ID", required = true) @PathVariable Long jobId) {
+        log.info("Cancelling job ID: {}", jobId);
+        return ResponseEntity.ok(jobService.cancelJob(jobId));
+    }
+
+    /**
+     * Downloads the file a succeeded job produced, such as a project export.
+     *
+     * @param jobId ID of the job
+     * @return ResponseEntity containing the file
+     */
+    @GetMapping("/{jobId}/result")
+    @Operation(summary = "Download job result", description = "Downloads the file a succeeded job produced, such as a project export")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Result file"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<Resource> downloadJobResult(
+            @Parameter(description = "Job ID", required = true) @PathVariable Long jobId) {
+        Path file = jobService.getJobResult(jobId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(file));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.minitrello.controller;
+
+import com.example.minitrello.openapi.OpenApiSpecGenerator;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+/**
+ * Serves the OpenAPI document generated at build time ({@link OpenApiSpecGenerator}) when runtime scanning
+ * is disabled ({@code springdoc.api-docs.enabled=false}, as in the prod profile), on the same paths.
+ * The document only changes with a new build, so responses carry an ETag and may be cached.
+ */
+@RestController
+@Hidden
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", havingValue = "false")
+public class OpenApiSpecController {
+
+    private static final Duration MAX_AGE = Duration.ofHours(1);
+    private static final MediaType YAML = MediaType.parseMediaType("application/vnd.oai.openapi");
+
+    private final byte[] json;
+    private final byte[] yaml;
+    private final String jsonETag;
+    private final String yamlETag;
+
+    public OpenApiSpecController() throws IOException {
+        this.json = read(OpenApiSpecGenerator.JSON_RESOURCE);
+        this.yaml = read(OpenApiSpecGenerator.YAML_RESOURCE);
+        this.jsonETag = DigestUtils.md5DigestAsHex(json);
+        this.yamlETag = DigestUtils.md5DigestAsHex(yaml);
+    }
+
+    /**
+     * Returns the OpenAPI document as JSON.
+     *
+     * @return ResponseEntity containing the document
+     */
+    @GetMapping(value = "${springdoc.api-docs.path:/v3/api-docs}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getJson() {
+        return cached(json, jsonETag, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Returns the OpenAPI document as YAML.
+     *
+     * @return ResponseEntity containing the document
+     */
+    @GetMapping(value = "${springdoc.api-docs.path:/v3/api-docs}.yaml", produces = "application/vnd.oai.openapi")
+    public ResponseEntity<byte[]> getYaml() {
+        return cached(yaml, yamlETag, YAML);
+    }
+
+    private static ResponseEntity<byte[]> cached(byte[] body, String eTag, MediaType contentType) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(MAX_AGE).cachePublic())
+                .eTag(eTag)
+                .contentType(contentType)
+                .body(body);
+    }
+
+    private static byte[] read(String resource) throws IOException {
+        ClassPathResource file = new ClassPathResource(resource);
+        if (!file.exists()) {
+            throw new IllegalStateException(resource + " not found; it is generated in the process-classes phase of the Maven build");
+        }
+        try (InputStream in = file.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
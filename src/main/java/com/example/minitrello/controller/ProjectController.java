@@ -1,9 +1,22 @@
 package com.example.minitrello.controller;
 
+import com.example.minitrello.dto.activity.ActivityDto;
+import com.example.minitrello.dto.common.KeysetPageDto;
+import com.example.minitrello.dto.job.JobDto;
+import com.example.minitrello.dto.project.DeletedProjectDto;
+import com.example.minitrello.dto.project.ProjectCloneDto;
 import com.example.minitrello.dto.project.ProjectCreateDto;
 import com.example.minitrello.dto.project.ProjectDto;
 import com.example.minitrello.dto.project.ProjectUpdateDto;
+import com.example.minitrello.dto.task.ArchivedTaskDto;
+import com.example.minitrello.dto.tasklist.ArchivedTaskListDto;
+import com.example.minitrello.dto.user.SimpleUserDto;
+import com.example.minitrello.dto.webhook.WebhookCreateDto;
+import com.example.minitrello.dto.webhook.WebhookDto;
+import com.example.minitrello.service.interfaces.ActivityService;
+import com.example.minitrello.service.interfaces.ArchiveService;
 import com.example.minitrello.service.interfaces.ProjectService;
+import com.example.minitrello.service.interfaces.WebhookService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -21,6 +34,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.List;
+
 /**
  * Controller for managing project-related operations.
  * Provides APIs for creating, fetching, updating, and deleting projects.
@@ -34,6 +50,9 @@ import org.springframework.web.bind.annotation.*;
 public class ProjectController {
 
     private final ProjectService projectService;
+    private final ActivityService activityService;
+    private final ArchiveService archiveService;
+    private final WebhookService webhookService;
 
     /**
      * Creates a new project.
@@ -99,6 +118,48 @@ public class ProjectController {
         return ResponseEntity.ok(projects);
     }
 
+    /**
+     * Retrieves the projects the current user has access to, most recently updated first.
+     *
+     * @param cursor the cursor returned with the previous page
+     * @param size the maximum number of projects to return
+     * @return ResponseEntity containing a page of project DTOs
+     */
+    @GetMapping("/recent")
+    @Operation(summary = "Get recently updated projects", description = "Retrieves the projects the current user has access to, most recently updated first, paginated with a cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Projects retrieved successfully"),
+            @ApiResponse(responseCode = "400", ref = "BadRequest"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<KeysetPageDto<ProjectDto>> getRecentProjects(
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        log.debug("Fetching recently updated projects");
+        KeysetPageDto<ProjectDto> projects = projectService.findRecentProjects(cursor, size);
+        return ResponseEntity.ok(projects);
+    }
+
+    /**
+     * Retrieves the templates the current user has access to.
+     *
+     * @param pageable pagination information
+     * @return ResponseEntity containing a page of project DTOs
+     */
+    @GetMapping("/templates")
+    @Operation(summary = "Get templates", description = "Retrieves the projects marked as templates that the current user has access to")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Templates retrieved successfully"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<Page<ProjectDto>> getTemplates(Pageable pageable) {
+        log.debug("Fetching templates with pagination");
+        Page<ProjectDto> templates = projectService.findAccessibleTemplates(pageable);
+        return ResponseEntity.ok(templates);
+    }
+
     /**
      * Retrieves all projects owned by the current user.
      *
@@ -118,6 +179,24 @@ public class ProjectController {
         return ResponseEntity.ok(projects);
     }
 
+    /**
+     * Retrieves the deleted projects of the current user that can still be restored.
+     *
+     * @return ResponseEntity containing the deleted projects, most recently deleted first
+     */
+    @GetMapping("/deleted")
+    @Operation(summary = "Get deleted projects",
+            description = "Retrieves the deleted projects of the current user that can still be restored")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Deleted projects retrieved successfully"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<List<DeletedProjectDto>> getDeletedProjects() {
+        log.debug("Fetching deleted projects");
+        return ResponseEntity.ok(projectService.findDeletedProjects());
+    }
+
     /**
      * Updates an existing project if the user has access.
      *
@@ -150,7 +229,8 @@ public class ProjectController {
      * @return ResponseEntity with no content if successful
      */
     @DeleteMapping("/{projectId}")
-    @Operation(summary = "Delete project", description = "Deletes a project if the user is the owner")
+    @Operation(summary = "Delete project",
+            description = "Deletes a project if the user is the owner; it can be restored until the restore window has passed")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Project deleted successfully"),
             @ApiResponse(responseCode = "401", ref = "Unauthorized"),
@@ -165,6 +245,262 @@ public class ProjectController {
         return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
 
+    /**
+     * Restores a deleted project within the restore window.
+     *
+     * @param projectId ID of the deleted project
+     * @return ResponseEntity containing the restored project DTO
+     */
+    @PostMapping("/{projectId}/restore")
+    @Operation(summary = "Restore project", description = "Restores a deleted project if the user is the owner")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Project restored successfully",
+                    content = @Content(schema = @Schema(implementation = ProjectDto.class))),
+            @ApiResponse(responseCode = "400", ref = "BadRequest"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<ProjectDto> restoreProject(
+            @Parameter(description = "Project ID", required = true) @PathVariable Long projectId) {
+        log.info("Restoring project with ID: {}", projectId);
+        ProjectDto restoredProject = projectService.restoreProject(projectId);
+        return ResponseEntity.ok(restoredProject);
+    }
+
+    /**
+     * Creates a project as a copy of another, typically a template.
+     *
+     * @param projectId ID of the project to clone
+     * @param cloneDto the DTO containing the options of the copy
+     * @return ResponseEntity containing the new project DTO, with the location of the full project
+     */
+    @PostMapping("/{projectId}/clone")
+    @Operation(summary = "Clone project", description = "Creates a project owned by the current user with a copy of "
+            + "the task lists and tasks of a project the user has access to, and optionally its members and task "
+            + "assignees. The response holds the member and task list counts; the new project is fetched for the rest")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Project cloned successfully",
+                    content = @Content(schema = @Schema(implementation = ProjectDto.class))),
+            @ApiResponse(responseCode = "400", ref = "BadRequest"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<ProjectDto> cloneProject(
+            @Parameter(description = "Project ID", required = true) @PathVariable Long projectId,
+            @Valid @RequestBody ProjectCloneDto cloneDto) {
+        log.info("Cloning project with ID: {}", projectId);
+        ProjectDto clonedProject = projectService.cloneProject(projectId, cloneDto);
+        return ResponseEntity.created(URI.create("/api/projects/" + clonedProject.getId()))
+                .body(clonedProject);
+    }
+
+    /**
+     * Starts an export of a project with its task lists and tasks.
+     *
+     * @param projectId ID of the project
+     * @return ResponseEntity containing the export job, with the location to poll for its progress
+     */
+    @PostMapping("/{projectId}/export")
+    @Operation(summary = "Export project", description = "Starts a background export of the project, its task lists "
+            + "and tasks to NDJSON if the user has access. The job's progress is polled and the file downloaded "
+            + "from /api/jobs once it has succeeded")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Export started",
+                    content = @Content(schema = @Schema(implementation = JobDto.class))),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<JobDto> exportProject(
+            @Parameter(description = "Project ID", required = true) @PathVariable Long projectId) {
+        log.info("Exporting project with ID: {}", projectId);
+        JobDto job = projectService.exportProject(projectId);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    /**
+     * Retrieves the activity feed of a project, newest first.
+     *
+     * @param projectId ID of the project
+     * @param cursor the cursor returned with the previous page
+     * @param size the maximum number of entries to return
+     * @return ResponseEntity containing a page of activity entries
+     */
+    @GetMapping("/{projectId}/activity")
+    @Operation(summary = "Get project activity", description = "Retrieves who created, moved, assigned or deleted what in a project, paginated with a cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Activity retrieved successfully"),
+            @ApiResponse(responseCode = "400", ref = "BadRequest"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<KeysetPageDto<ActivityDto>> getProjectActivity(
+            @Parameter(description = "Project ID", required = true) @PathVariable Long projectId,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        log.debug("Fetching activity for project ID: {}", projectId);
+        KeysetPageDto<ActivityDto> activity = activityService.getProjectActivity(projectId, cursor, size);
+        return ResponseEntity.ok(activity);
+    }
+
+    /**
+     * Retrieves the archived tasks of a project, most recently archived first.
+     *
+     * @param projectId ID of the project
+     * @param cursor the cursor returned with the previous page
+     * @param size the maximum number of tasks to return
+     * @return ResponseEntity containing a page of archived tasks
+     */
+    @GetMapping("/{projectId}/archive/tasks")
+    @Operation(summary = "Get archived tasks", description = "Retrieves the archived tasks of a project, most recently archived first, paginated with a cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Archived tasks retrieved successfully"),
+            @ApiResponse(responseCode = "400", ref = "BadRequest"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<KeysetPageDto<ArchivedTaskDto>> getArchivedTasks(
+            @Parameter(description = "Project ID", required = true) @PathVariable Long projectId,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        log.debug("Fetching archived tasks for project ID: {}", projectId);
+        KeysetPageDto<ArchivedTaskDto> tasks = archiveService.getArchivedTasks(projectId, cursor, size);
+        return ResponseEntity.ok(tasks);
+    }
+
+    /**
+     * Retrieves the archived task lists of a project, most recently archived first.
+     *
+     * @param projectId ID of the project
+     * @param cursor the cursor returned with the previous page
+     * @param size the maximum number of task lists to return
+     * @return ResponseEntity containing a page of archived task lists
+     */
+    @GetMapping("/{projectId}/archive/task-lists")
+    @Operation(summary = "Get archived task lists", description = "Retrieves the archived task lists of a project, most recently archived first, paginated with a cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Archived task lists retrieved successfully"),
+            @ApiResponse(responseCode = "400", ref = "BadRequest"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<KeysetPageDto<ArchivedTaskListDto>> getArchivedTaskLists(
+            @Parameter(description = "Project ID", required = true) @PathVariable Long projectId,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        log.debug("Fetching archived task lists for project ID: {}", projectId);
+        KeysetPageDto<ArchivedTaskListDto> taskLists = archiveService.getArchivedTaskLists(projectId, cursor, size);
+        return ResponseEntity.ok(taskLists);
+    }
+
+    /**
+     * Subscribes a URL to the changes of a project.
+     *
+     * @param projectId ID of the project
+     * @param createDto the DTO containing the URL and optional signing secret
+     * @return ResponseEntity containing the created subscription
+     */
+    @PostMapping("/{projectId}/webhooks")
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Create webhook", description = "Subscribes a URL to task, task list and project changes if the user is the owner. Events are delivered in batches")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Webhook created successfully",
+                    content = @Content(schema = @Schema(implementation = WebhookDto.class))),
+            @ApiResponse(responseCode = "400", ref = "BadRequest"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<WebhookDto> createWebhook(
+            @Parameter(description = "Project ID", required = true) @PathVariable Long projectId,
+            @Valid @RequestBody WebhookCreateDto createDto) {
+        log.info("Creating webhook for project ID: {}", projectId);
+        WebhookDto createdWebhook = webhookService.createWebhook(projectId, createDto);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdWebhook);
+    }
+
+    /**
+     * Retrieves the webhook subscriptions of a project.
+     *
+     * @param projectId ID of the project
+     * @return ResponseEntity containing the subscriptions
+     */
+    @GetMapping("/{projectId}/webhooks")
+    @Operation(summary = "Get webhooks", description = "Retrieves the webhook subscriptions of a project if the user is the owner")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Webhooks retrieved successfully"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<List<WebhookDto>> getWebhooks(
+            @Parameter(description = "Project ID", required = true) @PathVariable Long projectId) {
+        log.debug("Fetching webhooks for project ID: {}", projectId);
+        List<WebhookDto> webhooks = webhookService.findWebhooks(projectId);
+        return ResponseEntity.ok(webhooks);
+    }
+
+    /**
+     * Deletes a webhook subscription.
+     *
+     * @param projectId ID of the project
+     * @param webhookId ID of the subscription to delete
+     * @return ResponseEntity with no content if successful
+     */
+    @DeleteMapping("/{projectId}/webhooks/{webhookId}")
+    @Operation(summary = "Delete webhook", description = "Deletes a webhook subscription and discards its undelivered events if the user is the owner")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Webhook deleted successfully"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<Void> deleteWebhook(
+            @Parameter(description = "Project ID", required = true) @PathVariable Long projectId,
+            @Parameter(description = "Webhook ID", required = true) @PathVariable Long webhookId) {
+        log.info("Deleting webhook ID: {} of project ID: {}", webhookId, projectId);
+        boolean deleted = webhookService.deleteWebhook(projectId, webhookId);
+        return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Searches the members of a project by name or email prefix, e.g. for an assignee picker.
+     *
+     * @param projectId ID of the project
+     * @param q the prefix to search for
+     * @param limit the maximum number of members to return
+     * @return ResponseEntity containing the matching members
+     */
+    @GetMapping("/{projectId}/members/search")
+    @Operation(summary = "Search project members", description = "Finds members of a project whose name or email starts with the given text")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Members retrieved successfully"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<List<SimpleUserDto>> searchMembers(
+            @Parameter(description = "Project ID", required = true) @PathVariable Long projectId,
+            @Parameter(description = "Name or email prefix") @RequestParam(defaultValue = "") String q,
+            @Parameter(description = "Maximum number of members") @RequestParam(defaultValue = "10") int limit) {
+        log.debug("Searching members of project ID: {}", projectId);
+        List<SimpleUserDto> members = projectService.searchMembers(projectId, q, limit);
+        return ResponseEntity.ok(members);
+    }
+
     /**
      * Adds a user to a project if the current user has access.
      *
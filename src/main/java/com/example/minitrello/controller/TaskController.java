@@ -1,9 +1,13 @@
 package com.example.minitrello.controller;
 
+import com.example.minitrello.dto.common.KeysetPageDto;
+import com.example.minitrello.dto.task.ArchivedTaskDto;
 import com.example.minitrello.dto.task.TaskCreateDto;
 import com.example.minitrello.dto.task.TaskDto;
 import com.example.minitrello.dto.task.TaskMoveDto;
+import com.example.minitrello.dto.task.TaskSearchResultDto;
 import com.example.minitrello.dto.task.TaskUpdateDto;
+import com.example.minitrello.service.interfaces.ArchiveService;
 import com.example.minitrello.service.interfaces.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -35,6 +39,7 @@ import java.util.List;
 public class TaskController {
 
     private final TaskService taskService;
+    private final ArchiveService archiveService;
 
     /**
      * Creates a new task.
@@ -59,6 +64,31 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdTask);
     }
 
+    /**
+     * Full-text searches tasks across all projects the user has access to.
+     *
+     * @param q the search text
+     * @param cursor cursor returned with the previous page, if any
+     * @param size maximum number of results per page
+     * @return ResponseEntity containing a page of ranked search results
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Search tasks", description = "Full-text searches task titles and descriptions across all accessible projects")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search results retrieved successfully"),
+            @ApiResponse(responseCode = "400", ref = "BadRequest"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<KeysetPageDto<TaskSearchResultDto>> searchTasks(
+            @Parameter(description = "Search text", required = true) @RequestParam String q,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 50)") @RequestParam(defaultValue = "20") int size) {
+        log.debug("Searching tasks for query: {}", q);
+        KeysetPageDto<TaskSearchResultDto> results = taskService.searchTasks(q, cursor, size);
+        return ResponseEntity.ok(results);
+    }
+
     /**
      * Retrieves a specific task by ID if the user has access.
      *
@@ -173,4 +203,54 @@ public class TaskController {
         boolean deleted = taskService.deleteTask(taskId);
         return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Moves a task to the archive of its project.
+     *
+     * @param taskId ID of the task to archive
+     * @return ResponseEntity containing the archived task DTO
+     */
+    @PostMapping("/{taskId}/archive")
+    @Operation(summary = "Archive task", description = "Moves a task out of its list into the project's archive if "
+            + "the user has access")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Task archived successfully",
+                    content = @Content(schema = @Schema(implementation = ArchivedTaskDto.class))),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<ArchivedTaskDto> archiveTask(
+            @Parameter(description = "Task ID", required = true) @PathVariable Long taskId) {
+        log.info("Archiving task with ID: {}", taskId);
+        ArchivedTaskDto archivedTask = archiveService.archiveTask(taskId);
+        return ResponseEntity.ok(archivedTask);
+    }
+
+    /**
+     * Brings an archived task back to the end of its list.
+     *
+     * @param taskId ID of the archived task
+     * @return ResponseEntity containing the restored task DTO
+     */
+    @PostMapping("/{taskId}/restore")
+    @Operation(summary = "Restore task", description = "Restores an archived task to the end of its list if the user "
+            + "has access. A task whose list is archived as well is restored with the list")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Task restored successfully",
+                    content = @Content(schema = @Schema(implementation = TaskDto.class))),
+            @ApiResponse(responseCode = "400", ref = "BadRequest"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<TaskDto> restoreTask(
+            @Parameter(description = "Task ID", required = true) @PathVariable Long taskId) {
+        log.info("Restoring task with ID: {}", taskId);
+        TaskDto restoredTask = archiveService.restoreTask(taskId);
+        return ResponseEntity.ok(restoredTask);
+    }
+}
+
@@ -1,8 +1,10 @@
 package com.example.minitrello.controller;
 
+import com.example.minitrello.dto.tasklist.ArchivedTaskListDto;
 import com.example.minitrello.dto.tasklist.TaskListCreateDto;
 import com.example.minitrello.dto.tasklist.TaskListDto;
 import com.example.minitrello.dto.tasklist.TaskListUpdateDto;
+import com.example.minitrello.service.interfaces.ArchiveService;
 import com.example.minitrello.service.interfaces.TaskListService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -34,6 +36,7 @@ import java.util.List;
 public class TaskListController {
 
     private final TaskListService taskListService;
+    private final ArchiveService archiveService;
 
     /**
      * Creates a new task list.
@@ -147,4 +150,53 @@ public class TaskListController {
         boolean deleted = taskListService.deleteTaskList(taskListId);
         return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Moves a task list and its tasks to the archive.
+     *
+     * @param taskListId ID of the task list to archive
+     * @return ResponseEntity containing the archived task list DTO
+     */
+    @PostMapping("/{taskListId}/archive")
+    @Operation(summary = "Archive task list", description = "Moves a task list and all of its tasks out of the board "
+            + "into the project's archive if the user has access")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Task list archived successfully",
+                    content = @Content(schema = @Schema(implementation = ArchivedTaskListDto.class))),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<ArchivedTaskListDto> archiveTaskList(
+            @Parameter(description = "Task list ID", required = true) @PathVariable Long taskListId) {
+        log.info("Archiving task list with ID: {}", taskListId);
+        ArchivedTaskListDto archivedTaskList = archiveService.archiveTaskList(taskListId);
+        return ResponseEntity.ok(archivedTaskList);
+    }
+
+    /**
+     * Brings an archived task list back to the board with the tasks archived together with it.
+     *
+     * @param taskListId ID of the archived task list
+     * @return ResponseEntity containing the restored task list DTO
+     */
+    @PostMapping("/{taskListId}/restore")
+    @Operation(summary = "Restore task list", description = "Restores an archived task list to the end of the board, "
+            + "with the tasks that were archived together with it, if the user has access")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Task list restored successfully",
+                    content = @Content(schema = @Schema(implementation = TaskListDto.class))),
+            @ApiResponse(responseCode = "400", ref = "BadRequest"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "403", ref = "Forbidden"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<TaskListDto> restoreTaskList(
+            @Parameter(description = "Task list ID", required = true) @PathVariable Long taskListId) {
+        log.info("Restoring task list with ID: {}", taskListId);
+        TaskListDto restoredTaskList = archiveService.restoreTaskList(taskListId);
+        return ResponseEntity.ok(restoredTaskList);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.minitrello.controller;
+
+import com.example.minitrello.dto.search.SuggestionDto;
+import com.example.minitrello.service.interfaces.TypeaheadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller for the quick switcher.
+ * Provides instant title suggestions for projects and tasks.
+ */
+@RestController
+@RequestMapping("/api/typeahead")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Typeahead", description = "Instant title suggestion APIs")
+@SecurityRequirement(name = "bearerAuth")
+public class TypeaheadController {
+
+    private final TypeaheadService typeaheadService;
+
+    /**
+     * Suggests projects and tasks whose title contains the given text.
+     *
+     * @param q the text typed so far
+     * @param limit maximum number of suggestions
+     * @return ResponseEntity containing the suggestions, best matches first
+     */
+    @GetMapping
+    @Operation(summary = "Suggest titles", description = "Prefix and substring suggestions on project names and task titles")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<List<SuggestionDto>> suggest(
+            @Parameter(description = "Text typed so far", required = true) @RequestParam String q,
+            @Parameter(description = "Maximum number of suggestions (max 20)") @RequestParam(defaultValue = "10") int limit) {
+        log.debug("Suggesting titles for: {}", q);
+        return ResponseEntity.ok(typeaheadService.suggest(q, limit));
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.minitrello.controller;
 
+import com.example.minitrello.dto.common.KeysetPageDto;
+import com.example.minitrello.dto.task.AssignedTaskDto;
+import com.example.minitrello.dto.task.AssignedTaskSort;
 import com.example.minitrello.dto.user.UserDto;
 import com.example.minitrello.dto.user.UserUpdateDto;
 import com.example.minitrello.service.interfaces.AuthService;
+import com.example.minitrello.service.interfaces.TaskService;
 import com.example.minitrello.service.interfaces.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -36,6 +40,7 @@ public class UserController {
 
     private final UserService userService;
     private final AuthService authService;
+    private final TaskService taskService;
 
     /**
      * Retrieves the profile of the currently authenticated user.
@@ -79,6 +84,34 @@ public class UserController {
         return ResponseEntity.ok(updatedUser);
     }
 
+    /**
+     * Retrieves the tasks assigned to the currently authenticated user across all their projects.
+     *
+     * @param projectId optional project to restrict the results to
+     * @param sort the order of the results, either updatedAt or project
+     * @param cursor the cursor returned with the previous page
+     * @param size the maximum number of results to return
+     * @return ResponseEntity containing a page of assigned tasks
+     */
+    @GetMapping("/me/tasks")
+    @Operation(summary = "Get my tasks", description = "Retrieves the tasks assigned to the current user, paginated with a cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully"),
+            @ApiResponse(responseCode = "400", ref = "BadRequest"),
+            @ApiResponse(responseCode = "401", ref = "Unauthorized"),
+            @ApiResponse(responseCode = "500", ref = "ServerError")
+    })
+    public ResponseEntity<KeysetPageDto<AssignedTaskDto>> getMyTasks(
+            @Parameter(description = "Project ID to filter by") @RequestParam(required = false) Long projectId,
+            @Parameter(description = "Sort order: updatedAt or project") @RequestParam(defaultValue = "updatedAt") String sort,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        log.debug("Fetching tasks assigned to current user");
+        KeysetPageDto<AssignedTaskDto> tasks =
+                taskService.findMyTasks(projectId, AssignedTaskSort.fromParameter(sort), cursor, size);
+        return ResponseEntity.ok(tasks);
+    }
+
     /**
      * Retrieves a specific user by ID.
      * Only accessible to users with ADMIN role or the user themselves.
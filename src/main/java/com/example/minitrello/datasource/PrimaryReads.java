@@ -0,0 +1,59 @@
+package com.example.minitrello.datasource;
+
+import com.example.minitrello.config.ReadReplicaConfig;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs reads that must see the latest committed data on the primary, even when read replicas are enabled.
+ * Used when loading in-memory caches: a cache filled from a lagging replica right after an invalidation
+ * would keep the old data until the next change.
+ */
+@Component
+public class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> REQUESTED = new ThreadLocal<>();
+
+    private final TransactionTemplate transactionTemplate;
+    private final boolean replicasEnabled;
+
+    public PrimaryReads(PlatformTransactionManager transactionManager, ReadReplicaConfig readReplicaConfig) {
+        this.replicasEnabled = readReplicaConfig.isEnabled();
+        this.transactionTemplate = replicasEnabled ? new TransactionTemplate(transactionManager) : null;
+        if (transactionTemplate != null) {
+            // A connection already taken by the caller's transaction may point at a replica
+            transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            transactionTemplate.setReadOnly(true);
+        }
+    }
+
+    /**
+     * Runs the given reads in their own read-only transaction on the primary.
+     * Without replicas they simply run in the caller's context.
+     *
+     * @param reads the reads to run
+     * @return the result of the reads
+     */
+    public <T> T call(Supplier<T> reads) {
+        if (!replicasEnabled) {
+            return reads.get();
+        }
+        Boolean previous = REQUESTED.get();
+        REQUESTED.set(Boolean.TRUE);
+        try {
+            return transactionTemplate.execute(status -> reads.get());
+        } finally {
+            if (previous == null) {
+                REQUESTED.remove();
+            }
+        }
+    }
+
+    static boolean isRequested() {
+        return REQUESTED.get() != null;
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.minitrello.datasource;
+
+import com.example.minitrello.config.ReadReplicaConfig;
+import com.example.minitrello.security.UserDetailsImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections for read-only transactions from a pool of replicas and everything else from
+ * the primary. It is meant to sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the connection is only fetched once the transaction, and with it its read-only flag, has begun.
+ * <p>
+ * Replicas are checked periodically and skipped while unreachable or lagging more than the configured
+ * maximum. Reads fall back to the primary when no replica qualifies. After a user's own read-write
+ * transaction, that user's reads stay on the primary for a short window so they see their change.
+ * The window is tracked per instance.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    // Zero when the replica has replayed everything it received or is not in recovery (a stand-in)
+    static final String LAG_QUERY = "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final long stickyWindowNanos;
+    private final Map<Long, Long> stickyUntil = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private final Counter replicaCounter;
+    private final Counter stickyCounter;
+    private final Counter fallbackCounter;
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    Map<String, DataSource> replicas,
+                                    ReadReplicaConfig readReplicaConfig,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream()
+                .map(entry -> new Replica(entry.getKey(), entry.getValue()))
+                .toList();
+        this.maxLagMillis = readReplicaConfig.getMaxLag().toMillis();
+        this.stickyWindowNanos = readReplicaConfig.getStickyWindow().toNanos();
+
+        this.replicaCounter = routingCounter(meterRegistry, "replica");
+        this.stickyCounter = routingCounter(meterRegistry, "primary_sticky");
+        this.fallbackCounter = routingCounter(meterRegistry, "primary_fallback");
+        for (Replica replica : this.replicas) {
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("Whether the replica currently receives reads")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+            TimeGauge.builder("datasource.replica.lag", replica, TimeUnit.MILLISECONDS, r -> r.lagMillis)
+                    .description("Replication lag measured by the last health check")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("datasource.read.routing")
+                .description("Connections handed out for read-only transactions, by where they went")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * Picks the pool for the current transaction and opens a connection from it.
+     */
+    private Connection route(ConnectionOpener opener) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || PrimaryReads.isRequested()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()
+                    && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                recordWrite();
+            }
+            return opener.open(primary);
+        }
+
+        Long userId = currentUserId();
+        if (userId != null && isSticky(userId)) {
+            stickyCounter.increment();
+            return opener.open(primary);
+        }
+
+        int count = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((start + i) % count);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = opener.open(replica.dataSource);
+                replicaCounter.increment();
+                return connection;
+            } catch (SQLException e) {
+                markUnhealthy(replica, e.getMessage());
+            }
+        }
+
+        fallbackCounter.increment();
+        return opener.open(primary);
+    }
+
+    /**
+     * Measures the lag of every replica and takes replicas in or out of rotation. Also forgets expired
+     * read-your-writes windows.
+     */
+    @Scheduled(fixedDelayString = "${app.read-replicas.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(HEALTH_CHECK_TIMEOUT_SECONDS);
+                try (ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                    resultSet.next();
+                    replica.lagMillis = resultSet.getLong(1);
+                }
+                boolean healthy = replica.lagMillis <= maxLagMillis;
+                if (healthy != replica.healthy) {
+                    log.info("Replica {} {} (lag {} ms)", replica.name,
+                            healthy ? "back in rotation" : "lagging, reads go elsewhere", replica.lagMillis);
+                }
+                replica.healthy = healthy;
+            } catch (SQLException e) {
+                markUnhealthy(replica, e.getMessage());
+            }
+        }
+
+        long now = System.nanoTime();
+        stickyUntil.values().removeIf(until -> until - now < 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private void recordWrite() {
+        Long userId = currentUserId();
+        if (userId != null) {
+            stickyUntil.put(userId, System.nanoTime() + stickyWindowNanos);
+        }
+    }
+
+    private boolean isSticky(Long userId) {
+        Long until = stickyUntil.get(userId);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    private void markUnhealthy(Replica replica, String reason) {
+        if (replica.healthy) {
+            log.warn("Replica {} unavailable, reads go elsewhere: {}", replica.name, reason);
+        }
+        replica.healthy = false;
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            return userDetails.getId();
+        }
+        return null;
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+
+        // Out of rotation until the first health check has measured the lag
+        private volatile boolean healthy;
+        private volatile long lagMillis;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionOpener {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+}
@@ -0,0 +1,472 @@
+package com.example.minitrello.datasource;
+
+import com.example.minitrello.config.ShardConfig;
+import com.example.minitrello.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Routes database work to the shard that holds its data when projects are sharded ({@code app.shards.enabled}).
+ * <p>
+ * A project lives on one shard together with everything about it: members, task lists, tasks, the archive,
+ * activity, webhooks and the jobs that work on it. Users, tokens and everything else without a project live on
+ * shard 0; users are copied to the other shards where they are referenced, see {@link ShardUsers}. The
+ * sequences of shard {@code k} hand out ids from {@code k << 40} on, so the shard of any id is {@code id >> 40}
+ * without a lookup. Ids from before sharding are below {@code 1 << 40} and stay on shard 0.
+ * <p>
+ * Service methods route their transaction before its first statement with {@link #routeByProject} and its
+ * siblings. The transaction stays on that shard until it completes; routing it elsewhere fails. Reads across
+ * shards run on every shard in parallel with {@link #readEachShard} and its variants, on other threads. Their
+ * reads must not depend on the caller's thread, such as its security context. Without sharding there is only
+ * shard 0 and everything runs in the caller's context.
+ */
+@Component
+public class ShardRouting {
+
+    /** Number of low bits of an id that are left to the sequences of its shard. */
+    public static final int SHARD_SHIFT = 40;
+
+    // The shard that connections of the current thread come from, shard 0 when not set
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final int shardCount;
+    private final List<Integer> placement;
+    private final AtomicInteger nextPlacement = new AtomicInteger();
+    private final TransactionTemplate readTemplate;
+    private final TransactionTemplate writeTemplate;
+    private final ExecutorService scatterExecutor;
+
+    public ShardRouting(PlatformTransactionManager transactionManager, ShardConfig shardConfig) {
+        this.enabled = shardConfig.isEnabled();
+        this.shardCount = enabled ? shardConfig.getUrls().size() + 1 : 1;
+        this.placement = shardConfig.getPlacement().isEmpty()
+                ? IntStream.range(0, shardCount).boxed().toList()
+                : List.copyOf(shardConfig.getPlacement());
+        for (int shard : placement) {
+            if (shard < 0 || shard >= shardCount) {
+                throw new IllegalStateException("app.shards.placement names shard " + shard + ", which does not exist");
+            }
+        }
+
+        if (enabled) {
+            // A caller's transaction may be on another shard
+            this.readTemplate = new TransactionTemplate(transactionManager);
+            readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            readTemplate.setReadOnly(true);
+            this.writeTemplate = new TransactionTemplate(transactionManager);
+            writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            AtomicInteger threads = new AtomicInteger();
+            this.scatterExecutor = Executors.newFixedThreadPool(shardConfig.getScatterThreads(), runnable -> {
+                Thread thread = new Thread(runnable, "shard-scatter-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.readTemplate = null;
+            this.writeTemplate = null;
+            this.scatterExecutor = null;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return whether projects are sharded
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return all shards, {@code [0]} without sharding
+     */
+    public List<Integer> shards() {
+        return IntStream.range(0, shardCount).boxed().toList();
+    }
+
+    /**
+     * @param id the id of any row
+     * @return the shard that created the row, which may not exist for an id that was made up
+     */
+    public int shardOf(long id) {
+        return enabled ? (int) (id >>> SHARD_SHIFT) : 0;
+    }
+
+    /**
+     * @param id the id of any row, or {@code null}
+     * @return whether the shard of the id exists
+     */
+    public boolean isKnown(Long id) {
+        return id != null && id >= 0 && shardOf(id) < shardCount;
+    }
+
+    /**
+     * Routes the current transaction to the shard of a project.
+     *
+     * @param projectId the project
+     * @return the shard
+     * @throws ResourceNotFoundException when the id does not belong to any shard
+     */
+    public int routeByProject(Long projectId) {
+        return routeById("Project", projectId);
+    }
+
+    /**
+     * Routes the current transaction to the shard of a task list, which is that of its project.
+     *
+     * @param taskListId the task list
+     * @return the shard
+     * @throws ResourceNotFoundException when the id does not belong to any shard
+     */
+    public int routeByTaskList(Long taskListId) {
+        return routeById("TaskList", taskListId);
+    }
+
+    /**
+     * Routes the current transaction to the shard of a task, which is that of its project.
+     *
+     * @param taskId the task
+     * @return the shard
+     * @throws ResourceNotFoundException when the id does not belong to any shard
+     */
+    public int routeByTask(Long taskId) {
+        return routeById("Task", taskId);
+    }
+
+    /**
+     * Routes the current transaction to the shard of a background job.
+     *
+     * @param jobId the job
+     * @return the shard
+     * @throws ResourceNotFoundException when the id does not belong to any shard
+     */
+    public int routeByJob(Long jobId) {
+        return routeById("Job", jobId);
+    }
+
+    /**
+     * Picks the shard for a new project, taking the configured placement shards in turn, and routes the current
+     * transaction to it.
+     *
+     * @return the shard
+     */
+    public int placeNewProject() {
+        int shard = placement.get(Math.floorMod(nextPlacement.getAndIncrement(), placement.size()));
+        routeTo(shard);
+        return shard;
+    }
+
+    /**
+     * Routes the current transaction to a shard. Must happen before its first statement, unless it is already
+     * on that shard.
+     *
+     * @param shard the shard
+     * @throws IllegalStateException when there is no transaction, or it is bound to another shard already
+     */
+    public void routeTo(int shard) {
+        if (!enabled) {
+            return;
+        }
+        checkShard(shard);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Routing to a shard needs a transaction");
+        }
+        Binding binding = binding();
+        if (binding == null) {
+            bind(shard);
+        } else if (binding.shard != shard) {
+            throw new IllegalStateException(
+                    "The operation spans shards " + binding.shard + " and " + shard + ", which is not supported");
+        }
+    }
+
+    /**
+     * @return the shard of the current transaction or thread, 0 when not routed
+     */
+    public int currentShard() {
+        Binding binding = TransactionSynchronizationManager.isSynchronizationActive() ? binding() : null;
+        if (binding != null) {
+            return binding.shard;
+        }
+        Integer current = CURRENT.get();
+        return current == null ? 0 : current;
+    }
+
+    /**
+     * Runs reads in a read-only transaction on a shard. They join the caller's transaction when it is on that
+     * shard already.
+     *
+     * @param shard the shard
+     * @param reads the reads to run
+     * @return the result of the reads
+     */
+    public <T> T read(int shard, Supplier<T> reads) {
+        return execute(shard, readTemplate, reads);
+    }
+
+    /**
+     * Runs work in a transaction on a shard. It joins the caller's transaction when it is on that shard
+     * already, and otherwise commits on its own, before the caller's transaction.
+     *
+     * @param shard the shard
+     * @param work  the work to run
+     * @return the result of the work
+     */
+    public <T> T write(int shard, Supplier<T> work) {
+        return execute(shard, writeTemplate, work);
+    }
+
+    /**
+     * Runs work outside of a transaction with connections from a shard, for background threads that manage
+     * their own transactions.
+     *
+     * @param shard the shard
+     * @param work  the work to run
+     * @return the result of the work
+     * @throws IllegalStateException when called inside a transaction
+     */
+    public <T> T call(int shard, Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        checkShard(shard);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Use read or write on a shard inside a transaction");
+        }
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Runs work outside of a transaction with connections from a shard, see {@link #call}.
+     *
+     * @param shard the shard
+     * @param work  the work to run
+     */
+    public void run(int shard, Runnable work) {
+        call(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the same reads on every shard in parallel, each in its own read-only transaction.
+     *
+     * @param reads the reads to run
+     * @return the result of every shard, in shard order
+     */
+    public <T> List<T> readEachShard(Supplier<T> reads) {
+        return readShards(shards(), reads);
+    }
+
+    /**
+     * Runs the same reads on some shards in parallel, each in its own read-only transaction.
+     *
+     * @param shards the shards to read
+     * @param reads  the reads to run
+     * @return the result of every shard, in the order of the shards
+     */
+    public <T> List<T> readShards(List<Integer> shards, Supplier<T> reads) {
+        if (!enabled || shards.size() <= 1) {
+            return shards.stream().map(shard -> read(shard, reads)).toList();
+        }
+        List<CompletableFuture<T>> results = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> read(shard, reads), scatterExecutor))
+                .toList();
+        try {
+            return results.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the first rows of a keyset page from every shard and merges them. Each shard must return its rows
+     * in the given order, at most {@code limit} of them.
+     *
+     * @param order the order of the rows, total over all shards
+     * @param limit the number of rows to return at most
+     * @param reads the reads of one shard
+     * @return the first {@code limit} rows over all shards
+     */
+    public <T> List<T> readMerged(Comparator<? super T> order, int limit, Supplier<List<T>> reads) {
+        if (!enabled) {
+            return reads.get();
+        }
+        return mergeSorted(readEachShard(reads), order, limit);
+    }
+
+    /**
+     * Reads an offset page from every shard and merges them. Each shard is asked for everything up to the end
+     * of the page, so deep pages get expensive; keyset pagination is the better fit across shards.
+     *
+     * @param pageable the page, sorted the way {@code order} sorts
+     * @param order    the order of the rows, total over all shards
+     * @param reads    the query of one shard
+     * @return the page over all shards
+     */
+    public <T> Page<T> readPage(Pageable pageable, Comparator<? super T> order, Function<Pageable, Page<T>> reads) {
+        if (!enabled) {
+            return reads.apply(pageable);
+        }
+        Pageable upToPage = pageable.isPaged()
+                ? PageRequest.of(0, Math.toIntExact(pageable.getOffset() + pageable.getPageSize()), pageable.getSort())
+                : pageable;
+        List<Page<T>> pages = readEachShard(() -> reads.apply(upToPage));
+        long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        List<T> merged = mergeSorted(pages.stream().map(Page::getContent).toList(), order, Integer.MAX_VALUE);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(merged, pageable, total);
+        }
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        int to = Math.min(from + pageable.getPageSize(), merged.size());
+        return new PageImpl<>(merged.subList(from, to), pageable, total);
+    }
+
+    /**
+     * Merges lists that are each sorted into one sorted list.
+     */
+    static <T> List<T> mergeSorted(List<List<T>> lists, Comparator<? super T> order, int limit) {
+        record Head<T>(T row, int list, int index) {
+        }
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>((a, b) -> order.compare(a.row(), b.row()));
+        for (int i = 0; i < lists.size(); i++) {
+            if (!lists.get(i).isEmpty()) {
+                heads.add(new Head<>(lists.get(i).get(0), i, 0));
+            }
+        }
+        List<T> merged = new ArrayList<>();
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Head<T> head = heads.poll();
+            merged.add(head.row());
+            List<T> list = lists.get(head.list());
+            if (head.index() + 1 < list.size()) {
+                heads.add(new Head<>(list.get(head.index() + 1), head.list(), head.index() + 1));
+            }
+        }
+        return Collections.unmodifiableList(merged);
+    }
+
+    /**
+     * The shard that the next connection of the current thread comes from. The first connection of a
+     * transaction binds the transaction to its shard, so that it is not routed elsewhere later on.
+     */
+    static int connectionShard() {
+        Integer current = CURRENT.get();
+        int shard = current == null ? 0 : current;
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.isActualTransactionActive()
+                && binding() == null) {
+            bind(shard);
+        }
+        return shard;
+    }
+
+    private int routeById(String resource, Long id) {
+        if (!enabled) {
+            return 0;
+        }
+        if (id != null && !isKnown(id)) {
+            throw new ResourceNotFoundException(resource, "id", id);
+        }
+        int shard = id == null ? 0 : shardOf(id);
+        routeTo(shard);
+        return shard;
+    }
+
+    private <T> T execute(int shard, TransactionTemplate template, Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        checkShard(shard);
+        if (TransactionSynchronizationManager.isActualTransactionActive() && currentShard() == shard) {
+            return work.get();
+        }
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return template.execute(status -> {
+                bind(shard);
+                return work.get();
+            });
+        } finally {
+            restore(previous);
+        }
+    }
+
+    private void checkShard(int shard) {
+        if (shard < 0 || shard >= shardCount) {
+            throw new IllegalArgumentException("No shard " + shard);
+        }
+    }
+
+    private static void bind(int shard) {
+        TransactionSynchronizationManager.registerSynchronization(new Binding(shard, CURRENT.get()));
+        CURRENT.set(shard);
+    }
+
+    private static Binding binding() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Binding binding) {
+                return binding;
+            }
+        }
+        return null;
+    }
+
+    private static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Marks a transaction as bound to a shard and restores the routing of its thread when it completes.
+     */
+    private record Binding(int shard, Integer previous) implements TransactionSynchronization {
+        @Override
+        public void afterCompletion(int status) {
+            restore(previous);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.minitrello.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Hands out connections from the pool of the shard that {@link ShardRouting} routed the current thread to, and
+ * from shard 0 when it was not routed. It is meant to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so a transaction can be routed
+ * after it has begun and before its first statement. The first connection of a transaction binds the
+ * transaction to its shard.
+ */
+public class ShardRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private final List<DataSource> shards;
+    private final List<Counter> connectionCounters;
+
+    /**
+     * @param shards        the pools of the shards, shard 0 first
+     * @param meterRegistry registry for the per-shard connection counters
+     */
+    public ShardRoutingDataSource(List<DataSource> shards, MeterRegistry meterRegistry) {
+        this.shards = List.copyOf(shards);
+        this.connectionCounters = IntStream.range(0, shards.size())
+                .mapToObj(shard -> Counter.builder("datasource.shard.connections")
+                        .description("Connections handed out, by the shard they went to")
+                        .tag("shard", String.valueOf(shard))
+                        .register(meterRegistry))
+                .toList();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int shard = ShardRouting.connectionShard();
+        Connection connection = shards.get(shard).getConnection();
+        connectionCounters.get(shard).increment();
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        int shard = ShardRouting.connectionShard();
+        Connection connection = shards.get(shard).getConnection(username, password);
+        connectionCounters.get(shard).increment();
+        return connection;
+    }
+
+    /**
+     * The pool of one shard, for work that picks its shard itself, such as migrations and copying users.
+     *
+     * @param shard the shard
+     * @return the pool of the shard
+     */
+    public DataSource shard(int shard) {
+        return shards.get(shard);
+    }
+
+    /**
+     * @return the number of shards
+     */
+    public int size() {
+        return shards.size();
+    }
+
+    /**
+     * Closes the pools of all shards but shard 0, which is a bean of its own.
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataSource shard : shards.subList(1, shards.size())) {
+            if (shard instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
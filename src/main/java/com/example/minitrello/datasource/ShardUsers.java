@@ -0,0 +1,160 @@
+package com.example.minitrello.datasource;
+
+import com.example.minitrello.event.UserChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copies users from shard 0, where they live, to the other shards when sharding is enabled. Projects, members
+ * and tasks reference users by foreign key and are read together with their names, so a shard needs a row for
+ * every user its projects refer to. Copies carry no password and are only ever read for names and emails.
+ * <p>
+ * A copy is made before the first write on a shard that refers to the user, and kept up to date on every
+ * change of the user. Copying commits on its own, ahead of the caller's transaction; a copy that ends up
+ * unused does no harm.
+ */
+@Component
+@Slf4j
+public class ShardUsers {
+
+    // Shards forget which users they have, so this stays bounded; forgotten users are copied again
+    private static final int MAX_REMEMBERED_PER_SHARD = 100_000;
+
+    private static final String SELECT_USERS = """
+            SELECT id, name, email, role, created_at, updated_at, is_active, deleted_at
+            FROM users
+            WHERE id IN (%s)
+            """;
+
+    private static final String UPSERT_USER = """
+            INSERT INTO users (id, name, email, password, role, created_at, updated_at, is_active, deleted_at)
+            VALUES (?, ?, ?, '', ?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO UPDATE SET name = EXCLUDED.name, email = EXCLUDED.email, password = '',
+                role = EXCLUDED.role, updated_at = EXCLUDED.updated_at, is_active = EXCLUDED.is_active,
+                deleted_at = EXCLUDED.deleted_at
+            """;
+
+    private static final String UPDATE_USER = """
+            UPDATE users SET name = ?, email = ?, role = ?, updated_at = ?, is_active = ?, deleted_at = ?
+            WHERE id = ?
+            """;
+
+    private final ShardRouting shardRouting;
+    private final ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource;
+    private final Map<Integer, Set<Long>> copied = new ConcurrentHashMap<>();
+
+    public ShardUsers(ShardRouting shardRouting, ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource) {
+        this.shardRouting = shardRouting;
+        this.shardRoutingDataSource = shardRoutingDataSource;
+    }
+
+    /**
+     * Makes sure a shard has a copy of a user.
+     *
+     * @param shard  the shard about to refer to the user
+     * @param userId the user, or {@code null} for none
+     */
+    public void copyTo(int shard, Long userId) {
+        if (userId != null) {
+            copyTo(shard, List.of(userId));
+        }
+    }
+
+    /**
+     * Makes sure a shard has a copy of some users.
+     *
+     * @param shard   the shard about to refer to the users
+     * @param userIds the users
+     */
+    public void copyTo(int shard, Collection<Long> userIds) {
+        if (!shardRouting.isEnabled() || shard == 0) {
+            return;
+        }
+        Set<Long> known = copied.computeIfAbsent(shard, s -> ConcurrentHashMap.newKeySet());
+        List<Long> missing = userIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .filter(id -> !known.contains(id))
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        List<UserRow> users = readUsers(missing);
+        if (users.isEmpty()) {
+            return;
+        }
+        jdbc(shard).batchUpdate(UPSERT_USER, users, users.size(), (statement, user) -> {
+            statement.setLong(1, user.id());
+            statement.setString(2, user.name());
+            statement.setString(3, user.email());
+            statement.setString(4, user.role());
+            statement.setTimestamp(5, user.createdAt());
+            statement.setTimestamp(6, user.updatedAt());
+            statement.setBoolean(7, user.active());
+            statement.setTimestamp(8, user.deletedAt());
+        });
+        if (known.size() + missing.size() > MAX_REMEMBERED_PER_SHARD) {
+            known.clear();
+        }
+        users.forEach(user -> known.add(user.id()));
+    }
+
+    /**
+     * Brings the copies of a changed user up to date on every shard that has one.
+     */
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (!shardRouting.isEnabled()) {
+            return;
+        }
+        List<UserRow> users = readUsers(List.of(event.getUserId()));
+        if (users.isEmpty()) {
+            return;
+        }
+        UserRow user = users.get(0);
+        for (int shard : shardRouting.shards().subList(1, shardRouting.shards().size())) {
+            try {
+                jdbc(shard).update(UPDATE_USER, user.name(), user.email(), user.role(), user.updatedAt(),
+                        user.active(), user.deletedAt(), user.id());
+            } catch (RuntimeException e) {
+                // The next copy to this shard refreshes it; until then it shows the old name
+                copied.getOrDefault(shard, Collections.emptySet()).remove(user.id());
+                log.warn("Could not update the copy of user {} on shard {}: {}", user.id(), shard, e.getMessage());
+            }
+        }
+    }
+
+    private List<UserRow> readUsers(List<Long> userIds) {
+        String placeholders = String.join(", ", Collections.nCopies(userIds.size(), "?"));
+        return jdbc(0).query(SELECT_USERS.formatted(placeholders), (resultSet, rowNum) -> new UserRow(
+                resultSet.getLong("id"),
+                resultSet.getString("name"),
+                resultSet.getString("email"),
+                resultSet.getString("role"),
+                resultSet.getTimestamp("created_at"),
+                resultSet.getTimestamp("updated_at"),
+                resultSet.getBoolean("is_active"),
+                resultSet.getTimestamp("deleted_at")), userIds.toArray());
+    }
+
+    private JdbcTemplate jdbc(int shard) {
+        return new JdbcTemplate(shardRoutingDataSource.getObject().shard(shard));
+    }
+
+    private record UserRow(long id, String name, String email, String role, Timestamp createdAt,
+                           Timestamp updatedAt, boolean active, Timestamp deletedAt) {
+    }
+}
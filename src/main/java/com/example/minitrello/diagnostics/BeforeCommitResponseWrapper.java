@@ -0,0 +1,221 @@
+package com.example.minitrello.diagnostics;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.function.Consumer;
+
+/**
+ * Passes the body straight through, and runs a callback once just before the response is committed, while
+ * headers and status can still be changed. A response is committed when it is flushed, closed, redirected or
+ * sent an error, when its body outgrows the container's buffer, or when the declared content length has been
+ * written; the bytes written are counted to catch the last two.
+ * <p>
+ * The callback may call {@link #discardBody()} to drop the body written so far and anything written after,
+ * so that the caller can send a different response once the handler returns.
+ */
+class BeforeCommitResponseWrapper extends HttpServletResponseWrapper {
+
+    private final Consumer<BeforeCommitResponseWrapper> beforeCommit;
+
+    private boolean commitSeen;
+    private boolean discarding;
+    private long written;
+    private long contentLength = -1;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    BeforeCommitResponseWrapper(HttpServletResponse response, Consumer<BeforeCommitResponseWrapper> beforeCommit) {
+        super(response);
+        this.beforeCommit = beforeCommit;
+    }
+
+    /**
+     * @return whether the body is being discarded
+     */
+    boolean isDiscarding() {
+        return discarding;
+    }
+
+    /**
+     * Drops the body written so far and ignores everything written from now on.
+     */
+    void discardBody() {
+        discarding = true;
+        getResponse().resetBuffer();
+    }
+
+    /**
+     * Runs the callback now, unless it has run or the response is committed already. Called once the handler
+     * has returned, for responses that were never flushed.
+     */
+    void runBeforeCommit() {
+        beforeCommit();
+    }
+
+    /**
+     * Passes on what is left in the writer, which the container cannot see.
+     */
+    void flushWriter() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new GuardedOutputStream(getResponse().getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        flushWriter();
+        beforeCommit();
+        if (!discarding) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        beforeCommit();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        beforeCommit();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        beforeCommit();
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        super.setContentLength(len);
+        contentLength = len;
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        super.setContentLengthLong(len);
+        contentLength = len;
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        super.setHeader(name, value);
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            contentLength = value != null ? Long.parseLong(value) : -1;
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        super.addHeader(name, value);
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            contentLength = Long.parseLong(value);
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        written = 0;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        written = 0;
+        contentLength = -1;
+    }
+
+    private void beforeCommit() {
+        if (!commitSeen && !isCommitted()) {
+            commitSeen = true;
+            beforeCommit.accept(this);
+        }
+    }
+
+    private final class GuardedOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+
+        private GuardedOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            beforeWrite(1);
+            if (!discarding) {
+                delegate.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            beforeWrite(len);
+            if (!discarding) {
+                delegate.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            beforeCommit();
+            if (!discarding) {
+                delegate.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            beforeCommit();
+            if (!discarding) {
+                delegate.close();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+
+        private void beforeWrite(int len) {
+            // The container commits once its buffer is full or the whole declared body is written
+            written += len;
+            if (written >= getBufferSize() || (contentLength >= 0 && written >= contentLength)) {
+                beforeCommit();
+            }
+        }
+    }
+}
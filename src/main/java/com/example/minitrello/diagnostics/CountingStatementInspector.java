@@ -0,0 +1,15 @@
+package com.example.minitrello.diagnostics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares. The SQL is passed through unchanged.
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.statement();
+        return sql;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.minitrello.diagnostics;
+
+import com.example.minitrello.config.QueryBudgetConfig;
+import com.example.minitrello.exception.ApiErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Counts the database work of each request and reports it in response headers and metrics. Requests
+ * issuing more statements than their endpoint's budget are logged, or answered with an error when
+ * {@code app.query-budget.fail-on-exceed} is set, so a mapper change that starts lazy loading per row
+ * shows up before it ships. Runs ahead of the security filters so the user lookup is counted too.
+ * <p>
+ * The body is not buffered: the headers are set just before the response is committed, so a download streams
+ * as before. With fail-on-exceed, a response over budget is replaced by an error as long as it has not been
+ * committed yet, which holds for bodies that fit in the container's buffer.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(prefix = "app.query-budget", name = "enabled", havingValue = "true")
+@Slf4j
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Query-Statements";
+    public static final String ENTITY_LOADS_HEADER = "X-Query-Entity-Loads";
+    public static final String COLLECTION_LOADS_HEADER = "X-Query-Collection-Loads";
+
+    private static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+    private final QueryBudgetConfig queryBudgetConfig;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public QueryBudgetFilter(QueryBudgetConfig queryBudgetConfig, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.queryBudgetConfig = queryBudgetConfig;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryCounter.start();
+        BeforeCommitResponseWrapper wrappedResponse =
+                new BeforeCommitResponseWrapper(response, wrapped -> beforeCommit(request, wrapped));
+        try {
+            filterChain.doFilter(request, wrappedResponse);
+        } finally {
+            // Counts the statements of a handler that returned without committing, e.g. a small JSON body
+            wrappedResponse.runBeforeCommit();
+            QueryStats stats = QueryCounter.stop();
+            String route = route(request);
+            record(request.getMethod(), route, stats);
+
+            Integer budget = budgetFor(request.getMethod() + " " + route);
+            if (budget != null && stats.statements() > budget) {
+                exceeded(request, route, stats, budget);
+            }
+            if (wrappedResponse.isDiscarding() && !response.isCommitted()) {
+                sendError(request, response, stats, budget);
+            } else {
+                wrappedResponse.flushWriter();
+            }
+        }
+    }
+
+    /**
+     * Reports the counts so far in headers, and with fail-on-exceed drops a body over budget so that it can be
+     * replaced by an error. A response that commits early, like a download, reports the statements issued up to
+     * then; the metrics and log always cover the whole request.
+     */
+    private void beforeCommit(HttpServletRequest request, BeforeCommitResponseWrapper response) {
+        QueryStats stats = QueryCounter.current();
+        setHeaders(response, stats);
+
+        Integer budget = budgetFor(request.getMethod() + " " + route(request));
+        if (queryBudgetConfig.isFailOnExceed() && budget != null && stats.statements() > budget) {
+            response.discardBody();
+        }
+    }
+
+    private void exceeded(HttpServletRequest request, String route, QueryStats stats, int budget) {
+        Counter.builder("http.server.requests.query.budget.exceeded")
+                .description("Requests that issued more SQL statements than their endpoint's budget")
+                .tag("method", request.getMethod())
+                .tag("uri", route)
+                .register(meterRegistry)
+                .increment();
+        log.warn("Query budget exceeded: {}", message(request, route, stats, budget));
+    }
+
+    private void sendError(HttpServletRequest request, HttpServletResponse response, QueryStats stats,
+                           int budget) throws IOException {
+        ApiErrorResponse apiError = ApiErrorResponse.builder()
+                .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .statusCode(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                .message("Query budget exceeded: " + message(request, route(request), stats, budget))
+                .path(request.getRequestURI())
+                .timestamp(LocalDateTime.now())
+                .build();
+        response.reset();
+        setHeaders(response, stats);
+        response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), apiError);
+    }
+
+    private static String message(HttpServletRequest request, String route, QueryStats stats, int budget) {
+        return String.format("%s %s issued %d statements (%d entity loads, %d collection loads), budget is %d",
+                request.getMethod(), route, stats.statements(), stats.entityLoads(), stats.collectionLoads(), budget);
+    }
+
+    private static void setHeaders(HttpServletResponse response, QueryStats stats) {
+        response.setIntHeader(STATEMENTS_HEADER, stats.statements());
+        response.setIntHeader(ENTITY_LOADS_HEADER, stats.entityLoads());
+        response.setIntHeader(COLLECTION_LOADS_HEADER, stats.collectionLoads());
+    }
+
+    private void record(String method, String route, QueryStats stats) {
+        summary("http.server.requests.statements", "SQL statements issued per request", method, route)
+                .record(stats.statements());
+        summary("http.server.requests.entity.loads", "Entities loaded per request", method, route)
+                .record(stats.entityLoads());
+        summary("http.server.requests.collection.loads", "Lazy collections initialized per request", method, route)
+                .record(stats.collectionLoads());
+    }
+
+    private DistributionSummary summary(String name, String description, String method, String route) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", method)
+                .tag("uri", route)
+                .register(meterRegistry);
+    }
+
+    private Integer budgetFor(String endpoint) {
+        Integer budget = queryBudgetConfig.getBudgets().get(endpoint);
+        return budget != null ? budget : queryBudgetConfig.getDefaultBudget();
+    }
+
+    /**
+     * The matched route pattern rather than the raw URI, so metrics and budgets are per endpoint, not per id.
+     */
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNKNOWN_ROUTE;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.minitrello.diagnostics;
+
+/**
+ * Counts the SQL statements, entity loads and collection initializations issued by the current thread
+ * between {@link #start()} and {@link #stop()}. Outside such a window the counting calls do nothing.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<Counts> COUNTS = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    /**
+     * Starts counting on the current thread, discarding any counts from an earlier window.
+     */
+    public static void start() {
+        COUNTS.set(new Counts());
+    }
+
+    /**
+     * Stops counting on the current thread.
+     *
+     * @return what was counted since {@link #start()}, all zero if counting was not started
+     */
+    public static QueryStats stop() {
+        QueryStats stats = current();
+        COUNTS.remove();
+        return stats;
+    }
+
+    /**
+     * @return what was counted so far, all zero if counting was not started
+     */
+    public static QueryStats current() {
+        Counts counts = COUNTS.get();
+        return counts == null
+                ? new QueryStats(0, 0, 0)
+                : new QueryStats(counts.statements, counts.entityLoads, counts.collectionLoads);
+    }
+
+    static void statement() {
+        Counts counts = COUNTS.get();
+        if (counts != null) {
+            counts.statements++;
+        }
+    }
+
+    static void entityLoad() {
+        Counts counts = COUNTS.get();
+        if (counts != null) {
+            counts.entityLoads++;
+        }
+    }
+
+    static void collectionLoad() {
+        Counts counts = COUNTS.get();
+        if (counts != null) {
+            counts.collectionLoads++;
+        }
+    }
+
+    private static final class Counts {
+        private int statements;
+        private int entityLoads;
+        private int collectionLoads;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.minitrello.diagnostics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Installs the statement inspector behind {@link QueryCounter}; the load listeners come with
+ * {@link QueryCountingIntegrator}. They cost a thread-local lookup per statement and only count inside a window,
+ * so they are always installed and tests can count queries without extra configuration.
+ */
+@Component
+public class QueryCountingHibernateCustomizer implements HibernatePropertiesCustomizer {
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new CountingStatementInspector());
+    }
+}
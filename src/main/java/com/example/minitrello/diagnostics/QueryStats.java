@@ -0,0 +1,11 @@
+package com.example.minitrello.diagnostics;
+
+/**
+ * Database work done within one counting window.
+ *
+ * @param statements SQL statements prepared, including those issued by lazy loads
+ * @param entityLoads entities hydrated from a result set
+ * @param collectionLoads lazy collections initialized
+ */
+public record QueryStats(int statements, int entityLoads, int collectionLoads) {
+}
@@ -0,0 +1,23 @@
+package com.example.minitrello.dto.activity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityDto {
+    private Long id;
+    private String action;
+    private String entityType;
+    private Long entityId;
+    private Long actorId;
+    private String actorName;
+    private String details;
+    private LocalDateTime createdAt;
+}
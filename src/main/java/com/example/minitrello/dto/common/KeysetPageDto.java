@@ -0,0 +1,36 @@
+package com.example.minitrello.dto.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of results fetched with keyset (seek) pagination.
+ * Clients pass {@code nextCursor} back to fetch the following page.
+ *
+ * @param <T> the type of the page items
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPageDto<T> {
+
+    /**
+     * Items of the current page.
+     */
+    private List<T> items;
+
+    /**
+     * Opaque cursor for the next page, or null when this is the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * Whether more results are available after this page.
+     */
+    private boolean hasMore;
+}
@@ -0,0 +1,68 @@
+package com.example.minitrello.dto.job;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a background job.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobDto {
+    private Long id;
+
+    /**
+     * PROJECT_EXPORT, PROJECT_PURGE or USER_PURGE.
+     */
+    private String type;
+
+    /**
+     * QUEUED, RUNNING, SUCCEEDED, FAILED or CANCELLED. A running job goes back to QUEUED between time slices.
+     */
+    private String state;
+
+    /**
+     * The row the job works on, e.g. the project being exported.
+     */
+    private Long subjectId;
+
+    /**
+     * Work done so far, e.g. tasks exported or rows purged.
+     */
+    private long progressDone;
+
+    /**
+     * The amount of work, in the same unit as {@code progressDone}, or null if not known yet.
+     */
+    private Long progressTotal;
+
+    /**
+     * Whether cancellation was requested; a running job stops after its current chunk.
+     */
+    private boolean cancelRequested;
+
+    /**
+     * The last error, also set while a failed chunk waits to be retried.
+     */
+    private String error;
+
+    /**
+     * Where the file the job produced can be downloaded, once it has succeeded.
+     */
+    private String resultUrl;
+
+    /**
+     * When the job may run next.
+     */
+    private LocalDateTime runAfter;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
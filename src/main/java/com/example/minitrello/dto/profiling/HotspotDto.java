@@ -0,0 +1,26 @@
+package com.example.minitrello.dto.profiling;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotspotDto {
+    /**
+     * Method, as {@code class.method:line}, with the allocated or contended class for allocation and lock sites.
+     */
+    private String location;
+
+    private long events;
+
+    /**
+     * Samples for CPU, bytes for allocation and nanoseconds blocked for locks.
+     */
+    private long weight;
+
+    private double percent;
+}
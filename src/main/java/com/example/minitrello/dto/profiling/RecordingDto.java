@@ -0,0 +1,23 @@
+package com.example.minitrello.dto.profiling;
+
+import com.example.minitrello.profiling.ProfilingPreset;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordingDto {
+    private Long id;
+    private ProfilingPreset preset;
+    private String state;
+    private LocalDateTime startedAt;
+    private Long durationSeconds;
+    private String fileName;
+    private Long fileSizeBytes;
+}
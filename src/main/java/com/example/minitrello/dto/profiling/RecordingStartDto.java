@@ -0,0 +1,24 @@
+package com.example.minitrello.dto.profiling;
+
+import com.example.minitrello.profiling.ProfilingPreset;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordingStartDto {
+    @NotNull(message = "Preset is required")
+    private ProfilingPreset preset;
+
+    /**
+     * Optional duration; the configured default is used when not set and the configured maximum caps it.
+     */
+    @Min(value = 1, message = "Duration must be at least one second")
+    private Long durationSeconds;
+}
@@ -0,0 +1,22 @@
+package com.example.minitrello.dto.profiling;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordingSummaryDto {
+    private Long recordingId;
+    private long executionSamples;
+    private long allocationSamples;
+    private long lockEvents;
+    private List<HotspotDto> hotMethods;
+    private List<HotspotDto> allocationSites;
+    private List<HotspotDto> lockSites;
+}
@@ -0,0 +1,26 @@
+package com.example.minitrello.dto.project;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A deleted project that can still be restored.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletedProjectDto {
+    private Long id;
+    private String name;
+    private LocalDateTime deletedAt;
+
+    /**
+     * When the project stops being restorable and is purged with its task lists and tasks.
+     */
+    private LocalDateTime purgeAfter;
+}
@@ -0,0 +1,40 @@
+package com.example.minitrello.dto.project;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for cloning a project, typically a template.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectCloneDto {
+    /**
+     * Name of the new project; defaults to the name of the cloned project.
+     */
+    @Size(min = 3, max = 100, message = "Project name must be between 3 and 100 characters")
+    private String name;
+
+    /**
+     * Description of the new project; defaults to the description of the cloned project.
+     */
+    @Size(max = 500, message = "Description cannot exceed 500 characters")
+    private String description;
+
+    /**
+     * Whether the members of the cloned project, and its owner, become members of the new project.
+     */
+    @Builder.Default
+    private boolean includeMembers = true;
+
+    /**
+     * Whether copied tasks keep their assignee. Only assignees with access to the new project are kept.
+     */
+    @Builder.Default
+    private boolean includeAssignees = false;
+}
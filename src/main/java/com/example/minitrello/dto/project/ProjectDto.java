@@ -23,6 +23,7 @@ public class ProjectDto {
     private Long id;
     private String name;
     private String description;
+    private Boolean isTemplate;
     private Long ownerId;
     private String ownerName;
 
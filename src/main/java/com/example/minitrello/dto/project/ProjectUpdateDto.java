@@ -19,4 +19,9 @@ public class ProjectUpdateDto {
 
     @Size(max = 500, message = "Description cannot exceed 500 characters")
     private String description;
+
+    /**
+     * Marks the project as a template, or no longer one.
+     */
+    private Boolean isTemplate;
 }
\ No newline at end of file
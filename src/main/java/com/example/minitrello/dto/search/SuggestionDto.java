@@ -0,0 +1,29 @@
+package com.example.minitrello.dto.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A typeahead suggestion for the quick switcher.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDto {
+
+    /**
+     * Kind of the suggested item.
+     */
+    public enum Type {
+        PROJECT,
+        TASK
+    }
+
+    private Type type;
+    private Long id;
+    private String title;
+    private Long projectId;
+}
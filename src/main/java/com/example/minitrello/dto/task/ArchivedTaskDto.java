@@ -0,0 +1,33 @@
+package com.example.minitrello.dto.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A task in the archive of a project.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedTaskDto {
+    private Long id;
+    private String title;
+    private String description;
+    private Long taskListId;
+    private String taskListName;
+
+    /**
+     * Whether the task's list is archived as well; the list must be restored before the task can be.
+     */
+    private boolean taskListArchived;
+
+    private Long assignedUserId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime archivedAt;
+}
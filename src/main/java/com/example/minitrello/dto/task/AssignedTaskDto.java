@@ -0,0 +1,24 @@
+package com.example.minitrello.dto.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssignedTaskDto {
+    private Long id;
+    private String title;
+    private Integer position;
+    private Long taskListId;
+    private String taskListName;
+    private Long projectId;
+    private String projectName;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,38 @@
+package com.example.minitrello.dto.task;
+
+/**
+ * Sort orders supported when listing the tasks assigned to the current user.
+ */
+public enum AssignedTaskSort {
+    /**
+     * Most recently updated first.
+     */
+    UPDATED_AT("updatedAt"),
+
+    /**
+     * Grouped by project, most recently updated first within each project.
+     */
+    PROJECT("project");
+
+    private final String parameter;
+
+    AssignedTaskSort(String parameter) {
+        this.parameter = parameter;
+    }
+
+    /**
+     * Resolves a sort order from its request parameter value.
+     *
+     * @param parameter the request parameter value, e.g. "updatedAt" or "project"
+     * @return the matching sort order
+     * @throws IllegalArgumentException if the value is not supported
+     */
+    public static AssignedTaskSort fromParameter(String parameter) {
+        for (AssignedTaskSort sort : values()) {
+            if (sort.parameter.equalsIgnoreCase(parameter)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + parameter);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.minitrello.dto.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSearchResultDto {
+    private Long id;
+    private String title;
+    private String titleHighlight;
+    private String descriptionHighlight;
+    private Long taskListId;
+    private String taskListName;
+    private Long projectId;
+    private String projectName;
+    private Float rank;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,31 @@
+package com.example.minitrello.dto.tasklist;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A task list in the archive of a project.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedTaskListDto {
+    private Long id;
+    private String name;
+    private Long projectId;
+
+    /**
+     * Number of tasks archived together with the list, which come back when it is restored.
+     */
+    private Long taskCount;
+
+    private Integer archiveAfterDays;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime archivedAt;
+}
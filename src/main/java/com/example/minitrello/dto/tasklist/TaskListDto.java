@@ -25,6 +25,7 @@ public class TaskListDto {
     private Integer taskCount;
 
     private List<TaskDto> tasks;
+    private Integer archiveAfterDays;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.minitrello.dto.tasklist;
 
+import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,4 +16,10 @@ public class TaskListUpdateDto {
     private String name;
 
     private Integer position;
+
+    /**
+     * Archives the tasks of the list not updated for this many days; 0 turns automatic archiving off.
+     */
+    @PositiveOrZero(message = "Archive after days cannot be negative")
+    private Integer archiveAfterDays;
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.example.minitrello.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of a bulk user import. Every row ends up imported, skipped as a duplicate or rejected as invalid.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportDto {
+    private Long id;
+
+    /**
+     * RUNNING, COMPLETED or FAILED. A failed import keeps the batches written before the failure.
+     */
+    private String state;
+
+    private String format;
+    private int totalRows;
+
+    /**
+     * Valid rows whose password has been hashed so far.
+     */
+    private int hashedRows;
+
+    private int importedRows;
+
+    /**
+     * Rows whose email already exists, in the database or earlier in the input.
+     */
+    private int duplicateRows;
+
+    private int invalidRows;
+    private List<UserImportErrorDto> errors;
+
+    /**
+     * Whether more rows failed than are listed in {@code errors}.
+     */
+    private boolean errorsTruncated;
+
+    private String failureMessage;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,28 @@
+package com.example.minitrello.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A row of a bulk import that was not imported.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportErrorDto {
+
+    /**
+     * 1-based position of the record in the input, not counting the CSV header or blank NDJSON lines.
+     */
+    private int row;
+
+    /**
+     * The email of the row, when it could be read.
+     */
+    private String email;
+
+    private String message;
+}
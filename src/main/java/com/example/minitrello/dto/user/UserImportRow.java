@@ -0,0 +1,50 @@
+package com.example.minitrello.dto.user;
+
+import com.example.minitrello.model.Role;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * One user in a bulk import, read from a CSV row (header {@code email,name,password,role}) or an NDJSON line.
+ * Validated with the same rules as registration.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = "password")
+public class UserImportRow {
+
+    /**
+     * User's email address to be used as username.
+     */
+    @NotBlank(message = "Email is required")
+    @Email(message = "Email should be valid")
+    @Size(max = 100, message = "Email cannot exceed 100 characters")
+    private String email;
+
+    /**
+     * User's display name.
+     */
+    @NotBlank(message = "Name is required")
+    @Size(min = 3, max = 100, message = "Name must be between 3 and 100 characters")
+    private String name;
+
+    /**
+     * User's initial password.
+     */
+    @NotBlank(message = "Password is required")
+    @Size(min = 6, max = 100, message = "Password must be between 6 and 100 characters")
+    private String password;
+
+    /**
+     * Role to assign; ROLE_USER when empty.
+     */
+    private Role role;
+}
@@ -0,0 +1,26 @@
+package com.example.minitrello.dto.webhook;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookCreateDto {
+    @NotBlank(message = "Webhook URL is required")
+    @Size(max = 500, message = "Webhook URL cannot exceed 500 characters")
+    @Pattern(regexp = "^https?://.+", message = "Webhook URL must be an http or https URL")
+    private String url;
+
+    /**
+     * Optional shared secret used to sign deliveries with HMAC-SHA256.
+     */
+    @Size(min = 16, max = 200, message = "Webhook secret must be between 16 and 200 characters")
+    private String secret;
+}
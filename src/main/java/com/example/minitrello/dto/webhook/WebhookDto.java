@@ -0,0 +1,21 @@
+package com.example.minitrello.dto.webhook;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookDto {
+    private Long id;
+    private Long projectId;
+    private String url;
+    private boolean signed;
+    private Boolean active;
+    private LocalDateTime createdAt;
+}
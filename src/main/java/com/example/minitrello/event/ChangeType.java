@@ -0,0 +1,13 @@
+package com.example.minitrello.event;
+
+/**
+ * Kind of change described by a domain event.
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    MOVED,
+    DELETED,
+    ARCHIVED,
+    RESTORED
+}
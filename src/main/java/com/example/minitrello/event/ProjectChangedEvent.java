@@ -0,0 +1,16 @@
+package com.example.minitrello.event;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Published by the project service whenever a project is created, updated, deleted or restored.
+ * Deleting a user also deletes (and restoring them restores) the projects they own.
+ */
+@Value
+@Builder
+public class ProjectChangedEvent {
+    ChangeType type;
+    Long projectId;
+    String name;
+}
@@ -0,0 +1,16 @@
+package com.example.minitrello.event;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Published by the project service whenever a user is added to or removed from a project.
+ * Additions are reported as {@link ChangeType#CREATED} and removals as {@link ChangeType#DELETED}.
+ */
+@Value
+@Builder
+public class ProjectMembershipChangedEvent {
+    ChangeType type;
+    Long projectId;
+    Long userId;
+}
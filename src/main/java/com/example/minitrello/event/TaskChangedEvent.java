@@ -0,0 +1,40 @@
+package com.example.minitrello.event;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Published by the task service whenever a task is created, updated, moved, deleted,
+ * archived or restored from the archive.
+ * Listeners that must only react to committed data use {@code @TransactionalEventListener}.
+ */
+@Value
+@Builder
+public class TaskChangedEvent {
+    ChangeType type;
+    Long taskId;
+    String title;
+    Long projectId;
+    Long taskListId;
+    Long assignedUserId;
+
+    /**
+     * The project the task belonged to before a move, or null if the task did not change project.
+     */
+    Long previousProjectId;
+
+    /**
+     * The task list the task belonged to before a move, or null for other changes.
+     */
+    Long previousTaskListId;
+
+    /**
+     * The title before an update, or null for other changes.
+     */
+    String previousTitle;
+
+    /**
+     * The assignee before an update, or null for other changes.
+     */
+    Long previousAssignedUserId;
+}
@@ -0,0 +1,17 @@
+package com.example.minitrello.event;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Published by the task list service whenever a task list is created, updated or deleted, and when
+ * it is archived with its tasks or restored from the archive.
+ */
+@Value
+@Builder
+public class TaskListChangedEvent {
+    ChangeType type;
+    Long taskListId;
+    String name;
+    Long projectId;
+}
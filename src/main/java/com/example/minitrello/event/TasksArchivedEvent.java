@@ -0,0 +1,21 @@
+package com.example.minitrello.event;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Published by the archive job whenever it has moved a batch of tasks of a list to the archive under the
+ * list's archiving policy. One event stands for the whole batch.
+ */
+@Value
+@Builder
+public class TasksArchivedEvent {
+    Long taskListId;
+    Long projectId;
+    int count;
+
+    /**
+     * The policy the tasks were archived under: tasks not updated for this many days.
+     */
+    int archiveAfterDays;
+}
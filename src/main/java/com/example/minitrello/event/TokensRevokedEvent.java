@@ -0,0 +1,31 @@
+package com.example.minitrello.event;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Published when a single token or all tokens of a user issued before a point in time are revoked.
+ * Exactly one of {@code tokenId} and {@code issuedBefore} is set.
+ */
+@Value
+@Builder
+public class TokensRevokedEvent {
+    Long userId;
+
+    /**
+     * The id (jti) of the revoked token, or null when all tokens issued before {@code issuedBefore} are revoked.
+     */
+    String tokenId;
+
+    /**
+     * Tokens of the user issued before this instant are revoked, or null when a single token is revoked.
+     */
+    Instant issuedBefore;
+
+    /**
+     * When the revocation can be forgotten because every token it covers has expired.
+     */
+    Instant expiresAt;
+}
@@ -0,0 +1,25 @@
+package com.example.minitrello.event;
+
+import com.example.minitrello.model.Role;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Published by the user and admin services whenever a user's profile, role or status is updated or the user is deleted or restored.
+ */
+@Value
+@Builder
+public class UserChangedEvent {
+    ChangeType type;
+    Long userId;
+
+    /**
+     * The new role when an admin changed it, otherwise null.
+     */
+    Role role;
+
+    /**
+     * The new status when an admin enabled or disabled the account, otherwise null.
+     */
+    Boolean active;
+}
@@ -3,6 +3,7 @@ package com.example.minitrello.exception;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -96,6 +97,15 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex.getMessage(), request, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiErrorResponse> handleTooManyRequestsException(
+            TooManyRequestsException ex, HttpServletRequest request) {
+        ResponseEntity<ApiErrorResponse> response = buildErrorResponse(ex.getMessage(), request, HttpStatus.TOO_MANY_REQUESTS);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
+
 //    @ExceptionHandler(Exception.class)
 //    public ResponseEntity<ApiErrorResponse> handleGenericException(
 //            Exception ex,HttpServletRequest request) {
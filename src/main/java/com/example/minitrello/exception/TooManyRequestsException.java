@@ -0,0 +1,27 @@
+package com.example.minitrello.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request is refused to protect the service, e.g. too many login attempts or a full password
+ * hashing queue. Answered with 429 and a Retry-After header.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Retry-After in whole seconds, rounded up so clients do not come back before they would be admitted.
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
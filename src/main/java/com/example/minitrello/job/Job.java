@@ -0,0 +1,42 @@
+package com.example.minitrello.job;
+
+import java.time.LocalDateTime;
+
+/**
+ * A row of the {@code jobs} table.
+ *
+ * @param userId the user the job runs for, or null for system jobs
+ * @param subjectId the row the job works on, e.g. the project being exported
+ * @param checkpoint where the job's handler left off, in a format of its own; null before the first chunk
+ * @param progressTotal the amount of work, in the same unit as {@code progressDone}, or null if not known
+ * @param result what the job produced, as recorded by its handler
+ * @param nodeId the instance the job runs on, or ran on last; files the job writes are kept there. Null for
+ *               jobs that have not started, or were released by an instance that is gone
+ */
+public record Job(long id,
+                  JobType type,
+                  JobState state,
+                  Long userId,
+                  Long subjectId,
+                  int priority,
+                  String checkpoint,
+                  long progressDone,
+                  Long progressTotal,
+                  String result,
+                  String error,
+                  int attempts,
+                  boolean cancelRequested,
+                  LocalDateTime runAfter,
+                  LocalDateTime createdAt,
+                  LocalDateTime startedAt,
+                  LocalDateTime finishedAt,
+                  String nodeId) {
+
+    /**
+     * This job after a chunk that did not finish it.
+     */
+    Job advance(JobStep step) {
+        return new Job(id, type, state, userId, subjectId, priority, step.checkpoint(), step.done(), step.total(),
+                result, error, attempts, cancelRequested, runAfter, createdAt, startedAt, finishedAt, nodeId);
+    }
+}
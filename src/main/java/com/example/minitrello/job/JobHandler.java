@@ -0,0 +1,39 @@
+package com.example.minitrello.job;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Runs the jobs of one {@link JobType}, a chunk at a time. A chunk should take well under a second: the
+ * runner checks for cancellation, shutdown and the end of the job's time slice between chunks only.
+ */
+public interface JobHandler {
+
+    /**
+     * The type of job this handler runs.
+     */
+    JobType type();
+
+    /**
+     * Runs the chunk after the job's checkpoint. Called inside a transaction that also stores the returned
+     * step, so the chunk's database writes and the new checkpoint commit or roll back together; anything
+     * else a chunk writes must be redone safely from the previous checkpoint.
+     *
+     * @param job the job, with its checkpoint and progress as of the last committed chunk
+     * @return the new checkpoint and progress
+     */
+    JobStep runChunk(Job job);
+
+    /**
+     * Releases what the job produced outside the database, once it has failed, been cancelled or expired.
+     */
+    default void discard(Job job) {
+    }
+
+    /**
+     * The file a succeeded job produced for download, if any.
+     */
+    default Optional<Path> resultFile(Job job) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,462 @@
+package com.example.minitrello.job;
+
+import com.example.minitrello.cluster.ClusterMembership;
+import com.example.minitrello.config.JobConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.repository.JobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs background jobs on a bounded pool of {@code app.jobs.workers} threads, on this node only; the
+ * {@code jobs} table is the queue, so no broker is involved.
+ * <p>
+ * Whenever a worker is free the runner picks, among the next due job of every user, the one with the highest
+ * priority, then the one whose user has the fewest jobs running and was served longest ago. A user never has
+ * more than {@code app.jobs.max-running-per-user} jobs running. A job runs in chunks, each committed together
+ * with the job's checkpoint, and goes back to the queue after {@code app.jobs.time-slice} so that a long export
+ * does not hold a worker while shorter jobs wait.
+ * <p>
+ * With several instances, a job stays with the instance that started it, which keeps the files the job writes,
+ * and is only changed by that instance. Jobs left running when an instance stopped are queued again when it
+ * starts, and resume after their last committed chunk. The instance renews a lease on its jobs while it runs; the
+ * jobs of an instance that stopped renewing are released to the others once the lease has expired.
+ * <p>
+ * With sharding, a job is queued on the shard of the transaction that queues it, which is the shard of the
+ * project it works on, and runs there. The runner picks among the due jobs of all shards.
+ */
+@Component
+@Slf4j
+public class JobRunner implements SmartLifecycle {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    // System jobs have no user and share one slot in the fairness bookkeeping
+    private static final long SYSTEM_USER = 0L;
+
+    private final JobRepository jobRepository;
+    private final JobConfig jobConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouting shardRouting;
+    private final Map<JobType, JobHandler> handlers;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId;
+
+    // Running jobs by id, with the user each runs for; written only while holding this object's lock
+    private final Map<Long, Long> runningJobs = new ConcurrentHashMap<>();
+    // When each user last had a job started, as a sequence number
+    private final Map<Long, Long> lastServed = new HashMap<>();
+    private long servedSequence;
+
+    private final Counter chunkCounter;
+
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    @Autowired
+    public JobRunner(JobRepository jobRepository,
+                     JobConfig jobConfig,
+                     PlatformTransactionManager transactionManager,
+                     ShardRouting shardRouting,
+                     List<JobHandler> handlers,
+                     ClusterMembership clusterMembership,
+                     MeterRegistry meterRegistry) {
+        this(jobRepository, jobConfig, transactionManager, shardRouting, handlers, meterRegistry,
+                Clock.systemDefaultZone(), clusterMembership.self().id());
+    }
+
+    JobRunner(JobRepository jobRepository,
+              JobConfig jobConfig,
+              PlatformTransactionManager transactionManager,
+              ShardRouting shardRouting,
+              List<JobHandler> handlers,
+              MeterRegistry meterRegistry,
+              Clock clock,
+              String nodeId) {
+        this.jobRepository = jobRepository;
+        this.jobConfig = jobConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouting = shardRouting;
+        this.handlers = handlers.stream().collect(Collectors.toMap(JobHandler::type, Function.identity(),
+                (first, second) -> {
+                    throw new IllegalStateException("Two handlers for job type " + first.type());
+                }, () -> new EnumMap<>(JobType.class)));
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.nodeId = nodeId;
+
+        this.chunkCounter = Counter.builder("jobs.chunks")
+                .description("Job chunks committed")
+                .register(meterRegistry);
+        Gauge.builder("jobs.running", runningJobs, Map::size)
+                .description("Jobs running on this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a job. Inside a transaction the job is written with it and considered once it commits, so a job
+     * is never run for a change that was rolled back.
+     *
+     * @param type the type of job
+     * @param userId the user the job runs for, or null for a system job
+     * @param subjectId the row the job works on
+     * @param runAfter when the job may start
+     * @return the new job, or the job of this type already queued or running for the subject and user
+     */
+    public Job enqueue(JobType type, Long userId, long subjectId, LocalDateTime runAfter) {
+        Job job = jobRepository.insert(type, userId, subjectId, runAfter, LocalDateTime.now(clock))
+                .or(() -> jobRepository.findActive(type, userId, subjectId))
+                .orElseThrow(() -> new IllegalStateException("Job could not be queued"));
+        if (!runAfter.isAfter(LocalDateTime.now(clock))) {
+            afterCommit(this::dispatch);
+        }
+        return job;
+    }
+
+    /**
+     * Cancels a job. A queued job is cancelled at once; a running job stops after its current chunk, which is
+     * rolled back.
+     *
+     * @return the job after the request, or empty if it had already finished
+     */
+    public Optional<Job> cancel(long jobId) {
+        Optional<Job> job = jobRepository.requestCancel(jobId, LocalDateTime.now(clock));
+        job.filter(cancelled -> cancelled.state() == JobState.CANCELLED)
+                .ifPresent(cancelled -> afterCommit(() -> discard(cancelled)));
+        return job;
+    }
+
+    /**
+     * Cancels the queued jobs of a type for a subject, e.g. the purge of a restored project.
+     */
+    public void cancelQueued(JobType type, long subjectId) {
+        for (Job cancelled : jobRepository.cancelQueued(type, subjectId, LocalDateTime.now(clock))) {
+            log.debug("Cancelled queued {} job {}", type, cancelled.id());
+            afterCommit(() -> discard(cancelled));
+        }
+    }
+
+    /**
+     * The file a succeeded job produced for download, if any and if this instance ran the job.
+     */
+    public Optional<Path> resultFile(Job job) {
+        if (job.state() != JobState.SUCCEEDED || ranElsewhere(job)) {
+            return Optional.empty();
+        }
+        return handler(job).resultFile(job);
+    }
+
+    /**
+     * Whether a succeeded job produced a file for download, here or on the instance that ran it.
+     */
+    public boolean hasResult(Job job) {
+        if (ranElsewhere(job)) {
+            return job.state() == JobState.SUCCEEDED && job.result() != null;
+        }
+        return resultFile(job).isPresent();
+    }
+
+    /**
+     * Starts due jobs on the free workers. Called after jobs are queued and finished, and periodically for jobs
+     * that become due or are retried.
+     */
+    @Scheduled(fixedDelayString = "${app.jobs.poll-interval-ms:1000}")
+    public synchronized void dispatch() {
+        if (!running) {
+            return;
+        }
+        try {
+            while (runningJobs.size() < jobConfig.getWorkers()) {
+                Job next = pickNext(findQueuedHeads());
+                if (next == null) {
+                    return;
+                }
+                // Skipped if it was cancelled in the meantime; the next round sees the queue as it is now
+                shardRouting.write(shardRouting.shardOf(next.id()), () -> jobRepository.claim(next.id(), nodeId,
+                                jobConfig.getLease(), LocalDateTime.now(clock)))
+                        .ifPresent(this::start);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Dispatching jobs failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Renews the lease on the jobs of this instance, and releases the jobs of instances that stopped renewing
+     * theirs.
+     */
+    @Scheduled(fixedDelayString = "${app.jobs.lease-renew-interval-ms:15000}")
+    public void renewLeases() {
+        if (!running) {
+            return;
+        }
+        int released = 0;
+        for (int shard : shardRouting.shards()) {
+            try {
+                shardRouting.run(shard, () -> jobRepository.renewLeases(nodeId, jobConfig.getLease()));
+                released += shardRouting.call(shard, jobRepository::releaseExpired);
+            } catch (DataAccessException e) {
+                log.warn("Renewing job leases on shard {} failed: {}", shard, e.getMessage());
+            }
+        }
+        if (released > 0) {
+            log.info("Took over {} jobs of instances that stopped", released);
+            dispatch();
+        }
+    }
+
+    /**
+     * Removes the jobs that finished longer than {@code app.jobs.retention} ago, with the files they produced.
+     */
+    @Scheduled(fixedDelayString = "${app.jobs.prune-interval-ms:3600000}")
+    public void prune() {
+        for (int shard : shardRouting.shards()) {
+            try {
+                List<Job> pruned = shardRouting.call(shard, () -> jobRepository.deleteFinishedBefore(
+                        LocalDateTime.now(clock).minus(jobConfig.getRetention())));
+                pruned.forEach(this::discard);
+                log.debug("Pruned {} finished jobs on shard {}", pruned.size(), shard);
+            } catch (DataAccessException e) {
+                log.warn("Pruning finished jobs on shard {} failed: {}", shard, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Among the next job of every user, the one to start now, or null if every user with a due job is at
+     * their limit of running jobs.
+     */
+    Job pickNext(List<Job> heads) {
+        Map<Long, Long> runningPerUser = runningJobs.values().stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        return heads.stream()
+                .filter(job -> runningPerUser.getOrDefault(userKey(job), 0L) < jobConfig.getMaxRunningPerUser())
+                .min(Comparator.comparingInt(Job::priority).reversed()
+                        .thenComparingLong(job -> runningPerUser.getOrDefault(userKey(job), 0L))
+                        .thenComparingLong(job -> lastServed.getOrDefault(userKey(job), 0L))
+                        .thenComparingLong(Job::id))
+                .orElse(null);
+    }
+
+    /**
+     * Runs a claimed job until it finishes, its time slice is used up, it is cancelled or the node stops.
+     */
+    void execute(Job claimed) {
+        try {
+            shardRouting.run(shardRouting.shardOf(claimed.id()), () -> runSlice(claimed));
+        } finally {
+            synchronized (this) {
+                runningJobs.remove(claimed.id());
+            }
+            dispatch();
+        }
+    }
+
+    private void runSlice(Job claimed) {
+        JobHandler handler = handler(claimed);
+        long sliceEnd = System.nanoTime() + jobConfig.getTimeSlice().toNanos();
+        Job job = claimed;
+        try {
+            while (true) {
+                Job current = job;
+                JobStep step = transactionTemplate.execute(status -> {
+                    JobStep next = handler.runChunk(current);
+                    if (!jobRepository.saveStep(current.id(), nodeId, next, LocalDateTime.now(clock))) {
+                        status.setRollbackOnly();
+                        return null;
+                    }
+                    return next;
+                });
+                if (step == null) {
+                    jobRepository.finish(job.id(), nodeId, JobState.CANCELLED, null, LocalDateTime.now(clock));
+                    finished(job, JobState.CANCELLED);
+                    handler.discard(job);
+                    return;
+                }
+                chunkCounter.increment();
+                job = job.advance(step);
+                if (step.finished()) {
+                    finished(job, JobState.SUCCEEDED);
+                    return;
+                }
+                if (step.pause() != null) {
+                    jobRepository.requeue(job.id(), nodeId, LocalDateTime.now(clock).plus(step.pause()));
+                    return;
+                }
+                if (!running || System.nanoTime() - sliceEnd >= 0) {
+                    jobRepository.requeue(job.id(), nodeId, LocalDateTime.now(clock));
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            failed(job, handler, e);
+        }
+    }
+
+    @Override
+    public void start() {
+        // Renewed at once, so that the others do not take the jobs of this instance while it was down
+        int requeued = shardRouting.shards().stream()
+                .mapToInt(shard -> shardRouting.call(shard, () -> {
+                    int count = jobRepository.requeueRunning(nodeId);
+                    jobRepository.renewLeases(nodeId, jobConfig.getLease());
+                    return count;
+                }))
+                .sum();
+        if (requeued > 0) {
+            log.info("Resuming {} jobs interrupted by the last shutdown", requeued);
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(jobConfig.getWorkers(), runnable -> {
+            Thread thread = new Thread(runnable, "job-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        dispatch();
+    }
+
+    /**
+     * Stops starting jobs and lets the running ones reach the end of their current chunk, after which they go
+     * back to the queue. Jobs still running when the wait is over are queued again when this instance starts
+     * again, or released to another instance once their lease has expired.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(jobConfig.getTimeSlice().toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("{} jobs still running at shutdown", runningJobs.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * The next due job of every user, over all shards.
+     */
+    private List<Job> findQueuedHeads() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        return shardRouting.shards().stream()
+                .flatMap(shard -> shardRouting.read(shard, () -> jobRepository.findQueuedHeads(now, nodeId)).stream())
+                .toList();
+    }
+
+    private void start(Job job) {
+        long user = userKey(job);
+        runningJobs.put(job.id(), user);
+        lastServed.put(user, ++servedSequence);
+        log.debug("Starting {} job {} at {}/{}", job.type(), job.id(), job.progressDone(), job.progressTotal());
+        workers.execute(() -> execute(job));
+    }
+
+    private void failed(Job job, JobHandler handler, RuntimeException e) {
+        String error = truncate(e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        try {
+            if (job.attempts() + 1 < jobConfig.getMaxAttempts()) {
+                Duration backoff = jobConfig.getRetryBackoff().multipliedBy(1L << job.attempts());
+                log.warn("{} job {} failed, retrying in {}: {}", job.type(), job.id(), backoff, error);
+                jobRepository.retry(job.id(), nodeId, error, LocalDateTime.now(clock).plus(backoff));
+                return;
+            }
+            log.error("{} job {} failed after {} attempts", job.type(), job.id(), job.attempts() + 1, e);
+            jobRepository.finish(job.id(), nodeId, JobState.FAILED, error, LocalDateTime.now(clock));
+            finished(job, JobState.FAILED);
+            handler.discard(job);
+        } catch (DataAccessException recordFailure) {
+            // Left running; queued again when this instance restarts, or by another once the lease expires
+            log.warn("Recording the failure of job {} failed: {}", job.id(), recordFailure.getMessage());
+        }
+    }
+
+    private void finished(Job job, JobState state) {
+        log.info("{} job {} {} at {}/{}", job.type(), job.id(), state, job.progressDone(), job.progressTotal());
+        Counter.builder("jobs.finished")
+                .description("Jobs finished, by type and final state")
+                .tag("type", job.type().name())
+                .tag("state", state.name())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void discard(Job job) {
+        try {
+            handler(job).discard(job);
+        } catch (RuntimeException e) {
+            log.warn("Discarding the output of job {} failed: {}", job.id(), e.getMessage());
+        }
+    }
+
+    private boolean ranElsewhere(Job job) {
+        return job.nodeId() != null && !job.nodeId().equals(nodeId);
+    }
+
+    private JobHandler handler(Job job) {
+        JobHandler handler = handlers.get(job.type());
+        if (handler == null) {
+            throw new IllegalStateException("No handler for job type " + job.type());
+        }
+        return handler;
+    }
+
+    /**
+     * Runs an action once the current transaction has committed, or at once outside a transaction.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long userKey(Job job) {
+        return job.userId() == null ? SYSTEM_USER : job.userId();
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
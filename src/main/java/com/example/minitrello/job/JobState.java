@@ -0,0 +1,20 @@
+package com.example.minitrello.job;
+
+/**
+ * Lifecycle of a background job. A job goes back from RUNNING to QUEUED when its time slice is used up,
+ * when a chunk fails and is retried, and when the node restarts.
+ */
+public enum JobState {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED,
+    CANCELLED;
+
+    /**
+     * Whether the job has finished and will not run again.
+     */
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+    }
+}
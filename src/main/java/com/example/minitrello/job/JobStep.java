@@ -0,0 +1,37 @@
+package com.example.minitrello.job;
+
+import java.time.Duration;
+
+/**
+ * The outcome of one chunk of a job, stored in the same transaction as the chunk's own writes.
+ *
+ * @param checkpoint where the next chunk starts
+ * @param done the work done so far, including this chunk
+ * @param total the amount of work, or null if not known
+ * @param finished whether the job is complete
+ * @param result what the job produced, when finished
+ * @param pause how long to wait before the next chunk, or null to continue at once
+ */
+public record JobStep(String checkpoint, long done, Long total, boolean finished, String result, Duration pause) {
+
+    /**
+     * More work to do, starting at the given checkpoint.
+     */
+    public static JobStep next(String checkpoint, long done, Long total) {
+        return new JobStep(checkpoint, done, total, false, null, null);
+    }
+
+    /**
+     * More work to do, but not before the given delay, e.g. because it depends on other jobs.
+     */
+    public static JobStep pause(String checkpoint, long done, Long total, Duration delay) {
+        return new JobStep(checkpoint, done, total, false, null, delay);
+    }
+
+    /**
+     * The job is complete.
+     */
+    public static JobStep finished(long done, Long total, String result) {
+        return new JobStep(null, done, total, true, result, null);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.minitrello.job;
+
+/**
+ * The kinds of background job, each run by one {@link JobHandler}. Jobs someone is waiting for rank above
+ * housekeeping when workers are scarce.
+ */
+public enum JobType {
+    PROJECT_EXPORT(10),
+    PROJECT_PURGE(0),
+    USER_PURGE(0),
+    TASK_ARCHIVE(0);
+
+    private final int priority;
+
+    JobType(int priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * The priority new jobs of this type are queued with; higher runs first.
+     */
+    public int getPriority() {
+        return priority;
+    }
+}
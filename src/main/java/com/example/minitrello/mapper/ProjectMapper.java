@@ -4,11 +4,15 @@ import com.example.minitrello.dto.project.ProjectCreateDto;
 import com.example.minitrello.dto.project.ProjectDto;
 import com.example.minitrello.dto.project.ProjectUpdateDto;
 import com.example.minitrello.model.Project;
+import com.example.minitrello.model.Task;
 import com.example.minitrello.model.User;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
+import java.util.List;
+import java.util.Map;
+
 @Mapper(componentModel = "spring", uses = {UserMapper.class, TaskListMapper.class})
 public interface ProjectMapper {
 
@@ -20,6 +24,12 @@ public interface ProjectMapper {
     @Mapping(target = "taskLists", source = "taskLists")
     ProjectDto toDto(Project project);
 
+    /**
+     * Maps a project with the tasks of its lists read up front, by task list ID, instead of loading the tasks
+     * of each list on its own. Lists without an entry have no tasks.
+     */
+    ProjectDto toDto(Project project, Map<Long, List<Task>> tasksByTaskListId);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "owner", source = "owner")
     @Mapping(target = "members", ignore = true)
@@ -6,12 +6,16 @@ import com.example.minitrello.dto.project.ProjectUpdateDto;
 import com.example.minitrello.dto.tasklist.TaskListDto;
 import com.example.minitrello.dto.user.SimpleUserDto;
 import com.example.minitrello.model.Project;
+import com.example.minitrello.model.Task;
+import com.example.minitrello.model.TaskList;
 import com.example.minitrello.model.User;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +33,15 @@ public class ProjectMapperImpl implements ProjectMapper {
 
     @Override
     public ProjectDto toDto(Project project) {
+        return toDto(project, TaskList::getTasks);
+    }
+
+    @Override
+    public ProjectDto toDto(Project project, Map<Long, List<Task>> tasksByTaskListId) {
+        return toDto(project, taskList -> tasksByTaskListId.getOrDefault(taskList.getId(), List.of()));
+    }
+
+    private ProjectDto toDto(Project project, Function<TaskList, List<Task>> tasksOf) {
         if (project == null) {
             return null;
         }
@@ -40,27 +53,32 @@ public class ProjectMapperImpl implements ProjectMapper {
 
         // Create DTOs for taskLists (without including the project again to avoid circular dependency)
         List<TaskListDto> taskListDtos = project.getTaskLists().stream()
-                .map(taskList -> TaskListDto.builder()
-                        .id(taskList.getId())
-                        .name(taskList.getName())
-                        .position(taskList.getPosition())
-                        .projectId(project.getId())
-                        .projectName(project.getName())
-                        .taskCount(taskList.getTasks() != null ? taskList.getTasks().size() : 0)
-                        .tasks(taskList.getTasks() != null ?
-                                taskList.getTasks().stream()
-                                        .map(taskMapper::toDto)
-                                        .collect(Collectors.toList()) :
-                                new ArrayList<>())
-                        .createdAt(taskList.getCreatedAt())
-                        .updatedAt(taskList.getUpdatedAt())
-                        .build())
+                .map(taskList -> {
+                    List<Task> tasks = tasksOf.apply(taskList);
+                    return TaskListDto.builder()
+                            .id(taskList.getId())
+                            .name(taskList.getName())
+                            .position(taskList.getPosition())
+                            .projectId(project.getId())
+                            .projectName(project.getName())
+                            .taskCount(tasks != null ? tasks.size() : 0)
+                            .tasks(tasks != null ?
+                                    tasks.stream()
+                                            .map(taskMapper::toDto)
+                                            .collect(Collectors.toList()) :
+                                    new ArrayList<>())
+                            .archiveAfterDays(taskList.getArchiveAfterDays())
+                            .createdAt(taskList.getCreatedAt())
+                            .updatedAt(taskList.getUpdatedAt())
+                            .build();
+                })
                 .collect(Collectors.toList());
 
         return ProjectDto.builder()
                 .id(project.getId())
                 .name(project.getName())
                 .description(project.getDescription())
+                .isTemplate(project.getIsTemplate())
                 .ownerId(project.getOwner() != null ? project.getOwner().getId() : null)
                 .ownerName(project.getOwner() != null ? project.getOwner().getName() : null)
                 .members(memberDtos)
@@ -98,5 +116,9 @@ public class ProjectMapperImpl implements ProjectMapper {
         if (updateDto.getDescription() != null) {
             project.setDescription(updateDto.getDescription());
         }
+
+        if (updateDto.getIsTemplate() != null) {
+            project.setIsTemplate(updateDto.getIsTemplate());
+        }
     }
 }
\ No newline at end of file
@@ -4,11 +4,14 @@ import com.example.minitrello.dto.tasklist.TaskListCreateDto;
 import com.example.minitrello.dto.tasklist.TaskListDto;
 import com.example.minitrello.dto.tasklist.TaskListUpdateDto;
 import com.example.minitrello.model.Project;
+import com.example.minitrello.model.Task;
 import com.example.minitrello.model.TaskList;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
+import java.util.List;
+
 @Mapper(componentModel = "spring", uses = {TaskMapper.class})
 public interface TaskListMapper {
 
@@ -17,6 +20,11 @@ public interface TaskListMapper {
     @Mapping(target = "taskCount", expression = "java(taskList.getTasks().size())")
     TaskListDto toDto(TaskList taskList);
 
+    /**
+     * Maps a task list with its tasks read up front, in position order, instead of loading them from the list.
+     */
+    TaskListDto toDto(TaskList taskList, List<Task> tasks);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "project", source = "project")
     @Mapping(target = "tasks", ignore = true)
@@ -4,11 +4,13 @@ import com.example.minitrello.dto.tasklist.TaskListCreateDto;
 import com.example.minitrello.dto.tasklist.TaskListDto;
 import com.example.minitrello.dto.tasklist.TaskListUpdateDto;
 import com.example.minitrello.model.Project;
+import com.example.minitrello.model.Task;
 import com.example.minitrello.model.TaskList;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Component
@@ -23,16 +25,26 @@ public class TaskListMapperImpl implements TaskListMapper {
             return null;
         }
 
+        return toDto(taskList, taskList.getTasks());
+    }
+
+    @Override
+    public TaskListDto toDto(TaskList taskList, List<Task> tasks) {
+        if (taskList == null) {
+            return null;
+        }
+
         return TaskListDto.builder()
                 .id(taskList.getId())
                 .name(taskList.getName())
                 .position(taskList.getPosition())
                 .projectId(taskList.getProject() != null ? taskList.getProject().getId() : null)
                 .projectName(taskList.getProject() != null ? taskList.getProject().getName() : null)
-                .taskCount(taskList.getTasks() != null ? taskList.getTasks().size() : 0)
-                .tasks(taskList.getTasks() != null ?
-                        taskList.getTasks().stream().map(taskMapper::toDto).collect(Collectors.toList()) :
+                .taskCount(tasks != null ? tasks.size() : 0)
+                .tasks(tasks != null ?
+                        tasks.stream().map(taskMapper::toDto).collect(Collectors.toList()) :
                         new ArrayList<>())
+                .archiveAfterDays(taskList.getArchiveAfterDays())
                 .createdAt(taskList.getCreatedAt())
                 .updatedAt(taskList.getUpdatedAt())
                 .build();
@@ -65,6 +77,10 @@ public class TaskListMapperImpl implements TaskListMapper {
         if (updateDto.getPosition() != null) {
             taskList.setPosition(updateDto.getPosition());
         }
+
+        if (updateDto.getArchiveAfterDays() != null) {
+            taskList.setArchiveAfterDays(updateDto.getArchiveAfterDays() > 0 ? updateDto.getArchiveAfterDays() : null);
+        }
     }
 
 }
\ No newline at end of file
@@ -1,11 +1,15 @@
 package com.example.minitrello.mapper;
 
+import com.example.minitrello.dto.task.AssignedTaskDto;
 import com.example.minitrello.dto.task.TaskCreateDto;
 import com.example.minitrello.dto.task.TaskDto;
+import com.example.minitrello.dto.task.TaskSearchResultDto;
 import com.example.minitrello.dto.task.TaskUpdateDto;
 import com.example.minitrello.model.Task;
 import com.example.minitrello.model.TaskList;
 import com.example.minitrello.model.User;
+import com.example.minitrello.repository.projection.AssignedTaskRow;
+import com.example.minitrello.repository.projection.TaskSearchRow;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -32,4 +36,8 @@ public interface TaskMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     void updateTaskFromDto(TaskUpdateDto updateDto, @MappingTarget Task task);
+
+    TaskSearchResultDto toSearchResultDto(TaskSearchRow row);
+
+    AssignedTaskDto toAssignedTaskDto(AssignedTaskRow row);
 }
\ No newline at end of file
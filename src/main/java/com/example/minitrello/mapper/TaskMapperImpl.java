@@ -1,12 +1,18 @@
 package com.example.minitrello.mapper;
 
+import com.example.minitrello.dto.task.AssignedTaskDto;
 import com.example.minitrello.dto.task.TaskCreateDto;
 import com.example.minitrello.dto.task.TaskDto;
+import com.example.minitrello.dto.task.TaskSearchResultDto;
 import com.example.minitrello.dto.task.TaskUpdateDto;
 import com.example.minitrello.model.Task;
 import com.example.minitrello.model.TaskList;
 import com.example.minitrello.model.User;
+import com.example.minitrello.repository.projection.AssignedTaskRow;
+import com.example.minitrello.repository.TaskRepository;
+import com.example.minitrello.repository.projection.TaskSearchRow;
 import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
 
 @Component
 public class TaskMapperImpl implements TaskMapper {
@@ -42,6 +48,7 @@ public class TaskMapperImpl implements TaskMapper {
                 .description(createDto.getDescription())
                 .position(createDto.getPosition())
                 .taskList(taskList)
+                .projectId(taskList.getProject().getId())
                 .assignedUser(assignedUser)
                 .build();
     }
@@ -64,4 +71,56 @@ public class TaskMapperImpl implements TaskMapper {
             task.setPosition(updateDto.getPosition());
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public TaskSearchResultDto toSearchResultDto(TaskSearchRow row) {
+        if (row == null) {
+            return null;
+        }
+
+        return TaskSearchResultDto.builder()
+                .id(row.getId())
+                .title(row.getTitle())
+                .titleHighlight(highlight(row.getTitleHighlight()))
+                .descriptionHighlight(highlight(row.getDescriptionHighlight()))
+                .taskListId(row.getTaskListId())
+                .taskListName(row.getTaskListName())
+                .projectId(row.getProjectId())
+                .projectName(row.getProjectName())
+                .rank(row.getRank())
+                .updatedAt(row.getUpdatedAt())
+                .build();
+    }
+
+    @Override
+    public AssignedTaskDto toAssignedTaskDto(AssignedTaskRow row) {
+        if (row == null) {
+            return null;
+        }
+
+        return AssignedTaskDto.builder()
+                .id(row.getId())
+                .title(row.getTitle())
+                .position(row.getPosition())
+                .taskListId(row.getTaskListId())
+                .taskListName(row.getTaskListName())
+                .projectId(row.getProjectId())
+                .projectName(row.getProjectName())
+                .createdAt(row.getCreatedAt())
+                .updatedAt(row.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * HTML-escapes a highlighted fragment and turns the match marks of the search query into {@code <mark>} tags,
+     * so that a client can render it without rendering markup stored in the task.
+     */
+    private static String highlight(String fragment) {
+        if (fragment == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(fragment)
+                .replace(TaskRepository.HIGHLIGHT_START, "<mark>")
+                .replace(TaskRepository.HIGHLIGHT_STOP, "</mark>");
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.minitrello.mapper;
+
+import com.example.minitrello.dto.webhook.WebhookCreateDto;
+import com.example.minitrello.dto.webhook.WebhookDto;
+import com.example.minitrello.model.Project;
+import com.example.minitrello.model.WebhookSubscription;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface WebhookMapper {
+
+    @Mapping(target = "projectId", source = "project.id")
+    @Mapping(target = "signed", expression = "java(subscription.getSecret() != null)")
+    WebhookDto toDto(WebhookSubscription subscription);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "project", source = "project")
+    @Mapping(target = "active", constant = "true")
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    WebhookSubscription toEntity(WebhookCreateDto createDto, Project project);
+}
@@ -0,0 +1,41 @@
+package com.example.minitrello.mapper;
+
+import com.example.minitrello.dto.webhook.WebhookCreateDto;
+import com.example.minitrello.dto.webhook.WebhookDto;
+import com.example.minitrello.model.Project;
+import com.example.minitrello.model.WebhookSubscription;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WebhookMapperImpl implements WebhookMapper {
+
+    @Override
+    public WebhookDto toDto(WebhookSubscription subscription) {
+        if (subscription == null) {
+            return null;
+        }
+
+        return WebhookDto.builder()
+                .id(subscription.getId())
+                .projectId(subscription.getProject() != null ? subscription.getProject().getId() : null)
+                .url(subscription.getUrl())
+                .signed(subscription.getSecret() != null)
+                .active(subscription.getActive())
+                .createdAt(subscription.getCreatedAt())
+                .build();
+    }
+
+    @Override
+    public WebhookSubscription toEntity(WebhookCreateDto createDto, Project project) {
+        if (createDto == null) {
+            return null;
+        }
+
+        return WebhookSubscription.builder()
+                .project(project)
+                .url(createDto.getUrl())
+                .secret(createDto.getSecret())
+                .active(true)
+                .build();
+    }
+}
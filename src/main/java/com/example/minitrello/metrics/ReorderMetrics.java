@@ -0,0 +1,42 @@
+package com.example.minitrello.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records how many rows each reorder loads and writes back. Inserting, moving or removing a task or
+ * list rewrites the positions of its siblings, so the size of these batches grows with the list.
+ */
+@Component
+public class ReorderMetrics {
+
+    public static final String TASK = "task";
+    public static final String TASK_LIST = "task_list";
+
+    public static final String SHIFT = "shift";
+    public static final String NORMALIZE = "normalize";
+
+    private final MeterRegistry meterRegistry;
+
+    public ReorderMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records one reorder.
+     *
+     * @param entity {@link #TASK} or {@link #TASK_LIST}
+     * @param operation {@link #SHIFT} when making room for an insert, {@link #NORMALIZE} when closing a gap
+     * @param rows the number of rows saved
+     */
+    public void record(String entity, String operation, int rows) {
+        DistributionSummary.builder("reorder.rows")
+                .description("Rows saved by a single reorder")
+                .tag("entity", entity)
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(rows);
+    }
+}
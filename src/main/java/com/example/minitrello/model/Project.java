@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -14,6 +15,7 @@ import java.util.Objects;
 import java.util.Set;
 
 @Entity
+@SQLRestriction("deleted_at IS NULL")
 @Table(name = "projects")
 @Getter
 @Setter
@@ -33,6 +35,13 @@ public class Project {
     @Size(max = 500)
     private String description;
 
+    /**
+     * Whether the project is a template that new projects are cloned from.
+     */
+    @Builder.Default
+    @Column(name = "is_template", nullable = false)
+    private Boolean isTemplate = false;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
@@ -56,6 +65,11 @@ public class Project {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    /**
+     * Set when the project is deleted; the row is hidden from every query and purged after the restore window.
+     */
+    private LocalDateTime deletedAt;
+
     /**
      * Helper method to add a member to the project
      */
@@ -18,6 +18,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.PartitionKey;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -50,6 +51,14 @@ public class Task {
     @JoinColumn(name = "task_list_id", nullable = false)
     private TaskList taskList;
 
+    /**
+     * The project of the task's list, which the tasks table is partitioned by. Updates and deletes name it so
+     * they only touch one partition; it changes with the list when a task moves to another project.
+     */
+    @PartitionKey
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_user_id")
     private User assignedUser;
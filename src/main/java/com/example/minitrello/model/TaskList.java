@@ -57,6 +57,11 @@ public class TaskList {
     @Builder.Default
     private List<Task> tasks = new ArrayList<>();
 
+    /**
+     * Tasks of the list not updated for this many days are archived, or never if null.
+     */
+    private Integer archiveAfterDays;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
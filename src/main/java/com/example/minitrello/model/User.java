@@ -7,6 +7,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -15,6 +16,7 @@ import java.util.Objects;
 import java.util.Set;
 
 @Entity
+@SQLRestriction("deleted_at IS NULL")
 @Table(name = "users", uniqueConstraints = {
         @UniqueConstraint(columnNames = "email")
 })
@@ -65,6 +67,11 @@ public class User {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    /**
+     * Set when the user is deleted; the row is hidden from every query and purged after the restore window.
+     */
+    private LocalDateTime deletedAt;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,163 @@
+package com.example.minitrello.openapi;
+
+import com.example.minitrello.MiniTrelloApplication;
+import com.example.minitrello.config.OpenApiConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import org.springdoc.core.configuration.SpringDocConfiguration;
+import org.springdoc.core.configuration.SpringDocPageableConfiguration;
+import org.springdoc.core.configuration.SpringDocSecurityConfiguration;
+import org.springdoc.core.configuration.SpringDocSortConfiguration;
+import org.springdoc.core.configuration.SpringDocSpecPropertiesConfiguration;
+import org.springdoc.core.properties.SpringDocConfigProperties;
+import org.springdoc.webmvc.core.configuration.SpringDocWebMvcConfiguration;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.ComponentScan.Filter;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.data.web.config.EnableSpringDataWebSupport;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Generates the OpenAPI document at build time (exec-maven-plugin, process-classes phase), so production
+ * does not scan controllers at runtime.
+ * <p>
+ * Starts only the web layer with springdoc, {@link OpenApiConfig}, the controllers and the documentation
+ * settings of {@link MiniTrelloApplication}, on a random port.
+ * The services the controllers depend on are replaced by proxies that throw, since the document is built
+ * from annotations and no handler is invoked. Writes {@value #JSON_RESOURCE} and {@value #YAML_RESOURCE}
+ * under the given classes directory, without the generator's server URL.
+ */
+@ImportAutoConfiguration({
+        PropertyPlaceholderAutoConfiguration.class,
+        ServletWebServerFactoryAutoConfiguration.class,
+        DispatcherServletAutoConfiguration.class,
+        WebMvcAutoConfiguration.class,
+        HttpMessageConvertersAutoConfiguration.class,
+        JacksonAutoConfiguration.class,
+        SpringDocConfiguration.class,
+        SpringDocConfigProperties.class,
+        SpringDocSpecPropertiesConfiguration.class,
+        SpringDocSecurityConfiguration.class,
+        SpringDocPageableConfiguration.class,
+        SpringDocSortConfiguration.class,
+        SpringDocWebMvcConfiguration.class
+})
+@ComponentScan(basePackages = "com.example.minitrello.controller", useDefaultFilters = false,
+        includeFilters = @Filter(RestController.class))
+@Import(OpenApiConfig.class)
+@EnableSpringDataWebSupport(pageSerializationMode = EnableSpringDataWebSupport.PageSerializationMode.VIA_DTO)
+public class OpenApiSpecGenerator {
+
+    public static final String JSON_RESOURCE = "openapi/api-docs.json";
+    public static final String YAML_RESOURCE = "openapi/api-docs.yaml";
+
+    /**
+     * @param args the classes directory to write to (default {@code target/classes})
+     */
+    public static void main(String[] args) throws Exception {
+        Path classes = Path.of(args.length > 0 ? args[0] : "target/classes");
+
+        SpringApplication application = new SpringApplication(OpenApiSpecGenerator.class);
+        application.setBannerMode(Banner.Mode.OFF);
+        application.addInitializers(context -> {
+            // Instance only, for its @OpenAPIDefinition; as a bean definition it would scan the whole application
+            context.getBeanFactory().registerSingleton("miniTrelloApplication", new MiniTrelloApplication());
+            registerServiceStubs((GenericApplicationContext) context);
+        });
+
+        try (ConfigurableApplicationContext context = application.run("--server.port=0", "--springdoc.api-docs.enabled=true")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String path = context.getEnvironment().getProperty("springdoc.api-docs.path", "/v3/api-docs");
+            String json = fetch("http://localhost:" + port + path);
+
+            ObjectMapper mapper = context.getBean(ObjectMapper.class);
+            ObjectNode document = (ObjectNode) mapper.readTree(json);
+            // Clients resolve paths against the URL the document was loaded from when no server is listed
+            document.remove("servers");
+
+            write(classes.resolve(JSON_RESOURCE), mapper.writerWithDefaultPrettyPrinter().writeValueAsString(document));
+            write(classes.resolve(YAML_RESOURCE), new YAMLMapper().writeValueAsString(document));
+        }
+    }
+
+    /**
+     * Registers a throwing proxy for every interface a controller constructor takes.
+     */
+    private static void registerServiceStubs(GenericApplicationContext context) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Controller.class));
+        for (BeanDefinition candidate : scanner.findCandidateComponents("com.example.minitrello.controller")) {
+            Class<?> controller = loadClass(candidate.getBeanClassName());
+            for (Constructor<?> constructor : controller.getDeclaredConstructors()) {
+                for (Class<?> type : constructor.getParameterTypes()) {
+                    if (type.isInterface() && !context.containsBeanDefinition(type.getName())) {
+                        registerStub(context, type);
+                    }
+                }
+            }
+        }
+    }
+
+    private static <T> void registerStub(GenericApplicationContext context, Class<T> type) {
+        T stub = type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, methodArgs) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == methodArgs[0];
+                    default -> type.getName() + " stub";
+                };
+            }
+            throw new UnsupportedOperationException("Not available while generating the OpenAPI document");
+        }));
+        context.registerBean(type.getName(), type, () -> stub);
+    }
+
+    private static Class<?> loadClass(String name) {
+        try {
+            return Class.forName(name, false, OpenApiSpecGenerator.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String fetch(String url) throws IOException, InterruptedException {
+        HttpResponse<String> response = HttpClient.newHttpClient()
+                .send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + url + " returned " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.minitrello.profiling;
+
+import jdk.jfr.Recording;
+
+import java.time.Duration;
+
+/**
+ * What a recording captures. Each preset enables only the events it needs, so recordings stay small
+ * and the overhead on a live node stays low.
+ */
+public enum ProfilingPreset {
+
+    /**
+     * Samples the stacks of running Java threads.
+     */
+    CPU {
+        @Override
+        public void configure(Recording recording) {
+            recording.enable("jdk.ExecutionSample").withPeriod(Duration.ofMillis(10));
+        }
+    },
+
+    /**
+     * Samples allocations, weighted by the bytes allocated since the previous sample.
+     */
+    ALLOCATION {
+        @Override
+        public void configure(Recording recording) {
+            recording.enable("jdk.ObjectAllocationSample").with("throttle", "300/s").withStackTrace();
+        }
+    },
+
+    /**
+     * Records threads blocked on monitors or parked on locks for longer than 10 ms.
+     */
+    LOCKS {
+        @Override
+        public void configure(Recording recording) {
+            Duration threshold = Duration.ofMillis(10);
+            recording.enable("jdk.JavaMonitorEnter").withThreshold(threshold).withStackTrace();
+            recording.enable("jdk.JavaMonitorWait").withThreshold(threshold).withStackTrace();
+            recording.enable("jdk.ThreadPark").withThreshold(threshold).withStackTrace();
+        }
+    };
+
+    public abstract void configure(Recording recording);
+}
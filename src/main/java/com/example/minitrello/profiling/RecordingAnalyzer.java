@@ -0,0 +1,123 @@
+package com.example.minitrello.profiling;
+
+import com.example.minitrello.dto.profiling.HotspotDto;
+import com.example.minitrello.dto.profiling.RecordingSummaryDto;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a JFR recording and aggregates its samples into the top hot methods, allocation sites and lock sites.
+ * <p>
+ * Hot methods are attributed to the top frame (self time). Allocation and lock sites are attributed to the
+ * first frame outside the JDK, since the top frame is usually a collection or lock class.
+ */
+@Component
+public class RecordingAnalyzer {
+
+    private static final String NO_STACK_TRACE = "<no stack trace>";
+    private static final String[] JDK_PACKAGES = {"java.", "javax.", "jdk.", "sun.", "com.sun."};
+
+    public RecordingSummaryDto summarize(Path file, int top) throws IOException {
+        Map<String, long[]> hotMethods = new HashMap<>();
+        Map<String, long[]> allocationSites = new HashMap<>();
+        Map<String, long[]> lockSites = new HashMap<>();
+
+        try (RecordingFile recordingFile = new RecordingFile(file)) {
+            while (recordingFile.hasMoreEvents()) {
+                RecordedEvent event = recordingFile.readEvent();
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample" -> add(hotMethods, method(event.getStackTrace()), 1);
+                    case "jdk.ObjectAllocationSample" -> add(allocationSites,
+                            site(event.getStackTrace()) + " (" + className(event, "objectClass") + ")",
+                            event.getLong("weight"));
+                    case "jdk.JavaMonitorEnter", "jdk.JavaMonitorWait" -> add(lockSites,
+                            site(event.getStackTrace()) + " (" + className(event, "monitorClass") + ")",
+                            event.getDuration().toNanos());
+                    case "jdk.ThreadPark" -> add(lockSites,
+                            site(event.getStackTrace()) + " (" + className(event, "parkedClass") + ")",
+                            event.getDuration().toNanos());
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        return RecordingSummaryDto.builder()
+                .executionSamples(count(hotMethods))
+                .allocationSamples(count(allocationSites))
+                .lockEvents(count(lockSites))
+                .hotMethods(top(hotMethods, top))
+                .allocationSites(top(allocationSites, top))
+                .lockSites(top(lockSites, top))
+                .build();
+    }
+
+    private static void add(Map<String, long[]> sites, String location, long weight) {
+        long[] totals = sites.computeIfAbsent(location, key -> new long[2]);
+        totals[0]++;
+        totals[1] += weight;
+    }
+
+    private static long count(Map<String, long[]> sites) {
+        return sites.values().stream().mapToLong(totals -> totals[0]).sum();
+    }
+
+    private static List<HotspotDto> top(Map<String, long[]> sites, int top) {
+        long totalWeight = sites.values().stream().mapToLong(totals -> totals[1]).sum();
+        return sites.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[1]).reversed())
+                .limit(top)
+                .map(entry -> HotspotDto.builder()
+                        .location(entry.getKey())
+                        .events(entry.getValue()[0])
+                        .weight(entry.getValue()[1])
+                        .percent(totalWeight == 0 ? 0 : Math.round(entry.getValue()[1] * 1000.0 / totalWeight) / 10.0)
+                        .build())
+                .toList();
+    }
+
+    private static String method(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return NO_STACK_TRACE;
+        }
+        RecordedFrame frame = stackTrace.getFrames().get(0);
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return NO_STACK_TRACE;
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        RecordedFrame frame = frames.stream()
+                .filter(candidate -> candidate.isJavaFrame() && !isJdk(candidate.getMethod().getType().getName()))
+                .findFirst()
+                .orElse(frames.get(0));
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static boolean isJdk(String className) {
+        for (String jdkPackage : JDK_PACKAGES) {
+            if (className.startsWith(jdkPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String className(RecordedEvent event, String field) {
+        RecordedClass recordedClass = event.hasField(field) ? event.getClass(field) : null;
+        return recordedClass != null ? recordedClass.getName() : "?";
+    }
+}
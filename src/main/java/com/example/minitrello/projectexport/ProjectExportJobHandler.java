@@ -0,0 +1,151 @@
+package com.example.minitrello.projectexport;
+
+import com.example.minitrello.config.JobConfig;
+import com.example.minitrello.exception.ResourceNotFoundException;
+import com.example.minitrello.job.Job;
+import com.example.minitrello.job.JobHandler;
+import com.example.minitrello.job.JobStep;
+import com.example.minitrello.job.JobType;
+import com.example.minitrello.repository.ProjectExportRepository;
+import com.example.minitrello.repository.ProjectExportRepository.ExportedProject;
+import com.example.minitrello.repository.ProjectExportRepository.ExportedTask;
+import com.example.minitrello.repository.ProjectExportRepository.ExportedTaskList;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Exports a project to an NDJSON file: one line for the project, one per task list, then one per task in id
+ * order, each with a {@code type} field. The first chunk writes the project and its task lists, every further
+ * chunk appends up to {@code app.jobs.export-batch-size} tasks. The checkpoint holds the last task written and
+ * the file length after it; a chunk resumed after a restart first cuts off anything written past that length.
+ * A job taken over by another instance, which does not have the file, starts the export over.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProjectExportJobHandler implements JobHandler {
+
+    private final ProjectExportRepository projectExportRepository;
+    private final JobConfig jobConfig;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public JobType type() {
+        return JobType.PROJECT_EXPORT;
+    }
+
+    @Override
+    public JobStep runChunk(Job job) {
+        long projectId = job.subjectId();
+        Path file = file(job);
+        try {
+            if (job.checkpoint() == null || !Files.exists(file)) {
+                ExportedProject project = projectExportRepository.findProject(projectId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Project", "id", projectId));
+                StringBuilder lines = new StringBuilder();
+                append(lines, "project", project);
+                for (ExportedTaskList taskList : projectExportRepository.findTaskLists(projectId)) {
+                    append(lines, "task_list", taskList);
+                }
+                Files.createDirectories(file.getParent());
+                long length = write(file, 0, lines, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                return JobStep.next(new Checkpoint(0, length).format(), 0, projectExportRepository.countTasks(projectId));
+            }
+
+            Checkpoint checkpoint = Checkpoint.parse(job.checkpoint());
+            int batchSize = jobConfig.getExportBatchSize();
+            List<ExportedTask> tasks = projectExportRepository.findTasksAfter(projectId, checkpoint.lastTaskId(),
+                    batchSize);
+            StringBuilder lines = new StringBuilder();
+            for (ExportedTask task : tasks) {
+                append(lines, "task", task);
+            }
+            long length = write(file, checkpoint.length(), lines, StandardOpenOption.WRITE);
+            long done = job.progressDone() + tasks.size();
+            // The task count is taken when the export starts; tasks added since are exported too
+            Long total = job.progressTotal() == null ? null : Math.max(job.progressTotal(), done);
+            if (tasks.size() < batchSize) {
+                return JobStep.finished(done, done, file.getFileName().toString());
+            }
+            return JobStep.next(new Checkpoint(tasks.get(tasks.size() - 1).id(), length).format(), done, total);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Writing export of project " + projectId + " failed", e);
+        }
+    }
+
+    @Override
+    public void discard(Job job) {
+        try {
+            Files.deleteIfExists(file(job));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Optional<Path> resultFile(Job job) {
+        return Optional.of(file(job)).filter(Files::isRegularFile);
+    }
+
+    private Path file(Job job) {
+        return jobConfig.getResultDirectory().resolve("project-" + job.subjectId() + "-export-" + job.id() + ".ndjson");
+    }
+
+    private void append(StringBuilder lines, String type, Object row) throws JsonProcessingException {
+        ObjectNode line = objectMapper.createObjectNode().put("type", type);
+        line.setAll((ObjectNode) objectMapper.valueToTree(row));
+        lines.append(objectMapper.writeValueAsString(line)).append('\n');
+    }
+
+    /**
+     * Writes the lines at the given position, dropping whatever follows it, and forces them to disk before the
+     * checkpoint that covers them is committed.
+     *
+     * @return the length of the file
+     */
+    private static long write(Path file, long position, CharSequence lines, StandardOpenOption... options)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            if (channel.size() < position) {
+                throw new IllegalStateException("Export file " + file + " is shorter than its checkpoint");
+            }
+            channel.truncate(position);
+            channel.position(position);
+            ByteBuffer buffer = StandardCharsets.UTF_8.encode(lines.toString());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            return channel.position();
+        }
+    }
+
+    /**
+     * The last task written and the file length after it.
+     */
+    record Checkpoint(long lastTaskId, long length) {
+
+        String format() {
+            return lastTaskId + ":" + length;
+        }
+
+        static Checkpoint parse(String checkpoint) {
+            int separator = checkpoint.indexOf(':');
+            return new Checkpoint(Long.parseLong(checkpoint.substring(0, separator)),
+                    Long.parseLong(checkpoint.substring(separator + 1)));
+        }
+    }
+}
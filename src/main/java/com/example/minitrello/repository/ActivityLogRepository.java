@@ -0,0 +1,190 @@
+package com.example.minitrello.repository;
+
+import com.example.minitrello.activity.ActivityEntry;
+import com.example.minitrello.dto.activity.ActivityDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * JDBC access to the partitioned activity_log table. The table has no JPA entity: it is only
+ * appended to in batches and read through the feed queries, and its partitions are managed here.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ActivityLogRepository {
+
+    public static final String TABLE = "activity_log";
+
+    private static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final String COLUMNS =
+            "id, project_id, actor_id, action, entity_type, entity_id, details, created_at";
+    private static final String PARTITION_PREFIX = TABLE + "_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String INSERT = "INSERT INTO activity_log "
+            + "(project_id, actor_id, action, entity_type, entity_id, details, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String FEED_COLUMNS = "SELECT a.id, a.action, a.entity_type, a.entity_id, a.actor_id, "
+            + "u.name AS actor_name, a.details, a.created_at "
+            + "FROM activity_log a LEFT JOIN users u ON u.id = a.actor_id ";
+
+    private static final String FEED_SELECT = FEED_COLUMNS + "WHERE a.project_id = ? ";
+
+    /**
+     * Account-level activity has no project and is only written to shard 0, with the users. It is found through
+     * the project index as well, under its NULL key.
+     */
+    private static final String ACCOUNT_FEED_SELECT = FEED_COLUMNS + "WHERE a.project_id IS NULL ";
+
+    private static final String FEED_AFTER = "AND (a.created_at < ? OR (a.created_at = ? AND a.id < ?)) ";
+
+    private static final String FEED_ORDER = "ORDER BY a.created_at DESC, a.id DESC LIMIT ?";
+
+    private static final RowMapper<ActivityDto> ACTIVITY_ROW_MAPPER = (rs, rowNum) -> ActivityDto.builder()
+            .id(rs.getLong("id"))
+            .action(rs.getString("action"))
+            .entityType(rs.getString("entity_type"))
+            .entityId(rs.getObject("entity_id", Long.class))
+            .actorId(rs.getObject("actor_id", Long.class))
+            .actorName(rs.getString("actor_name"))
+            .details(rs.getString("details"))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the given entries as one JDBC batch.
+     */
+    public void insertBatch(List<ActivityEntry> entries) {
+        jdbcTemplate.batchUpdate(INSERT, entries, entries.size(), (ps, entry) -> {
+            setLong(ps, 1, entry.projectId());
+            setLong(ps, 2, entry.actorId());
+            ps.setString(3, entry.action().name());
+            ps.setString(4, entry.action().getEntityType());
+            setLong(ps, 5, entry.entityId());
+            ps.setString(6, entry.details());
+            ps.setTimestamp(7, Timestamp.valueOf(entry.createdAt()));
+        });
+    }
+
+    /**
+     * Newest activity of a project, first page.
+     */
+    public List<ActivityDto> findByProject(Long projectId, int limit) {
+        return jdbcTemplate.query(FEED_SELECT + FEED_ORDER, ACTIVITY_ROW_MAPPER, projectId, limit);
+    }
+
+    /**
+     * Newest activity of a project, continuing after the given keyset cursor.
+     */
+    public List<ActivityDto> findByProjectAfter(Long projectId, LocalDateTime cursorCreatedAt, Long cursorId, int limit) {
+        Timestamp cursorTimestamp = Timestamp.valueOf(cursorCreatedAt);
+        return jdbcTemplate.query(FEED_SELECT + FEED_AFTER + FEED_ORDER,
+                ACTIVITY_ROW_MAPPER, projectId, cursorTimestamp, cursorTimestamp, cursorId, limit);
+    }
+
+    /**
+     * Newest account-level activity, such as role changes, disables, deletes and restores of users, first page.
+     */
+    public List<ActivityDto> findAccountActivity(int limit) {
+        return jdbcTemplate.query(ACCOUNT_FEED_SELECT + FEED_ORDER, ACTIVITY_ROW_MAPPER, limit);
+    }
+
+    /**
+     * Newest account-level activity, continuing after the given keyset cursor.
+     */
+    public List<ActivityDto> findAccountActivityAfter(LocalDateTime cursorCreatedAt, Long cursorId, int limit) {
+        Timestamp cursorTimestamp = Timestamp.valueOf(cursorCreatedAt);
+        return jdbcTemplate.query(ACCOUNT_FEED_SELECT + FEED_AFTER + FEED_ORDER,
+                ACTIVITY_ROW_MAPPER, cursorTimestamp, cursorTimestamp, cursorId, limit);
+    }
+
+    /**
+     * Creates the partition holding the given month unless it already exists. Rows of that month that were
+     * written to the default partition in the meantime would make the new partition overlap it, so they are
+     * moved over: the default partition is detached, the partition created, the rows reinserted and the default
+     * partition attached again, all in one transaction.
+     *
+     * @return the number of rows moved out of the default partition
+     */
+    @Transactional
+    public int createMonthlyPartition(YearMonth month) {
+        String partition = partitionName(month);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+                partition))) {
+            return 0;
+        }
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        String create = "CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + TABLE
+                + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION
+                + " WHERE created_at >= ? AND created_at < ?)", Boolean.class, from, to))) {
+            jdbcTemplate.execute(create);
+            return 0;
+        }
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + DEFAULT_PARTITION);
+        jdbcTemplate.execute(create);
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                + " WHERE created_at >= ? AND created_at < ? RETURNING " + COLUMNS + ") INSERT INTO " + TABLE
+                + " (" + COLUMNS + ") SELECT " + COLUMNS + " FROM moved", from, to);
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+        return moved;
+    }
+
+    /**
+     * Lists the months that currently have a partition, oldest first. The default partition is not included.
+     */
+    public List<YearMonth> findPartitionMonths() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent "
+                        + "WHERE p.relname = ? AND c.relname LIKE ? ORDER BY c.relname",
+                        String.class, TABLE, PARTITION_PREFIX + "%")
+                .stream()
+                .map(name -> YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX))
+                .toList();
+    }
+
+    /**
+     * Drops the partition of the given month, discarding all of its rows at once.
+     */
+    public void dropMonthlyPartition(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(month));
+    }
+
+    /**
+     * Deletes rows older than the given time from the default partition, which only catches stray rows
+     * and is never dropped.
+     */
+    public int deleteFromDefaultPartitionBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE created_at < ?", Timestamp.valueOf(cutoff));
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+}
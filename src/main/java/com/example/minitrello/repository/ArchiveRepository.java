@@ -0,0 +1,319 @@
+package com.example.minitrello.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access to archived tasks and task lists. Archiving and restoring move rows between the live tables and
+ * the archive tables with one {@code DELETE ... RETURNING} feeding an {@code INSERT}, so a row is in exactly one
+ * of them and the live tables, which every board read uses, only hold the cards in use. Statements on the live
+ * tables name the project, so that they only touch its partition.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ArchiveRepository {
+
+    private static final String TASK_COLUMNS = "id, title, description, position, task_list_id, project_id, "
+            + "assigned_user_id, created_at, updated_at";
+
+    private static final String TASK_LIST_COLUMNS = "id, name, position, project_id, created_at, updated_at, "
+            + "archive_after_days";
+
+    private static final String ARCHIVED_TASK_SELECT = "SELECT a.id, a.title, a.description, a.task_list_id, "
+            + "COALESCE(l.name, al.name) AS task_list_name, al.id IS NOT NULL AS task_list_archived, "
+            + "a.assigned_user_id, a.project_id, a.created_at, a.updated_at, a.archived_at FROM archived_tasks a "
+            + "LEFT JOIN task_lists l ON l.id = a.task_list_id "
+            + "LEFT JOIN archived_task_lists al ON al.id = a.task_list_id ";
+
+    private static final String ARCHIVED_TASK_LIST_SELECT = "SELECT al.id, al.name, al.project_id, "
+            + "(SELECT count(*) FROM archived_tasks a WHERE a.task_list_id = al.id "
+            + "AND a.archived_at >= al.archived_at) AS task_count, "
+            + "al.archive_after_days, al.created_at, al.updated_at, al.archived_at FROM archived_task_lists al ";
+
+    private static final RowMapper<ArchivedTask> ARCHIVED_TASK_ROW_MAPPER = (rs, rowNum) -> new ArchivedTask(
+            rs.getLong("id"),
+            rs.getString("title"),
+            rs.getString("description"),
+            rs.getLong("task_list_id"),
+            rs.getString("task_list_name"),
+            rs.getBoolean("task_list_archived"),
+            rs.getObject("assigned_user_id", Long.class),
+            rs.getLong("project_id"),
+            toLocalDateTime(rs, "created_at"),
+            toLocalDateTime(rs, "updated_at"),
+            toLocalDateTime(rs, "archived_at"));
+
+    private static final RowMapper<ArchivedTaskList> ARCHIVED_TASK_LIST_ROW_MAPPER = (rs, rowNum) ->
+            new ArchivedTaskList(
+                    rs.getLong("id"),
+                    rs.getString("name"),
+                    rs.getLong("project_id"),
+                    rs.getLong("task_count"),
+                    rs.getObject("archive_after_days", Integer.class),
+                    toLocalDateTime(rs, "created_at"),
+                    toLocalDateTime(rs, "updated_at"),
+                    toLocalDateTime(rs, "archived_at"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The project a live task belongs to, or empty if there is no live task with this id.
+     */
+    public Optional<Long> findTaskProjectId(long taskId) {
+        return jdbcTemplate.queryForList("SELECT project_id FROM tasks WHERE id = ?", Long.class, taskId)
+                .stream().findFirst();
+    }
+
+    /**
+     * The project a live task list belongs to, or empty if there is no live task list with this id.
+     */
+    public Optional<Long> findTaskListProjectId(long taskListId) {
+        return jdbcTemplate.queryForList("SELECT project_id FROM task_lists WHERE id = ?", Long.class, taskListId)
+                .stream().findFirst();
+    }
+
+    /**
+     * Moves a live task to the archive.
+     *
+     * @return the archived task, or empty if there is no live task with this id
+     */
+    public Optional<ArchivedTask> archiveTask(long projectId, long taskId, LocalDateTime now) {
+        int archived = jdbcTemplate.update("WITH moved AS (DELETE FROM tasks WHERE project_id = ? AND id = ? "
+                        + "RETURNING *) "
+                        + "INSERT INTO archived_tasks (" + TASK_COLUMNS + ", archived_at) "
+                        + "SELECT " + TASK_COLUMNS + ", CAST(? AS TIMESTAMP) FROM moved",
+                projectId, taskId, Timestamp.valueOf(now));
+        return archived > 0 ? findArchivedTask(taskId) : Optional.empty();
+    }
+
+    /**
+     * Moves up to {@code limit} tasks of a list that were last updated before the given time to the archive,
+     * skipping tasks that are being changed.
+     *
+     * @return the number of tasks archived; fewer than {@code limit} means none are left
+     */
+    public int archiveTasksUpdatedBefore(long projectId, long taskListId, LocalDateTime updatedBefore, int limit,
+                                         LocalDateTime now) {
+        return jdbcTemplate.update("WITH moved AS (DELETE FROM tasks WHERE project_id = ? AND id IN (SELECT id "
+                        + "FROM tasks WHERE project_id = ? AND task_list_id = ? AND updated_at < ? ORDER BY id LIMIT ? "
+                        + "FOR UPDATE SKIP LOCKED) RETURNING *) "
+                        + "INSERT INTO archived_tasks (" + TASK_COLUMNS + ", archived_at) "
+                        + "SELECT " + TASK_COLUMNS + ", CAST(? AS TIMESTAMP) FROM moved",
+                projectId, projectId, taskListId, Timestamp.valueOf(updatedBefore), limit, Timestamp.valueOf(now));
+    }
+
+    /**
+     * The number of tasks of a list that were last updated before the given time.
+     */
+    public long countTasksUpdatedBefore(long projectId, long taskListId, LocalDateTime updatedBefore) {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM tasks WHERE project_id = ? "
+                + "AND task_list_id = ? AND updated_at < ?", Long.class, projectId, taskListId,
+                Timestamp.valueOf(updatedBefore));
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Moves a live task list and all of its tasks to the archive. The tasks are archived at the same time as
+     * the list, which is how restoring the list tells them from tasks archived before it.
+     *
+     * @return the archived task list, or empty if there is no live task list with this id
+     */
+    public Optional<ArchivedTaskList> archiveTaskList(long projectId, long taskListId, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.update("WITH moved AS (DELETE FROM tasks WHERE project_id = ? AND task_list_id = ? "
+                        + "RETURNING *) "
+                        + "INSERT INTO archived_tasks (" + TASK_COLUMNS + ", archived_at) "
+                        + "SELECT " + TASK_COLUMNS + ", CAST(? AS TIMESTAMP) FROM moved",
+                projectId, taskListId, timestamp);
+        int archived = jdbcTemplate.update("WITH moved AS (DELETE FROM task_lists WHERE project_id = ? AND id = ? "
+                        + "RETURNING *) "
+                        + "INSERT INTO archived_task_lists (" + TASK_LIST_COLUMNS + ", archived_at) "
+                        + "SELECT " + TASK_LIST_COLUMNS + ", CAST(? AS TIMESTAMP) FROM moved",
+                projectId, taskListId, timestamp);
+        return archived > 0 ? findArchivedTaskList(taskListId) : Optional.empty();
+    }
+
+    public Optional<ArchivedTask> findArchivedTask(long taskId) {
+        return jdbcTemplate.query(ARCHIVED_TASK_SELECT + "WHERE a.id = ?", ARCHIVED_TASK_ROW_MAPPER, taskId)
+                .stream().findFirst();
+    }
+
+    public Optional<ArchivedTaskList> findArchivedTaskList(long taskListId) {
+        return jdbcTemplate.query(ARCHIVED_TASK_LIST_SELECT + "WHERE al.id = ?", ARCHIVED_TASK_LIST_ROW_MAPPER,
+                taskListId).stream().findFirst();
+    }
+
+    /**
+     * Moves an archived task back to the end of its list. The task counts as updated now, so that the list's
+     * archiving policy does not archive it again straight away. An assignee that has since been deleted is
+     * dropped.
+     *
+     * @return whether the task was restored; false if it is not archived or its list is not live
+     */
+    public boolean restoreTask(long taskId, LocalDateTime now) {
+        return jdbcTemplate.update("WITH restored AS (DELETE FROM archived_tasks a WHERE a.id = ? "
+                        + "AND EXISTS (SELECT 1 FROM task_lists l WHERE l.id = a.task_list_id "
+                        + "AND l.project_id = a.project_id) RETURNING a.*) "
+                        + "INSERT INTO tasks (" + TASK_COLUMNS + ") "
+                        + "SELECT r.id, r.title, r.description, "
+                        + "COALESCE((SELECT max(t.position) FROM tasks t WHERE t.project_id = r.project_id "
+                        + "AND t.task_list_id = r.task_list_id), 0) + 1, "
+                        + "r.task_list_id, r.project_id, (SELECT u.id FROM users u WHERE u.id = r.assigned_user_id "
+                        + "AND u.deleted_at IS NULL), r.created_at, CAST(? AS TIMESTAMP) FROM restored r",
+                taskId, Timestamp.valueOf(now)) > 0;
+    }
+
+    /**
+     * Moves an archived task list back to the end of its project, with the tasks that were archived together
+     * with it. Like restored tasks, they count as updated now.
+     *
+     * @return the number of tasks restored, or empty if the list is not archived
+     */
+    public Optional<Integer> restoreTaskList(long taskListId, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<LocalDateTime> archivedAt = jdbcTemplate.query("WITH restored AS (DELETE FROM archived_task_lists "
+                        + "WHERE id = ? RETURNING *), "
+                        + "inserted AS (INSERT INTO task_lists (" + TASK_LIST_COLUMNS + ") "
+                        + "SELECT r.id, r.name, COALESCE((SELECT max(l.position) FROM task_lists l "
+                        + "WHERE l.project_id = r.project_id), 0) + 1, r.project_id, r.created_at, CAST(? AS TIMESTAMP), "
+                        + "r.archive_after_days FROM restored r) "
+                        + "SELECT archived_at FROM restored",
+                (rs, rowNum) -> toLocalDateTime(rs, "archived_at"), taskListId, timestamp);
+        if (archivedAt.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(jdbcTemplate.update("WITH restored AS (DELETE FROM archived_tasks "
+                        + "WHERE task_list_id = ? AND archived_at >= ? RETURNING *) "
+                        + "INSERT INTO tasks (" + TASK_COLUMNS + ") "
+                        + "SELECT r.id, r.title, r.description, r.position, r.task_list_id, r.project_id, "
+                        + "(SELECT u.id FROM users u WHERE u.id = r.assigned_user_id AND u.deleted_at IS NULL), "
+                        + "r.created_at, CAST(? AS TIMESTAMP) FROM restored r",
+                taskListId, Timestamp.valueOf(archivedAt.get(0)), timestamp));
+    }
+
+    /**
+     * Removes the archived tasks of a task list that is being deleted.
+     */
+    public int deleteArchivedTasksOfTaskList(long taskListId) {
+        return jdbcTemplate.update("DELETE FROM archived_tasks WHERE task_list_id = ?", taskListId);
+    }
+
+    /**
+     * Renumbers the positions of the tasks of a list 1..n in their current order, after tasks left the list.
+     *
+     * @return the number of tasks whose position changed
+     */
+    public int normalizeTaskPositions(long taskListId) {
+        return jdbcTemplate.update("UPDATE tasks t SET position = r.rn FROM (SELECT id, "
+                + "row_number() OVER (ORDER BY position, id) AS rn FROM tasks WHERE task_list_id = ?) r "
+                + "WHERE t.id = r.id AND t.position <> r.rn", taskListId);
+    }
+
+    /**
+     * Renumbers the positions of the task lists of a project 1..n in their current order, after a list left it.
+     *
+     * @return the number of task lists whose position changed
+     */
+    public int normalizeTaskListPositions(long projectId) {
+        return jdbcTemplate.update("UPDATE task_lists l SET position = r.rn FROM (SELECT id, "
+                + "row_number() OVER (ORDER BY position, id) AS rn FROM task_lists WHERE project_id = ?) r "
+                + "WHERE l.id = r.id AND l.position <> r.rn", projectId);
+    }
+
+    /**
+     * The archived tasks of a project, most recently archived first, first page.
+     */
+    public List<ArchivedTask> findArchivedTasks(long projectId, int limit) {
+        return jdbcTemplate.query(ARCHIVED_TASK_SELECT + "WHERE a.project_id = ? "
+                + "ORDER BY a.archived_at DESC, a.id DESC LIMIT ?", ARCHIVED_TASK_ROW_MAPPER, projectId, limit);
+    }
+
+    /**
+     * The archived tasks of a project, continuing after the given keyset cursor.
+     */
+    public List<ArchivedTask> findArchivedTasksAfter(long projectId, LocalDateTime cursorArchivedAt, long cursorId,
+                                                     int limit) {
+        return jdbcTemplate.query(ARCHIVED_TASK_SELECT + "WHERE a.project_id = ? "
+                        + "AND (a.archived_at, a.id) < (?, ?) ORDER BY a.archived_at DESC, a.id DESC LIMIT ?",
+                ARCHIVED_TASK_ROW_MAPPER, projectId, Timestamp.valueOf(cursorArchivedAt), cursorId, limit);
+    }
+
+    /**
+     * The archived task lists of a project, most recently archived first, first page.
+     */
+    public List<ArchivedTaskList> findArchivedTaskLists(long projectId, int limit) {
+        return jdbcTemplate.query(ARCHIVED_TASK_LIST_SELECT + "WHERE al.project_id = ? "
+                + "ORDER BY al.archived_at DESC, al.id DESC LIMIT ?", ARCHIVED_TASK_LIST_ROW_MAPPER, projectId, limit);
+    }
+
+    /**
+     * The archived task lists of a project, continuing after the given keyset cursor.
+     */
+    public List<ArchivedTaskList> findArchivedTaskListsAfter(long projectId, LocalDateTime cursorArchivedAt,
+                                                             long cursorId, int limit) {
+        return jdbcTemplate.query(ARCHIVED_TASK_LIST_SELECT + "WHERE al.project_id = ? "
+                        + "AND (al.archived_at, al.id) < (?, ?) ORDER BY al.archived_at DESC, al.id DESC LIMIT ?",
+                ARCHIVED_TASK_LIST_ROW_MAPPER, projectId, Timestamp.valueOf(cursorArchivedAt), cursorId, limit);
+    }
+
+    /**
+     * The archiving policy of a live task list in a live project, or empty if it has none.
+     */
+    public Optional<ArchivePolicy> findArchivePolicy(long taskListId) {
+        return jdbcTemplate.query("SELECT l.id, l.project_id, l.archive_after_days FROM task_lists l "
+                        + "JOIN projects p ON p.id = l.project_id "
+                        + "WHERE l.id = ? AND l.archive_after_days IS NOT NULL AND p.deleted_at IS NULL",
+                (rs, rowNum) -> new ArchivePolicy(rs.getLong("id"), rs.getLong("project_id"),
+                        rs.getInt("archive_after_days")),
+                taskListId).stream().findFirst();
+    }
+
+    /**
+     * Task lists of live projects with tasks their archiving policy has made due, and no archive job queued or
+     * running. Backed by the partial index on lists with a policy.
+     */
+    public List<Long> findTaskListsToArchive(LocalDateTime now, int limit) {
+        return jdbcTemplate.queryForList("SELECT l.id FROM task_lists l JOIN projects p ON p.id = l.project_id "
+                        + "WHERE l.archive_after_days IS NOT NULL AND p.deleted_at IS NULL "
+                        + "AND EXISTS (SELECT 1 FROM tasks t WHERE t.task_list_id = l.id "
+                        + "AND t.updated_at < CAST(? AS TIMESTAMP) - make_interval(days => l.archive_after_days)) "
+                        + "AND NOT EXISTS (SELECT 1 FROM jobs j WHERE j.type = 'TASK_ARCHIVE' AND j.subject_id = l.id "
+                        + "AND j.state IN ('QUEUED', 'RUNNING')) ORDER BY l.id LIMIT ?",
+                Long.class, Timestamp.valueOf(now), limit);
+    }
+
+    private static LocalDateTime toLocalDateTime(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    /**
+     * An archived task. Its list is either live or archived as well.
+     */
+    public record ArchivedTask(long id, String title, String description, long taskListId, String taskListName,
+                               boolean taskListArchived, Long assignedUserId, long projectId,
+                               LocalDateTime createdAt, LocalDateTime updatedAt, LocalDateTime archivedAt) {
+    }
+
+    /**
+     * An archived task list, with the number of tasks archived together with it.
+     */
+    public record ArchivedTaskList(long id, String name, long projectId, long taskCount, Integer archiveAfterDays,
+                                   LocalDateTime createdAt, LocalDateTime updatedAt, LocalDateTime archivedAt) {
+    }
+
+    /**
+     * Tasks of the list not updated for {@code archiveAfterDays} days are archived.
+     */
+    public record ArchivePolicy(long taskListId, long projectId, int archiveAfterDays) {
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.minitrello.repository;
+
+import com.example.minitrello.job.Job;
+import com.example.minitrello.job.JobState;
+import com.example.minitrello.job.JobStep;
+import com.example.minitrello.job.JobType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access to the background jobs. State changes are conditional updates on the current state, so a
+ * job cancelled while a worker picks it up, or while a chunk runs, ends up in exactly one final state.
+ * <p>
+ * A job is taken by one instance, named by its node id, and stays with it. Changes to a running job are also
+ * conditional on the node id, so an instance whose job was released after its lease expired cannot write to it
+ * any more. Leases are measured on the database clock.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JobRepository {
+
+    private static final String COLUMNS = "id, type, state, user_id, subject_id, priority, checkpoint, "
+            + "progress_done, progress_total, result, error, attempts, cancel_requested, run_after, created_at, "
+            + "started_at, finished_at, node_id";
+
+    // At most one active job of a type per subject and user, matching uq_jobs_active_subject
+    private static final String INSERT = "INSERT INTO jobs (type, state, user_id, subject_id, priority, run_after, "
+            + "created_at) VALUES (?, 'QUEUED', ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (type, subject_id, COALESCE(user_id, 0)) "
+            + "WHERE state IN ('QUEUED', 'RUNNING') AND subject_id IS NOT NULL DO NOTHING "
+            + "RETURNING " + COLUMNS;
+
+    // The next due job of every user, so that one user's backlog cannot hide the others' jobs. Jobs that stay
+    // with another instance are left to it
+    private static final String QUEUED_HEADS = "SELECT DISTINCT ON (COALESCE(user_id, 0)) " + COLUMNS
+            + " FROM jobs WHERE state = 'QUEUED' AND run_after <= ? AND (node_id IS NULL OR node_id = ?) "
+            + "ORDER BY COALESCE(user_id, 0), priority DESC, run_after, id";
+
+    private static final RowMapper<Job> JOB_ROW_MAPPER = (rs, rowNum) -> new Job(
+            rs.getLong("id"),
+            JobType.valueOf(rs.getString("type")),
+            JobState.valueOf(rs.getString("state")),
+            rs.getObject("user_id", Long.class),
+            rs.getObject("subject_id", Long.class),
+            rs.getInt("priority"),
+            rs.getString("checkpoint"),
+            rs.getLong("progress_done"),
+            rs.getObject("progress_total", Long.class),
+            rs.getString("result"),
+            rs.getString("error"),
+            rs.getInt("attempts"),
+            rs.getBoolean("cancel_requested"),
+            toLocalDateTime(rs, "run_after"),
+            toLocalDateTime(rs, "created_at"),
+            toLocalDateTime(rs, "started_at"),
+            toLocalDateTime(rs, "finished_at"),
+            rs.getString("node_id"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Queues a job, unless a job of the same type for the same subject and user is already queued or running.
+     *
+     * @return the new job, or empty if there already is an active one
+     */
+    public Optional<Job> insert(JobType type, Long userId, Long subjectId, LocalDateTime runAfter,
+                                LocalDateTime now) {
+        return jdbcTemplate.query(INSERT, JOB_ROW_MAPPER, type.name(), userId, subjectId, type.getPriority(),
+                Timestamp.valueOf(runAfter), Timestamp.valueOf(now)).stream().findFirst();
+    }
+
+    public Optional<Job> findById(long id) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM jobs WHERE id = ?", JOB_ROW_MAPPER, id)
+                .stream().findFirst();
+    }
+
+    /**
+     * The queued or running job of a type for a subject and user.
+     */
+    public Optional<Job> findActive(JobType type, Long userId, long subjectId) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM jobs WHERE type = ? AND subject_id = ? "
+                        + "AND COALESCE(user_id, 0) = COALESCE(?, 0) AND state IN ('QUEUED', 'RUNNING')",
+                JOB_ROW_MAPPER, type.name(), subjectId, userId).stream().findFirst();
+    }
+
+    /**
+     * The most recent jobs of a user, newest first.
+     */
+    public List<Job> findByUserId(long userId, int limit) {
+        // Same order as the merge across shards, so each shard contributes its newest jobs
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM jobs WHERE user_id = ? "
+                + "ORDER BY created_at DESC, id DESC LIMIT ?", JOB_ROW_MAPPER, userId, limit);
+    }
+
+    /**
+     * For every user with a queued job that is due and may run on the given instance, the one to run next:
+     * highest priority first, then oldest. System jobs count as one user.
+     */
+    public List<Job> findQueuedHeads(LocalDateTime now, String nodeId) {
+        return jdbcTemplate.query(QUEUED_HEADS, JOB_ROW_MAPPER, Timestamp.valueOf(now), nodeId);
+    }
+
+    /**
+     * Takes a queued job for a worker of the given instance, which keeps the job from then on.
+     *
+     * @return the job as it is now running, or empty if it is no longer queued or stays with another instance
+     */
+    public Optional<Job> claim(long id, String nodeId, Duration lease, LocalDateTime now) {
+        return jdbcTemplate.query("UPDATE jobs SET state = 'RUNNING', started_at = COALESCE(started_at, ?), "
+                        + "node_id = ?, lease_until = LOCALTIMESTAMP + make_interval(secs => ?) "
+                        + "WHERE id = ? AND state = 'QUEUED' AND (node_id IS NULL OR node_id = ?) RETURNING " + COLUMNS,
+                JOB_ROW_MAPPER, Timestamp.valueOf(now), nodeId, lease.toMillis() / 1000.0, id, nodeId)
+                .stream().findFirst();
+    }
+
+    /**
+     * Stores the outcome of a chunk, completing the job if it has finished. Must run in the chunk's transaction.
+     *
+     * @return false if the job has been asked to cancel, in which case the chunk must be rolled back
+     */
+    public boolean saveStep(long id, String nodeId, JobStep step, LocalDateTime now) {
+        return jdbcTemplate.update("UPDATE jobs SET checkpoint = ?, progress_done = ?, progress_total = ?, "
+                        + "result = ?, state = ?, finished_at = ? "
+                        + "WHERE id = ? AND node_id = ? AND state = 'RUNNING' AND NOT cancel_requested",
+                step.checkpoint(), step.done(), step.total(), step.result(),
+                (step.finished() ? JobState.SUCCEEDED : JobState.RUNNING).name(),
+                step.finished() ? Timestamp.valueOf(now) : null, id, nodeId) > 0;
+    }
+
+    /**
+     * Puts a running job back in the queue, keeping its checkpoint.
+     */
+    public void requeue(long id, String nodeId, LocalDateTime runAfter) {
+        jdbcTemplate.update("UPDATE jobs SET state = 'QUEUED', run_after = ? "
+                + "WHERE id = ? AND node_id = ? AND state = 'RUNNING'", Timestamp.valueOf(runAfter), id, nodeId);
+    }
+
+    /**
+     * Puts a running job whose chunk failed back in the queue, keeping the checkpoint of its last good chunk.
+     */
+    public void retry(long id, String nodeId, String error, LocalDateTime runAfter) {
+        jdbcTemplate.update("UPDATE jobs SET state = 'QUEUED', attempts = attempts + 1, error = ?, run_after = ? "
+                + "WHERE id = ? AND node_id = ? AND state = 'RUNNING'", error, Timestamp.valueOf(runAfter), id, nodeId);
+    }
+
+    /**
+     * Ends a running job as failed or cancelled.
+     */
+    public void finish(long id, String nodeId, JobState state, String error, LocalDateTime now) {
+        jdbcTemplate.update("UPDATE jobs SET state = ?, error = ?, finished_at = ? "
+                + "WHERE id = ? AND node_id = ? AND state = 'RUNNING'", state.name(), error, Timestamp.valueOf(now),
+                id, nodeId);
+    }
+
+    /**
+     * Cancels a job: a queued job at once, a running one when its current chunk ends.
+     *
+     * @return the job after the request, or empty if it had already finished
+     */
+    public Optional<Job> requestCancel(long id, LocalDateTime now) {
+        return jdbcTemplate.query("UPDATE jobs SET cancel_requested = TRUE, "
+                        + "state = CASE WHEN state = 'QUEUED' THEN 'CANCELLED' ELSE state END, "
+                        + "finished_at = CASE WHEN state = 'QUEUED' THEN CAST(? AS TIMESTAMP) END "
+                        + "WHERE id = ? AND state IN ('QUEUED', 'RUNNING') RETURNING " + COLUMNS,
+                JOB_ROW_MAPPER, Timestamp.valueOf(now), id).stream().findFirst();
+    }
+
+    /**
+     * Cancels the queued jobs of a type for a subject, e.g. the purge of a project that has been restored.
+     *
+     * @return the cancelled jobs
+     */
+    public List<Job> cancelQueued(JobType type, long subjectId, LocalDateTime now) {
+        return jdbcTemplate.query("UPDATE jobs SET state = 'CANCELLED', cancel_requested = TRUE, finished_at = ? "
+                        + "WHERE type = ? AND subject_id = ? AND state = 'QUEUED' RETURNING " + COLUMNS,
+                JOB_ROW_MAPPER, Timestamp.valueOf(now), type.name(), subjectId);
+    }
+
+    /**
+     * Puts the jobs left running by a previous run of the given instance back in the queue, where they stay with
+     * it. Only safe while none of its workers run. Jobs that are running elsewhere are left alone.
+     *
+     * @return the number of jobs requeued
+     */
+    public int requeueRunning(String nodeId) {
+        return jdbcTemplate.update("UPDATE jobs SET state = 'QUEUED' WHERE state = 'RUNNING' AND node_id = ?", nodeId);
+    }
+
+    /**
+     * Extends the lease on the queued and running jobs of an instance.
+     */
+    public int renewLeases(String nodeId, Duration lease) {
+        return jdbcTemplate.update("UPDATE jobs SET lease_until = LOCALTIMESTAMP + make_interval(secs => ?) "
+                + "WHERE node_id = ? AND state IN ('QUEUED', 'RUNNING')", lease.toMillis() / 1000.0, nodeId);
+    }
+
+    /**
+     * Queues the jobs whose instance stopped renewing their lease, for any instance to take.
+     *
+     * @return the number of jobs released
+     */
+    public int releaseExpired() {
+        return jdbcTemplate.update("UPDATE jobs SET state = 'QUEUED', node_id = NULL, lease_until = NULL "
+                + "WHERE state IN ('QUEUED', 'RUNNING') AND node_id IS NOT NULL AND lease_until < LOCALTIMESTAMP");
+    }
+
+    /**
+     * Removes the jobs that finished before the given time.
+     *
+     * @return the removed jobs
+     */
+    public List<Job> deleteFinishedBefore(LocalDateTime finishedBefore) {
+        return jdbcTemplate.query("DELETE FROM jobs WHERE finished_at < ? RETURNING " + COLUMNS, JOB_ROW_MAPPER,
+                Timestamp.valueOf(finishedBefore));
+    }
+
+    private static LocalDateTime toLocalDateTime(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.minitrello.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * JDBC writes for cloning a project. Each part of the copy is one {@code INSERT ... SELECT}, so the rows never
+ * leave the database and a project with thousands of tasks is copied in a few statements.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProjectCloneRepository {
+
+    // Copied list ids are taken from the sequence up front, so that tasks can be pointed at their new list in the
+    // same statement. Foreign keys are checked at the end of the statement, once both inserts have run.
+    private static final String COPY_TASK_LISTS_AND_TASKS = "WITH list_ids AS ("
+            + "SELECT s.id AS source_id, nextval(pg_get_serial_sequence('task_lists', 'id')) AS id "
+            + "FROM (SELECT id FROM task_lists WHERE project_id = ? ORDER BY position, id) s), "
+            + "lists AS (INSERT INTO task_lists (id, name, position, project_id, created_at, updated_at) "
+            + "SELECT l.id, s.name, s.position, ?, CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP) "
+            + "FROM list_ids l JOIN task_lists s ON s.id = l.source_id RETURNING id), "
+            + "tasks AS (INSERT INTO tasks (title, description, position, task_list_id, project_id, "
+            + "assigned_user_id, created_at, updated_at) "
+            + "SELECT t.title, t.description, t.position, l.id, ?, "
+            + "CASE WHEN ? AND (t.assigned_user_id = ? OR EXISTS (SELECT 1 FROM project_members m "
+            + "WHERE m.project_id = ? AND m.user_id = t.assigned_user_id)) THEN t.assigned_user_id END, "
+            + "CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP) "
+            + "FROM tasks t JOIN list_ids l ON l.source_id = t.task_list_id WHERE t.project_id = ? "
+            + "ORDER BY t.id RETURNING id) "
+            + "SELECT (SELECT count(*) FROM lists) AS task_lists, (SELECT count(*) FROM tasks) AS tasks";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A live project, or empty if it does not exist or has been deleted.
+     */
+    public Optional<SourceProject> findProject(long projectId) {
+        return jdbcTemplate.query("SELECT id, name, description, owner_id FROM projects "
+                        + "WHERE id = ? AND deleted_at IS NULL",
+                (rs, rowNum) -> new SourceProject(
+                        rs.getLong("id"),
+                        rs.getString("name"),
+                        rs.getString("description"),
+                        rs.getLong("owner_id")),
+                projectId).stream().findFirst();
+    }
+
+    /**
+     * Creates the project the copy goes into.
+     *
+     * @return the ID of the new project
+     */
+    public long insertProject(String name, String description, long ownerId, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return jdbcTemplate.queryForObject("INSERT INTO projects (name, description, owner_id, is_template, "
+                        + "created_at, updated_at) VALUES (?, ?, ?, FALSE, ?, ?) RETURNING id",
+                Long.class, name, description, ownerId, timestamp, timestamp);
+    }
+
+    /**
+     * Makes the members and the owner of the source project members of the target project, except its owner
+     * and users that have been deleted.
+     *
+     * @return the number of members added
+     */
+    public int copyMembers(long sourceProjectId, long targetProjectId, long targetOwnerId) {
+        return jdbcTemplate.update("INSERT INTO project_members (project_id, user_id) "
+                        + "SELECT ?, m.user_id FROM (SELECT user_id FROM project_members WHERE project_id = ? "
+                        + "UNION SELECT owner_id FROM projects WHERE id = ?) m "
+                        + "JOIN users u ON u.id = m.user_id "
+                        + "WHERE u.deleted_at IS NULL AND m.user_id <> ?",
+                targetProjectId, sourceProjectId, sourceProjectId, targetOwnerId);
+    }
+
+    /**
+     * Copies the task lists of the source project, and their tasks, into the target project. Assignees are
+     * kept only if asked for and only for users with access to the target project, so members must be copied
+     * first.
+     *
+     * @return the number of task lists and tasks copied
+     */
+    public CopiedRows copyTaskListsAndTasks(long sourceProjectId, long targetProjectId, long targetOwnerId,
+                                            boolean includeAssignees, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return jdbcTemplate.queryForObject(COPY_TASK_LISTS_AND_TASKS,
+                (rs, rowNum) -> new CopiedRows(rs.getInt("task_lists"), rs.getInt("tasks")),
+                sourceProjectId, targetProjectId, timestamp, timestamp, targetProjectId,
+                includeAssignees, targetOwnerId, targetProjectId, timestamp, timestamp, sourceProjectId);
+    }
+
+    public record SourceProject(long id, String name, String description, long ownerId) {
+    }
+
+    public record CopiedRows(int taskLists, int tasks) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.minitrello.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC reads for project exports. Tasks are read in pages keyed on their id, so every page costs the same
+ * however far into a large project the export is.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProjectExportRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A live project, or empty if it does not exist or has been deleted.
+     */
+    public Optional<ExportedProject> findProject(long projectId) {
+        return jdbcTemplate.query("SELECT id, name, description, owner_id, created_at, updated_at FROM projects "
+                        + "WHERE id = ? AND deleted_at IS NULL",
+                (rs, rowNum) -> new ExportedProject(
+                        rs.getLong("id"),
+                        rs.getString("name"),
+                        rs.getString("description"),
+                        rs.getLong("owner_id"),
+                        toLocalDateTime(rs, "created_at"),
+                        toLocalDateTime(rs, "updated_at")),
+                projectId).stream().findFirst();
+    }
+
+    /**
+     * The task lists of a project, in board order.
+     */
+    public List<ExportedTaskList> findTaskLists(long projectId) {
+        return jdbcTemplate.query("SELECT id, name, position, created_at, updated_at FROM task_lists "
+                        + "WHERE project_id = ? ORDER BY position, id",
+                (rs, rowNum) -> new ExportedTaskList(
+                        rs.getLong("id"),
+                        rs.getString("name"),
+                        rs.getInt("position"),
+                        toLocalDateTime(rs, "created_at"),
+                        toLocalDateTime(rs, "updated_at")),
+                projectId);
+    }
+
+    public long countTasks(long projectId) {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM tasks WHERE project_id = ?", Long.class,
+                projectId);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Up to {@code limit} tasks of a project with an id above the given one, in id order.
+     */
+    public List<ExportedTask> findTasksAfter(long projectId, long afterId, int limit) {
+        return jdbcTemplate.query("SELECT t.id, t.title, t.description, t.position, t.task_list_id, "
+                        + "t.assigned_user_id, t.created_at, t.updated_at FROM tasks t "
+                        + "WHERE t.project_id = ? AND t.id > ? ORDER BY t.id LIMIT ?",
+                (rs, rowNum) -> new ExportedTask(
+                        rs.getLong("id"),
+                        rs.getString("title"),
+                        rs.getString("description"),
+                        rs.getInt("position"),
+                        rs.getLong("task_list_id"),
+                        rs.getObject("assigned_user_id", Long.class),
+                        toLocalDateTime(rs, "created_at"),
+                        toLocalDateTime(rs, "updated_at")),
+                projectId, afterId, limit);
+    }
+
+    private static LocalDateTime toLocalDateTime(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    public record ExportedProject(long id, String name, String description, long ownerId, LocalDateTime createdAt,
+                                  LocalDateTime updatedAt) {
+    }
+
+    public record ExportedTaskList(long id, String name, int position, LocalDateTime createdAt,
+                                   LocalDateTime updatedAt) {
+    }
+
+    public record ExportedTask(long id, String title, String description, int position, long taskListId,
+                               Long assignedUserId, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+}
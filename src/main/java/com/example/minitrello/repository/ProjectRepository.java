@@ -2,6 +2,8 @@ package com.example.minitrello.repository;
 
 import com.example.minitrello.model.Project;
 import com.example.minitrello.model.User;
+import com.example.minitrello.repository.projection.TitleRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,6 +11,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -19,6 +24,11 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
      */
     Page<Project> findByOwner(User owner, Pageable pageable);
 
+    /**
+     * Find all projects owned by the user with the given id, without loading the user
+     */
+    Page<Project> findByOwnerId(Long ownerId, Pageable pageable);
+
     /**
      * Find all projects where a user is a member
      * Uses method name pattern: findBy[Property][NestedProperty]
@@ -32,6 +42,50 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     @Query("SELECT p FROM Project p WHERE p.owner.id = :userId OR :userId IN (SELECT m.id FROM p.members m)")
     Page<Project> findAccessibleProjects(@Param("userId") Long userId, Pageable pageable);
 
+    /**
+     * Find the first projects that a user can access, most recently updated first
+     */
+    @Query("SELECT p FROM Project p WHERE p.owner.id = :userId OR :userId IN (SELECT m.id FROM p.members m) "
+            + "ORDER BY p.updatedAt DESC, p.id DESC")
+    List<Project> findRecentlyUpdatedProjects(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * Find the projects that a user can access following the given cursor, most recently updated first
+     */
+    @Query("SELECT p FROM Project p WHERE (p.owner.id = :userId OR :userId IN (SELECT m.id FROM p.members m)) "
+            + "AND (p.updatedAt < :updatedAt OR (p.updatedAt = :updatedAt AND p.id < :id)) "
+            + "ORDER BY p.updatedAt DESC, p.id DESC")
+    List<Project> findRecentlyUpdatedProjectsAfter(@Param("userId") Long userId,
+                                                   @Param("updatedAt") LocalDateTime updatedAt,
+                                                   @Param("id") Long id,
+                                                   Limit limit);
+
+    /**
+     * Find the templates that a user can access (either as owner or member)
+     */
+    @Query("SELECT p FROM Project p WHERE p.isTemplate = true "
+            + "AND (p.owner.id = :userId OR :userId IN (SELECT m.id FROM p.members m))")
+    Page<Project> findAccessibleTemplates(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Find the ids of all projects that a user can access (either as owner or member)
+     * Avoids loading the eagerly fetched members and task lists when only ids are needed
+     */
+    @Query("SELECT p.id FROM Project p WHERE p.owner.id = :userId OR :userId IN (SELECT m.id FROM p.members m)")
+    List<Long> findAccessibleProjectIds(@Param("userId") Long userId);
+
+    /**
+     * Find the owner of a project without loading the project and its eagerly fetched collections
+     */
+    @Query("SELECT p.owner.id FROM Project p WHERE p.id = :projectId")
+    Optional<Long> findOwnerIdById(@Param("projectId") Long projectId);
+
+    /**
+     * Find the names of the given projects, used to build typeahead partitions
+     */
+    @Query("SELECT p.id AS id, p.name AS title, p.id AS projectId FROM Project p WHERE p.id IN :projectIds")
+    List<TitleRow> findTitlesByIdIn(@Param("projectIds") Collection<Long> projectIds);
+
     /**
      * Find a project by id and check if user has access to it
      * Uses method name pattern with OR condition
@@ -0,0 +1,260 @@
+package com.example.minitrello.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access to deleted projects and users, which the entities hide through their {@code deleted_at IS NULL}
+ * restriction. Deleting and restoring touch one row per project or user; purging removes the rows below a
+ * deleted project or user with set-based statements of at most {@code limit} rows each, so every statement
+ * holds its locks only briefly.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SoftDeleteRepository {
+
+    private static final String DELETED_PROJECT_COLUMNS = "id, name, owner_id, deleted_at";
+
+    private static final RowMapper<DeletedProject> DELETED_PROJECT_ROW_MAPPER = (rs, rowNum) -> new DeletedProject(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getLong("owner_id"),
+            rs.getTimestamp("deleted_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Marks a live project as deleted.
+     *
+     * @return the deleted project, or empty if there is no live project with this id
+     */
+    public Optional<DeletedProject> markProjectDeleted(long projectId, LocalDateTime now) {
+        return jdbcTemplate.query("UPDATE projects SET deleted_at = ? WHERE id = ? AND deleted_at IS NULL "
+                        + "RETURNING " + DELETED_PROJECT_COLUMNS,
+                DELETED_PROJECT_ROW_MAPPER, Timestamp.valueOf(now), projectId).stream().findFirst();
+    }
+
+    /**
+     * Marks the live projects of an owner as deleted, with the same timestamp as the owner so that restoring
+     * the owner restores exactly these projects.
+     */
+    public List<DeletedProject> markOwnedProjectsDeleted(long ownerId, LocalDateTime now) {
+        return jdbcTemplate.query("UPDATE projects SET deleted_at = ? WHERE owner_id = ? AND deleted_at IS NULL "
+                        + "RETURNING " + DELETED_PROJECT_COLUMNS,
+                DELETED_PROJECT_ROW_MAPPER, Timestamp.valueOf(now), ownerId);
+    }
+
+    /**
+     * Marks a live user as deleted.
+     *
+     * @return whether there was a live user with this id
+     */
+    public boolean markUserDeleted(long userId, LocalDateTime now) {
+        return jdbcTemplate.update("UPDATE users SET deleted_at = ? WHERE id = ? AND deleted_at IS NULL",
+                Timestamp.valueOf(now), userId) > 0;
+    }
+
+    /**
+     * Unassigns all tasks of a user, so that no live task refers to the user once they are hidden.
+     * Driven by the (assigned_user_id, updated_at, id) index.
+     *
+     * @return the number of tasks unassigned
+     */
+    public int unassignTasks(long userId) {
+        return jdbcTemplate.update("UPDATE tasks SET assigned_user_id = NULL WHERE assigned_user_id = ?", userId);
+    }
+
+    /**
+     * A deleted project, or empty if the project does not exist or is not deleted.
+     */
+    public Optional<DeletedProject> findDeletedProject(long projectId) {
+        return jdbcTemplate.query("SELECT " + DELETED_PROJECT_COLUMNS + " FROM projects "
+                        + "WHERE id = ? AND deleted_at IS NOT NULL",
+                DELETED_PROJECT_ROW_MAPPER, projectId).stream().findFirst();
+    }
+
+    /**
+     * The deleted projects of an owner that were deleted after the given time, most recently deleted first.
+     */
+    public List<DeletedProject> findDeletedProjects(long ownerId, LocalDateTime deletedAfter) {
+        return jdbcTemplate.query("SELECT " + DELETED_PROJECT_COLUMNS + " FROM projects "
+                        + "WHERE owner_id = ? AND deleted_at > ? ORDER BY deleted_at DESC, id DESC",
+                DELETED_PROJECT_ROW_MAPPER, ownerId, Timestamp.valueOf(deletedAfter));
+    }
+
+    /**
+     * When a user was deleted, or empty if the user does not exist or is not deleted.
+     */
+    public Optional<LocalDateTime> findUserDeletedAt(long userId) {
+        return jdbcTemplate.query("SELECT deleted_at FROM users WHERE id = ? AND deleted_at IS NOT NULL",
+                (rs, rowNum) -> rs.getTimestamp("deleted_at").toLocalDateTime(), userId).stream().findFirst();
+    }
+
+    /**
+     * Restores a project deleted after the given time.
+     *
+     * @return whether the project was restored
+     */
+    public boolean restoreProject(long projectId, LocalDateTime deletedAfter) {
+        return jdbcTemplate.update("UPDATE projects SET deleted_at = NULL WHERE id = ? AND deleted_at > ?",
+                projectId, Timestamp.valueOf(deletedAfter)) > 0;
+    }
+
+    /**
+     * Restores a user deleted after the given time.
+     *
+     * @return whether the user was restored
+     */
+    public boolean restoreUser(long userId, LocalDateTime deletedAfter) {
+        return jdbcTemplate.update("UPDATE users SET deleted_at = NULL WHERE id = ? AND deleted_at > ?",
+                userId, Timestamp.valueOf(deletedAfter)) > 0;
+    }
+
+    /**
+     * Restores the projects of an owner that were deleted together with the owner.
+     */
+    public List<DeletedProject> restoreProjectsDeletedWith(long ownerId, LocalDateTime ownerDeletedAt) {
+        return jdbcTemplate.query("UPDATE projects SET deleted_at = NULL WHERE owner_id = ? AND deleted_at = ? "
+                        + "RETURNING id, name, owner_id, ? AS deleted_at",
+                DELETED_PROJECT_ROW_MAPPER, ownerId, Timestamp.valueOf(ownerDeletedAt),
+                Timestamp.valueOf(ownerDeletedAt));
+    }
+
+    /**
+     * Projects deleted at or before the given time that have no purge job queued or running, oldest first.
+     * Backed by the partial deleted_at index.
+     */
+    public List<DeletedProject> findProjectsToPurge(LocalDateTime deletedBefore, int limit) {
+        return jdbcTemplate.query("SELECT " + DELETED_PROJECT_COLUMNS + " FROM projects p WHERE deleted_at <= ? "
+                        + "AND NOT EXISTS (SELECT 1 FROM jobs j WHERE j.type = 'PROJECT_PURGE' AND j.subject_id = p.id "
+                        + "AND j.state IN ('QUEUED', 'RUNNING')) ORDER BY deleted_at LIMIT ?",
+                DELETED_PROJECT_ROW_MAPPER, Timestamp.valueOf(deletedBefore), limit);
+    }
+
+    /**
+     * Users deleted at or before the given time that have no purge job queued or running, oldest first.
+     * Backed by the partial deleted_at index.
+     */
+    public List<Long> findUsersToPurge(LocalDateTime deletedBefore, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM users u WHERE deleted_at <= ? "
+                        + "AND NOT EXISTS (SELECT 1 FROM jobs j WHERE j.type = 'USER_PURGE' AND j.subject_id = u.id "
+                        + "AND j.state IN ('QUEUED', 'RUNNING')) ORDER BY deleted_at LIMIT ?",
+                Long.class, Timestamp.valueOf(deletedBefore), limit);
+    }
+
+    /**
+     * The number of rows a purge of the project removes: its tasks, task lists, memberships and the project.
+     */
+    public long countProjectRows(long projectId) {
+        Long count = jdbcTemplate.queryForObject("SELECT (SELECT count(*) FROM tasks WHERE project_id = ?) "
+                        + "+ (SELECT count(*) FROM task_lists WHERE project_id = ?) "
+                        + "+ (SELECT count(*) FROM archived_tasks WHERE project_id = ?) "
+                        + "+ (SELECT count(*) FROM archived_task_lists WHERE project_id = ?) "
+                        + "+ (SELECT count(*) FROM project_members WHERE project_id = ?) + 1",
+                Long.class, projectId, projectId, projectId, projectId, projectId);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Removes up to {@code limit} tasks of a deleted project.
+     *
+     * @return the number of tasks removed; fewer than {@code limit} means none are left
+     */
+    public int deleteProjectTasks(long projectId, int limit) {
+        return jdbcTemplate.update("DELETE FROM tasks WHERE project_id = ? AND id IN (SELECT id FROM tasks "
+                + "WHERE project_id = ? LIMIT ?)", projectId, projectId, limit);
+    }
+
+    /**
+     * Removes up to {@code limit} task lists of a deleted project whose tasks have been removed.
+     */
+    public int deleteProjectTaskLists(long projectId, int limit) {
+        return jdbcTemplate.update("DELETE FROM task_lists WHERE id IN (SELECT id FROM task_lists "
+                + "WHERE project_id = ? LIMIT ?)", projectId, limit);
+    }
+
+    /**
+     * Removes up to {@code limit} archived tasks of a deleted project.
+     */
+    public int deleteProjectArchivedTasks(long projectId, int limit) {
+        return jdbcTemplate.update("DELETE FROM archived_tasks WHERE id IN (SELECT id FROM archived_tasks "
+                + "WHERE project_id = ? LIMIT ?)", projectId, limit);
+    }
+
+    /**
+     * Removes up to {@code limit} archived task lists of a deleted project.
+     */
+    public int deleteProjectArchivedTaskLists(long projectId, int limit) {
+        return jdbcTemplate.update("DELETE FROM archived_task_lists WHERE id IN (SELECT id FROM archived_task_lists "
+                + "WHERE project_id = ? LIMIT ?)", projectId, limit);
+    }
+
+    /**
+     * Removes up to {@code limit} memberships of a deleted project.
+     */
+    public int deleteProjectMemberships(long projectId, int limit) {
+        return jdbcTemplate.update("DELETE FROM project_members WHERE project_id = ? AND user_id IN ("
+                + "SELECT user_id FROM project_members WHERE project_id = ? LIMIT ?)", projectId, projectId, limit);
+    }
+
+    /**
+     * Removes up to {@code limit} memberships of a deleted user.
+     */
+    public int deleteUserMemberships(long userId, int limit) {
+        return jdbcTemplate.update("DELETE FROM project_members WHERE user_id = ? AND project_id IN ("
+                + "SELECT project_id FROM project_members WHERE user_id = ? LIMIT ?)", userId, userId, limit);
+    }
+
+    /**
+     * Unassigns up to {@code limit} tasks of a deleted user.
+     */
+    public int unassignTasks(long userId, int limit) {
+        return jdbcTemplate.update("UPDATE tasks SET assigned_user_id = NULL WHERE id IN ("
+                + "SELECT id FROM tasks WHERE assigned_user_id = ? LIMIT ?)", userId, limit);
+    }
+
+    /**
+     * Removes a deleted project once everything below it has been removed. Its webhook subscriptions
+     * and their outbox rows go with it.
+     *
+     * @return whether the project was removed
+     */
+    public boolean deleteProject(long projectId) {
+        return jdbcTemplate.update("DELETE FROM projects WHERE id = ? AND deleted_at IS NOT NULL", projectId) > 0;
+    }
+
+    /**
+     * Removes a deleted user once their projects have been removed. Their token revocations go with them.
+     *
+     * @return whether the user was removed; false while the user still owns projects
+     */
+    public boolean deleteUser(long userId) {
+        return jdbcTemplate.update("DELETE FROM users WHERE id = ? AND deleted_at IS NOT NULL "
+                + "AND NOT EXISTS (SELECT 1 FROM projects WHERE owner_id = ?)", userId, userId) > 0;
+    }
+
+    /**
+     * Removes the copy of a deleted user on a shard other than shard 0 once the projects they owned there
+     * have been removed.
+     *
+     * @return whether there is no copy left; false while the copy still owns projects
+     */
+    public boolean deleteUserCopy(long userId) {
+        jdbcTemplate.update("DELETE FROM users WHERE id = ? "
+                + "AND NOT EXISTS (SELECT 1 FROM projects WHERE owner_id = ?)", userId, userId);
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE id = ?", Long.class, userId).isEmpty();
+    }
+
+    /**
+     * A deleted project.
+     */
+    public record DeletedProject(long id, String name, long ownerId, LocalDateTime deletedAt) {
+    }
+}
@@ -1,24 +1,181 @@
 package com.example.minitrello.repository;
 
 import com.example.minitrello.model.Task;
+import com.example.minitrello.repository.projection.AssignedTaskRow;
+import com.example.minitrello.repository.projection.TaskSearchRow;
+import com.example.minitrello.repository.projection.TitleRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
     /**
-     * Find all tasks in a specific task list
+     * Ranked full-text matches restricted to projects the user owns or is a member of.
+     * The access filter is part of the query so no per-row access checks are needed.
      */
-    List<Task> findByTaskListId(Long taskListId);
+    String SEARCH_MATCHES = "SELECT t.id, t.title, t.description, t.task_list_id, l.name AS task_list_name, "
+            + "p.id AS project_id, p.name AS project_name, t.updated_at, q.query, "
+            + "ts_rank_cd(t.search_vector, q.query) AS rank "
+            + "FROM tasks t "
+            + "JOIN task_lists l ON l.id = t.task_list_id AND l.project_id = t.project_id "
+            + "JOIN projects p ON p.id = t.project_id "
+            + "CROSS JOIN websearch_to_tsquery('english', :query) AS q(query) "
+            + "WHERE t.search_vector @@ q.query AND p.deleted_at IS NULL "
+            + "AND (p.owner_id = :userId OR EXISTS ("
+            + "SELECT 1 FROM project_members pm WHERE pm.project_id = p.id AND pm.user_id = :userId))";
 
     /**
-     * Find the maximum position for tasks in a task list
+     * Highlighting is applied on the outer query so it only runs for the rows of the requested page. Matches are
+     * wrapped in the control characters {@link #HIGHLIGHT_START} and {@link #HIGHLIGHT_STOP}, which are removed
+     * from the text first, so that the text can be HTML-escaped before the marks are turned into tags.
      */
-    @Query("SELECT MAX(t.position) FROM Task t WHERE t.taskList.id = :taskListId")
-    Integer findMaxPositionInTaskList(@Param("taskListId") Long taskListId);
-}
\ No newline at end of file
+    String SEARCH_PAGE_SELECT = "SELECT page.id AS id, page.title AS title, "
+            + "ts_headline('english', translate(coalesce(page.title, ''), chr(2) || chr(3), ''), page.query, "
+            + "'StartSel=' || chr(2) || ', StopSel=' || chr(3) || ', HighlightAll=true') AS titleHighlight, "
+            + "ts_headline('english', translate(coalesce(page.description, ''), chr(2) || chr(3), ''), page.query, "
+            + "'StartSel=' || chr(2) || ', StopSel=' || chr(3) || ', MaxFragments=2, MaxWords=20, MinWords=5') "
+            + "AS descriptionHighlight, "
+            + "page.task_list_id AS taskListId, page.task_list_name AS taskListName, "
+            + "page.project_id AS projectId, page.project_name AS projectName, "
+            + "page.rank AS rank, page.updated_at AS updatedAt ";
+
+    String HIGHLIGHT_START = "\u0002";
+
+    String HIGHLIGHT_STOP = "\u0003";
+
+    String SEARCH_PAGE_ORDER = " ORDER BY page.rank DESC, page.id ASC";
+
+    /**
+     * Tasks assigned to a user, with list and project names, restricted to projects the user can still access.
+     * Driven by the (assigned_user_id, updated_at, id) index.
+     */
+    String ASSIGNED_SELECT = "SELECT t.id AS id, t.title AS title, t.position AS position, "
+            + "l.id AS taskListId, l.name AS taskListName, p.id AS projectId, p.name AS projectName, "
+            + "t.createdAt AS createdAt, t.updatedAt AS updatedAt "
+            + "FROM Task t JOIN t.taskList l JOIN l.project p "
+            + "WHERE t.assignedUser.id = :userId "
+            + "AND (:projectId IS NULL OR t.projectId = :projectId) "
+            + "AND (p.owner.id = :userId OR EXISTS ("
+            + "SELECT 1 FROM Project mp JOIN mp.members m WHERE mp.id = p.id AND m.id = :userId)) ";
+
+    /**
+     * Find all tasks in a specific task list of a project, in position order. The project restricts the
+     * query to the partition of the project.
+     */
+    @Query("SELECT t FROM Task t WHERE t.projectId = :projectId AND t.taskList.id = :taskListId "
+            + "ORDER BY t.position")
+    List<Task> findByProjectIdAndTaskListId(@Param("projectId") Long projectId,
+                                            @Param("taskListId") Long taskListId);
+
+    /**
+     * Find the tasks of the given task lists of a project, in position order, in one query on the partition
+     * of the project
+     */
+    @Query("SELECT t FROM Task t WHERE t.projectId = :projectId AND t.taskList.id IN :taskListIds "
+            + "ORDER BY t.position")
+    List<Task> findByProjectIdAndTaskListIdIn(@Param("projectId") Long projectId,
+                                              @Param("taskListIds") Collection<Long> taskListIds);
+
+    /**
+     * Find the tasks of the given task lists of a project grouped by task list, each in position order.
+     * Used to load a board without loading the tasks of each list on its own.
+     */
+    default Map<Long, List<Task>> findByProjectIdGroupedByTaskList(Long projectId, Collection<Long> taskListIds) {
+        if (taskListIds.isEmpty()) {
+            return Map.of();
+        }
+        return findByProjectIdAndTaskListIdIn(projectId, taskListIds).stream()
+                .collect(Collectors.groupingBy(task -> task.getTaskList().getId()));
+    }
+
+    /**
+     * Find the maximum position for tasks in a task list of a project
+     */
+    @Query("SELECT MAX(t.position) FROM Task t WHERE t.projectId = :projectId AND t.taskList.id = :taskListId")
+    Integer findMaxPositionInTaskList(@Param("projectId") Long projectId, @Param("taskListId") Long taskListId);
+
+    /**
+     * Find the titles of all tasks in the given projects, used to build typeahead partitions
+     */
+    @Query("SELECT t.id AS id, t.title AS title, t.projectId AS projectId "
+            + "FROM Task t WHERE t.projectId IN :projectIds")
+    List<TitleRow> findTitlesByProjectIdIn(@Param("projectIds") Collection<Long> projectIds);
+
+    /**
+     * Full-text search over task titles and descriptions, first page.
+     * Backed by the GIN index on the generated search_vector column.
+     */
+    @Query(value = SEARCH_PAGE_SELECT + "FROM ("
+            + "SELECT m.* FROM (" + SEARCH_MATCHES + ") m "
+            + "ORDER BY m.rank DESC, m.id ASC LIMIT :limit) page"
+            + SEARCH_PAGE_ORDER, nativeQuery = true)
+    List<TaskSearchRow> searchAccessibleTasks(@Param("userId") Long userId,
+                                              @Param("query") String query,
+                                              @Param("limit") int limit);
+
+    /**
+     * Full-text search over task titles and descriptions, continuing after the given keyset cursor.
+     */
+    @Query(value = SEARCH_PAGE_SELECT + "FROM ("
+            + "SELECT m.* FROM (" + SEARCH_MATCHES + ") m "
+            + "WHERE m.rank < :cursorRank OR (m.rank = :cursorRank AND m.id > :cursorId) "
+            + "ORDER BY m.rank DESC, m.id ASC LIMIT :limit) page"
+            + SEARCH_PAGE_ORDER, nativeQuery = true)
+    List<TaskSearchRow> searchAccessibleTasksAfter(@Param("userId") Long userId,
+                                                   @Param("query") String query,
+                                                   @Param("cursorRank") float cursorRank,
+                                                   @Param("cursorId") Long cursorId,
+                                                   @Param("limit") int limit);
+
+    /**
+     * Tasks assigned to a user, most recently updated first, first page.
+     */
+    @Query(ASSIGNED_SELECT + "ORDER BY t.updatedAt DESC, t.id DESC")
+    List<AssignedTaskRow> findAssignedTasks(@Param("userId") Long userId,
+                                            @Param("projectId") Long projectId,
+                                            Limit limit);
+
+    /**
+     * Tasks assigned to a user, most recently updated first, continuing after the given keyset cursor.
+     */
+    @Query(ASSIGNED_SELECT
+            + "AND (t.updatedAt < :cursorUpdatedAt OR (t.updatedAt = :cursorUpdatedAt AND t.id < :cursorId)) "
+            + "ORDER BY t.updatedAt DESC, t.id DESC")
+    List<AssignedTaskRow> findAssignedTasksAfter(@Param("userId") Long userId,
+                                                 @Param("projectId") Long projectId,
+                                                 @Param("cursorUpdatedAt") LocalDateTime cursorUpdatedAt,
+                                                 @Param("cursorId") Long cursorId,
+                                                 Limit limit);
+
+    /**
+     * Tasks assigned to a user grouped by project, most recently updated first within a project, first page.
+     */
+    @Query(ASSIGNED_SELECT + "ORDER BY p.id ASC, t.updatedAt DESC, t.id DESC")
+    List<AssignedTaskRow> findAssignedTasksByProject(@Param("userId") Long userId,
+                                                     @Param("projectId") Long projectId,
+                                                     Limit limit);
+
+    /**
+     * Tasks assigned to a user grouped by project, continuing after the given keyset cursor.
+     */
+    @Query(ASSIGNED_SELECT
+            + "AND (p.id > :cursorProjectId OR (p.id = :cursorProjectId AND (t.updatedAt < :cursorUpdatedAt "
+            + "OR (t.updatedAt = :cursorUpdatedAt AND t.id < :cursorId)))) "
+            + "ORDER BY p.id ASC, t.updatedAt DESC, t.id DESC")
+    List<AssignedTaskRow> findAssignedTasksByProjectAfter(@Param("userId") Long userId,
+                                                          @Param("projectId") Long projectId,
+                                                          @Param("cursorProjectId") Long cursorProjectId,
+                                                          @Param("cursorUpdatedAt") LocalDateTime cursorUpdatedAt,
+                                                          @Param("cursorId") Long cursorId,
+                                                          Limit limit);
+}
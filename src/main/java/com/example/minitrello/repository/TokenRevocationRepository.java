@@ -0,0 +1,71 @@
+package com.example.minitrello.repository;
+
+import com.example.minitrello.security.TokenRevocation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * JDBC access to the revoked tokens. The table only holds revocations whose tokens may still be in use,
+ * so it stays small enough to be loaded in full at startup.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TokenRevocationRepository {
+
+    private static final String INSERT = "INSERT INTO token_revocations "
+            + "(user_id, token_id, issued_before, expires_at) VALUES (?, ?, ?, ?)";
+
+    private static final String SELECT = "SELECT user_id, token_id, issued_before, expires_at "
+            + "FROM token_revocations WHERE expires_at > ?";
+
+    private static final RowMapper<TokenRevocation> REVOCATION_ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp issuedBefore = rs.getTimestamp("issued_before");
+        return new TokenRevocation(
+                rs.getLong("user_id"),
+                rs.getString("token_id"),
+                issuedBefore != null ? issuedBefore.toInstant() : null,
+                rs.getTimestamp("expires_at").toInstant());
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stores a revocation. Must be called inside the transaction that causes it.
+     */
+    public void insert(TokenRevocation revocation) {
+        jdbcTemplate.update(INSERT,
+                revocation.userId(),
+                revocation.tokenId(),
+                revocation.issuedBefore() != null ? Timestamp.from(revocation.issuedBefore()) : null,
+                Timestamp.from(revocation.expiresAt()));
+    }
+
+    /**
+     * Revocations that have not expired at the given instant.
+     */
+    public List<TokenRevocation> findActive(Instant now) {
+        return jdbcTemplate.query(SELECT, REVOCATION_ROW_MAPPER, Timestamp.from(now));
+    }
+
+    /**
+     * Revocations of one user that have not expired at the given instant.
+     */
+    public List<TokenRevocation> findActiveByUserId(long userId, Instant now) {
+        return jdbcTemplate.query(SELECT + " AND user_id = ?", REVOCATION_ROW_MAPPER, Timestamp.from(now), userId);
+    }
+
+    /**
+     * Removes revocations that have expired at the given instant.
+     *
+     * @return the number of rows removed
+     */
+    public int deleteExpired(Instant now) {
+        return jdbcTemplate.update("DELETE FROM token_revocations WHERE expires_at <= ?", Timestamp.from(now));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.minitrello.repository;
+
+import com.example.minitrello.model.Role;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JDBC access for the bulk user import: set-based duplicate detection and COPY ingestion, neither of which
+ * goes through the persistence context.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserImportRepository {
+
+    private static final String FIND_EXISTING = "SELECT LOWER(email) FROM users WHERE LOWER(email) = ANY(?)";
+
+    private static final String CREATE_STAGING = "CREATE TEMPORARY TABLE user_import_staging "
+            + "(name VARCHAR(100), email VARCHAR(100), password VARCHAR(100), role VARCHAR(255)) ON COMMIT DROP";
+
+    private static final String COPY_STAGING = "COPY user_import_staging (name, email, password, role) "
+            + "FROM STDIN (FORMAT csv)";
+
+    // Rows taken by a concurrent registration since the duplicate check are skipped rather than failing the batch
+    private static final String INSERT_FROM_STAGING = "INSERT INTO users "
+            + "(name, email, password, role, is_active, created_at, updated_at) "
+            + "SELECT name, email, password, role, TRUE, ?, ? FROM user_import_staging "
+            + "ON CONFLICT (email) DO NOTHING RETURNING email";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Finds which of the given emails are already taken, ignoring case, in one query.
+     *
+     * @param lowerCaseEmails emails in lower case
+     * @return the taken emails, in lower case
+     */
+    public Set<String> findExistingEmails(Collection<String> lowerCaseEmails) {
+        return jdbcTemplate.execute((ConnectionCallback<Set<String>>) connection -> {
+            Array emails = connection.createArrayOf("varchar", lowerCaseEmails.toArray());
+            try (PreparedStatement statement = connection.prepareStatement(FIND_EXISTING)) {
+                statement.setArray(1, emails);
+                Set<String> existing = new HashSet<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        existing.add(resultSet.getString(1));
+                    }
+                }
+                return existing;
+            } finally {
+                emails.free();
+            }
+        });
+    }
+
+    /**
+     * Writes users with one COPY into a temporary table and one INSERT from it. Must be called inside a
+     * transaction, which drops the temporary table when it ends.
+     *
+     * @param users the users to insert, with hashed passwords
+     * @param createdAt creation time of the users
+     * @return the emails that were inserted; the others were taken in the meantime
+     */
+    public List<String> copyInsert(Collection<NewUser> users, LocalDateTime createdAt) {
+        return jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING);
+            }
+            try {
+                connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING, new StringReader(toCsv(users)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not copy users", e);
+            }
+
+            Timestamp timestamp = Timestamp.valueOf(createdAt);
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_FROM_STAGING)) {
+                statement.setTimestamp(1, timestamp);
+                statement.setTimestamp(2, timestamp);
+                List<String> inserted = new ArrayList<>(users.size());
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        inserted.add(resultSet.getString(1));
+                    }
+                }
+                return inserted;
+            }
+        });
+    }
+
+    private static String toCsv(Collection<NewUser> users) {
+        StringBuilder csv = new StringBuilder(users.size() * 128);
+        for (NewUser user : users) {
+            appendQuoted(csv, user.name()).append(',');
+            appendQuoted(csv, user.email()).append(',');
+            appendQuoted(csv, user.passwordHash()).append(',');
+            csv.append(user.role().name()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static StringBuilder appendQuoted(StringBuilder csv, String value) {
+        return csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    /**
+     * A user to insert.
+     */
+    public record NewUser(String name, String email, String passwordHash, Role role) {
+    }
+}
@@ -1,13 +1,55 @@
 package com.example.minitrello.repository;
 
 import com.example.minitrello.model.User;
+import com.example.minitrello.repository.projection.MemberRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    /**
+     * Users with access to a project: its members and its owner.
+     */
+    String PROJECT_MEMBERS = "(u.id IN (SELECT m.id FROM Project p JOIN p.members m WHERE p.id = :projectId) "
+            + "OR u.id = (SELECT o.owner.id FROM Project o WHERE o.id = :projectId))";
+
+    String MEMBER_SELECT = "SELECT u.id AS id, u.name AS name, u.email AS email, u.role AS role FROM User u ";
+
     Optional<User> findByEmail(String email);
-    Boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    /**
+     * Check whether an email is taken, including by deleted users that have not been purged yet:
+     * the email stays reserved so that the user can still be restored
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM users WHERE email = :email)", nativeQuery = true)
+    Boolean existsByEmail(@Param("email") String email);
+
+    /**
+     * Find all users with access to a project, used to build the member directory
+     */
+    @Query(MEMBER_SELECT + "WHERE " + PROJECT_MEMBERS)
+    List<MemberRow> findProjectMembers(@Param("projectId") Long projectId);
+
+    /**
+     * Count the users with access to a project
+     */
+    @Query("SELECT COUNT(u) FROM User u WHERE " + PROJECT_MEMBERS)
+    long countProjectMembers(@Param("projectId") Long projectId);
+
+    /**
+     * Prefix search on the name and email of the users with access to a project.
+     * The pattern must already be lower-cased and escaped; backed by the text_pattern_ops indexes on users.
+     */
+    @Query(MEMBER_SELECT + "WHERE (LOWER(u.name) LIKE :pattern ESCAPE '\\' OR LOWER(u.email) LIKE :pattern ESCAPE '\\') "
+            + "AND " + PROJECT_MEMBERS + " ORDER BY LOWER(u.name), u.id")
+    List<MemberRow> searchProjectMembers(@Param("projectId") Long projectId,
+                                         @Param("pattern") String pattern,
+                                         Limit limit);
+}
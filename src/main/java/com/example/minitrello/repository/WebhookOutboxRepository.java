@@ -0,0 +1,126 @@
+package com.example.minitrello.repository;
+
+import com.example.minitrello.webhook.OutboxMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access to the webhook outbox. Rows are inserted inside the business transaction. Dispatchers claim whole
+ * subscriptions with FOR UPDATE SKIP LOCKED plus a short lease, so several instances can dispatch concurrently
+ * without holding a transaction open during HTTP calls, while the events of one subscriber stay with one
+ * dispatcher and in order.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WebhookOutboxRepository {
+
+    private static final String INSERT = "INSERT INTO webhook_outbox "
+            + "(subscription_id, event_type, payload, next_attempt_at, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    // Subscriptions whose oldest live row is due, oldest head first
+    private static final String CLAIM_SUBSCRIPTIONS = "UPDATE webhook_subscriptions s "
+            + "SET dispatch_locked_until = LOCALTIMESTAMP + make_interval(secs => ?) "
+            + "FROM (SELECT s.id FROM webhook_subscriptions s "
+            + "CROSS JOIN LATERAL (SELECT o.id, o.next_attempt_at FROM webhook_outbox o "
+            + "WHERE o.subscription_id = s.id AND o.dead_at IS NULL ORDER BY o.id LIMIT 1) head "
+            + "WHERE head.next_attempt_at <= LOCALTIMESTAMP "
+            + "AND (s.dispatch_locked_until IS NULL OR s.dispatch_locked_until < LOCALTIMESTAMP) "
+            + "ORDER BY head.id LIMIT ? FOR UPDATE OF s SKIP LOCKED) claimed "
+            + "WHERE s.id = claimed.id "
+            + "RETURNING s.id";
+
+    // Live rows of a subscription in order, up to the first one that is not due
+    private static final String FIND_DELIVERABLE = "SELECT o.id, o.subscription_id, o.event_type, o.payload, "
+            + "o.attempts, o.created_at FROM webhook_outbox o "
+            + "WHERE o.subscription_id = ? AND o.dead_at IS NULL "
+            + "AND NOT EXISTS (SELECT 1 FROM webhook_outbox e WHERE e.subscription_id = o.subscription_id "
+            + "AND e.dead_at IS NULL AND e.id <= o.id AND e.next_attempt_at > LOCALTIMESTAMP) "
+            + "ORDER BY o.id LIMIT ?";
+
+    private static final String RESCHEDULE = "UPDATE webhook_outbox "
+            + "SET attempts = attempts + 1, next_attempt_at = ?, last_error = ?, "
+            + "dead_at = CASE WHEN ? THEN LOCALTIMESTAMP END WHERE id = ?";
+
+    private static final RowMapper<OutboxMessage> OUTBOX_ROW_MAPPER = (rs, rowNum) -> new OutboxMessage(
+            rs.getLong("id"),
+            rs.getLong("subscription_id"),
+            rs.getString("event_type"),
+            rs.getString("payload"),
+            rs.getInt("attempts"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes one outbox row per subscription. Must be called inside the transaction of the change.
+     */
+    public void insert(Collection<Long> subscriptionIds, String eventType, String payload, LocalDateTime createdAt) {
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        jdbcTemplate.batchUpdate(INSERT, subscriptionIds, subscriptionIds.size(), (ps, subscriptionId) -> {
+            ps.setLong(1, subscriptionId);
+            ps.setString(2, eventType);
+            ps.setString(3, payload);
+            ps.setTimestamp(4, timestamp);
+            ps.setTimestamp(5, timestamp);
+        });
+    }
+
+    /**
+     * Claims up to {@code limit} subscriptions whose oldest pending row is due, for the given lease, skipping
+     * subscriptions locked or leased by other dispatchers.
+     *
+     * @return the ids of the claimed subscriptions
+     */
+    public List<Long> claimSubscriptions(int limit, Duration lease) {
+        return jdbcTemplate.queryForList(CLAIM_SUBSCRIPTIONS, Long.class, lease.toMillis() / 1000.0, limit);
+    }
+
+    /**
+     * Pending rows of a claimed subscription, oldest first, stopping before the first row that is not due yet.
+     */
+    public List<OutboxMessage> findDeliverable(long subscriptionId, int limit) {
+        return jdbcTemplate.query(FIND_DELIVERABLE, OUTBOX_ROW_MAPPER, subscriptionId, limit);
+    }
+
+    /**
+     * Releases the lease on claimed subscriptions.
+     */
+    public void release(Collection<Long> subscriptionIds) {
+        jdbcTemplate.batchUpdate("UPDATE webhook_subscriptions SET dispatch_locked_until = NULL WHERE id = ?",
+                subscriptionIds, subscriptionIds.size(), (ps, id) -> ps.setLong(1, id));
+    }
+
+    /**
+     * Removes delivered rows.
+     */
+    public void delete(Collection<Long> ids) {
+        jdbcTemplate.batchUpdate("DELETE FROM webhook_outbox WHERE id = ?", ids, ids.size(),
+                (ps, id) -> ps.setLong(1, id));
+    }
+
+    /**
+     * Records a failed delivery: schedules the next attempt, or marks the row dead.
+     */
+    public void reschedule(long id, LocalDateTime nextAttemptAt, boolean dead, String error) {
+        jdbcTemplate.update(RESCHEDULE, Timestamp.valueOf(nextAttemptAt), error, dead, id);
+    }
+
+    /**
+     * Creation time of the oldest row still waiting for delivery.
+     */
+    public Optional<LocalDateTime> findOldestPendingCreatedAt() {
+        return jdbcTemplate.query("SELECT created_at FROM webhook_outbox WHERE dead_at IS NULL ORDER BY id LIMIT 1",
+                        (rs, rowNum) -> rs.getTimestamp("created_at").toLocalDateTime())
+                .stream()
+                .findFirst();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.minitrello.repository;
+
+import com.example.minitrello.model.WebhookSubscription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WebhookSubscriptionRepository extends JpaRepository<WebhookSubscription, Long> {
+
+    /**
+     * Find all webhook subscriptions of a project
+     */
+    List<WebhookSubscription> findByProjectIdOrderByIdAsc(Long projectId);
+
+    /**
+     * Find a webhook subscription of a specific project
+     */
+    Optional<WebhookSubscription> findByIdAndProjectId(Long id, Long projectId);
+
+    /**
+     * Find the ids of the active subscriptions of a project, used when writing outbox rows
+     */
+    @Query("SELECT s.id FROM WebhookSubscription s WHERE s.project.id = :projectId AND s.active = true")
+    List<Long> findActiveIdsByProjectId(@Param("projectId") Long projectId);
+}
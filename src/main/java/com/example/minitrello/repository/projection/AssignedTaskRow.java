@@ -0,0 +1,26 @@
+package com.example.minitrello.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a task assigned to a user, together with its task list and project names.
+ */
+public interface AssignedTaskRow {
+    Long getId();
+
+    String getTitle();
+
+    Integer getPosition();
+
+    Long getTaskListId();
+
+    String getTaskListName();
+
+    Long getProjectId();
+
+    String getProjectName();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
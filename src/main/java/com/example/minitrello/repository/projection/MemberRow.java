@@ -0,0 +1,16 @@
+package com.example.minitrello.repository.projection;
+
+import com.example.minitrello.model.Role;
+
+/**
+ * Projection of a project member (or owner) for the assignee picker.
+ */
+public interface MemberRow {
+    Long getId();
+
+    String getName();
+
+    String getEmail();
+
+    Role getRole();
+}
@@ -0,0 +1,28 @@
+package com.example.minitrello.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a single full-text search hit, including ranking and highlighted fragments.
+ */
+public interface TaskSearchRow {
+    Long getId();
+
+    String getTitle();
+
+    String getTitleHighlight();
+
+    String getDescriptionHighlight();
+
+    Long getTaskListId();
+
+    String getTaskListName();
+
+    Long getProjectId();
+
+    String getProjectName();
+
+    Float getRank();
+
+    LocalDateTime getUpdatedAt();
+}
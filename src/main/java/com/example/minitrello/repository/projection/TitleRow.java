@@ -0,0 +1,12 @@
+package com.example.minitrello.repository.projection;
+
+/**
+ * Projection of an entity id and its display title, tagged with the owning project.
+ */
+public interface TitleRow {
+    Long getId();
+
+    String getTitle();
+
+    Long getProjectId();
+}
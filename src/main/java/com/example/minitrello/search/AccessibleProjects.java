@@ -0,0 +1,120 @@
+package com.example.minitrello.search;
+
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.ProjectChangedEvent;
+import com.example.minitrello.event.ProjectMembershipChangedEvent;
+import com.example.minitrello.repository.ProjectRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user cache of the ids of the projects a user owns or is a member of, used to scope typeahead
+ * suggestions without asking every shard on every keystroke. A user's entry is dropped when they join or
+ * leave a project. Creating, deleting or restoring a project changes the access of users that are not
+ * known here, so it drops every entry.
+ */
+@Component
+public class AccessibleProjects {
+
+    private final ProjectRepository projectRepository;
+    private final ShardRouting shardRouting;
+    private final int maxUsers;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation so that a load racing with a change is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public AccessibleProjects(ProjectRepository projectRepository,
+                              ShardRouting shardRouting,
+                              @Value("${app.typeahead.max-cached-users:10000}") int maxUsers) {
+        this.projectRepository = projectRepository;
+        this.shardRouting = shardRouting;
+        this.maxUsers = maxUsers;
+    }
+
+    /**
+     * The ids of the projects a user can access, from every shard.
+     *
+     * @param userId the user
+     * @return the project ids
+     */
+    public List<Long> of(Long userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            entry = load(userId);
+        }
+        entry.lastAccess = System.nanoTime();
+        return entry.projectIds;
+    }
+
+    @TransactionalEventListener
+    public void onMembershipChanged(ProjectMembershipChangedEvent event) {
+        evictUser(event.getUserId());
+    }
+
+    @TransactionalEventListener
+    public void onProjectChanged(ProjectChangedEvent event) {
+        if (event.getType() != ChangeType.UPDATED) {
+            evictAll();
+        }
+    }
+
+    /**
+     * Drops the entry of a user so that it is reloaded on next use.
+     *
+     * @param userId the user who joined or left a project
+     */
+    public void evictUser(Long userId) {
+        generation.incrementAndGet();
+        entries.remove(userId);
+    }
+
+    /**
+     * Drops all entries.
+     */
+    public void evictAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    private Entry load(Long userId) {
+        long loadGeneration = generation.get();
+
+        Entry entry = new Entry(shardRouting.readEachShard(() -> projectRepository.findAccessibleProjectIds(userId))
+                .stream()
+                .flatMap(List::stream)
+                .toList());
+
+        if (generation.get() == loadGeneration) {
+            if (entries.size() >= maxUsers) {
+                evictLeastRecentlyUsed();
+            }
+            entries.put(userId, entry);
+        }
+        return entry;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        entries.entrySet().stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue().lastAccess))
+                .ifPresent(entry -> entries.remove(entry.getKey(), entry.getValue()));
+    }
+
+    private static final class Entry {
+
+        private final List<Long> projectIds;
+        private volatile long lastAccess = System.nanoTime();
+
+        private Entry(List<Long> projectIds) {
+            this.projectIds = projectIds;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.minitrello.search;
+
+import com.example.minitrello.datasource.PrimaryReads;
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.ProjectChangedEvent;
+import com.example.minitrello.event.ProjectMembershipChangedEvent;
+import com.example.minitrello.event.UserChangedEvent;
+import com.example.minitrello.model.Role;
+import com.example.minitrello.repository.UserRepository;
+import com.example.minitrello.repository.projection.MemberRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Per-project cache of the users with access to a project (members and owner), used by the
+ * assignee picker. Each directory keeps the lower-cased names and emails in one sorted array so a
+ * prefix lookup is a binary search followed by a short scan. Directories are dropped whenever
+ * membership, a member's profile or the project itself changes. Projects with more members than
+ * the configured cap are not cached; their lookups go to the prefix indexes on the users table.
+ */
+@Component
+@Slf4j
+public class MemberDirectory {
+
+    private final UserRepository userRepository;
+    private final PrimaryReads primaryReads;
+    private final int maxMembers;
+    private final int maxProjects;
+    private final Map<Long, Directory> directories = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation so that a load racing with a change is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public MemberDirectory(UserRepository userRepository,
+                           PrimaryReads primaryReads,
+                           @Value("${app.member-directory.max-members:5000}") int maxMembers,
+                           @Value("${app.member-directory.max-projects:10000}") int maxProjects) {
+        this.userRepository = userRepository;
+        this.primaryReads = primaryReads;
+        this.maxMembers = maxMembers;
+        this.maxProjects = maxProjects;
+    }
+
+    /**
+     * A user with access to the project.
+     */
+    public record Member(long id, String name, String email, Role role) {
+    }
+
+    /**
+     * Finds the members of a project whose name or email starts with the given prefix, case-insensitively.
+     *
+     * @param projectId the project to search
+     * @param prefix the text typed by the user; an empty prefix matches every member
+     * @param limit maximum number of members to return
+     * @return matching members ordered by name
+     */
+    public List<Member> search(Long projectId, String prefix, int limit) {
+        String folded = fold(prefix);
+        Directory directory = directories.get(projectId);
+        if (directory == null) {
+            directory = load(projectId);
+        }
+        directory.lastAccess = System.nanoTime();
+
+        if (directory.oversized) {
+            return userRepository.searchProjectMembers(projectId, likePattern(folded), Limit.of(limit)).stream()
+                    .map(MemberDirectory::toMember)
+                    .toList();
+        }
+        return directory.search(folded, limit);
+    }
+
+    @TransactionalEventListener
+    public void onMembershipChanged(ProjectMembershipChangedEvent event) {
+        evict(event.getProjectId());
+    }
+
+    @TransactionalEventListener
+    public void onProjectChanged(ProjectChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            evict(event.getProjectId());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        evictUser(event.getUserId());
+    }
+
+    /**
+     * Drops the directory of a project so that it is reloaded on next use.
+     *
+     * @param projectId the project whose directory should be dropped
+     */
+    public void evict(Long projectId) {
+        generation.incrementAndGet();
+        directories.remove(projectId);
+    }
+
+    /**
+     * Drops the directories of all projects the given user appears in.
+     *
+     * @param userId the user whose name, email, role or status changed
+     */
+    public void evictUser(Long userId) {
+        generation.incrementAndGet();
+        directories.entrySet().removeIf(entry -> entry.getValue().contains(userId));
+    }
+
+    /**
+     * Drops the directories of all projects except those accepted by the filter.
+     *
+     * @param keep whether a project's directory stays cached
+     */
+    public void retainProjects(Predicate<Long> keep) {
+        generation.incrementAndGet();
+        directories.keySet().removeIf(projectId -> !keep.test(projectId));
+    }
+
+    /**
+     * Drops all directories.
+     */
+    public void evictAll() {
+        generation.incrementAndGet();
+        directories.clear();
+    }
+
+    private Directory load(Long projectId) {
+        long loadGeneration = generation.get();
+
+        Directory directory = primaryReads.call(() -> {
+            if (userRepository.countProjectMembers(projectId) > maxMembers) {
+                return Directory.oversized();
+            }
+            return Directory.build(userRepository.findProjectMembers(projectId).stream()
+                    .map(MemberDirectory::toMember)
+                    .toList());
+        });
+
+        if (generation.get() == loadGeneration) {
+            if (directories.size() >= maxProjects) {
+                evictLeastRecentlyUsed();
+            }
+            directories.put(projectId, directory);
+        }
+        return directory;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        directories.entrySet().stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue().lastAccess))
+                .ifPresent(entry -> directories.remove(entry.getKey(), entry.getValue()));
+    }
+
+    private static Member toMember(MemberRow row) {
+        return new Member(row.getId(), row.getName(), row.getEmail(), row.getRole());
+    }
+
+    private static String fold(String text) {
+        return text == null ? "" : text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static String likePattern(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    /**
+     * Immutable member directory of one project. Every name and email is a key pointing at its member;
+     * keys are sorted so all keys with a given prefix are adjacent.
+     */
+    private static final class Directory {
+
+        private final Member[] members;
+        private final String[] keys;
+        private final int[] owners;
+        private final boolean oversized;
+        private volatile long lastAccess = System.nanoTime();
+
+        private Directory(Member[] members, String[] keys, int[] owners, boolean oversized) {
+            this.members = members;
+            this.keys = keys;
+            this.owners = owners;
+            this.oversized = oversized;
+        }
+
+        static Directory oversized() {
+            return new Directory(new Member[0], new String[0], new int[0], true);
+        }
+
+        static Directory build(List<Member> loaded) {
+            // Members are kept in result order so that matches only need sorting by ordinal
+            Member[] members = loaded.stream()
+                    .sorted(Comparator.comparing((Member member) -> fold(member.name()))
+                            .thenComparingLong(Member::id))
+                    .toArray(Member[]::new);
+
+            List<Key> entries = new ArrayList<>();
+            for (int i = 0; i < members.length; i++) {
+                if (members[i].name() != null) {
+                    entries.add(new Key(fold(members[i].name()), i));
+                }
+                if (members[i].email() != null) {
+                    entries.add(new Key(fold(members[i].email()), i));
+                }
+            }
+            entries.sort(Comparator.comparing(Key::text));
+
+            String[] keys = new String[entries.size()];
+            int[] owners = new int[entries.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = entries.get(i).text();
+                owners[i] = entries.get(i).member();
+            }
+            return new Directory(members, keys, owners, false);
+        }
+
+        boolean contains(Long userId) {
+            for (Member member : members) {
+                if (userId != null && member.id() == userId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        List<Member> search(String prefix, int limit) {
+            if (limit <= 0) {
+                return List.of();
+            }
+            if (prefix.isEmpty()) {
+                return List.of(Arrays.copyOf(members, Math.min(limit, members.length)));
+            }
+
+            boolean[] matched = new boolean[members.length];
+            int count = 0;
+            for (int i = lowerBound(prefix); i < keys.length && keys[i].startsWith(prefix); i++) {
+                if (!matched[owners[i]]) {
+                    matched[owners[i]] = true;
+                    count++;
+                }
+            }
+
+            List<Member> result = new ArrayList<>(Math.min(count, limit));
+            for (int i = 0; i < members.length && result.size() < limit; i++) {
+                if (matched[i]) {
+                    result.add(members[i]);
+                }
+            }
+            return result;
+        }
+
+        private record Key(String text, int member) {
+        }
+
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.minitrello.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable trigram index over the titles of a single project (the project name and its task titles).
+ * All data is kept in flat primitive arrays: documents are addressed by ordinal, folded titles are
+ * concatenated into one char array, and posting lists are stored back to back in one int array.
+ * Changes produce a new partition; readers never see a partially built index.
+ */
+public final class TitleIndexPartition {
+
+    public static final byte KIND_PROJECT = 0;
+    public static final byte KIND_TASK = 1;
+
+    private static final int GRAM = 3;
+
+    /**
+     * Order of hits: best score first, then shorter titles, then lower ids for stable results.
+     */
+    public static final Comparator<Hit> HIT_ORDER = Comparator
+            .comparingInt(Hit::score)
+            .thenComparingInt((Hit hit) -> hit.title().length())
+            .thenComparingLong(Hit::id);
+
+    private final long[] ids;
+    private final byte[] kinds;
+    private final String[] titles;
+    private final char[] folded;
+    private final int[] offsets;
+    private final long[] grams;
+    private final int[] postingOffsets;
+    private final int[] postings;
+    private final long memoryBytes;
+
+    private TitleIndexPartition(long[] ids, byte[] kinds, String[] titles, char[] folded, int[] offsets,
+                                long[] grams, int[] postingOffsets, int[] postings) {
+        this.ids = ids;
+        this.kinds = kinds;
+        this.titles = titles;
+        this.folded = folded;
+        this.offsets = offsets;
+        this.grams = grams;
+        this.postingOffsets = postingOffsets;
+        this.postings = postings;
+        this.memoryBytes = estimateMemoryBytes();
+    }
+
+    /**
+     * A document to add, replace or (with a null title) remove.
+     */
+    public record Change(byte kind, long id, String title) {
+    }
+
+    /**
+     * A matching document. Lower scores are better: 0 for a title prefix match,
+     * 1 for a word prefix match and 2 for any other substring match.
+     */
+    public record Hit(byte kind, long id, String title, int score) {
+    }
+
+    /**
+     * Builds a partition from the given documents.
+     *
+     * @param changes documents to index; entries with a null title are ignored
+     * @return the built partition
+     */
+    public static TitleIndexPartition build(List<Change> changes) {
+        return empty().withChanges(changes);
+    }
+
+    /**
+     * @return a partition without documents
+     */
+    public static TitleIndexPartition empty() {
+        return new TitleIndexPartition(new long[0], new byte[0], new String[0], new char[0], new int[]{0},
+                new long[0], new int[]{0}, new int[0]);
+    }
+
+    /**
+     * Returns a new partition with the given changes applied. Changes are idempotent:
+     * applying an upsert or removal twice yields the same partition.
+     *
+     * @param changes documents to add, replace or remove
+     * @return the new partition
+     */
+    public TitleIndexPartition withChanges(List<Change> changes) {
+        Map<Long, Change> docs = new LinkedHashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            docs.put(docKey(kinds[i], ids[i]), new Change(kinds[i], ids[i], titles[i]));
+        }
+        for (Change change : changes) {
+            long key = docKey(change.kind(), change.id());
+            if (change.title() == null) {
+                docs.remove(key);
+            } else {
+                docs.put(key, change);
+            }
+        }
+        return compile(new ArrayList<>(docs.values()));
+    }
+
+    /**
+     * Finds documents whose title contains the given query, case-insensitively.
+     *
+     * @param query the text typed by the user
+     * @param limit maximum number of hits to return
+     * @return the best hits, ordered by score, title length and id
+     */
+    public List<Hit> search(String query, int limit) {
+        char[] needle = fold(query);
+        if (needle.length == 0 || ids.length == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        if (needle.length < GRAM) {
+            for (int doc = 0; doc < ids.length; doc++) {
+                collect(doc, needle, hits);
+            }
+        } else {
+            int shortest = -1;
+            int shortestLength = Integer.MAX_VALUE;
+            for (int i = 0; i + GRAM <= needle.length; i++) {
+                int gramIndex = Arrays.binarySearch(grams, gram(needle, i));
+                if (gramIndex < 0) {
+                    return List.of();
+                }
+                int length = postingOffsets[gramIndex + 1] - postingOffsets[gramIndex];
+                if (length < shortestLength) {
+                    shortest = gramIndex;
+                    shortestLength = length;
+                }
+            }
+            for (int p = postingOffsets[shortest]; p < postingOffsets[shortest + 1]; p++) {
+                collect(postings[p], needle, hits);
+            }
+        }
+
+        hits.sort(HIT_ORDER);
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    /**
+     * @return number of indexed documents
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @return approximate heap footprint of this partition in bytes
+     */
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    private void collect(int doc, char[] needle, List<Hit> hits) {
+        int start = offsets[doc];
+        int end = offsets[doc + 1];
+        int at = indexOf(start, end, needle);
+        if (at < 0) {
+            return;
+        }
+        int score;
+        if (at == start) {
+            score = 0;
+        } else if (!Character.isLetterOrDigit(folded[at - 1])) {
+            score = 1;
+        } else {
+            score = 2;
+        }
+        hits.add(new Hit(kinds[doc], ids[doc], titles[doc], score));
+    }
+
+    private int indexOf(int start, int end, char[] needle) {
+        int last = end - needle.length;
+        outer:
+        for (int i = start; i <= last; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (folded[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static TitleIndexPartition compile(List<Change> docs) {
+        int count = docs.size();
+        long[] ids = new long[count];
+        byte[] kinds = new byte[count];
+        String[] titles = new String[count];
+        int[] offsets = new int[count + 1];
+
+        int totalChars = 0;
+        for (Change doc : docs) {
+            totalChars += doc.title().length();
+        }
+        char[] folded = new char[totalChars];
+
+        Map<Long, IntArray> postingsByGram = new HashMap<>();
+        int position = 0;
+        for (int doc = 0; doc < count; doc++) {
+            Change change = docs.get(doc);
+            ids[doc] = change.id();
+            kinds[doc] = change.kind();
+            titles[doc] = change.title();
+            offsets[doc] = position;
+
+            char[] title = fold(change.title());
+            System.arraycopy(title, 0, folded, position, title.length);
+            position += title.length;
+
+            for (int i = 0; i + GRAM <= title.length; i++) {
+                postingsByGram.computeIfAbsent(gram(title, i), key -> new IntArray()).addOnce(doc);
+            }
+        }
+        offsets[count] = position;
+
+        long[] grams = new long[postingsByGram.size()];
+        int g = 0;
+        int totalPostings = 0;
+        for (Map.Entry<Long, IntArray> entry : postingsByGram.entrySet()) {
+            grams[g++] = entry.getKey();
+            totalPostings += entry.getValue().size;
+        }
+        Arrays.sort(grams);
+
+        int[] postingOffsets = new int[grams.length + 1];
+        int[] postings = new int[totalPostings];
+        int p = 0;
+        for (int i = 0; i < grams.length; i++) {
+            postingOffsets[i] = p;
+            IntArray list = postingsByGram.get(grams[i]);
+            System.arraycopy(list.values, 0, postings, p, list.size);
+            p += list.size;
+        }
+        postingOffsets[grams.length] = p;
+
+        return new TitleIndexPartition(ids, kinds, titles, folded, offsets, grams, postingOffsets, postings);
+    }
+
+    private long estimateMemoryBytes() {
+        long bytes = 16L * 9;
+        bytes += 8L * ids.length + kinds.length + 2L * folded.length + 4L * offsets.length;
+        bytes += 8L * grams.length + 4L * postingOffsets.length + 4L * postings.length;
+        for (String title : titles) {
+            // reference plus String header and backing array
+            bytes += 8 + 40 + title.length();
+        }
+        return bytes;
+    }
+
+    private static char[] fold(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return chars;
+    }
+
+    private static long gram(char[] text, int at) {
+        return ((long) text[at] << 32) | ((long) text[at + 1] << 16) | text[at + 2];
+    }
+
+    private static long docKey(byte kind, long id) {
+        return (id << 1) | kind;
+    }
+
+    /**
+     * Minimal growable int array used while building posting lists.
+     */
+    private static final class IntArray {
+        private int[] values = new int[4];
+        private int size;
+
+        void addOnce(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
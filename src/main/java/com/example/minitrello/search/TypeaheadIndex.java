@@ -0,0 +1,329 @@
+package com.example.minitrello.search;
+
+import com.example.minitrello.datasource.PrimaryReads;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.ProjectChangedEvent;
+import com.example.minitrello.event.TaskChangedEvent;
+import com.example.minitrello.event.TaskListChangedEvent;
+import com.example.minitrello.event.TasksArchivedEvent;
+import com.example.minitrello.repository.ProjectRepository;
+import com.example.minitrello.repository.TaskRepository;
+import com.example.minitrello.repository.projection.TitleRow;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * In-process typeahead index over project names and task titles, partitioned by project.
+ * Partitions are loaded lazily (in bulk, from each project's shard) the first time a user with access
+ * to the project types, kept current from committed task, task list and project changes, and evicted
+ * least recently used first when the configured memory budget is exceeded.
+ */
+@Component
+@Slf4j
+public class TypeaheadIndex {
+
+    private static final long LOAD_TIMEOUT_SECONDS = 10;
+
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final PrimaryReads primaryReads;
+    private final ShardRouting shardRouting;
+    private final long maxMemoryBytes;
+    private final Timer searchTimer;
+    private final Map<Long, Partition> partitions = new ConcurrentHashMap<>();
+
+    public TypeaheadIndex(TaskRepository taskRepository,
+                          ProjectRepository projectRepository,
+                          PrimaryReads primaryReads,
+                          ShardRouting shardRouting,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.typeahead.max-memory-bytes:67108864}") long maxMemoryBytes) {
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.primaryReads = primaryReads;
+        this.shardRouting = shardRouting;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.searchTimer = Timer.builder("typeahead.search")
+                .description("Latency of typeahead lookups")
+                .register(meterRegistry);
+        Gauge.builder("typeahead.index.memory", this, TypeaheadIndex::getMemoryBytes)
+                .description("Approximate heap used by the typeahead index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("typeahead.index.partitions", partitions, Map::size)
+                .description("Number of project partitions loaded in the typeahead index")
+                .register(meterRegistry);
+        Gauge.builder("typeahead.index.documents", this, TypeaheadIndex::getDocumentCount)
+                .description("Number of titles held in the typeahead index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A hit together with the project partition it was found in.
+     */
+    public record ProjectHit(long projectId, TitleIndexPartition.Hit hit) {
+    }
+
+    /**
+     * Searches the titles of the given projects.
+     *
+     * @param projectIds projects the caller has access to
+     * @param query the text typed by the user
+     * @param limit maximum number of hits to return
+     * @return the best hits across all given projects
+     */
+    public List<ProjectHit> search(Collection<Long> projectIds, String query, int limit) {
+        return searchTimer.record(() -> {
+            loadMissing(projectIds);
+
+            List<ProjectHit> hits = new ArrayList<>();
+            for (Long projectId : projectIds) {
+                Partition partition = partitions.get(projectId);
+                TitleIndexPartition index = partition != null ? partition.current() : null;
+                if (index == null) {
+                    continue;
+                }
+                for (TitleIndexPartition.Hit hit : index.search(query, limit)) {
+                    hits.add(new ProjectHit(projectId, hit));
+                }
+            }
+
+            hits.sort(Comparator.comparing(ProjectHit::hit, TitleIndexPartition.HIT_ORDER));
+            return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        });
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.getPreviousProjectId() != null && !event.getPreviousProjectId().equals(event.getProjectId())) {
+            apply(event.getPreviousProjectId(), TitleIndexPartition.KIND_TASK, event.getTaskId(), null);
+        }
+        boolean removed = event.getType() == ChangeType.DELETED || event.getType() == ChangeType.ARCHIVED;
+        String title = removed ? null : event.getTitle();
+        apply(event.getProjectId(), TitleIndexPartition.KIND_TASK, event.getTaskId(), title);
+    }
+
+    @TransactionalEventListener
+    public void onTaskListChanged(TaskListChangedEvent event) {
+        // Deleting or archiving a list removes all of its tasks, restoring it brings them back; reload the
+        // project on next use
+        if (event.getType() == ChangeType.DELETED || event.getType() == ChangeType.ARCHIVED
+                || event.getType() == ChangeType.RESTORED) {
+            partitions.remove(event.getProjectId());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTasksArchived(TasksArchivedEvent event) {
+        partitions.remove(event.getProjectId());
+    }
+
+    @TransactionalEventListener
+    public void onProjectChanged(ProjectChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            partitions.remove(event.getProjectId());
+        } else {
+            apply(event.getProjectId(), TitleIndexPartition.KIND_PROJECT, event.getProjectId(), event.getName());
+        }
+    }
+
+    /**
+     * Drops the partition of a project so that it is rebuilt from the database on next use.
+     *
+     * @param projectId the project whose partition should be dropped
+     */
+    public void evict(Long projectId) {
+        partitions.remove(projectId);
+    }
+
+    /**
+     * Drops the partitions of all projects except those accepted by the filter.
+     *
+     * @param keep whether a project's partition stays loaded
+     */
+    public void retainProjects(Predicate<Long> keep) {
+        partitions.keySet().removeIf(projectId -> !keep.test(projectId));
+    }
+
+    /**
+     * Drops all partitions.
+     */
+    public void evictAll() {
+        partitions.clear();
+    }
+
+    long getMemoryBytes() {
+        long total = 0;
+        for (Partition partition : partitions.values()) {
+            TitleIndexPartition index = partition.index;
+            if (index != null) {
+                total += index.getMemoryBytes();
+            }
+        }
+        return total;
+    }
+
+    long getDocumentCount() {
+        long total = 0;
+        for (Partition partition : partitions.values()) {
+            TitleIndexPartition index = partition.index;
+            if (index != null) {
+                total += index.size();
+            }
+        }
+        return total;
+    }
+
+    private void apply(Long projectId, byte kind, Long id, String title) {
+        if (projectId == null || id == null) {
+            return;
+        }
+        // Projects that are not loaded will be read fresh from the database when first needed
+        Partition partition = partitions.get(projectId);
+        if (partition != null) {
+            partition.pending.add(new TitleIndexPartition.Change(kind, id, title));
+        }
+    }
+
+    private void loadMissing(Collection<Long> projectIds) {
+        Map<Long, Partition> claimed = new HashMap<>();
+        for (Long projectId : projectIds) {
+            Partition partition = partitions.computeIfAbsent(projectId, id -> {
+                Partition created = new Partition();
+                claimed.put(id, created);
+                return created;
+            });
+            partition.lastAccess = System.nanoTime();
+        }
+
+        if (!claimed.isEmpty()) {
+            load(claimed);
+        }
+
+        for (Long projectId : projectIds) {
+            Partition partition = partitions.get(projectId);
+            if (partition != null && !claimed.containsKey(projectId)) {
+                partition.awaitLoaded();
+            }
+        }
+    }
+
+    private void load(Map<Long, Partition> claimed) {
+        log.debug("Loading typeahead partitions for {} projects", claimed.size());
+        try {
+            Map<Long, List<TitleIndexPartition.Change>> docs = new HashMap<>();
+            for (Long projectId : claimed.keySet()) {
+                docs.put(projectId, new ArrayList<>());
+            }
+            Map<Integer, List<Long>> byShard = claimed.keySet().stream()
+                    .collect(Collectors.groupingBy(shardRouting::shardOf));
+            byShard.forEach((shard, projectIds) -> shardRouting.read(shard, () -> primaryReads.call(() -> {
+                for (TitleRow row : projectRepository.findTitlesByIdIn(projectIds)) {
+                    docs.get(row.getProjectId()).add(
+                            new TitleIndexPartition.Change(TitleIndexPartition.KIND_PROJECT, row.getId(), row.getTitle()));
+                }
+                for (TitleRow row : taskRepository.findTitlesByProjectIdIn(projectIds)) {
+                    if (row.getTitle() != null) {
+                        docs.get(row.getProjectId()).add(
+                                new TitleIndexPartition.Change(TitleIndexPartition.KIND_TASK, row.getId(), row.getTitle()));
+                    }
+                }
+                return null;
+            })));
+            claimed.forEach((projectId, partition) -> partition.complete(TitleIndexPartition.build(docs.get(projectId))));
+        } catch (RuntimeException e) {
+            log.warn("Failed to load typeahead partitions: {}", e.getMessage());
+            claimed.forEach((projectId, partition) -> {
+                partitions.remove(projectId, partition);
+                partition.fail(e);
+            });
+            return;
+        }
+        evictOverBudget(claimed.keySet());
+    }
+
+    private void evictOverBudget(Collection<Long> keep) {
+        long total = getMemoryBytes();
+        if (total <= maxMemoryBytes) {
+            return;
+        }
+        List<Map.Entry<Long, Partition>> candidates = new ArrayList<>(partitions.entrySet());
+        candidates.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+        for (Map.Entry<Long, Partition> entry : candidates) {
+            if (total <= maxMemoryBytes) {
+                break;
+            }
+            TitleIndexPartition index = entry.getValue().index;
+            if (keep.contains(entry.getKey()) || index == null) {
+                continue;
+            }
+            if (partitions.remove(entry.getKey(), entry.getValue())) {
+                total -= index.getMemoryBytes();
+            }
+        }
+    }
+
+    /**
+     * Holder for a project's partition. Changes are queued and folded into a new immutable
+     * partition on the next read, so bursts of edits cost a single rebuild.
+     */
+    private static final class Partition {
+        private final CompletableFuture<Void> loaded = new CompletableFuture<>();
+        private final ConcurrentLinkedQueue<TitleIndexPartition.Change> pending = new ConcurrentLinkedQueue<>();
+        private volatile TitleIndexPartition index;
+        private volatile long lastAccess = System.nanoTime();
+
+        void complete(TitleIndexPartition built) {
+            index = built;
+            loaded.complete(null);
+        }
+
+        void fail(Throwable cause) {
+            loaded.completeExceptionally(cause);
+        }
+
+        void awaitLoaded() {
+            try {
+                loaded.get(LOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                // The partition is skipped for this lookup
+            }
+        }
+
+        TitleIndexPartition current() {
+            if (index == null || pending.isEmpty()) {
+                return index;
+            }
+            synchronized (this) {
+                List<TitleIndexPartition.Change> changes = new ArrayList<>();
+                TitleIndexPartition.Change change;
+                while ((change = pending.poll()) != null) {
+                    changes.add(change);
+                }
+                if (!changes.isEmpty()) {
+                    index = index.withChanges(changes);
+                }
+                return index;
+            }
+        }
+    }
+}
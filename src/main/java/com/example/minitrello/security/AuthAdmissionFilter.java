@@ -0,0 +1,69 @@
+package com.example.minitrello.security;
+
+import com.example.minitrello.exception.ApiErrorResponse;
+import com.example.minitrello.exception.TooManyRequestsException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Applies the per-address admission check of {@link LoginAdmission} to the login and register endpoints
+ * before the request body is read or any other filter does work, answering refused requests with 429.
+ * The client address is the connection's remote address; behind a proxy, set
+ * {@code server.forward-headers-strategy} so it is taken from the forwarded headers.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class AuthAdmissionFilter extends OncePerRequestFilter {
+
+    private static final Set<String> ADMITTED_PATHS = Set.of("/api/auth/login", "/api/auth/register");
+
+    private final LoginAdmission loginAdmission;
+    private final ObjectMapper objectMapper;
+
+    public AuthAdmissionFilter(LoginAdmission loginAdmission, ObjectMapper objectMapper) {
+        this.loginAdmission = loginAdmission;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || !ADMITTED_PATHS.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try {
+            loginAdmission.admitAddress(request.getRemoteAddr());
+        } catch (TooManyRequestsException e) {
+            ApiErrorResponse apiError = ApiErrorResponse.builder()
+                    .status(HttpStatus.TOO_MANY_REQUESTS)
+                    .statusCode(HttpStatus.TOO_MANY_REQUESTS.value())
+                    .message(e.getMessage())
+                    .path(request.getRequestURI())
+                    .timestamp(LocalDateTime.now())
+                    .build();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), apiError);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.minitrello.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over strings that can be queried concurrently with insertions. Probes are derived from one
+ * 64-bit hash computed over the characters, so neither {@link #put} nor {@link #mightContain} allocates.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    private BloomFilter(long bits, int hashCount) {
+        this.words = new AtomicLongArray((int) ((bits + 63) >>> 6));
+        this.bitCount = words.length() * 64L;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Creates a filter with the optimal size and number of probes for the expected number of keys.
+     */
+    static BloomFilter create(int expectedInsertions, double falsePositiveRate) {
+        int keys = Math.max(1, expectedInsertions);
+        long bits = Math.max(64, (long) Math.ceil(-keys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        int hashCount = Math.max(1, (int) Math.round((double) bits / keys * Math.log(2)));
+        return new BloomFilter(bits, hashCount);
+    }
+
+    void put(String key) {
+        long hash = hash(key);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = bitIndex(hash1 + i * hash2);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word;
+            do {
+                word = words.get(index);
+            } while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask));
+        }
+    }
+
+    /**
+     * @return false if the key was never added, true if it probably was
+     */
+    boolean mightContain(String key) {
+        long hash = hash(key);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = bitIndex(hash1 + i * hash2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long bitCount() {
+        return bitCount;
+    }
+
+    private long bitIndex(int combinedHash) {
+        return (combinedHash < 0 ? ~combinedHash : combinedHash) % bitCount;
+    }
+
+    /**
+     * FNV-1a over the characters, finished with the MurmurHash3 mixer so that both halves are well spread.
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
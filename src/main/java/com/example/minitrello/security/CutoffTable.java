@@ -0,0 +1,71 @@
+package com.example.minitrello.security;
+
+import java.util.Map;
+
+/**
+ * Immutable open-addressing map from user id to the time before which the user's tokens are revoked.
+ * Changes are rare, so the table is rebuilt on each one and published as a whole; lookups are a few
+ * reads of primitive arrays, without locking or boxing.
+ */
+final class CutoffTable {
+
+    /**
+     * Returned for users without a cutoff; no issue time is before it.
+     */
+    static final long NONE = Long.MIN_VALUE;
+
+    static final CutoffTable EMPTY = new CutoffTable(Map.of());
+
+    // User ids start at 1, so 0 marks a free slot
+    private final long[] userIds;
+    private final long[] cutoffs;
+    private final int mask;
+    private final int size;
+
+    /**
+     * @param cutoffs epoch milliseconds keyed by user id
+     */
+    CutoffTable(Map<Long, Long> cutoffs) {
+        int capacity = 8;
+        while (capacity < cutoffs.size() * 2) {
+            capacity <<= 1;
+        }
+        this.userIds = new long[capacity];
+        this.cutoffs = new long[capacity];
+        this.mask = capacity - 1;
+        this.size = cutoffs.size();
+        cutoffs.forEach((userId, cutoff) -> {
+            int slot = slot(userId);
+            while (userIds[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            userIds[slot] = userId;
+            this.cutoffs[slot] = cutoff;
+        });
+    }
+
+    /**
+     * @return the cutoff of the user in epoch milliseconds, or {@link #NONE}
+     */
+    long get(long userId) {
+        int slot = slot(userId);
+        while (true) {
+            long key = userIds[slot];
+            if (key == userId) {
+                return cutoffs[slot];
+            }
+            if (key == 0) {
+                return NONE;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(long userId) {
+        return (int) ((userId * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
@@ -3,7 +3,8 @@ package com.example.minitrello.security;
 import com.example.minitrello.config.JwtConfig;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,14 +12,30 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class JwtUtils {
 
     private final JwtConfig jwtConfig;
+    private final Timer validTokenTimer;
+    private final Timer invalidTokenTimer;
+
+    public JwtUtils(JwtConfig jwtConfig, MeterRegistry meterRegistry) {
+        this.jwtConfig = jwtConfig;
+        this.validTokenTimer = verificationTimer(meterRegistry, "valid");
+        this.invalidTokenTimer = verificationTimer(meterRegistry, "invalid");
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("jwt.verify")
+                .description("Time spent verifying JWT signatures")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 
     private Key getSigningKey() {
         return Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes());
@@ -27,6 +44,7 @@ public class JwtUtils {
     public String generateToken(Authentication authentication) {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtConfig.getExpiration()))
@@ -65,9 +83,20 @@ public class JwtUtils {
     }
 
     public boolean validateJwtToken(String token) {
+        return parseValidToken(token) != null;
+    }
+
+    /**
+     * Verifies a token and returns its claims, so callers that need them do not parse the token twice.
+     *
+     * @param token the compact JWT
+     * @return the claims, or null when the token is malformed, expired or not signed with our key
+     */
+    public Claims parseValidToken(String token) {
+        long start = System.nanoTime();
+        Claims claims = null;
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
-            return true;
+            claims = Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody();
         } catch (MalformedJwtException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -76,7 +105,10 @@ public class JwtUtils {
             log.error("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
+        } finally {
+            (claims != null ? validTokenTimer : invalidTokenTimer)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
-        return false;
+        return claims;
     }
 }
\ No newline at end of file
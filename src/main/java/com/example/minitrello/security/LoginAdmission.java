@@ -0,0 +1,111 @@
+package com.example.minitrello.security;
+
+import com.example.minitrello.config.LoginAdmissionConfig;
+import com.example.minitrello.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control for the authentication endpoints: a token bucket per client address (login and
+ * registration) and per account (login), checked before any password is hashed. A credential stuffing
+ * wave from one address, or aimed at one account from many, is refused with 429 while other users can
+ * still log in.
+ * <p>
+ * Buckets are dropped once they have refilled, so only addresses and accounts seen recently are kept.
+ */
+@Component
+@Slf4j
+public class LoginAdmission {
+
+    private final LoginAdmissionConfig config;
+    private final LongSupplier nanoClock;
+    private final Map<String, TokenBucket> addressBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> accountBuckets = new ConcurrentHashMap<>();
+    private final Counter addressRejections;
+    private final Counter accountRejections;
+
+    @Autowired
+    public LoginAdmission(LoginAdmissionConfig config, MeterRegistry meterRegistry) {
+        this(config, meterRegistry, System::nanoTime);
+    }
+
+    LoginAdmission(LoginAdmissionConfig config, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.config = config;
+        this.nanoClock = nanoClock;
+        this.addressRejections = rejections(meterRegistry, "address");
+        this.accountRejections = rejections(meterRegistry, "account");
+        Gauge.builder("auth.admission.tracked", addressBuckets, Map::size)
+                .description("Client addresses and accounts with a partly used token bucket")
+                .tag("scope", "address")
+                .register(meterRegistry);
+        Gauge.builder("auth.admission.tracked", accountBuckets, Map::size)
+                .description("Client addresses and accounts with a partly used token bucket")
+                .tag("scope", "account")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes an attempt from the client address' bucket.
+     *
+     * @param address the client address
+     * @throws TooManyRequestsException when the address has no attempts left
+     */
+    public void admitAddress(String address) {
+        admit(addressBuckets, address, config.getAddressBurst(), config.getAddressPerMinute(), addressRejections,
+                "Too many authentication attempts from this address");
+    }
+
+    /**
+     * Takes a login attempt from the account's bucket.
+     *
+     * @param email the email the login is for, whether or not the account exists
+     * @throws TooManyRequestsException when the account has no attempts left
+     */
+    public void admitAccount(String email) {
+        admit(accountBuckets, email.toLowerCase(Locale.ROOT), config.getAccountBurst(), config.getAccountPerMinute(),
+                accountRejections, "Too many login attempts for this account");
+    }
+
+    /**
+     * Drops buckets that have refilled completely.
+     */
+    @Scheduled(fixedDelayString = "${app.login-admission.eviction-interval-ms:60000}")
+    public void evictRefilledBuckets() {
+        long now = nanoClock.getAsLong();
+        addressBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        accountBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private void admit(Map<String, TokenBucket> buckets, String key, int burst, int perMinute, Counter rejections,
+                       String message) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        long waitNanos = buckets.computeIfAbsent(key, k -> new TokenBucket(burst, perMinute / 60d, now))
+                .tryConsume(now);
+        if (waitNanos > 0) {
+            rejections.increment();
+            log.debug("{}: {}", message, key);
+            throw new TooManyRequestsException(message, Duration.ofNanos(waitNanos));
+        }
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("auth.admission.rejected")
+                .description("Authentication attempts refused by rate limiting")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.minitrello.security;
+
+import com.example.minitrello.config.MetricsConfig;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Authenticates the Prometheus scrape with the static token in {@code app.metrics.scrape-token}. A user JWT
+ * expires, and is revoked by logout-all or a role change, so a scrape configured with an admin's token stops
+ * working on its own; this token only changes when the configuration does. It grants {@code ROLE_METRICS}, which
+ * reads {@code /actuator/prometheus} and nothing else.
+ */
+@Component
+public class ScrapeTokenFilter extends OncePerRequestFilter {
+
+    static final String SCRAPE_PATH = "/actuator/prometheus";
+    static final String METRICS_ROLE = "ROLE_METRICS";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final byte[] scrapeToken;
+
+    public ScrapeTokenFilter(MetricsConfig metricsConfig) {
+        this.scrapeToken = StringUtils.hasText(metricsConfig.getScrapeToken())
+                ? metricsConfig.getScrapeToken().getBytes(StandardCharsets.UTF_8)
+                : null;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return scrapeToken == null || !SCRAPE_PATH.equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String headerAuth = request.getHeader("Authorization");
+        if (headerAuth != null && headerAuth.startsWith(BEARER_PREFIX)) {
+            byte[] presented = headerAuth.substring(BEARER_PREFIX.length()).getBytes(StandardCharsets.UTF_8);
+            // Constant-time comparison, so the token cannot be guessed from response times
+            if (MessageDigest.isEqual(presented, scrapeToken)) {
+                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                        "prometheus", null, List.of(new SimpleGrantedAuthority(METRICS_ROLE))));
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
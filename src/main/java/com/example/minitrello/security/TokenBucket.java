@@ -0,0 +1,47 @@
+package com.example.minitrello.security;
+
+/**
+ * Token bucket refilled continuously: up to {@code capacity} attempts in a burst, then one every
+ * {@code 1 / refillPerSecond} seconds. Times are {@link System#nanoTime()} values passed in by the caller.
+ */
+final class TokenBucket {
+
+    private final int capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(int capacity, double refillPerSecond, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.refilledAt = now;
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return 0 when a token was taken, otherwise the nanoseconds until the next one
+     */
+    synchronized long tryConsume(long now) {
+        refill(now);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * Whether the bucket is back at capacity, so dropping it loses nothing.
+     */
+    synchronized boolean isFull(long now) {
+        refill(now);
+        return tokens >= capacity;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.minitrello.security;
+
+import java.time.Instant;
+
+/**
+ * A stored revocation: either a single token or all tokens of a user issued before a point in time.
+ *
+ * @param userId the user owning the revoked tokens
+ * @param tokenId the id (jti) of the revoked token, or null for a user-wide revocation
+ * @param issuedBefore tokens issued before this instant are revoked, or null for a single token
+ * @param expiresAt when every token covered has expired and the revocation can be dropped
+ */
+public record TokenRevocation(long userId, String tokenId, Instant issuedBefore, Instant expiresAt) {
+}
@@ -0,0 +1,274 @@
+package com.example.minitrello.security;
+
+import com.example.minitrello.config.JwtConfig;
+import com.example.minitrello.config.TokenRevocationConfig;
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.TokensRevokedEvent;
+import com.example.minitrello.event.UserChangedEvent;
+import com.example.minitrello.repository.TokenRevocationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of the revoked JWTs, consulted by {@link JwtAuthenticationFilter} on every request.
+ * Two kinds of revocation are kept:
+ * <ul>
+ *     <li>per user, "tokens issued before T are invalid", written when an admin disables a user or changes
+ *     their role, held in a {@link CutoffTable};</li>
+ *     <li>per token, written on logout, held in a {@link BloomFilter} backed by the exact set of ids, so
+ *     that the common case of a token that was never revoked is answered by the filter alone.</li>
+ * </ul>
+ * Revocations are stored in {@code token_revocations}, loaded in full before the web server starts, kept
+ * in sync across instances through the invalidation bus and dropped once every token they cover has expired.
+ */
+@Component
+@Slf4j
+public class TokenRevocations implements SmartLifecycle {
+
+    // The web server starts at DEFAULT_PHASE - 2048; revocations must be loaded before the first request
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final TokenRevocationRepository repository;
+    private final TokenRevocationConfig config;
+    private final JwtConfig jwtConfig;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+
+    // Sources of the lookup structures below; written only while holding this object's lock
+    private final Map<Long, TokenRevocation> userRevocations = new HashMap<>();
+    private final Map<String, TokenRevocation> revokedTokens = new ConcurrentHashMap<>();
+
+    private volatile CutoffTable cutoffTable = CutoffTable.EMPTY;
+    private volatile BloomFilter tokenFilter;
+
+    private final Counter userRejections;
+    private final Counter tokenRejections;
+    private final Counter filterCollisions;
+
+    private volatile boolean running;
+
+    @Autowired
+    public TokenRevocations(TokenRevocationRepository repository,
+                            TokenRevocationConfig config,
+                            JwtConfig jwtConfig,
+                            ApplicationEventPublisher eventPublisher,
+                            MeterRegistry meterRegistry) {
+        this(repository, config, jwtConfig, eventPublisher, meterRegistry, Clock.systemUTC());
+    }
+
+    TokenRevocations(TokenRevocationRepository repository,
+                     TokenRevocationConfig config,
+                     JwtConfig jwtConfig,
+                     ApplicationEventPublisher eventPublisher,
+                     MeterRegistry meterRegistry,
+                     Clock clock) {
+        this.repository = repository;
+        this.config = config;
+        this.jwtConfig = jwtConfig;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.tokenFilter = BloomFilter.create(config.getExpectedTokens(), config.getFalsePositiveRate());
+
+        this.userRejections = rejections(meterRegistry, "user");
+        this.tokenRejections = rejections(meterRegistry, "token");
+        this.filterCollisions = Counter.builder("auth.revocations.filter.collisions")
+                .description("Tokens the bloom filter reported as possibly revoked that were not")
+                .register(meterRegistry);
+        Gauge.builder("auth.revocations.tracked", this, revocations -> revocations.cutoffTable.size())
+                .description("Revocations held in memory")
+                .tag("scope", "user")
+                .register(meterRegistry);
+        Gauge.builder("auth.revocations.tracked", revokedTokens, Map::size)
+                .description("Revocations held in memory")
+                .tag("scope", "token")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a verified token has been revoked. Reads a few primitive arrays and, only when the bloom
+     * filter reports a possible match, the exact set of revoked ids; nothing is allocated.
+     *
+     * @param userId the id of the user the token was issued to
+     * @param issuedAt the token's issue time in epoch milliseconds
+     * @param tokenId the token's id (jti), or null for tokens issued before ids were added
+     * @return true if the token must be rejected
+     */
+    public boolean isRevoked(long userId, long issuedAt, String tokenId) {
+        // JWT issue times are whole seconds, so a token issued in the same second as the cutoff is revoked too
+        if (issuedAt < cutoffTable.get(userId)) {
+            userRejections.increment();
+            return true;
+        }
+        if (tokenId != null && tokenFilter.mightContain(tokenId)) {
+            if (revokedTokens.containsKey(tokenId)) {
+                tokenRejections.increment();
+                return true;
+            }
+            filterCollisions.increment();
+        }
+        return false;
+    }
+
+    /**
+     * Revokes a single token. Must be called inside a transaction; the revocation takes effect on this
+     * instance when it commits and on the others through the invalidation bus.
+     *
+     * @param userId the user the token was issued to
+     * @param tokenId the token's id (jti)
+     * @param expiresAt the token's expiration time
+     */
+    public void revokeToken(long userId, String tokenId, Instant expiresAt) {
+        revoke(new TokenRevocation(userId, tokenId, null, expiresAt));
+    }
+
+    /**
+     * Revokes every token of a user issued up to now. Must be called inside a transaction, like
+     * {@link #revokeToken}.
+     *
+     * @param userId the user whose tokens are revoked
+     */
+    public void revokeAllTokens(long userId) {
+        Instant now = clock.instant();
+        revoke(new TokenRevocation(userId, null, now, now.plusMillis(jwtConfig.getExpiration())));
+    }
+
+    /**
+     * Revokes the tokens of a user whose role was changed or who was disabled or deleted, so that the change
+     * cannot be bypassed with a token issued before it, even after the user is restored. Runs inside the admin's
+     * transaction.
+     */
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED || event.getRole() != null
+                || Boolean.FALSE.equals(event.getActive())) {
+            revokeAllTokens(event.getUserId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokensRevoked(TokensRevokedEvent event) {
+        apply(List.of(new TokenRevocation(event.getUserId(), event.getTokenId(), event.getIssuedBefore(),
+                event.getExpiresAt())));
+    }
+
+    /**
+     * Loads the stored revocations of a user, after another instance revoked some of their tokens.
+     *
+     * @param userId the user whose revocations are loaded
+     */
+    public void reload(long userId) {
+        apply(repository.findActiveByUserId(userId, clock.instant()));
+    }
+
+    /**
+     * Loads all stored revocations that have not expired.
+     */
+    public void reloadAll() {
+        apply(repository.findActive(clock.instant()));
+    }
+
+    /**
+     * Drops expired revocations from the table and from memory, and rebuilds the bloom filter for the
+     * remaining tokens since a bloom filter cannot forget keys.
+     */
+    @Scheduled(fixedDelayString = "${app.token-revocation.prune-interval-ms:600000}")
+    public void prune() {
+        Instant now = clock.instant();
+        int deleted = repository.deleteExpired(now);
+        synchronized (this) {
+            revokedTokens.values().removeIf(revocation -> !revocation.expiresAt().isAfter(now));
+            userRevocations.values().removeIf(revocation -> !revocation.expiresAt().isAfter(now));
+            cutoffTable = buildCutoffTable();
+            tokenFilter = buildTokenFilter();
+        }
+        log.debug("Pruned {} expired token revocations, {} users and {} tokens remain in a {}-bit filter",
+                deleted, userRevocations.size(), revokedTokens.size(), tokenFilter.bitCount());
+    }
+
+    @Override
+    public void start() {
+        reloadAll();
+        log.info("Loaded revocations for {} users and {} tokens", cutoffTable.size(), revokedTokens.size());
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void revoke(TokenRevocation revocation) {
+        repository.insert(revocation);
+        eventPublisher.publishEvent(TokensRevokedEvent.builder()
+                .userId(revocation.userId())
+                .tokenId(revocation.tokenId())
+                .issuedBefore(revocation.issuedBefore())
+                .expiresAt(revocation.expiresAt())
+                .build());
+    }
+
+    private synchronized void apply(Collection<TokenRevocation> revocations) {
+        boolean cutoffsChanged = false;
+        for (TokenRevocation revocation : revocations) {
+            if (revocation.tokenId() != null) {
+                // Add to the exact set first: a filter hit must find the id
+                revokedTokens.put(revocation.tokenId(), revocation);
+                tokenFilter.put(revocation.tokenId());
+            } else {
+                userRevocations.merge(revocation.userId(), revocation,
+                        (current, added) -> added.issuedBefore().isAfter(current.issuedBefore()) ? added : current);
+                cutoffsChanged = true;
+            }
+        }
+        if (cutoffsChanged) {
+            cutoffTable = buildCutoffTable();
+        }
+    }
+
+    private CutoffTable buildCutoffTable() {
+        Map<Long, Long> cutoffs = new HashMap<>();
+        userRevocations.forEach((userId, revocation) -> cutoffs.put(userId, revocation.issuedBefore().toEpochMilli()));
+        return new CutoffTable(cutoffs);
+    }
+
+    private BloomFilter buildTokenFilter() {
+        BloomFilter filter = BloomFilter.create(Math.max(config.getExpectedTokens(), revokedTokens.size() * 2),
+                config.getFalsePositiveRate());
+        revokedTokens.keySet().forEach(filter::put);
+        return filter;
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("auth.revocations.rejected")
+                .description("Requests rejected because their token was revoked")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.minitrello.service;
+
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.dto.activity.ActivityDto;
+import com.example.minitrello.dto.common.KeysetPageDto;
+import com.example.minitrello.exception.AccessDeniedException;
+import com.example.minitrello.repository.ActivityLogRepository;
+import com.example.minitrello.repository.ProjectRepository;
+import com.example.minitrello.service.interfaces.ActivityService;
+import com.example.minitrello.service.interfaces.AuthService;
+import com.example.minitrello.util.CursorUtils;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Implementation of the ActivityService interface.
+ * Reads the activity log written by the background activity writer.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Observed(name = "service.method")
+public class ActivityServiceImpl implements ActivityService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ActivityLogRepository activityLogRepository;
+    private final ProjectRepository projectRepository;
+    private final AuthService authService;
+    private final ShardRouting shardRouting;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageDto<ActivityDto> getProjectActivity(Long projectId, String cursor, int size) {
+        log.debug("Fetching activity for project ID: {}", projectId);
+
+        shardRouting.routeByProject(projectId);
+        Long currentUserId = authService.getCurrentAuthenticatedUserId();
+
+        // Check if current user has access to the project
+        if (!projectRepository.hasUserAccess(projectId, currentUserId)) {
+            throw new AccessDeniedException("You don't have access to this project");
+        }
+
+        return page(cursor, size, limit -> activityLogRepository.findByProject(projectId, limit),
+                (createdAt, id, limit) -> activityLogRepository.findByProjectAfter(projectId, createdAt, id, limit));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageDto<ActivityDto> getAccountActivity(String cursor, int size) {
+        log.debug("Fetching account activity");
+
+        // Account-level activity is written to shard 0, with the users
+        shardRouting.routeTo(0);
+
+        return page(cursor, size, activityLogRepository::findAccountActivity,
+                activityLogRepository::findAccountActivityAfter);
+    }
+
+    private KeysetPageDto<ActivityDto> page(String cursor, int size, IntFunction<List<ActivityDto>> firstPage,
+                                            PageAfter pageAfter) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // Fetch one extra row to know whether another page exists
+        List<ActivityDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = firstPage.apply(pageSize + 1);
+        } else {
+            String[] parts = CursorUtils.decode(cursor, 2);
+            try {
+                rows = pageAfter.find(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]), pageSize + 1);
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ActivityDto> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ActivityDto last = items.get(items.size() - 1);
+            nextCursor = CursorUtils.encode(last.getCreatedAt(), last.getId());
+        }
+
+        return KeysetPageDto.<ActivityDto>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface PageAfter {
+        List<ActivityDto> find(LocalDateTime cursorCreatedAt, Long cursorId, int limit);
+    }
+}
@@ -1,14 +1,18 @@
 package com.example.minitrello.service;
 
 import com.example.minitrello.dto.user.UserDto;
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.UserChangedEvent;
 import com.example.minitrello.exception.ResourceNotFoundException;
 import com.example.minitrello.model.Role;
 import com.example.minitrello.model.User;
 import com.example.minitrello.repository.UserRepository;
 import com.example.minitrello.service.interfaces.AdminService;
 import com.example.minitrello.service.interfaces.UserService;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
@@ -23,10 +27,12 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Observed(name = "service.method")
 public class AdminServiceImpl implements AdminService {
 
     private final UserRepository userRepository;
     private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * {@inheritDoc}
@@ -45,6 +51,11 @@ public class AdminServiceImpl implements AdminService {
 
         // Save, map to DTO, and return
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.builder()
+                .type(ChangeType.UPDATED)
+                .userId(userId)
+                .role(role)
+                .build());
         return userService.toDto(updatedUser);
     }
 
@@ -83,6 +94,11 @@ public class AdminServiceImpl implements AdminService {
 
         // Save, map to DTO, and return
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.builder()
+                .type(ChangeType.UPDATED)
+                .userId(userId)
+                .active(false)
+                .build());
         return userService.toDto(updatedUser);
     }
 
@@ -103,6 +119,11 @@ public class AdminServiceImpl implements AdminService {
 
         // Save, map to DTO, and return
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.builder()
+                .type(ChangeType.UPDATED)
+                .userId(userId)
+                .active(true)
+                .build());
         return userService.toDto(updatedUser);
     }
 }
\ No newline at end of file
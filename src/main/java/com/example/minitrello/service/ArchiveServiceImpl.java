@@ -0,0 +1,311 @@
+package com.example.minitrello.service;
+
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.dto.common.KeysetPageDto;
+import com.example.minitrello.dto.task.ArchivedTaskDto;
+import com.example.minitrello.dto.task.TaskDto;
+import com.example.minitrello.dto.tasklist.ArchivedTaskListDto;
+import com.example.minitrello.dto.tasklist.TaskListDto;
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.TaskChangedEvent;
+import com.example.minitrello.event.TaskListChangedEvent;
+import com.example.minitrello.exception.AccessDeniedException;
+import com.example.minitrello.exception.ResourceNotFoundException;
+import com.example.minitrello.mapper.TaskListMapper;
+import com.example.minitrello.mapper.TaskMapper;
+import com.example.minitrello.metrics.ReorderMetrics;
+import com.example.minitrello.model.Task;
+import com.example.minitrello.model.TaskList;
+import com.example.minitrello.repository.ArchiveRepository;
+import com.example.minitrello.repository.ArchiveRepository.ArchivedTask;
+import com.example.minitrello.repository.ArchiveRepository.ArchivedTaskList;
+import com.example.minitrello.repository.ProjectRepository;
+import com.example.minitrello.repository.TaskListRepository;
+import com.example.minitrello.repository.TaskRepository;
+import com.example.minitrello.service.interfaces.ArchiveService;
+import com.example.minitrello.service.interfaces.AuthService;
+import com.example.minitrello.util.CursorUtils;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the ArchiveService interface.
+ * Moves tasks and task lists between the live and the archive tables.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Observed(name = "service.method")
+public class ArchiveServiceImpl implements ArchiveService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ArchiveRepository archiveRepository;
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final TaskListRepository taskListRepository;
+    private final TaskMapper taskMapper;
+    private final TaskListMapper taskListMapper;
+    private final AuthService authService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReorderMetrics reorderMetrics;
+    private final ShardRouting shardRouting;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public ArchivedTaskDto archiveTask(Long taskId) {
+        log.info("Archiving task with ID: {}", taskId);
+
+        shardRouting.routeByTask(taskId);
+        Long projectId = archiveRepository.findTaskProjectId(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", taskId));
+        checkAccess(projectId);
+
+        ArchivedTask archived = archiveRepository.archiveTask(projectId, taskId, LocalDateTime.now())
+                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", taskId));
+
+        // Close the gap the task left in its list
+        int normalized = archiveRepository.normalizeTaskPositions(archived.taskListId());
+        reorderMetrics.record(ReorderMetrics.TASK, ReorderMetrics.NORMALIZE, normalized);
+
+        eventPublisher.publishEvent(TaskChangedEvent.builder()
+                .type(ChangeType.ARCHIVED)
+                .taskId(archived.id())
+                .title(archived.title())
+                .projectId(archived.projectId())
+                .taskListId(archived.taskListId())
+                .assignedUserId(archived.assignedUserId())
+                .build());
+
+        return toDto(archived);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public TaskDto restoreTask(Long taskId) {
+        log.info("Restoring archived task with ID: {}", taskId);
+
+        shardRouting.routeByTask(taskId);
+        ArchivedTask archived = archiveRepository.findArchivedTask(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Archived task", "id", taskId));
+        checkAccess(archived.projectId());
+
+        if (archived.taskListArchived()) {
+            throw new IllegalStateException("The task list of the task is archived; restore the task list first");
+        }
+        if (!archiveRepository.restoreTask(taskId, LocalDateTime.now())) {
+            throw new IllegalStateException("The task can no longer be restored");
+        }
+
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", taskId));
+        eventPublisher.publishEvent(TaskChangedEvent.builder()
+                .type(ChangeType.RESTORED)
+                .taskId(task.getId())
+                .title(task.getTitle())
+                .projectId(archived.projectId())
+                .taskListId(archived.taskListId())
+                .assignedUserId(task.getAssignedUser() != null ? task.getAssignedUser().getId() : null)
+                .build());
+
+        return taskMapper.toDto(task);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public ArchivedTaskListDto archiveTaskList(Long taskListId) {
+        log.info("Archiving task list with ID: {}", taskListId);
+
+        shardRouting.routeByTaskList(taskListId);
+        Long projectId = archiveRepository.findTaskListProjectId(taskListId)
+                .orElseThrow(() -> new ResourceNotFoundException("TaskList", "id", taskListId));
+        checkAccess(projectId);
+
+        ArchivedTaskList archived = archiveRepository.archiveTaskList(projectId, taskListId, LocalDateTime.now())
+                .orElseThrow(() -> new ResourceNotFoundException("TaskList", "id", taskListId));
+        log.info("Archived task list ID: {} with {} tasks", taskListId, archived.taskCount());
+
+        // Close the gap the list left in its project
+        int normalized = archiveRepository.normalizeTaskListPositions(projectId);
+        reorderMetrics.record(ReorderMetrics.TASK_LIST, ReorderMetrics.NORMALIZE, normalized);
+
+        publishTaskListChanged(ChangeType.ARCHIVED, archived.id(), archived.name(), projectId);
+
+        return toDto(archived);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public TaskListDto restoreTaskList(Long taskListId) {
+        log.info("Restoring archived task list with ID: {}", taskListId);
+
+        shardRouting.routeByTaskList(taskListId);
+        ArchivedTaskList archived = archiveRepository.findArchivedTaskList(taskListId)
+                .orElseThrow(() -> new ResourceNotFoundException("Archived task list", "id", taskListId));
+        checkAccess(archived.projectId());
+
+        int tasks = archiveRepository.restoreTaskList(taskListId, LocalDateTime.now())
+                .orElseThrow(() -> new IllegalStateException("The task list can no longer be restored"));
+        log.info("Restored task list ID: {} with {} tasks", taskListId, tasks);
+
+        publishTaskListChanged(ChangeType.RESTORED, archived.id(), archived.name(), archived.projectId());
+
+        TaskList taskList = taskListRepository.findById(taskListId)
+                .orElseThrow(() -> new ResourceNotFoundException("TaskList", "id", taskListId));
+        return taskListMapper.toDto(taskList);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageDto<ArchivedTaskDto> getArchivedTasks(Long projectId, String cursor, int size) {
+        log.debug("Fetching archived tasks for project ID: {}", projectId);
+
+        shardRouting.routeByProject(projectId);
+        checkAccess(projectId);
+        int pageSize = pageSize(size);
+
+        // Fetch one extra row to know whether another page exists
+        List<ArchivedTask> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = archiveRepository.findArchivedTasks(projectId, pageSize + 1);
+        } else {
+            Cursor after = Cursor.decode(cursor);
+            rows = archiveRepository.findArchivedTasksAfter(projectId, after.archivedAt(), after.id(), pageSize + 1);
+        }
+        return page(rows, pageSize, this::toDto, ArchivedTaskDto::getArchivedAt, ArchivedTaskDto::getId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageDto<ArchivedTaskListDto> getArchivedTaskLists(Long projectId, String cursor, int size) {
+        log.debug("Fetching archived task lists for project ID: {}", projectId);
+
+        shardRouting.routeByProject(projectId);
+        checkAccess(projectId);
+        int pageSize = pageSize(size);
+
+        // Fetch one extra row to know whether another page exists
+        List<ArchivedTaskList> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = archiveRepository.findArchivedTaskLists(projectId, pageSize + 1);
+        } else {
+            Cursor after = Cursor.decode(cursor);
+            rows = archiveRepository.findArchivedTaskListsAfter(projectId, after.archivedAt(), after.id(),
+                    pageSize + 1);
+        }
+        return page(rows, pageSize, this::toDto, ArchivedTaskListDto::getArchivedAt, ArchivedTaskListDto::getId);
+    }
+
+    private void checkAccess(Long projectId) {
+        Long currentUserId = authService.getCurrentAuthenticatedUserId();
+
+        // Check if user has access to the project
+        if (!projectRepository.hasUserAccess(projectId, currentUserId)) {
+            throw new AccessDeniedException("You don't have access to this project");
+        }
+    }
+
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private static <R, D> KeysetPageDto<D> page(List<R> rows, int pageSize, Function<R, D> toDto,
+                                                Function<D, LocalDateTime> archivedAt, Function<D, Long> id) {
+        boolean hasMore = rows.size() > pageSize;
+        List<D> items = (hasMore ? rows.subList(0, pageSize) : rows).stream()
+                .map(toDto)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore) {
+            D last = items.get(items.size() - 1);
+            nextCursor = CursorUtils.encode(archivedAt.apply(last), id.apply(last));
+        }
+
+        return KeysetPageDto.<D>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private void publishTaskListChanged(ChangeType type, long taskListId, String name, long projectId) {
+        eventPublisher.publishEvent(TaskListChangedEvent.builder()
+                .type(type)
+                .taskListId(taskListId)
+                .name(name)
+                .projectId(projectId)
+                .build());
+    }
+
+    private ArchivedTaskDto toDto(ArchivedTask task) {
+        return ArchivedTaskDto.builder()
+                .id(task.id())
+                .title(task.title())
+                .description(task.description())
+                .taskListId(task.taskListId())
+                .taskListName(task.taskListName())
+                .taskListArchived(task.taskListArchived())
+                .assignedUserId(task.assignedUserId())
+                .createdAt(task.createdAt())
+                .updatedAt(task.updatedAt())
+                .archivedAt(task.archivedAt())
+                .build();
+    }
+
+    private ArchivedTaskListDto toDto(ArchivedTaskList taskList) {
+        return ArchivedTaskListDto.builder()
+                .id(taskList.id())
+                .name(taskList.name())
+                .projectId(taskList.projectId())
+                .taskCount(taskList.taskCount())
+                .archiveAfterDays(taskList.archiveAfterDays())
+                .createdAt(taskList.createdAt())
+                .updatedAt(taskList.updatedAt())
+                .archivedAt(taskList.archivedAt())
+                .build();
+    }
+
+    /**
+     * Position of the last row of a page: when it was archived and its id.
+     */
+    private record Cursor(LocalDateTime archivedAt, long id) {
+
+        static Cursor decode(String cursor) {
+            String[] parts = CursorUtils.decode(cursor, 2);
+            try {
+                return new Cursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+}
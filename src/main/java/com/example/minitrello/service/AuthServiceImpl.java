@@ -5,17 +5,23 @@ import com.example.minitrello.dto.auth.LoginResponse;
 import com.example.minitrello.dto.auth.RegisterRequest;
 import com.example.minitrello.dto.user.UserDto;
 import com.example.minitrello.exception.ResourceNotFoundException;
+import com.example.minitrello.exception.TooManyRequestsException;
 import com.example.minitrello.mapper.UserMapper;
 import com.example.minitrello.model.Role;
 import com.example.minitrello.model.User;
 import com.example.minitrello.repository.UserRepository;
 import com.example.minitrello.security.JwtUtils;
+import com.example.minitrello.security.LoginAdmission;
+import com.example.minitrello.security.TokenRevocations;
 import com.example.minitrello.security.UserDetailsImpl;
 import com.example.minitrello.service.interfaces.AuthService;
 import com.example.minitrello.service.interfaces.UserService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -31,6 +37,7 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Observed(name = "service.method")
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
@@ -39,6 +46,8 @@ public class AuthServiceImpl implements AuthService {
     private final AuthenticationManager authenticationManager;
     private final UserMapper userMapper;
     private final UserService userService;
+    private final LoginAdmission loginAdmission;
+    private final TokenRevocations tokenRevocations;
 
     /**
      * {@inheritDoc}
@@ -72,13 +81,25 @@ public class AuthServiceImpl implements AuthService {
     public LoginResponse authenticateUser(LoginRequest loginRequest) {
         log.info("Authenticating user with email: {}", loginRequest.getEmail());
 
+        // Refuse before hashing when the account is receiving too many attempts
+        loginAdmission.admitAccount(loginRequest.getEmail());
+
         // Authenticate user
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getEmail(),
-                        loginRequest.getPassword()
-                )
-        );
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            loginRequest.getEmail(),
+                            loginRequest.getPassword()
+                    )
+            );
+        } catch (InternalAuthenticationServiceException e) {
+            // The provider wraps a full hashing queue when it hashes a dummy password for an unknown email
+            if (e.getCause() instanceof TooManyRequestsException tooManyRequests) {
+                throw tooManyRequests;
+            }
+            throw e;
+        }
 
         // Set authentication in security context
         SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -97,9 +118,49 @@ public class AuthServiceImpl implements AuthService {
      * {@inheritDoc}
      */
     @Override
+    @Transactional
+    public void logout(String token) {
+        Long userId = getCurrentAuthenticatedUserId();
+        Claims claims = jwtUtils.parseValidToken(token);
+        if (claims == null) {
+            throw new IllegalArgumentException("Invalid token");
+        }
+
+        if (claims.getId() == null) {
+            // Tokens issued before they carried an id can only be revoked together
+            log.info("Revoking all tokens of user ID {} on logout", userId);
+            tokenRevocations.revokeAllTokens(userId);
+            return;
+        }
+        log.info("Revoking token of user ID {} on logout", userId);
+        tokenRevocations.revokeToken(userId, claims.getId(), claims.getExpiration().toInstant());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public void logoutEverywhere() {
+        Long userId = getCurrentAuthenticatedUserId();
+        log.info("Revoking all tokens of user ID {}", userId);
+        tokenRevocations.revokeAllTokens(userId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
     public boolean validateToken(String token) {
         log.debug("Validating JWT token");
-        return jwtUtils.validateJwtToken(token);
+        Claims claims = jwtUtils.parseValidToken(token);
+        if (claims == null) {
+            return false;
+        }
+        return userRepository.findByEmail(claims.getSubject())
+                .map(user -> !tokenRevocations.isRevoked(user.getId(), claims.getIssuedAt().getTime(), claims.getId()))
+                .orElse(false);
     }
 
     /**
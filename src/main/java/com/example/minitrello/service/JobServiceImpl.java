@@ -0,0 +1,131 @@
+package com.example.minitrello.service;
+
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.dto.job.JobDto;
+import com.example.minitrello.dto.user.UserDto;
+import com.example.minitrello.exception.AccessDeniedException;
+import com.example.minitrello.exception.ResourceNotFoundException;
+import com.example.minitrello.job.Job;
+import com.example.minitrello.job.JobRunner;
+import com.example.minitrello.model.Role;
+import com.example.minitrello.repository.JobRepository;
+import com.example.minitrello.service.interfaces.AuthService;
+import com.example.minitrello.service.interfaces.JobService;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the JobService interface.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Observed(name = "service.method")
+public class JobServiceImpl implements JobService {
+
+    private static final int RECENT_JOBS = 50;
+
+    // Ids are only ordered within a shard
+    private static final Comparator<Job> NEWEST_FIRST = Comparator.comparing(Job::createdAt)
+            .thenComparing(Job::id)
+            .reversed();
+
+    private final JobRepository jobRepository;
+    private final JobRunner jobRunner;
+    private final AuthService authService;
+    private final ShardRouting shardRouting;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public JobDto getJob(Long jobId) {
+        return toDto(findVisibleJob(jobId));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<JobDto> getJobs() {
+        Long currentUserId = authService.getCurrentAuthenticatedUserId();
+        return shardRouting.readMerged(NEWEST_FIRST, RECENT_JOBS,
+                        () -> jobRepository.findByUserId(currentUserId, RECENT_JOBS)).stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public JobDto cancelJob(Long jobId) {
+        log.info("Cancelling job with ID: {}", jobId);
+        findVisibleJob(jobId);
+        Job job = shardRouting.write(shardRouting.shardOf(jobId), () -> jobRunner.cancel(jobId))
+                .orElseThrow(() -> new IllegalStateException("The job has already finished"));
+        return toDto(job);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Path getJobResult(Long jobId) {
+        Job job = findVisibleJob(jobId);
+        return jobRunner.resultFile(job)
+                .orElseThrow(() -> new ResourceNotFoundException("Job result", "id", jobId));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JobDto toDto(Job job) {
+        return JobDto.builder()
+                .id(job.id())
+                .type(job.type().name())
+                .state(job.state().name())
+                .subjectId(job.subjectId())
+                .progressDone(job.progressDone())
+                .progressTotal(job.progressTotal())
+                .cancelRequested(job.cancelRequested())
+                .error(job.error())
+                .resultUrl(jobRunner.hasResult(job) ? "/api/jobs/" + job.id() + "/result" : null)
+                .runAfter(job.runAfter())
+                .createdAt(job.createdAt())
+                .startedAt(job.startedAt())
+                .finishedAt(job.finishedAt())
+                .build();
+    }
+
+    /**
+     * A job the current user may see: one run for them, or any job for an admin. The job is read on its shard,
+     * the user on shard 0.
+     */
+    private Job findVisibleJob(Long jobId) {
+        if (!shardRouting.isKnown(jobId)) {
+            throw new ResourceNotFoundException("Job", "id", jobId);
+        }
+        Job job = shardRouting.read(shardRouting.shardOf(jobId), () -> jobRepository.findById(jobId))
+                .orElseThrow(() -> new ResourceNotFoundException("Job", "id", jobId));
+        UserDto currentUser = authService.getCurrentAuthenticatedUserDto();
+        if (currentUser.getRole() != Role.ROLE_ADMIN && !Objects.equals(job.userId(), currentUser.getId())) {
+            throw new AccessDeniedException("You don't have access to this job");
+        }
+        return job;
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.minitrello.service;
+
+import com.example.minitrello.config.ProfilingConfig;
+import com.example.minitrello.dto.profiling.RecordingDto;
+import com.example.minitrello.dto.profiling.RecordingStartDto;
+import com.example.minitrello.dto.profiling.RecordingSummaryDto;
+import com.example.minitrello.exception.ResourceNotFoundException;
+import com.example.minitrello.profiling.ProfilingPreset;
+import com.example.minitrello.profiling.RecordingAnalyzer;
+import com.example.minitrello.service.interfaces.ProfilingService;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of the ProfilingService interface.
+ * Runs JFR recordings in-process and keeps their files within the configured directory limits,
+ * deleting the oldest recordings before a new one starts.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Observed(name = "service.method")
+public class ProfilingServiceImpl implements ProfilingService {
+
+    private static final String FILE_EXTENSION = ".jfr";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final ProfilingConfig profilingConfig;
+    private final RecordingAnalyzer recordingAnalyzer;
+
+    private final Map<Long, ProfilingRun> runs = new ConcurrentHashMap<>();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized RecordingDto startRecording(RecordingStartDto startDto) {
+        if (runs.values().stream().anyMatch(ProfilingRun::isRunning)) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        Duration duration = startDto.getDurationSeconds() != null
+                ? Duration.ofSeconds(startDto.getDurationSeconds()) : profilingConfig.getDefaultDuration();
+        if (duration.compareTo(profilingConfig.getMaxDuration()) > 0) {
+            duration = profilingConfig.getMaxDuration();
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        Path file = profilingConfig.getDirectory().resolve(startDto.getPreset().name().toLowerCase(Locale.ROOT)
+                + "-" + startedAt.format(FILE_TIMESTAMP) + FILE_EXTENSION);
+        try {
+            Files.createDirectories(profilingConfig.getDirectory());
+            makeRoom();
+
+            Recording recording = new Recording();
+            recording.setName("mini-trello-" + startDto.getPreset().name().toLowerCase(Locale.ROOT));
+            startDto.getPreset().configure(recording);
+            recording.setToDisk(true);
+            recording.setMaxSize(profilingConfig.getMaxRecordingSize().toBytes());
+            recording.setDuration(duration);
+            recording.setDestination(file);
+            recording.start();
+
+            ProfilingRun run = new ProfilingRun(recording, startDto.getPreset(), startedAt, duration, file);
+            runs.put(recording.getId(), run);
+            log.info("Started {} recording {} for {}", startDto.getPreset(), recording.getId(), duration);
+            return toDto(run);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not prepare recording directory", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RecordingDto stopRecording(Long recordingId) {
+        ProfilingRun run = getRun(recordingId);
+        if (run.isRunning()) {
+            // Writes the recording to its destination
+            run.recording().stop();
+            log.info("Stopped recording {}", recordingId);
+        }
+        return toDto(run);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<RecordingDto> getRecordings() {
+        return runs.values().stream()
+                .sorted(Comparator.comparing(ProfilingRun::startedAt).reversed())
+                .map(this::toDto)
+                .toList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Path getRecordingFile(Long recordingId) {
+        ProfilingRun run = getRun(recordingId);
+        if (run.isRunning()) {
+            throw new IllegalStateException("Recording " + recordingId + " is still running; stop it first");
+        }
+        if (!Files.exists(run.file())) {
+            throw new ResourceNotFoundException("Recording file", "id", recordingId);
+        }
+        return run.file();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RecordingSummaryDto summarizeRecording(Long recordingId, int top) {
+        if (top < 1) {
+            throw new IllegalArgumentException("Top must be at least 1");
+        }
+        Path file = getRecordingFile(recordingId);
+        try {
+            RecordingSummaryDto summary = recordingAnalyzer.summarize(file, top);
+            summary.setRecordingId(recordingId);
+            return summary;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read recording " + recordingId, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runs.values().forEach(run -> run.recording().close());
+    }
+
+    /**
+     * Deletes the oldest recording files until the directory has room for one more recording at its maximum size.
+     */
+    private void makeRoom() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(profilingConfig.getDirectory())) {
+            files = new ArrayList<>(stream
+                    .filter(path -> path.getFileName().toString().endsWith(FILE_EXTENSION))
+                    .sorted(Comparator.comparing(ProfilingServiceImpl::lastModified))
+                    .toList());
+        }
+        long totalSize = 0;
+        for (Path file : files) {
+            totalSize += Files.size(file);
+        }
+        long limit = profilingConfig.getMaxDirectorySize().toBytes() - profilingConfig.getMaxRecordingSize().toBytes();
+        while (!files.isEmpty() && (files.size() >= profilingConfig.getMaxRecordings() || totalSize > limit)) {
+            Path oldest = files.remove(0);
+            totalSize -= Files.size(oldest);
+            Files.delete(oldest);
+            runs.values().removeIf(run -> {
+                if (run.file().equals(oldest)) {
+                    run.recording().close();
+                    return true;
+                }
+                return false;
+            });
+            log.info("Deleted old recording {}", oldest.getFileName());
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ProfilingRun getRun(Long recordingId) {
+        ProfilingRun run = runs.get(recordingId);
+        if (run == null) {
+            throw new ResourceNotFoundException("Recording", "id", recordingId);
+        }
+        return run;
+    }
+
+    private RecordingDto toDto(ProfilingRun run) {
+        Long fileSize = null;
+        if (!run.isRunning() && Files.exists(run.file())) {
+            try {
+                fileSize = Files.size(run.file());
+            } catch (IOException e) {
+                log.debug("Could not read size of {}: {}", run.file(), e.getMessage());
+            }
+        }
+        return RecordingDto.builder()
+                .id(run.recording().getId())
+                .preset(run.preset())
+                .state(run.recording().getState().name())
+                .startedAt(run.startedAt())
+                .durationSeconds(run.duration().toSeconds())
+                .fileName(run.file().getFileName().toString())
+                .fileSizeBytes(fileSize)
+                .build();
+    }
+
+    private record ProfilingRun(Recording recording, ProfilingPreset preset, LocalDateTime startedAt,
+                                Duration duration, Path file) {
+
+        boolean isRunning() {
+            RecordingState state = recording.getState();
+            return state == RecordingState.NEW || state == RecordingState.DELAYED || state == RecordingState.RUNNING;
+        }
+    }
+}
@@ -1,26 +1,63 @@
 package com.example.minitrello.service;
 
+import com.example.minitrello.config.SoftDeleteConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.datasource.ShardUsers;
+import com.example.minitrello.dto.common.KeysetPageDto;
+import com.example.minitrello.dto.job.JobDto;
+import com.example.minitrello.dto.project.DeletedProjectDto;
+import com.example.minitrello.dto.project.ProjectCloneDto;
 import com.example.minitrello.dto.project.ProjectCreateDto;
 import com.example.minitrello.dto.project.ProjectDto;
 import com.example.minitrello.dto.project.ProjectUpdateDto;
+import com.example.minitrello.dto.user.SimpleUserDto;
 import com.example.minitrello.dto.user.UserDto;
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.ProjectChangedEvent;
+import com.example.minitrello.event.ProjectMembershipChangedEvent;
 import com.example.minitrello.exception.AccessDeniedException;
 import com.example.minitrello.exception.ResourceNotFoundException;
+import com.example.minitrello.job.Job;
+import com.example.minitrello.job.JobRunner;
+import com.example.minitrello.job.JobType;
 import com.example.minitrello.mapper.ProjectMapper;
 import com.example.minitrello.model.Project;
+import com.example.minitrello.model.TaskList;
 import com.example.minitrello.model.User;
+import com.example.minitrello.repository.ProjectCloneRepository;
+import com.example.minitrello.repository.ProjectCloneRepository.CopiedRows;
+import com.example.minitrello.repository.ProjectCloneRepository.SourceProject;
 import com.example.minitrello.repository.ProjectRepository;
+import com.example.minitrello.repository.SoftDeleteRepository;
+import com.example.minitrello.repository.SoftDeleteRepository.DeletedProject;
+import com.example.minitrello.repository.TaskRepository;
 import com.example.minitrello.repository.UserRepository;
+import com.example.minitrello.search.MemberDirectory;
 import com.example.minitrello.service.interfaces.AuthService;
+import com.example.minitrello.service.interfaces.JobService;
 import com.example.minitrello.service.interfaces.ProjectService;
+import com.example.minitrello.util.CursorUtils;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.text.Collator;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of the ProjectService interface.
@@ -29,12 +66,31 @@ import java.util.Optional;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Observed(name = "service.method")
 public class ProjectServiceImpl implements ProjectService {
 
+    private static final int MAX_MEMBER_RESULTS = 50;
+    private static final int MAX_RECENT_PAGE_SIZE = 100;
+
+    private static final Comparator<ProjectDto> RECENTLY_UPDATED_FIRST = Comparator
+            .comparing(ProjectDto::getUpdatedAt)
+            .thenComparing(ProjectDto::getId)
+            .reversed();
+
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
     private final ProjectMapper projectMapper;
     private final AuthService authService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MemberDirectory memberDirectory;
+    private final SoftDeleteRepository softDeleteRepository;
+    private final SoftDeleteConfig softDeleteConfig;
+    private final JobRunner jobRunner;
+    private final JobService jobService;
+    private final ProjectCloneRepository projectCloneRepository;
+    private final TaskRepository taskRepository;
+    private final ShardRouting shardRouting;
+    private final ShardUsers shardUsers;
 
     /**
      * {@inheritDoc}
@@ -44,6 +100,8 @@ public class ProjectServiceImpl implements ProjectService {
     public ProjectDto createProject(ProjectCreateDto createDto) {
         log.info("Creating new project: {}", createDto.getName());
 
+        // The owner is read on the project's shard, so it is copied there first
+        shardUsers.copyTo(shardRouting.placeNewProject(), authService.getCurrentAuthenticatedUserId());
         UserDto currentUserDto = authService.getCurrentAuthenticatedUserDto();
         User currentUser = userRepository.findById(currentUserDto.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", currentUserDto.getId()));
@@ -51,6 +109,8 @@ public class ProjectServiceImpl implements ProjectService {
         Project project = projectMapper.toEntity(createDto, currentUser);
         Project savedProject = projectRepository.save(project);
 
+        publishProjectChanged(ChangeType.CREATED, savedProject);
+
         return projectMapper.toDto(savedProject);
     }
 
@@ -62,6 +122,7 @@ public class ProjectServiceImpl implements ProjectService {
     public ProjectDto updateProject(Long projectId, ProjectUpdateDto updateDto) {
         log.info("Updating project with ID: {}", projectId);
 
+        shardRouting.routeByProject(projectId);
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
 
         // Check if user has access to the project
@@ -75,6 +136,8 @@ public class ProjectServiceImpl implements ProjectService {
         projectMapper.updateProjectFromDto(updateDto, project);
         Project updatedProject = projectRepository.save(project);
 
+        publishProjectChanged(ChangeType.UPDATED, updatedProject);
+
         return projectMapper.toDto(updatedProject);
     }
 
@@ -86,10 +149,17 @@ public class ProjectServiceImpl implements ProjectService {
     public Optional<ProjectDto> findProjectById(Long projectId) {
         log.debug("Finding project by ID: {}", projectId);
 
+        if (!shardRouting.isKnown(projectId)) {
+            return Optional.empty();
+        }
+        shardRouting.routeByProject(projectId);
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
 
+        // The tasks of the board are read in one query on the project's partition
         return projectRepository.findByIdWithAccessCheck(projectId, currentUserId)
-                .map(projectMapper::toDto);
+                .map(project -> projectMapper.toDto(project, taskRepository.findByProjectIdGroupedByTaskList(
+                        project.getId(),
+                        project.getTaskLists().stream().map(TaskList::getId).collect(Collectors.toList()))));
     }
 
     /**
@@ -102,8 +172,73 @@ public class ProjectServiceImpl implements ProjectService {
 
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
 
-        return projectRepository.findAccessibleProjects(currentUserId, pageable)
-                .map(projectMapper::toDto);
+        return readProjectPage(pageable, page -> projectRepository.findAccessibleProjects(currentUserId, page));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageDto<ProjectDto> findRecentProjects(String cursor, int size) {
+        Long currentUserId = authService.getCurrentAuthenticatedUserId();
+        log.debug("Finding recently updated projects of user ID: {}", currentUserId);
+
+        int pageSize = Math.max(1, Math.min(size, MAX_RECENT_PAGE_SIZE));
+
+        // Fetch one extra row to know whether another page exists; every shard returns its first rows after
+        // the cursor, and the merge keeps the first of all
+        Limit limit = Limit.of(pageSize + 1);
+        List<ProjectDto> projects;
+        if (cursor == null || cursor.isBlank()) {
+            projects = shardRouting.readMerged(RECENTLY_UPDATED_FIRST, pageSize + 1,
+                    () -> projectRepository.findRecentlyUpdatedProjects(currentUserId, limit).stream()
+                            .map(projectMapper::toDto)
+                            .toList());
+        } else {
+            String[] parts = CursorUtils.decode(cursor, 2);
+            LocalDateTime cursorUpdatedAt;
+            long cursorId;
+            try {
+                cursorUpdatedAt = LocalDateTime.parse(parts[0]);
+                cursorId = Long.parseLong(parts[1]);
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            projects = shardRouting.readMerged(RECENTLY_UPDATED_FIRST, pageSize + 1,
+                    () -> projectRepository.findRecentlyUpdatedProjectsAfter(currentUserId, cursorUpdatedAt,
+                                    cursorId, limit).stream()
+                            .map(projectMapper::toDto)
+                            .toList());
+        }
+
+        boolean hasMore = projects.size() > pageSize;
+        List<ProjectDto> page = hasMore ? projects.subList(0, pageSize) : projects;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ProjectDto last = page.get(page.size() - 1);
+            nextCursor = CursorUtils.encode(last.getUpdatedAt(), last.getId());
+        }
+
+        return KeysetPageDto.<ProjectDto>builder()
+                .items(page)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProjectDto> findAccessibleTemplates(Pageable pageable) {
+        log.debug("Finding accessible templates with pagination");
+
+        Long currentUserId = authService.getCurrentAuthenticatedUserId();
+
+        return readProjectPage(pageable, page -> projectRepository.findAccessibleTemplates(currentUserId, page));
     }
 
     /**
@@ -115,11 +250,8 @@ public class ProjectServiceImpl implements ProjectService {
         log.debug("Finding owned projects with pagination");
 
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
-        User currentUser = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", currentUserId));
 
-        return projectRepository.findByOwner(currentUser, pageable)
-                .map(projectMapper::toDto);
+        return readProjectPage(pageable, page -> projectRepository.findByOwnerId(currentUserId, page));
     }
 
     /**
@@ -132,8 +264,7 @@ public class ProjectServiceImpl implements ProjectService {
 
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
 
-        return projectRepository.findByMembersId(currentUserId, pageable)
-                .map(projectMapper::toDto);
+        return readProjectPage(pageable, page -> projectRepository.findByMembersId(currentUserId, page));
     }
 
     /**
@@ -144,21 +275,157 @@ public class ProjectServiceImpl implements ProjectService {
     public boolean deleteProject(Long projectId) {
         log.info("Deleting project with ID: {}", projectId);
 
+        if (!shardRouting.isKnown(projectId)) {
+            return false;
+        }
+        shardRouting.routeByProject(projectId);
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
 
-        return projectRepository.findById(projectId)
-                .map(project -> {
+        // Only the owner is needed; loading the project would also load its members and task lists
+        return projectRepository.findOwnerIdById(projectId)
+                .map(ownerId -> {
                     // Check if user is the owner
-                    if (!project.getOwner().getId().equals(currentUserId)) {
+                    if (!ownerId.equals(currentUserId)) {
                         throw new AccessDeniedException("Only the project owner can delete the project");
                     }
 
-                    projectRepository.delete(project);
+                    // Task lists, tasks and memberships are purged by a job once the restore window is over
+                    softDeleteRepository.markProjectDeleted(projectId, LocalDateTime.now())
+                            .ifPresent(deleted -> {
+                                jobRunner.enqueue(JobType.PROJECT_PURGE, deleted.ownerId(), deleted.id(),
+                                        deleted.deletedAt().plus(softDeleteConfig.getRestoreWindow()));
+                                publishProjectChanged(ChangeType.DELETED, deleted.id(), deleted.name());
+                            });
                     return true;
                 })
                 .orElse(false);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public ProjectDto restoreProject(Long projectId) {
+        log.info("Restoring project with ID: {}", projectId);
+
+        shardRouting.routeByProject(projectId);
+        Long currentUserId = authService.getCurrentAuthenticatedUserId();
+
+        DeletedProject deleted = softDeleteRepository.findDeletedProject(projectId)
+                .orElseThrow(() -> new ResourceNotFoundException("Deleted project", "id", projectId));
+
+        // Check if user is the owner
+        if (!currentUserId.equals(deleted.ownerId())) {
+            throw new AccessDeniedException("Only the project owner can restore the project");
+        }
+
+        if (!softDeleteRepository.restoreProject(projectId, restorableSince())) {
+            throw new IllegalStateException("The project can no longer be restored");
+        }
+        jobRunner.cancelQueued(JobType.PROJECT_PURGE, projectId);
+        publishProjectChanged(ChangeType.RESTORED, deleted.id(), deleted.name());
+
+        return projectRepository.findById(projectId)
+                .map(projectMapper::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Project", "id", projectId));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<DeletedProjectDto> findDeletedProjects() {
+        log.debug("Finding deleted projects");
+
+        Long currentUserId = authService.getCurrentAuthenticatedUserId();
+        LocalDateTime restorableSince = restorableSince();
+
+        return shardRouting.readEachShard(
+                        () -> softDeleteRepository.findDeletedProjects(currentUserId, restorableSince)).stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(DeletedProject::deletedAt).thenComparing(DeletedProject::id).reversed())
+                .map(deleted -> DeletedProjectDto.builder()
+                        .id(deleted.id())
+                        .name(deleted.name())
+                        .deletedAt(deleted.deletedAt())
+                        .purgeAfter(deleted.deletedAt().plus(softDeleteConfig.getRestoreWindow()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public ProjectDto cloneProject(Long projectId, ProjectCloneDto cloneDto) {
+        log.info("Cloning project with ID: {}", projectId);
+
+        // The clone stays on the shard of its source, where its task lists and tasks are copied from
+        shardRouting.routeByProject(projectId);
+        UserDto currentUser = authService.getCurrentAuthenticatedUserDto();
+
+        // Check if user has access to the project
+        if (!projectRepository.hasUserAccess(projectId, currentUser.getId())) {
+            throw new AccessDeniedException("You don't have access to this project");
+        }
+
+        SourceProject source = projectCloneRepository.findProject(projectId)
+                .orElseThrow(() -> new ResourceNotFoundException("Project", "id", projectId));
+
+        // Task lists and tasks are copied with INSERT ... SELECT; loading them through the entities would
+        // cost a round trip and an object per task
+        LocalDateTime now = LocalDateTime.now();
+        String name = cloneDto.getName() != null ? cloneDto.getName() : source.name();
+        String description = cloneDto.getDescription() != null ? cloneDto.getDescription() : source.description();
+        long cloneId = projectCloneRepository.insertProject(name, description, currentUser.getId(), now);
+        int memberCount = cloneDto.isIncludeMembers()
+                ? projectCloneRepository.copyMembers(projectId, cloneId, currentUser.getId())
+                : 0;
+        CopiedRows copied = projectCloneRepository.copyTaskListsAndTasks(projectId, cloneId, currentUser.getId(),
+                cloneDto.isIncludeAssignees(), now);
+        log.info("Cloned project ID: {} into project ID: {} with {} members, {} task lists and {} tasks",
+                projectId, cloneId, memberCount, copied.taskLists(), copied.tasks());
+
+        publishProjectChanged(ChangeType.CREATED, cloneId, name);
+
+        return ProjectDto.builder()
+                .id(cloneId)
+                .name(name)
+                .description(description)
+                .isTemplate(false)
+                .ownerId(currentUser.getId())
+                .ownerName(currentUser.getName())
+                .memberCount(memberCount)
+                .taskListCount(copied.taskLists())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public JobDto exportProject(Long projectId) {
+        log.info("Exporting project with ID: {}", projectId);
+
+        // The job is queued on the project's shard and runs there
+        shardRouting.routeByProject(projectId);
+        Long currentUserId = authService.getCurrentAuthenticatedUserId();
+
+        // Check if user has access to the project
+        if (!projectRepository.hasUserAccess(projectId, currentUserId)) {
+            throw new AccessDeniedException("You don't have access to this project");
+        }
+
+        Job job = jobRunner.enqueue(JobType.PROJECT_EXPORT, currentUserId, projectId, LocalDateTime.now());
+        return jobService.toDto(job);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -167,6 +434,7 @@ public class ProjectServiceImpl implements ProjectService {
     public ProjectDto addMemberToProject(Long projectId, Long userId) {
         log.info("Adding user ID: {} to project ID: {}", userId, projectId);
 
+        shardUsers.copyTo(shardRouting.routeByProject(projectId), userId);
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
 
         // Check if current user has access to the project
@@ -184,6 +452,7 @@ public class ProjectServiceImpl implements ProjectService {
         // Add the user to project members
         project.addMember(userToAdd);
         Project updatedProject = projectRepository.save(project);
+        publishMembershipChanged(ChangeType.CREATED, projectId, userId);
 
         return projectMapper.toDto(updatedProject);
     }
@@ -196,6 +465,7 @@ public class ProjectServiceImpl implements ProjectService {
     public ProjectDto removeMemberFromProject(Long projectId, Long userId) {
         log.info("Removing user ID: {} from project ID: {}", userId, projectId);
 
+        shardUsers.copyTo(shardRouting.routeByProject(projectId), userId);
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
 
         // Check if current user has access to the project
@@ -221,6 +491,7 @@ public class ProjectServiceImpl implements ProjectService {
         }
 
         Project updatedProject = projectRepository.save(project);
+        publishMembershipChanged(ChangeType.DELETED, projectId, userId);
 
         return projectMapper.toDto(updatedProject);
     }
@@ -234,6 +505,7 @@ public class ProjectServiceImpl implements ProjectService {
         log.info("Current user leaving project ID: {}", projectId);
 
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
+        shardUsers.copyTo(shardRouting.routeByProject(projectId), currentUserId);
         User currentUser = userRepository.findById(currentUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", currentUserId));
 
@@ -250,8 +522,115 @@ public class ProjectServiceImpl implements ProjectService {
                     }
 
                     projectRepository.save(project);
+                    publishMembershipChanged(ChangeType.DELETED, projectId, currentUserId);
                     return true;
                 })
                 .orElseThrow(() -> new ResourceNotFoundException("Project", "id", projectId));
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<SimpleUserDto> searchMembers(Long projectId, String query, int limit) {
+        log.debug("Searching members of project ID: {} for: {}", projectId, query);
+
+        shardRouting.routeByProject(projectId);
+        Long currentUserId = authService.getCurrentAuthenticatedUserId();
+
+        // Check if current user has access to the project
+        if (!projectRepository.hasUserAccess(projectId, currentUserId)) {
+            throw new AccessDeniedException("You don't have access to this project");
+        }
+
+        int maxResults = Math.max(1, Math.min(limit, MAX_MEMBER_RESULTS));
+
+        return memberDirectory.search(projectId, query, maxResults).stream()
+                .map(member -> SimpleUserDto.builder()
+                        .id(member.id())
+                        .name(member.name())
+                        .email(member.email())
+                        .role(member.role())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reads a page of projects from every shard and merges them. Shards are queried and merged in the requested
+     * order, with the id as tiebreaker so that pages do not overlap.
+     */
+    private Page<ProjectDto> readProjectPage(Pageable pageable, Function<Pageable, Page<Project>> query) {
+        if (!shardRouting.isEnabled()) {
+            return query.apply(pageable).map(projectMapper::toDto);
+        }
+        Sort sort = pageable.getSort().and(Sort.by(Sort.Direction.DESC, "id"));
+        Pageable ordered = pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort)
+                : Pageable.unpaged(sort);
+        return shardRouting.readPage(ordered, projectOrder(sort), page -> query.apply(page).map(projectMapper::toDto));
+    }
+
+    /**
+     * The order of a sort on projects, applied to their DTOs.
+     *
+     * @throws IllegalArgumentException for a property that projects cannot be sorted by across shards
+     */
+    private static Comparator<ProjectDto> projectOrder(Sort sort) {
+        // Closer to the collation of the database than the order of code points
+        Collator collator = Collator.getInstance(Locale.ROOT);
+        Comparator<ProjectDto> order = (a, b) -> 0;
+        for (Sort.Order property : sort) {
+            Comparator<ProjectDto> byProperty = switch (property.getProperty()) {
+                case "id" -> Comparator.comparing(ProjectDto::getId);
+                case "name" -> Comparator.comparing(ProjectDto::getName, Comparator.nullsLast(collator));
+                case "description" -> Comparator.comparing(ProjectDto::getDescription, Comparator.nullsLast(collator));
+                case "isTemplate" -> Comparator.comparing(ProjectDto::getIsTemplate,
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                case "createdAt" -> Comparator.comparing(ProjectDto::getCreatedAt,
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                case "updatedAt" -> Comparator.comparing(ProjectDto::getUpdatedAt,
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                default -> throw new IllegalArgumentException("Cannot sort projects by " + property.getProperty());
+            };
+            order = order.thenComparing(property.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return order;
+    }
+
+    /**
+     * Publishes a membership change notification for the given project and user.
+     */
+    private void publishMembershipChanged(ChangeType type, Long projectId, Long userId) {
+        eventPublisher.publishEvent(ProjectMembershipChangedEvent.builder()
+                .type(type)
+                .projectId(projectId)
+                .userId(userId)
+                .build());
+    }
+
+    /**
+     * Publishes a change notification for the given project.
+     */
+    private void publishProjectChanged(ChangeType type, Project project) {
+        publishProjectChanged(type, project.getId(), project.getName());
+    }
+
+    /**
+     * Publishes a change notification for the project with the given ID and name.
+     */
+    private void publishProjectChanged(ChangeType type, Long projectId, String name) {
+        eventPublisher.publishEvent(ProjectChangedEvent.builder()
+                .type(type)
+                .projectId(projectId)
+                .name(name)
+                .build());
+    }
+
+    /**
+     * Projects deleted after this time can still be restored.
+     */
+    private LocalDateTime restorableSince() {
+        return LocalDateTime.now().minus(softDeleteConfig.getRestoreWindow());
+    }
 }
\ No newline at end of file
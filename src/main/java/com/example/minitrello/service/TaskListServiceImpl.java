@@ -1,26 +1,36 @@
 package com.example.minitrello.service;
 
+import com.example.minitrello.datasource.ShardRouting;
 import com.example.minitrello.dto.tasklist.TaskListCreateDto;
 import com.example.minitrello.dto.tasklist.TaskListDto;
 import com.example.minitrello.dto.tasklist.TaskListUpdateDto;
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.TaskListChangedEvent;
 import com.example.minitrello.exception.AccessDeniedException;
 import com.example.minitrello.exception.ResourceNotFoundException;
 import com.example.minitrello.mapper.TaskListMapper;
+import com.example.minitrello.metrics.ReorderMetrics;
 import com.example.minitrello.model.Project;
+import com.example.minitrello.model.Task;
 import com.example.minitrello.model.TaskList;
+import com.example.minitrello.repository.ArchiveRepository;
 import com.example.minitrello.repository.ProjectRepository;
 import com.example.minitrello.repository.TaskListRepository;
+import com.example.minitrello.repository.TaskRepository;
 import com.example.minitrello.service.interfaces.AuthService;
 import com.example.minitrello.service.interfaces.TaskListService;
 import com.example.minitrello.util.PositionUtils;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -31,12 +41,18 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Observed(name = "service.method")
 public class TaskListServiceImpl implements TaskListService {
 
     private final TaskListRepository taskListRepository;
+    private final TaskRepository taskRepository;
     private final ProjectRepository projectRepository;
+    private final ArchiveRepository archiveRepository;
     private final TaskListMapper taskListMapper;
     private final AuthService authService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReorderMetrics reorderMetrics;
+    private final ShardRouting shardRouting;
 
     /**
      * {@inheritDoc}
@@ -46,6 +62,7 @@ public class TaskListServiceImpl implements TaskListService {
     public TaskListDto createTaskList(TaskListCreateDto createDto) {
         log.info("Creating new task list: {} for project: {}", createDto.getName(), createDto.getProjectId());
 
+        shardRouting.routeByProject(createDto.getProjectId());
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
 
         // Check if user has access to the project
@@ -63,12 +80,15 @@ public class TaskListServiceImpl implements TaskListService {
 
             // Save all shifted task lists
             taskListRepository.saveAll(projectTaskLists);
+            reorderMetrics.record(ReorderMetrics.TASK_LIST, ReorderMetrics.SHIFT, projectTaskLists.size());
         }
 
         // Create task list
         TaskList taskList = taskListMapper.toEntity(createDto, project);
         TaskList savedTaskList = taskListRepository.save(taskList);
 
+        publishTaskListChanged(ChangeType.CREATED, savedTaskList);
+
         return taskListMapper.toDto(savedTaskList);
     }
 
@@ -81,6 +101,7 @@ public class TaskListServiceImpl implements TaskListService {
     public TaskListDto updateTaskList(Long taskListId, TaskListUpdateDto updateDto) {
         log.info("Updating task list with ID: {}", taskListId);
 
+        shardRouting.routeByTaskList(taskListId);
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
 
         TaskList taskList = taskListRepository.findById(taskListId)
@@ -105,12 +126,15 @@ public class TaskListServiceImpl implements TaskListService {
 
             // Save all shifted task lists
             taskListRepository.saveAll(projectTaskLists);
+            reorderMetrics.record(ReorderMetrics.TASK_LIST, ReorderMetrics.SHIFT, projectTaskLists.size());
         }
 
         // Update task list
         taskListMapper.updateTaskListFromDto(updateDto, taskList);
         TaskList updatedTaskList = taskListRepository.save(taskList);
 
+        publishTaskListChanged(ChangeType.UPDATED, updatedTaskList);
+
         return taskListMapper.toDto(updatedTaskList);
     }
 
@@ -122,11 +146,16 @@ public class TaskListServiceImpl implements TaskListService {
     public Optional<TaskListDto> findTaskListById(Long taskListId) {
         log.debug("Finding task list by ID: {}", taskListId);
 
+        if (!shardRouting.isKnown(taskListId)) {
+            return Optional.empty();
+        }
+        shardRouting.routeByTaskList(taskListId);
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
 
         return taskListRepository.findById(taskListId)
                 .filter(taskList -> projectRepository.hasUserAccess(taskList.getProject().getId(), currentUserId))
-                .map(taskListMapper::toDto);
+                .map(taskList -> taskListMapper.toDto(taskList, taskRepository.findByProjectIdAndTaskListId(
+                        taskList.getProject().getId(), taskListId)));
     }
 
     /**
@@ -137,16 +166,20 @@ public class TaskListServiceImpl implements TaskListService {
     public List<TaskListDto> findTaskListsByProject(Long projectId) {
         log.debug("Finding task lists for project with ID: {}", projectId);
 
+        shardRouting.routeByProject(projectId);
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
 
         // Check if user has access to the project
         Project project = projectRepository.findByIdWithAccessCheck(projectId, currentUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("Project", "id", projectId));
 
-        // Return task lists ordered by position
+        // Return task lists ordered by position, with their tasks read in one query on the project's partition
+        Map<Long, List<Task>> tasksByTaskListId = taskRepository.findByProjectIdGroupedByTaskList(projectId,
+                project.getTaskLists().stream().map(TaskList::getId).collect(Collectors.toList()));
         return project.getTaskLists().stream()
                 .sorted(Comparator.comparingInt(TaskList::getPosition))
-                .map(taskListMapper::toDto)
+                .map(taskList -> taskListMapper.toDto(taskList,
+                        tasksByTaskListId.getOrDefault(taskList.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 
@@ -158,6 +191,10 @@ public class TaskListServiceImpl implements TaskListService {
     public boolean deleteTaskList(Long taskListId) {
         log.info("Deleting task list with ID: {}", taskListId);
 
+        if (!shardRouting.isKnown(taskListId)) {
+            return false;
+        }
+        shardRouting.routeByTaskList(taskListId);
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
 
         return taskListRepository.findById(taskListId)
@@ -171,18 +208,35 @@ public class TaskListServiceImpl implements TaskListService {
                     List<TaskList> remainingTaskLists = taskListRepository.findByProjectId(taskList.getProject().getId());
                     remainingTaskLists.remove(taskList);
 
-                    // Delete the task list
+                    // Delete the task list, and the tasks archived from it that would have nowhere to go back to
                     taskListRepository.delete(taskList);
+                    archiveRepository.deleteArchivedTasksOfTaskList(taskListId);
 
                     // Normalize positions for remaining task lists
                     if (!remainingTaskLists.isEmpty()) {
                         List<TaskList> normalizedTaskLists =
                                 PositionUtils.normalizeTaskListPositions(remainingTaskLists);
                         taskListRepository.saveAll(normalizedTaskLists);
+                        reorderMetrics.record(ReorderMetrics.TASK_LIST, ReorderMetrics.NORMALIZE,
+                                normalizedTaskLists.size());
                     }
 
+                    publishTaskListChanged(ChangeType.DELETED, taskList);
+
                     return true;
                 })
                 .orElse(false);
     }
+
+    /**
+     * Publishes a change notification for the given task list.
+     */
+    private void publishTaskListChanged(ChangeType type, TaskList taskList) {
+        eventPublisher.publishEvent(TaskListChangedEvent.builder()
+                .type(type)
+                .taskListId(taskList.getId())
+                .name(taskList.getName())
+                .projectId(taskList.getProject().getId())
+                .build());
+    }
 }
\ No newline at end of file
@@ -1,12 +1,21 @@
 package com.example.minitrello.service;
 
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.datasource.ShardUsers;
+import com.example.minitrello.dto.common.KeysetPageDto;
+import com.example.minitrello.dto.task.AssignedTaskDto;
+import com.example.minitrello.dto.task.AssignedTaskSort;
 import com.example.minitrello.dto.task.TaskCreateDto;
 import com.example.minitrello.dto.task.TaskDto;
 import com.example.minitrello.dto.task.TaskMoveDto;
+import com.example.minitrello.dto.task.TaskSearchResultDto;
 import com.example.minitrello.dto.task.TaskUpdateDto;
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.TaskChangedEvent;
 import com.example.minitrello.exception.AccessDeniedException;
 import com.example.minitrello.exception.ResourceNotFoundException;
 import com.example.minitrello.mapper.TaskMapper;
+import com.example.minitrello.metrics.ReorderMetrics;
 import com.example.minitrello.model.Task;
 import com.example.minitrello.model.TaskList;
 import com.example.minitrello.model.User;
@@ -14,17 +23,26 @@ import com.example.minitrello.repository.ProjectRepository;
 import com.example.minitrello.repository.TaskListRepository;
 import com.example.minitrello.repository.TaskRepository;
 import com.example.minitrello.repository.UserRepository;
+import com.example.minitrello.repository.projection.AssignedTaskRow;
+import com.example.minitrello.repository.projection.TaskSearchRow;
 import com.example.minitrello.service.interfaces.AuthService;
 import com.example.minitrello.service.interfaces.TaskService;
+import com.example.minitrello.util.CursorUtils;
 import com.example.minitrello.util.PositionUtils;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -34,14 +52,34 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Observed(name = "service.method")
 public class TaskServiceImpl implements TaskService {
 
+    private static final int MAX_SEARCH_PAGE_SIZE = 50;
+    private static final int MAX_ASSIGNED_PAGE_SIZE = 100;
+
+    // The orders of the keyset pages, by which the pages of the shards are merged
+    private static final Comparator<TaskSearchRow> BEST_MATCH_FIRST = Comparator
+            .comparing(TaskSearchRow::getRank, Comparator.reverseOrder())
+            .thenComparing(TaskSearchRow::getId);
+    private static final Comparator<AssignedTaskRow> RECENTLY_UPDATED_FIRST = Comparator
+            .comparing(AssignedTaskRow::getUpdatedAt)
+            .thenComparing(AssignedTaskRow::getId)
+            .reversed();
+    private static final Comparator<AssignedTaskRow> BY_PROJECT = Comparator
+            .comparing(AssignedTaskRow::getProjectId)
+            .thenComparing(RECENTLY_UPDATED_FIRST);
+
     private final TaskRepository taskRepository;
     private final TaskListRepository taskListRepository;
     private final UserRepository userRepository;
     private final ProjectRepository projectRepository;
     private final TaskMapper taskMapper;
     private final AuthService authService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReorderMetrics reorderMetrics;
+    private final ShardRouting shardRouting;
+    private final ShardUsers shardUsers;
 
     /**
      * {@inheritDoc}
@@ -51,6 +89,7 @@ public class TaskServiceImpl implements TaskService {
     public TaskDto createTask(TaskCreateDto createDto) {
         log.info("Creating new task: {} for task list: {}", createDto.getTitle(), createDto.getTaskListId());
 
+        shardUsers.copyTo(shardRouting.routeByTaskList(createDto.getTaskListId()), createDto.getAssignedUserId());
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
 
         // Find task list
@@ -76,21 +115,26 @@ public class TaskServiceImpl implements TaskService {
 
         // If position is not specified, put at the end
         if (createDto.getPosition() == null) {
-            Integer maxPosition = taskRepository.findMaxPositionInTaskList(createDto.getTaskListId());
+            Integer maxPosition = taskRepository.findMaxPositionInTaskList(taskList.getProject().getId(),
+                    createDto.getTaskListId());
             createDto.setPosition(maxPosition != null ? maxPosition + 1 : 1);
         } else {
             // Shift other tasks to make room for the new position
-            List<Task> tasksInList = taskRepository.findByTaskListId(createDto.getTaskListId());
+            List<Task> tasksInList = taskRepository.findByProjectIdAndTaskListId(taskList.getProject().getId(),
+                    createDto.getTaskListId());
             PositionUtils.shiftTasksForInsertion(tasksInList, createDto.getPosition());
 
             // Save all shifted tasks
             taskRepository.saveAll(tasksInList);
+            reorderMetrics.record(ReorderMetrics.TASK, ReorderMetrics.SHIFT, tasksInList.size());
         }
 
         // Create task
         Task task = taskMapper.toEntity(createDto, taskList, assignedUser);
         Task savedTask = taskRepository.save(task);
 
+        eventPublisher.publishEvent(taskChanged(ChangeType.CREATED, savedTask).build());
+
         return taskMapper.toDto(savedTask);
     }
 
@@ -102,6 +146,7 @@ public class TaskServiceImpl implements TaskService {
     public TaskDto updateTask(Long taskId, TaskUpdateDto updateDto) {
         log.info("Updating task with ID: {}", taskId);
 
+        shardUsers.copyTo(shardRouting.routeByTask(taskId), updateDto.getAssignedUserId());
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
 
         Task task = taskRepository.findById(taskId)
@@ -112,6 +157,9 @@ public class TaskServiceImpl implements TaskService {
             throw new AccessDeniedException("You don't have access to this project");
         }
 
+        String previousTitle = task.getTitle();
+        Long previousAssignedUserId = task.getAssignedUser() != null ? task.getAssignedUser().getId() : null;
+
         // Update assigned user if provided
         if (updateDto.getAssignedUserId() != null) {
             User assignedUser = userRepository.findById(updateDto.getAssignedUserId())
@@ -124,7 +172,8 @@ public class TaskServiceImpl implements TaskService {
 
         // Handle position change within the same list
         if (updateDto.getPosition() != null && !updateDto.getPosition().equals(task.getPosition())) {
-            List<Task> tasksInList = taskRepository.findByTaskListId(task.getTaskList().getId());
+            List<Task> tasksInList = taskRepository.findByProjectIdAndTaskListId(task.getProjectId(),
+                    task.getTaskList().getId());
 
             // Remove current task from the list (to avoid duplicates in processing)
             tasksInList = tasksInList.stream()
@@ -136,12 +185,18 @@ public class TaskServiceImpl implements TaskService {
 
             // Save all shifted tasks
             taskRepository.saveAll(tasksInList);
+            reorderMetrics.record(ReorderMetrics.TASK, ReorderMetrics.SHIFT, tasksInList.size());
         }
 
         // Update task fields
         taskMapper.updateTaskFromDto(updateDto, task);
         Task updatedTask = taskRepository.save(task);
 
+        eventPublisher.publishEvent(taskChanged(ChangeType.UPDATED, updatedTask)
+                .previousTitle(previousTitle)
+                .previousAssignedUserId(previousAssignedUserId)
+                .build());
+
         return taskMapper.toDto(updatedTask);
     }
 
@@ -153,6 +208,10 @@ public class TaskServiceImpl implements TaskService {
     public Optional<TaskDto> findTaskById(Long taskId) {
         log.debug("Finding task by ID: {}", taskId);
 
+        if (!shardRouting.isKnown(taskId)) {
+            return Optional.empty();
+        }
+        shardRouting.routeByTask(taskId);
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
 
         return taskRepository.findById(taskId)
@@ -168,6 +227,7 @@ public class TaskServiceImpl implements TaskService {
     public List<TaskDto> findTasksByTaskList(Long taskListId) {
         log.debug("Finding tasks for task list with ID: {}", taskListId);
 
+        shardRouting.routeByTaskList(taskListId);
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
 
         // Find task list
@@ -180,8 +240,7 @@ public class TaskServiceImpl implements TaskService {
         }
 
         // Return tasks ordered by position
-        return taskList.getTasks().stream()
-                .sorted(Comparator.comparingInt(Task::getPosition))
+        return taskRepository.findByProjectIdAndTaskListId(taskList.getProject().getId(), taskListId).stream()
                 .map(taskMapper::toDto)
                 .collect(Collectors.toList());
     }
@@ -194,6 +253,13 @@ public class TaskServiceImpl implements TaskService {
     public TaskDto moveTask(Long taskId, TaskMoveDto moveDto) {
         log.info("Moving task with ID: {} to task list: {}", taskId, moveDto.getTargetTaskListId());
 
+        int shard = shardRouting.routeByTask(taskId);
+        if (!shardRouting.isKnown(moveDto.getTargetTaskListId())) {
+            throw new ResourceNotFoundException("TaskList", "id", moveDto.getTargetTaskListId());
+        }
+        if (shardRouting.shardOf(moveDto.getTargetTaskListId()) != shard) {
+            throw new IllegalStateException("Tasks cannot be moved to a project on another shard");
+        }
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
 
         // Find task
@@ -214,34 +280,45 @@ public class TaskServiceImpl implements TaskService {
             throw new AccessDeniedException("You don't have access to the target project");
         }
 
-        // Get current task list ID before moving
+        // Get current task list and project IDs before moving
         Long oldTaskListId = task.getTaskList().getId();
+        Long oldProjectId = task.getTaskList().getProject().getId();
 
         // If position is not specified, put at the end
         if (moveDto.getPosition() == null) {
-            Integer maxPosition = taskRepository.findMaxPositionInTaskList(moveDto.getTargetTaskListId());
+            Integer maxPosition = taskRepository.findMaxPositionInTaskList(targetTaskList.getProject().getId(),
+                    moveDto.getTargetTaskListId());
             moveDto.setPosition(maxPosition != null ? maxPosition + 1 : 1);
         } else {
             // Shift tasks in the target task list to make room
-            List<Task> tasksInTargetList = taskRepository.findByTaskListId(moveDto.getTargetTaskListId());
+            List<Task> tasksInTargetList = taskRepository.findByProjectIdAndTaskListId(
+                    targetTaskList.getProject().getId(), moveDto.getTargetTaskListId());
             PositionUtils.shiftTasksForInsertion(tasksInTargetList, moveDto.getPosition());
 
             // Save all shifted tasks
             taskRepository.saveAll(tasksInTargetList);
+            reorderMetrics.record(ReorderMetrics.TASK, ReorderMetrics.SHIFT, tasksInTargetList.size());
         }
 
         // Move task
         task.setTaskList(targetTaskList);
+        task.setProjectId(targetTaskList.getProject().getId());
         task.setPosition(moveDto.getPosition());
         Task movedTask = taskRepository.save(task);
 
         // Normalize positions in the old task list
         if (!oldTaskListId.equals(targetTaskList.getId())) {
-            List<Task> tasksInOldList = taskRepository.findByTaskListId(oldTaskListId);
+            List<Task> tasksInOldList = taskRepository.findByProjectIdAndTaskListId(oldProjectId, oldTaskListId);
             List<Task> normalizedTasks = PositionUtils.normalizeTaskPositions(tasksInOldList);
             taskRepository.saveAll(normalizedTasks);
+            reorderMetrics.record(ReorderMetrics.TASK, ReorderMetrics.NORMALIZE, normalizedTasks.size());
         }
 
+        eventPublisher.publishEvent(taskChanged(ChangeType.MOVED, movedTask)
+                .previousProjectId(oldProjectId)
+                .previousTaskListId(oldTaskListId)
+                .build());
+
         return taskMapper.toDto(movedTask);
     }
 
@@ -253,6 +330,10 @@ public class TaskServiceImpl implements TaskService {
     public boolean deleteTask(Long taskId) {
         log.info("Deleting task with ID: {}", taskId);
 
+        if (!shardRouting.isKnown(taskId)) {
+            return false;
+        }
+        shardRouting.routeByTask(taskId);
         Long currentUserId = authService.getCurrentAuthenticatedUserId();
 
         return taskRepository.findById(taskId)
@@ -268,14 +349,152 @@ public class TaskServiceImpl implements TaskService {
                     taskRepository.delete(task);
 
                     // Normalize positions for remaining tasks in the task list
-                    List<Task> remainingTasks = taskRepository.findByTaskListId(taskListId);
+                    List<Task> remainingTasks = taskRepository.findByProjectIdAndTaskListId(task.getProjectId(),
+                            taskListId);
                     if (!remainingTasks.isEmpty()) {
                         List<Task> normalizedTasks = PositionUtils.normalizeTaskPositions(remainingTasks);
                         taskRepository.saveAll(normalizedTasks);
+                        reorderMetrics.record(ReorderMetrics.TASK, ReorderMetrics.NORMALIZE, normalizedTasks.size());
                     }
 
+                    eventPublisher.publishEvent(taskChanged(ChangeType.DELETED, task).build());
+
                     return true;
                 })
                 .orElse(false);
     }
-}
\ No newline at end of file
+
+    /**
+     * Starts a change notification for the given task; callers add the previous state where relevant.
+     * Listeners that depend on committed data run after the surrounding transaction commits.
+     */
+    private TaskChangedEvent.TaskChangedEventBuilder taskChanged(ChangeType type, Task task) {
+        return TaskChangedEvent.builder()
+                .type(type)
+                .taskId(task.getId())
+                .title(task.getTitle())
+                .projectId(task.getTaskList().getProject().getId())
+                .taskListId(task.getTaskList().getId())
+                .assignedUserId(task.getAssignedUser() != null ? task.getAssignedUser().getId() : null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageDto<TaskSearchResultDto> searchTasks(String query, String cursor, int size) {
+        log.debug("Searching tasks for query: {}", query);
+
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+
+        Long currentUserId = authService.getCurrentAuthenticatedUserId();
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+
+        // Fetch one extra row to know whether another page exists; every shard returns its first rows after the
+        // cursor, and the merge keeps the first of all
+        List<TaskSearchRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = shardRouting.readMerged(BEST_MATCH_FIRST, pageSize + 1,
+                    () -> taskRepository.searchAccessibleTasks(currentUserId, query, pageSize + 1));
+        } else {
+            String[] parts = CursorUtils.decode(cursor, 2);
+            float cursorRank;
+            long cursorId;
+            try {
+                cursorRank = Float.parseFloat(parts[0]);
+                cursorId = Long.parseLong(parts[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            rows = shardRouting.readMerged(BEST_MATCH_FIRST, pageSize + 1,
+                    () -> taskRepository.searchAccessibleTasksAfter(currentUserId, query, cursorRank, cursorId,
+                            pageSize + 1));
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<TaskSearchRow> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            TaskSearchRow last = pageRows.get(pageRows.size() - 1);
+            nextCursor = CursorUtils.encode(last.getRank(), last.getId());
+        }
+
+        return KeysetPageDto.<TaskSearchResultDto>builder()
+                .items(pageRows.stream().map(taskMapper::toSearchResultDto).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageDto<AssignedTaskDto> findMyTasks(Long projectId, AssignedTaskSort sort, String cursor, int size) {
+        Long currentUserId = authService.getCurrentAuthenticatedUserId();
+        log.debug("Finding tasks assigned to user ID: {} sorted by {}", currentUserId, sort);
+
+        int pageSize = Math.max(1, Math.min(size, MAX_ASSIGNED_PAGE_SIZE));
+        boolean byProject = sort == AssignedTaskSort.PROJECT;
+
+        // Fetch one extra row to know whether another page exists
+        Limit limit = Limit.of(pageSize + 1);
+        Supplier<List<AssignedTaskRow>> reads;
+        if (cursor == null || cursor.isBlank()) {
+            reads = byProject
+                    ? () -> taskRepository.findAssignedTasksByProject(currentUserId, projectId, limit)
+                    : () -> taskRepository.findAssignedTasks(currentUserId, projectId, limit);
+        } else {
+            String[] parts = CursorUtils.decode(cursor, byProject ? 3 : 2);
+            try {
+                if (byProject) {
+                    long cursorProjectId = Long.parseLong(parts[0]);
+                    LocalDateTime cursorUpdatedAt = LocalDateTime.parse(parts[1]);
+                    long cursorId = Long.parseLong(parts[2]);
+                    reads = () -> taskRepository.findAssignedTasksByProjectAfter(currentUserId, projectId,
+                            cursorProjectId, cursorUpdatedAt, cursorId, limit);
+                } else {
+                    LocalDateTime cursorUpdatedAt = LocalDateTime.parse(parts[0]);
+                    long cursorId = Long.parseLong(parts[1]);
+                    reads = () -> taskRepository.findAssignedTasksAfter(currentUserId, projectId,
+                            cursorUpdatedAt, cursorId, limit);
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // The tasks of one project are on its shard; otherwise every shard returns its first rows after the
+        // cursor, and the merge keeps the first of all
+        List<AssignedTaskRow> rows;
+        if (projectId == null) {
+            rows = shardRouting.readMerged(byProject ? BY_PROJECT : RECENTLY_UPDATED_FIRST, pageSize + 1, reads);
+        } else if (shardRouting.isKnown(projectId)) {
+            rows = shardRouting.read(shardRouting.shardOf(projectId), reads);
+        } else {
+            rows = List.of();
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<AssignedTaskRow> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            AssignedTaskRow last = pageRows.get(pageRows.size() - 1);
+            nextCursor = byProject
+                    ? CursorUtils.encode(last.getProjectId(), last.getUpdatedAt(), last.getId())
+                    : CursorUtils.encode(last.getUpdatedAt(), last.getId());
+        }
+
+        return KeysetPageDto.<AssignedTaskDto>builder()
+                .items(pageRows.stream().map(taskMapper::toAssignedTaskDto).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.minitrello.service;
+
+import com.example.minitrello.dto.search.SuggestionDto;
+import com.example.minitrello.search.AccessibleProjects;
+import com.example.minitrello.search.TitleIndexPartition;
+import com.example.minitrello.search.TypeaheadIndex;
+import com.example.minitrello.service.interfaces.AuthService;
+import com.example.minitrello.service.interfaces.TypeaheadService;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the TypeaheadService interface.
+ * Serves suggestions from the in-memory typeahead index, scoped to the projects of the user, which are
+ * cached as well.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Observed(name = "service.method")
+public class TypeaheadServiceImpl implements TypeaheadService {
+
+    private static final int MAX_SUGGESTIONS = 20;
+
+    private final AccessibleProjects accessibleProjects;
+    private final TypeaheadIndex typeaheadIndex;
+    private final AuthService authService;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<SuggestionDto> suggest(String query, int limit) {
+        log.debug("Suggesting titles for: {}", query);
+
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+
+        Long currentUserId = authService.getCurrentAuthenticatedUserId();
+        List<Long> projectIds = accessibleProjects.of(currentUserId);
+        int maxResults = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+
+        return typeaheadIndex.search(projectIds, query.strip(), maxResults).stream()
+                .map(projectHit -> SuggestionDto.builder()
+                        .type(projectHit.hit().kind() == TitleIndexPartition.KIND_PROJECT
+                                ? SuggestionDto.Type.PROJECT : SuggestionDto.Type.TASK)
+                        .id(projectHit.hit().id())
+                        .title(projectHit.hit().title())
+                        .projectId(projectHit.projectId())
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
@@ -3,6 +3,7 @@ package com.example.minitrello.service;
 import com.example.minitrello.model.User;
 import com.example.minitrello.repository.UserRepository;
 import com.example.minitrello.security.UserDetailsImpl;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -12,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
+@Observed(name = "service.method")
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
@@ -0,0 +1,278 @@
+package com.example.minitrello.service;
+
+import com.example.minitrello.config.UserImportConfig;
+import com.example.minitrello.dto.user.UserImportDto;
+import com.example.minitrello.dto.user.UserImportRow;
+import com.example.minitrello.exception.ResourceNotFoundException;
+import com.example.minitrello.repository.UserImportRepository;
+import com.example.minitrello.repository.UserImportRepository.NewUser;
+import com.example.minitrello.security.TimedPasswordEncoder;
+import com.example.minitrello.service.interfaces.UserImportService;
+import com.example.minitrello.userimport.UserImportFormat;
+import com.example.minitrello.userimport.UserImportJob;
+import com.example.minitrello.userimport.UserImportParser;
+import com.example.minitrello.userimport.UserImportParser.ImportRow;
+import com.example.minitrello.userimport.UserImportParser.ParsedImport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of the UserImportService interface.
+ * Each import runs on a single background thread: duplicates are found with one query for the whole input,
+ * then batches of rows are hashed in parallel on a bounded fork-join pool and written with one COPY each.
+ * The pool is separate from the login hashing pool, so a large import cannot make logins queue behind it.
+ */
+@Service
+@Slf4j
+@Observed(name = "service.method")
+public class UserImportServiceImpl implements UserImportService {
+
+    private final UserImportParser userImportParser;
+    private final UserImportRepository userImportRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final UserImportConfig userImportConfig;
+
+    private final ForkJoinPool hashingPool;
+    private final ExecutorService importExecutor;
+    private final AtomicLong importIds = new AtomicLong();
+    private final Map<Long, UserImportJob> imports = new ConcurrentHashMap<>();
+
+    private final Counter importedCounter;
+    private final Counter duplicateCounter;
+    private final Counter invalidCounter;
+
+    public UserImportServiceImpl(UserImportParser userImportParser,
+                                 UserImportRepository userImportRepository,
+                                 TimedPasswordEncoder passwordEncoder,
+                                 PlatformTransactionManager transactionManager,
+                                 UserImportConfig userImportConfig,
+                                 MeterRegistry meterRegistry) {
+        this.userImportParser = userImportParser;
+        this.userImportRepository = userImportRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userImportConfig = userImportConfig;
+
+        this.hashingPool = new ForkJoinPool(userImportConfig.getHashingParallelism(), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("user-import-hashing-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        this.importExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.importedCounter = rows(meterRegistry, "imported");
+        this.duplicateCounter = rows(meterRegistry, "duplicate");
+        this.invalidCounter = rows(meterRegistry, "invalid");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UserImportDto startImport(InputStream input, MediaType contentType) {
+        UserImportFormat format = UserImportFormat.fromContentType(contentType);
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        // Refuse before reading the body; checked again below in case two imports were uploaded at once
+        checkNoImportRunning();
+
+        ParsedImport parsed;
+        try {
+            parsed = userImportParser.parse(input, format, charset, userImportConfig.getMaxRows());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the import", e);
+        }
+
+        UserImportJob job;
+        synchronized (this) {
+            checkNoImportRunning();
+            job = new UserImportJob(importIds.incrementAndGet(), format, parsed.totalRows(),
+                    userImportConfig.getMaxReportedErrors());
+            imports.put(job.getId(), job);
+            forgetOldImports();
+        }
+        parsed.errors().forEach(job::invalid);
+        invalidCounter.increment(parsed.errors().size());
+        log.info("Started user import {} with {} rows, {} invalid", job.getId(), parsed.totalRows(),
+                parsed.errors().size());
+
+        importExecutor.execute(() -> run(job, parsed.rows()));
+        return job.toDto();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UserImportDto getImport(Long importId) {
+        UserImportJob job = imports.get(importId);
+        if (job == null) {
+            throw new ResourceNotFoundException("User import", "id", importId);
+        }
+        return job.toDto();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<UserImportDto> getImports() {
+        return imports.values().stream()
+                .sorted(Comparator.comparing(UserImportJob::getId).reversed())
+                .map(UserImportJob::toDto)
+                .toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdownNow();
+        hashingPool.shutdownNow();
+    }
+
+    void run(UserImportJob job, List<ImportRow> rows) {
+        try {
+            List<ImportRow> newRows = removeDuplicates(job, rows);
+            int batchSize = userImportConfig.getBatchSize();
+            for (int from = 0; from < newRows.size(); from += batchSize) {
+                List<ImportRow> batch = newRows.subList(from, Math.min(from + batchSize, newRows.size()));
+                write(job, batch, hash(job, batch));
+            }
+            job.completed();
+            log.info("Finished user import {} with {} users imported", job.getId(), job.toDto().getImportedRows());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.failed("Interrupted");
+        } catch (Exception e) {
+            log.error("User import {} failed", job.getId(), e);
+            job.failed(e.getMessage());
+        }
+    }
+
+    /**
+     * Drops rows whose email appears earlier in the input or already exists, ignoring case,
+     * with a single query for the whole input.
+     */
+    private List<ImportRow> removeDuplicates(UserImportJob job, List<ImportRow> rows) {
+        Map<String, ImportRow> firstRows = new LinkedHashMap<>();
+        for (ImportRow row : rows) {
+            ImportRow first = firstRows.putIfAbsent(row.user().getEmail().toLowerCase(Locale.ROOT), row);
+            if (first != null) {
+                job.duplicate(row.row(), row.user().getEmail(), "Email already appears on row " + first.row());
+                duplicateCounter.increment();
+            }
+        }
+        if (firstRows.isEmpty()) {
+            return List.of();
+        }
+
+        Set<String> existing = userImportRepository.findExistingEmails(firstRows.keySet());
+        List<ImportRow> newRows = new ArrayList<>(firstRows.size() - existing.size());
+        firstRows.forEach((email, row) -> {
+            if (existing.contains(email)) {
+                job.duplicate(row.row(), row.user().getEmail(), "Email is already in use");
+                duplicateCounter.increment();
+            } else {
+                newRows.add(row);
+            }
+        });
+        return newRows;
+    }
+
+    private List<NewUser> hash(UserImportJob job, List<ImportRow> batch)
+            throws InterruptedException, ExecutionException {
+        List<Callable<NewUser>> tasks = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            tasks.add(() -> {
+                UserImportRow user = row.user();
+                NewUser newUser = new NewUser(user.getName(), user.getEmail(),
+                        passwordEncoder.encode(user.getPassword()), user.getRole());
+                // The plain password is not needed any more
+                user.setPassword(null);
+                job.hashed();
+                return newUser;
+            });
+        }
+        List<NewUser> users = new ArrayList<>(batch.size());
+        for (Future<NewUser> hashed : hashingPool.invokeAll(tasks)) {
+            users.add(hashed.get());
+        }
+        return users;
+    }
+
+    private void write(UserImportJob job, List<ImportRow> batch, List<NewUser> users) {
+        List<String> inserted = transactionTemplate.execute(status ->
+                userImportRepository.copyInsert(users, LocalDateTime.now()));
+        job.imported(inserted.size());
+        importedCounter.increment(inserted.size());
+        if (inserted.size() < batch.size()) {
+            Set<String> insertedEmails = new HashSet<>(inserted);
+            for (ImportRow row : batch) {
+                if (!insertedEmails.contains(row.user().getEmail())) {
+                    job.duplicate(row.row(), row.user().getEmail(), "Email is already in use");
+                    duplicateCounter.increment();
+                }
+            }
+        }
+    }
+
+    private void checkNoImportRunning() {
+        if (imports.values().stream().anyMatch(UserImportJob::isRunning)) {
+            throw new IllegalStateException("A user import is already running");
+        }
+    }
+
+    /**
+     * Keeps the newest finished imports up to the configured number.
+     */
+    private void forgetOldImports() {
+        imports.values().stream()
+                .filter(job -> !job.isRunning())
+                .sorted(Comparator.comparing(UserImportJob::getId).reversed())
+                .skip(userImportConfig.getRetainedImports())
+                .toList()
+                .forEach(job -> imports.remove(job.getId()));
+    }
+
+    private static Counter rows(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("user.import.rows")
+                .description("Rows of bulk user imports by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -1,20 +1,32 @@
 package com.example.minitrello.service;
 
+import com.example.minitrello.config.SoftDeleteConfig;
+import com.example.minitrello.datasource.ShardRouting;
 import com.example.minitrello.dto.user.UserDto;
 import com.example.minitrello.dto.user.UserUpdateDto;
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.ProjectChangedEvent;
+import com.example.minitrello.event.UserChangedEvent;
 import com.example.minitrello.exception.ResourceNotFoundException;
+import com.example.minitrello.job.JobRunner;
+import com.example.minitrello.job.JobType;
 import com.example.minitrello.mapper.UserMapper;
 import com.example.minitrello.model.User;
+import com.example.minitrello.repository.SoftDeleteRepository;
+import com.example.minitrello.repository.SoftDeleteRepository.DeletedProject;
 import com.example.minitrello.repository.UserRepository;
 import com.example.minitrello.service.interfaces.UserService;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -25,11 +37,17 @@ import java.util.Optional;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Observed(name = "service.method")
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SoftDeleteRepository softDeleteRepository;
+    private final SoftDeleteConfig softDeleteConfig;
+    private final JobRunner jobRunner;
+    private final ShardRouting shardRouting;
 
     /**
      * {@inheritDoc}
@@ -67,6 +85,8 @@ public class UserServiceImpl implements UserService {
                 })
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
 
+        publishUserChanged(ChangeType.UPDATED, id);
+
         return toDto(updatedUser);
     }
 
@@ -117,12 +137,59 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public boolean deleteUser(Long id) {
         log.info("Deleting user with ID: {}", id);
+        LocalDateTime now = LocalDateTime.now();
+        if (!softDeleteRepository.markUserDeleted(id, now)) {
+            return false;
+        }
+
+        // Owned projects go with the user and come back with them; each is purged by a job of its own, and the
+        // user's purge waits for them. With sharding, every shard commits its part on its own
+        LocalDateTime purgeAt = now.plus(softDeleteConfig.getRestoreWindow());
+        for (int shard : shardRouting.shards()) {
+            int unassigned = shardRouting.write(shard, () -> {
+                for (DeletedProject project : softDeleteRepository.markOwnedProjectsDeleted(id, now)) {
+                    jobRunner.enqueue(JobType.PROJECT_PURGE, id, project.id(), purgeAt);
+                    publishProjectChanged(ChangeType.DELETED, project);
+                }
+                // No live task may refer to a hidden user
+                return softDeleteRepository.unassignTasks(id);
+            });
+            log.debug("Unassigned {} tasks from deleted user ID: {} on shard {}", unassigned, id, shard);
+        }
+        jobRunner.enqueue(JobType.USER_PURGE, null, id, purgeAt);
+
+        publishUserChanged(ChangeType.DELETED, id);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public UserDto restoreUser(Long id) {
+        log.info("Restoring user with ID: {}", id);
+        LocalDateTime deletedAt = softDeleteRepository.findUserDeletedAt(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Deleted user", "id", id));
+
+        if (!softDeleteRepository.restoreUser(id, LocalDateTime.now().minus(softDeleteConfig.getRestoreWindow()))) {
+            throw new IllegalStateException("The user can no longer be restored");
+        }
+        jobRunner.cancelQueued(JobType.USER_PURGE, id);
+        for (int shard : shardRouting.shards()) {
+            shardRouting.write(shard, () -> {
+                for (DeletedProject project : softDeleteRepository.restoreProjectsDeletedWith(id, deletedAt)) {
+                    jobRunner.cancelQueued(JobType.PROJECT_PURGE, project.id());
+                    publishProjectChanged(ChangeType.RESTORED, project);
+                }
+                return null;
+            });
+        }
+        publishUserChanged(ChangeType.RESTORED, id);
+
         return userRepository.findById(id)
-                .map(user -> {
-                    userRepository.delete(user);
-                    return true;
-                })
-                .orElse(false);
+                .map(this::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
     }
 
     /**
@@ -146,4 +213,25 @@ public class UserServiceImpl implements UserService {
 
         return userMapper.toDto(user);
     }
-}
\ No newline at end of file
+
+    /**
+     * Publishes a change notification for a project deleted or restored together with its owner.
+     */
+    private void publishProjectChanged(ChangeType type, DeletedProject project) {
+        eventPublisher.publishEvent(ProjectChangedEvent.builder()
+                .type(type)
+                .projectId(project.id())
+                .name(project.name())
+                .build());
+    }
+
+    /**
+     * Publishes a change notification for the given user.
+     */
+    private void publishUserChanged(ChangeType type, Long userId) {
+        eventPublisher.publishEvent(UserChangedEvent.builder()
+                .type(type)
+                .userId(userId)
+                .build());
+    }
+}
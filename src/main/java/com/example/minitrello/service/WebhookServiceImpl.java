@@ -0,0 +1,106 @@
+package com.example.minitrello.service;
+
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.dto.webhook.WebhookCreateDto;
+import com.example.minitrello.dto.webhook.WebhookDto;
+import com.example.minitrello.exception.AccessDeniedException;
+import com.example.minitrello.exception.ResourceNotFoundException;
+import com.example.minitrello.mapper.WebhookMapper;
+import com.example.minitrello.model.Project;
+import com.example.minitrello.model.WebhookSubscription;
+import com.example.minitrello.repository.ProjectRepository;
+import com.example.minitrello.repository.WebhookSubscriptionRepository;
+import com.example.minitrello.service.interfaces.AuthService;
+import com.example.minitrello.service.interfaces.WebhookService;
+import com.example.minitrello.webhook.WebhookTargetGuard;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Implementation of the WebhookService interface.
+ * Only the project owner may manage subscriptions since they receive every change in the project.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Observed(name = "service.method")
+public class WebhookServiceImpl implements WebhookService {
+
+    private final WebhookSubscriptionRepository subscriptionRepository;
+    private final ProjectRepository projectRepository;
+    private final WebhookMapper webhookMapper;
+    private final AuthService authService;
+    private final ShardRouting shardRouting;
+    private final WebhookTargetGuard targetGuard;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public WebhookDto createWebhook(Long projectId, WebhookCreateDto createDto) {
+        log.info("Creating webhook for project ID: {}", projectId);
+
+        Project project = findOwnedProject(projectId);
+        targetGuard.check(createDto.getUrl());
+
+        WebhookSubscription subscription = webhookMapper.toEntity(createDto, project);
+        WebhookSubscription savedSubscription = subscriptionRepository.save(subscription);
+
+        log.info("Webhook created with ID: {}", savedSubscription.getId());
+        return webhookMapper.toDto(savedSubscription);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<WebhookDto> findWebhooks(Long projectId) {
+        log.debug("Fetching webhooks for project ID: {}", projectId);
+
+        findOwnedProject(projectId);
+
+        return subscriptionRepository.findByProjectIdOrderByIdAsc(projectId).stream()
+                .map(webhookMapper::toDto)
+                .toList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public boolean deleteWebhook(Long projectId, Long webhookId) {
+        log.info("Deleting webhook ID: {} of project ID: {}", webhookId, projectId);
+
+        findOwnedProject(projectId);
+
+        return subscriptionRepository.findByIdAndProjectId(webhookId, projectId)
+                .map(subscription -> {
+                    // Pending outbox rows are removed by the foreign key cascade
+                    subscriptionRepository.delete(subscription);
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    private Project findOwnedProject(Long projectId) {
+        // Webhooks and their outbox live on the shard of their project
+        shardRouting.routeByProject(projectId);
+        Long currentUserId = authService.getCurrentAuthenticatedUserId();
+
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new ResourceNotFoundException("Project", "id", projectId));
+
+        if (!project.getOwner().getId().equals(currentUserId)) {
+            throw new AccessDeniedException("Only the project owner can manage webhooks");
+        }
+        return project;
+    }
+}
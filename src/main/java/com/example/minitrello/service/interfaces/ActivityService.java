@@ -0,0 +1,34 @@
+package com.example.minitrello.service.interfaces;
+
+import com.example.minitrello.dto.activity.ActivityDto;
+import com.example.minitrello.dto.common.KeysetPageDto;
+import org.springframework.security.access.prepost.PreAuthorize;
+
+/**
+ * Service interface for reading the activity log.
+ */
+@PreAuthorize("isAuthenticated()")
+public interface ActivityService {
+
+    /**
+     * Retrieves the activity feed of a project, newest first, if the user has access.
+     * Entries are written asynchronously, so the most recent changes may appear with a short delay.
+     *
+     * @param projectId the ID of the project
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the maximum number of entries to return
+     * @return a page of activity entries
+     */
+    KeysetPageDto<ActivityDto> getProjectActivity(Long projectId, String cursor, int size);
+
+    /**
+     * Retrieves the account-level activity, newest first: the changes admins made to users. It has no project
+     * and is kept on shard 0, with the users.
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the maximum number of entries to return
+     * @return a page of activity entries
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    KeysetPageDto<ActivityDto> getAccountActivity(String cursor, int size);
+}
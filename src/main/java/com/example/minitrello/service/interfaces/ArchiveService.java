@@ -0,0 +1,70 @@
+package com.example.minitrello.service.interfaces;
+
+import com.example.minitrello.dto.common.KeysetPageDto;
+import com.example.minitrello.dto.task.ArchivedTaskDto;
+import com.example.minitrello.dto.task.TaskDto;
+import com.example.minitrello.dto.tasklist.ArchivedTaskListDto;
+import com.example.minitrello.dto.tasklist.TaskListDto;
+import org.springframework.security.access.prepost.PreAuthorize;
+
+/**
+ * Service interface for archiving tasks and task lists. Archived rows move out of the live tables into archive
+ * tables, where they can be browsed and from which they can be restored.
+ */
+@PreAuthorize("isAuthenticated()")
+public interface ArchiveService {
+
+    /**
+     * Archives a task if the user has access to its project.
+     *
+     * @param taskId the ID of the task
+     * @return the archived task
+     */
+    ArchivedTaskDto archiveTask(Long taskId);
+
+    /**
+     * Restores an archived task to the end of its list if the user has access to its project.
+     * The list must not be archived itself.
+     *
+     * @param taskId the ID of the archived task
+     * @return the restored task
+     */
+    TaskDto restoreTask(Long taskId);
+
+    /**
+     * Archives a task list with all of its tasks if the user has access to its project.
+     *
+     * @param taskListId the ID of the task list
+     * @return the archived task list
+     */
+    ArchivedTaskListDto archiveTaskList(Long taskListId);
+
+    /**
+     * Restores an archived task list to the end of its project, with the tasks archived together with it,
+     * if the user has access to its project.
+     *
+     * @param taskListId the ID of the archived task list
+     * @return the restored task list
+     */
+    TaskListDto restoreTaskList(Long taskListId);
+
+    /**
+     * Retrieves the archived tasks of a project, most recently archived first, if the user has access.
+     *
+     * @param projectId the ID of the project
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the maximum number of tasks to return
+     * @return a page of archived tasks
+     */
+    KeysetPageDto<ArchivedTaskDto> getArchivedTasks(Long projectId, String cursor, int size);
+
+    /**
+     * Retrieves the archived task lists of a project, most recently archived first, if the user has access.
+     *
+     * @param projectId the ID of the project
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the maximum number of task lists to return
+     * @return a page of archived task lists
+     */
+    KeysetPageDto<ArchivedTaskListDto> getArchivedTaskLists(Long projectId, String cursor, int size);
+}
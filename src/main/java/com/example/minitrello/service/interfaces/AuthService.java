@@ -8,7 +8,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 
 /**
  * Service interface for authentication operations.
- * Provides methods for user registration, login, and token validation.
+ * Provides methods for user registration, login, logout, and token validation.
  * Returns DTOs rather than entities to controllers.
  */
 public interface AuthService {
@@ -29,6 +29,22 @@ public interface AuthService {
      */
     LoginResponse authenticateUser(LoginRequest loginRequest);
 
+    /**
+     * Revokes a token of the authenticated user, so it is rejected from now on even though it has not expired.
+     * Requires authentication (any role).
+     *
+     * @param token the JWT the current request was authenticated with
+     */
+    @PreAuthorize("isAuthenticated()")
+    void logout(String token);
+
+    /**
+     * Revokes every token issued to the authenticated user so far, signing them out on all devices.
+     * Requires authentication (any role).
+     */
+    @PreAuthorize("isAuthenticated()")
+    void logoutEverywhere();
+
     /**
      * Validates if a JWT token is valid.
      *
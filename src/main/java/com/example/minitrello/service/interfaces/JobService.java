@@ -0,0 +1,55 @@
+package com.example.minitrello.service.interfaces;
+
+import com.example.minitrello.dto.job.JobDto;
+import com.example.minitrello.job.Job;
+import org.springframework.security.access.prepost.PreAuthorize;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Service interface for following and cancelling background jobs.
+ * A job is visible to the user it runs for and to admins; system jobs only to admins.
+ */
+@PreAuthorize("isAuthenticated()")
+public interface JobService {
+
+    /**
+     * Gets the progress of a job.
+     *
+     * @param jobId the ID of the job
+     * @return the job
+     */
+    JobDto getJob(Long jobId);
+
+    /**
+     * Lists the most recent jobs of the current user, newest first.
+     *
+     * @return the jobs
+     */
+    List<JobDto> getJobs();
+
+    /**
+     * Cancels a job. A queued job is cancelled at once, a running one after its current chunk.
+     *
+     * @param jobId the ID of the job
+     * @return the job after the request
+     */
+    JobDto cancelJob(Long jobId);
+
+    /**
+     * Gets the file a succeeded job produced.
+     *
+     * @param jobId the ID of the job
+     * @return the path of the file
+     */
+    Path getJobResult(Long jobId);
+
+    /**
+     * Converts a job to a DTO.
+     *
+     * @param job the job
+     * @return the DTO
+     */
+    JobDto toDto(Job job);
+}
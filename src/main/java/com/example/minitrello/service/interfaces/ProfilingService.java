@@ -0,0 +1,61 @@
+package com.example.minitrello.service.interfaces;
+
+import com.example.minitrello.dto.profiling.RecordingDto;
+import com.example.minitrello.dto.profiling.RecordingStartDto;
+import com.example.minitrello.dto.profiling.RecordingSummaryDto;
+import org.springframework.security.access.prepost.PreAuthorize;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Service interface for on-demand Java Flight Recorder profiling of this node.
+ * Recordings are kept in a bounded local directory and can be downloaded or summarized once stopped.
+ */
+public interface ProfilingService {
+
+    /**
+     * Starts a recording with the given preset. Only one recording runs at a time.
+     *
+     * @param startDto the preset and optional duration
+     * @return the started recording
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    RecordingDto startRecording(RecordingStartDto startDto);
+
+    /**
+     * Stops a running recording and writes it to disk. Stopping a stopped recording does nothing.
+     *
+     * @param recordingId the ID of the recording
+     * @return the stopped recording
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    RecordingDto stopRecording(Long recordingId);
+
+    /**
+     * Lists the recordings started since this node came up, newest first.
+     *
+     * @return the recordings
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    List<RecordingDto> getRecordings();
+
+    /**
+     * Gets the file of a stopped recording.
+     *
+     * @param recordingId the ID of the recording
+     * @return the path of the .jfr file
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    Path getRecordingFile(Long recordingId);
+
+    /**
+     * Summarizes a stopped recording into its top hot methods, allocation sites and lock sites.
+     *
+     * @param recordingId the ID of the recording
+     * @param top the maximum number of entries per list
+     * @return the summary
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    RecordingSummaryDto summarizeRecording(Long recordingId, int top);
+}
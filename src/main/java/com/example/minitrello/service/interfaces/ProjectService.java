@@ -1,12 +1,18 @@
 package com.example.minitrello.service.interfaces;
 
+import com.example.minitrello.dto.common.KeysetPageDto;
+import com.example.minitrello.dto.job.JobDto;
+import com.example.minitrello.dto.project.DeletedProjectDto;
+import com.example.minitrello.dto.project.ProjectCloneDto;
 import com.example.minitrello.dto.project.ProjectCreateDto;
 import com.example.minitrello.dto.project.ProjectDto;
 import com.example.minitrello.dto.project.ProjectUpdateDto;
+import com.example.minitrello.dto.user.SimpleUserDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -48,6 +54,24 @@ public interface ProjectService {
      */
     Page<ProjectDto> findAccessibleProjects(Pageable pageable);
 
+    /**
+     * Retrieves the projects the current user has access to, most recently updated first, paginated with a
+     * cursor. Unlike offset pages, a page costs the same however far the client has paged.
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the maximum number of projects to return
+     * @return a page of project DTOs with the cursor of the next page
+     */
+    KeysetPageDto<ProjectDto> findRecentProjects(String cursor, int size);
+
+    /**
+     * Retrieves the templates the current user has access to.
+     *
+     * @param pageable pagination information
+     * @return a Page of project DTOs
+     */
+    Page<ProjectDto> findAccessibleTemplates(Pageable pageable);
+
     /**
      * Retrieves all projects owned by the current user.
      *
@@ -66,13 +90,50 @@ public interface ProjectService {
     Page<ProjectDto> findProjectsWhereUserIsMember(Pageable pageable);
 
     /**
-     * Deletes a project if the user is the owner.
+     * Deletes a project if the user is the owner. The project is hidden at once and can be restored
+     * until its task lists and tasks are purged by a job queued for the end of the restore window.
      *
      * @param projectId the ID of the project to delete
      * @return true if the project was deleted, false otherwise
      */
     boolean deleteProject(Long projectId);
 
+    /**
+     * Restores a project the current user deleted, within the restore window.
+     *
+     * @param projectId the ID of the deleted project
+     * @return the restored project as DTO
+     */
+    ProjectDto restoreProject(Long projectId);
+
+    /**
+     * Lists the projects of the current user that are deleted but can still be restored, most recently deleted first.
+     *
+     * @return the deleted projects
+     */
+    List<DeletedProjectDto> findDeletedProjects();
+
+    /**
+     * Creates a project owned by the current user as a copy of a project they have access to, typically a
+     * template: its task lists and tasks and, if asked for, its members and task assignees.
+     * The copy is made in the database without loading the project.
+     *
+     * @param projectId the ID of the project to clone
+     * @param cloneDto the DTO containing the options of the copy
+     * @return the new project as DTO, with its member and task list counts but without the lists themselves
+     */
+    ProjectDto cloneProject(Long projectId, ProjectCloneDto cloneDto);
+
+    /**
+     * Starts an export of a project the current user has access to, with its task lists and tasks.
+     * The export runs as a background job; an export of the project the user already started is returned
+     * instead of starting another.
+     *
+     * @param projectId the ID of the project
+     * @return the export job
+     */
+    JobDto exportProject(Long projectId);
+
     /**
      * Adds a user to a project if the current user has access.
      *
@@ -98,4 +159,15 @@ public interface ProjectService {
      * @return true if the user successfully left the project
      */
     boolean leaveProject(Long projectId);
-}
\ No newline at end of file
+
+    /**
+     * Searches the members (including the owner) of a project whose name or email starts with the given prefix.
+     * Intended for assignee pickers.
+     *
+     * @param projectId the ID of the project
+     * @param query the prefix typed by the user; an empty prefix returns the first members by name
+     * @param limit the maximum number of members to return
+     * @return matching members ordered by name
+     */
+    List<SimpleUserDto> searchMembers(Long projectId, String query, int limit);
+}
@@ -1,8 +1,12 @@
 package com.example.minitrello.service.interfaces;
 
+import com.example.minitrello.dto.common.KeysetPageDto;
+import com.example.minitrello.dto.task.AssignedTaskDto;
+import com.example.minitrello.dto.task.AssignedTaskSort;
 import com.example.minitrello.dto.task.TaskCreateDto;
 import com.example.minitrello.dto.task.TaskDto;
 import com.example.minitrello.dto.task.TaskMoveDto;
+import com.example.minitrello.dto.task.TaskSearchResultDto;
 import com.example.minitrello.dto.task.TaskUpdateDto;
 import org.springframework.security.access.prepost.PreAuthorize;
 
@@ -64,4 +68,27 @@ public interface TaskService {
      * @return true if the task was deleted, false otherwise
      */
     boolean deleteTask(Long taskId);
+
+    /**
+     * Full-text searches task titles and descriptions across all projects the user has access to.
+     * Results are ordered by relevance and paginated with a keyset cursor.
+     *
+     * @param query the search text, in web search syntax
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the maximum number of results to return
+     * @return a page of ranked and highlighted search results
+     */
+    KeysetPageDto<TaskSearchResultDto> searchTasks(String query, String cursor, int size);
+
+    /**
+     * Finds the tasks assigned to the current user across all projects they still have access to.
+     * Results are paginated with a keyset cursor.
+     *
+     * @param projectId optional project to restrict the results to, or null for all projects
+     * @param sort the order of the results
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the maximum number of results to return
+     * @return a page of assigned tasks with their task list and project names
+     */
+    KeysetPageDto<AssignedTaskDto> findMyTasks(Long projectId, AssignedTaskSort sort, String cursor, int size);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.example.minitrello.service.interfaces;
+
+import com.example.minitrello.dto.search.SuggestionDto;
+import org.springframework.security.access.prepost.PreAuthorize;
+
+import java.util.List;
+
+/**
+ * Service interface for instant title suggestions used by the quick switcher.
+ */
+@PreAuthorize("isAuthenticated()")
+public interface TypeaheadService {
+
+    /**
+     * Suggests projects and tasks whose title contains the given text,
+     * limited to the projects the current user has access to.
+     *
+     * @param query the text typed so far
+     * @param limit the maximum number of suggestions
+     * @return suggestions, best matches first
+     */
+    List<SuggestionDto> suggest(String query, int limit);
+}
@@ -0,0 +1,43 @@
+package com.example.minitrello.service.interfaces;
+
+import com.example.minitrello.dto.user.UserImportDto;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Service interface for provisioning users in bulk.
+ * An import is read and validated while the request streams in, then hashed and written in the background
+ * on this node; its progress is polled until it has finished.
+ */
+public interface UserImportService {
+
+    /**
+     * Reads and validates the users of an import and starts writing them. Only one import runs at a time.
+     *
+     * @param input the CSV or NDJSON body
+     * @param contentType the content type of the body, text/csv or application/x-ndjson
+     * @return the started import, with the invalid rows already reported
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    UserImportDto startImport(InputStream input, MediaType contentType);
+
+    /**
+     * Gets the progress of an import.
+     *
+     * @param importId the ID of the import
+     * @return the import
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    UserImportDto getImport(Long importId);
+
+    /**
+     * Lists the imports started since this node came up that are still retained, newest first.
+     *
+     * @return the imports
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    List<UserImportDto> getImports();
+}
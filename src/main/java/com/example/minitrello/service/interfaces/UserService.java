@@ -74,7 +74,9 @@ public interface UserService {
     Page<UserDto> findAllUser(Pageable pageable);
 
     /**
-     * Deletes a user by ID.
+     * Deletes a user by ID, together with the projects they own.
+     * The user is hidden and their tasks unassigned at once; the user can be restored until the restore
+     * window has passed, after which their projects and memberships are purged in the background.
      * Only administrators can delete user accounts.
      *
      * @param id the ID of the user to delete
@@ -83,6 +85,17 @@ public interface UserService {
     @PreAuthorize("hasRole('ADMIN')")
     boolean deleteUser(Long id);
 
+    /**
+     * Restores a deleted user within the restore window, together with the projects deleted with them.
+     * Tasks unassigned when the user was deleted stay unassigned.
+     * Only administrators can restore user accounts.
+     *
+     * @param id the ID of the deleted user
+     * @return the restored user as DTO
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    UserDto restoreUser(Long id);
+
     /**
      * Checks if a user with the given email exists.
      *
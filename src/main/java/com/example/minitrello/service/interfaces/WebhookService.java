@@ -0,0 +1,41 @@
+package com.example.minitrello.service.interfaces;
+
+import com.example.minitrello.dto.webhook.WebhookCreateDto;
+import com.example.minitrello.dto.webhook.WebhookDto;
+import org.springframework.security.access.prepost.PreAuthorize;
+
+import java.util.List;
+
+/**
+ * Service interface for managing the webhook subscriptions of a project.
+ */
+@PreAuthorize("isAuthenticated()")
+public interface WebhookService {
+
+    /**
+     * Subscribes a URL to the changes of a project if the user is the project owner.
+     *
+     * @param projectId the ID of the project
+     * @param createDto the DTO containing the URL and optional signing secret
+     * @return the created subscription
+     */
+    WebhookDto createWebhook(Long projectId, WebhookCreateDto createDto);
+
+    /**
+     * Retrieves the webhook subscriptions of a project if the user is the project owner.
+     *
+     * @param projectId the ID of the project
+     * @return the subscriptions, oldest first
+     */
+    List<WebhookDto> findWebhooks(Long projectId);
+
+    /**
+     * Deletes a webhook subscription if the user is the project owner.
+     * Events not yet delivered to it are discarded.
+     *
+     * @param projectId the ID of the project
+     * @param webhookId the ID of the subscription
+     * @return true if the subscription was deleted, false if it was not found
+     */
+    boolean deleteWebhook(Long projectId, Long webhookId);
+}
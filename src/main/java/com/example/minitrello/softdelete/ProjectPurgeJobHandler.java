@@ -0,0 +1,137 @@
+package com.example.minitrello.softdelete;
+
+import com.example.minitrello.config.SoftDeleteConfig;
+import com.example.minitrello.job.Job;
+import com.example.minitrello.job.JobHandler;
+import com.example.minitrello.job.JobStep;
+import com.example.minitrello.job.JobType;
+import com.example.minitrello.repository.SoftDeleteRepository;
+import com.example.minitrello.repository.SoftDeleteRepository.DeletedProject;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Removes a deleted project once its restore window has passed, bottom up: tasks, task lists, archived tasks,
+ * archived task lists and memberships in chunks of at most {@code app.soft-delete.purge-batch-size} rows, then the project row. The checkpoint is
+ * the table being emptied. Past the restore window nothing can bring these rows back, so a chunk that is
+ * retried simply removes the next rows.
+ */
+@Component
+@Slf4j
+public class ProjectPurgeJobHandler implements JobHandler {
+
+    private final SoftDeleteRepository softDeleteRepository;
+    private final SoftDeleteConfig softDeleteConfig;
+    private final Clock clock;
+
+    private final Counter purgedTasks;
+    private final Counter purgedTaskLists;
+    private final Counter purgedArchivedTasks;
+    private final Counter purgedArchivedTaskLists;
+    private final Counter purgedMemberships;
+    private final Counter purgedProjects;
+
+    @Autowired
+    public ProjectPurgeJobHandler(SoftDeleteRepository softDeleteRepository,
+                                  SoftDeleteConfig softDeleteConfig,
+                                  MeterRegistry meterRegistry) {
+        this(softDeleteRepository, softDeleteConfig, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    ProjectPurgeJobHandler(SoftDeleteRepository softDeleteRepository,
+                           SoftDeleteConfig softDeleteConfig,
+                           MeterRegistry meterRegistry,
+                           Clock clock) {
+        this.softDeleteRepository = softDeleteRepository;
+        this.softDeleteConfig = softDeleteConfig;
+        this.clock = clock;
+
+        this.purgedTasks = SoftDeletePurger.purged(meterRegistry, "tasks");
+        this.purgedTaskLists = SoftDeletePurger.purged(meterRegistry, "task_lists");
+        this.purgedArchivedTasks = SoftDeletePurger.purged(meterRegistry, "archived_tasks");
+        this.purgedArchivedTaskLists = SoftDeletePurger.purged(meterRegistry, "archived_task_lists");
+        this.purgedMemberships = SoftDeletePurger.purged(meterRegistry, "project_members");
+        this.purgedProjects = SoftDeletePurger.purged(meterRegistry, "projects");
+    }
+
+    @Override
+    public JobType type() {
+        return JobType.PROJECT_PURGE;
+    }
+
+    @Override
+    public JobStep runChunk(Job job) {
+        long projectId = job.subjectId();
+        int batchSize = softDeleteConfig.getPurgeBatchSize();
+
+        if (job.checkpoint() == null) {
+            Optional<DeletedProject> deleted = softDeleteRepository.findDeletedProject(projectId);
+            if (deleted.isEmpty()) {
+                // Restored, or purged by an earlier job
+                return JobStep.finished(0, 0L, null);
+            }
+            LocalDateTime purgeAt = deleted.get().deletedAt().plus(softDeleteConfig.getRestoreWindow());
+            LocalDateTime now = LocalDateTime.now(clock);
+            if (purgeAt.isAfter(now)) {
+                return JobStep.pause(null, 0, null, Duration.between(now, purgeAt));
+            }
+            return JobStep.next(Phase.TASKS.name(), 0, softDeleteRepository.countProjectRows(projectId));
+        }
+
+        Phase phase = Phase.valueOf(job.checkpoint());
+        long done = job.progressDone();
+        Long total = job.progressTotal();
+        switch (phase) {
+            case TASKS -> {
+                int removed = softDeleteRepository.deleteProjectTasks(projectId, batchSize);
+                purgedTasks.increment(removed);
+                return JobStep.next(removed < batchSize ? Phase.TASK_LISTS.name() : phase.name(), done + removed, total);
+            }
+            case TASK_LISTS -> {
+                int removed = softDeleteRepository.deleteProjectTaskLists(projectId, batchSize);
+                purgedTaskLists.increment(removed);
+                return JobStep.next(removed < batchSize ? Phase.ARCHIVED_TASKS.name() : phase.name(), done + removed, total);
+            }
+            case ARCHIVED_TASKS -> {
+                int removed = softDeleteRepository.deleteProjectArchivedTasks(projectId, batchSize);
+                purgedArchivedTasks.increment(removed);
+                return JobStep.next(removed < batchSize ? Phase.ARCHIVED_TASK_LISTS.name() : phase.name(), done + removed, total);
+            }
+            case ARCHIVED_TASK_LISTS -> {
+                int removed = softDeleteRepository.deleteProjectArchivedTaskLists(projectId, batchSize);
+                purgedArchivedTaskLists.increment(removed);
+                return JobStep.next(removed < batchSize ? Phase.MEMBERSHIPS.name() : phase.name(), done + removed, total);
+            }
+            case MEMBERSHIPS -> {
+                int removed = softDeleteRepository.deleteProjectMemberships(projectId, batchSize);
+                purgedMemberships.increment(removed);
+                return JobStep.next(removed < batchSize ? Phase.PROJECT.name() : phase.name(), done + removed, total);
+            }
+            default -> {
+                if (softDeleteRepository.deleteProject(projectId)) {
+                    purgedProjects.increment();
+                    log.info("Purged deleted project {} with {} rows below it", projectId, done);
+                    done++;
+                }
+                return JobStep.finished(done, total, null);
+            }
+        }
+    }
+
+    private enum Phase {
+        TASKS,
+        TASK_LISTS,
+        ARCHIVED_TASKS,
+        ARCHIVED_TASK_LISTS,
+        MEMBERSHIPS,
+        PROJECT
+    }
+}
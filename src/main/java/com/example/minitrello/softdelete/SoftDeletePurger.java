@@ -0,0 +1,95 @@
+package com.example.minitrello.softdelete;
+
+import com.example.minitrello.config.SoftDeleteConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.job.JobRunner;
+import com.example.minitrello.job.JobType;
+import com.example.minitrello.repository.SoftDeleteRepository;
+import com.example.minitrello.repository.SoftDeleteRepository.DeletedProject;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * Makes sure every project and user past its restore window gets purged. Deleting a project or user queues
+ * its purge job, due when the window ends; this catches the rows whose job was cancelled, gave up after
+ * failing, or was never queued, and queues it again. Projects are looked for on every shard, users on
+ * shard 0, where they live.
+ */
+@Component
+@Slf4j
+public class SoftDeletePurger {
+
+    private final SoftDeleteRepository softDeleteRepository;
+    private final SoftDeleteConfig softDeleteConfig;
+    private final JobRunner jobRunner;
+    private final ShardRouting shardRouting;
+    private final Clock clock;
+
+    @Autowired
+    public SoftDeletePurger(SoftDeleteRepository softDeleteRepository,
+                            SoftDeleteConfig softDeleteConfig,
+                            JobRunner jobRunner,
+                            ShardRouting shardRouting) {
+        this(softDeleteRepository, softDeleteConfig, jobRunner, shardRouting, Clock.systemDefaultZone());
+    }
+
+    SoftDeletePurger(SoftDeleteRepository softDeleteRepository,
+                     SoftDeleteConfig softDeleteConfig,
+                     JobRunner jobRunner,
+                     ShardRouting shardRouting,
+                     Clock clock) {
+        this.softDeleteRepository = softDeleteRepository;
+        this.softDeleteConfig = softDeleteConfig;
+        this.jobRunner = jobRunner;
+        this.shardRouting = shardRouting;
+        this.clock = clock;
+    }
+
+    /**
+     * Queues purge jobs for the projects and users past their restore window that have none, up to
+     * {@code app.soft-delete.purge-limit} of each per run.
+     */
+    @Scheduled(fixedDelayString = "${app.soft-delete.purge-interval-ms:3600000}",
+            initialDelayString = "${app.soft-delete.purge-interval-ms:3600000}")
+    public void purge() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime cutoff = now.minus(softDeleteConfig.getRestoreWindow());
+        int limit = softDeleteConfig.getPurgeLimit();
+        for (int shard : shardRouting.shards()) {
+            try {
+                // Each purge job is queued on the shard of its project
+                shardRouting.run(shard, () -> {
+                    for (DeletedProject project : softDeleteRepository.findProjectsToPurge(cutoff, limit)) {
+                        jobRunner.enqueue(JobType.PROJECT_PURGE, project.ownerId(), project.id(), now);
+                    }
+                });
+            } catch (DataAccessException e) {
+                log.warn("Queueing purges of deleted projects on shard {} failed: {}", shard, e.getMessage());
+            }
+        }
+        try {
+            shardRouting.run(0, () -> {
+                for (Long userId : softDeleteRepository.findUsersToPurge(cutoff, limit)) {
+                    jobRunner.enqueue(JobType.USER_PURGE, null, userId, now);
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("Queueing purges of deleted users failed: {}", e.getMessage());
+        }
+    }
+
+    static Counter purged(MeterRegistry meterRegistry, String table) {
+        return Counter.builder("softdelete.purged.rows")
+                .description("Rows removed by the purge of deleted projects and users")
+                .tag("table", table)
+                .register(meterRegistry);
+    }
+}
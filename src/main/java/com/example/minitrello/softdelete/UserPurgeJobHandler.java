@@ -0,0 +1,159 @@
+package com.example.minitrello.softdelete;
+
+import com.example.minitrello.config.SoftDeleteConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.job.Job;
+import com.example.minitrello.job.JobHandler;
+import com.example.minitrello.job.JobStep;
+import com.example.minitrello.job.JobType;
+import com.example.minitrello.repository.SoftDeleteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Removes a deleted user once their restore window has passed: their memberships and task assignments in
+ * chunks of at most {@code app.soft-delete.purge-batch-size} rows, then the user row. The projects the user
+ * owned are purged by jobs of their own; the user row waits for them.
+ * <p>
+ * With sharding, the job runs on shard 0, where the user lives, and empties each shard in turn; the
+ * checkpoint is then the phase and the shard, such as {@code MEMBERSHIPS:1}. The copies of the user on the
+ * other shards are removed before the user row.
+ */
+@Component
+@Slf4j
+public class UserPurgeJobHandler implements JobHandler {
+
+    // How long to wait for the purge of the user's projects before trying to remove the user again
+    private static final Duration OWNED_PROJECTS_PAUSE = Duration.ofMinutes(1);
+
+    private final SoftDeleteRepository softDeleteRepository;
+    private final SoftDeleteConfig softDeleteConfig;
+    private final ShardRouting shardRouting;
+    private final Clock clock;
+
+    private final Counter purgedMemberships;
+    private final Counter purgedUsers;
+
+    @Autowired
+    public UserPurgeJobHandler(SoftDeleteRepository softDeleteRepository,
+                               SoftDeleteConfig softDeleteConfig,
+                               ShardRouting shardRouting,
+                               MeterRegistry meterRegistry) {
+        this(softDeleteRepository, softDeleteConfig, shardRouting, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    UserPurgeJobHandler(SoftDeleteRepository softDeleteRepository,
+                        SoftDeleteConfig softDeleteConfig,
+                        ShardRouting shardRouting,
+                        MeterRegistry meterRegistry,
+                        Clock clock) {
+        this.softDeleteRepository = softDeleteRepository;
+        this.softDeleteConfig = softDeleteConfig;
+        this.shardRouting = shardRouting;
+        this.clock = clock;
+
+        this.purgedMemberships = SoftDeletePurger.purged(meterRegistry, "project_members");
+        this.purgedUsers = SoftDeletePurger.purged(meterRegistry, "users");
+    }
+
+    @Override
+    public JobType type() {
+        return JobType.USER_PURGE;
+    }
+
+    @Override
+    public JobStep runChunk(Job job) {
+        long userId = job.subjectId();
+        int batchSize = softDeleteConfig.getPurgeBatchSize();
+        long done = job.progressDone();
+
+        if (job.checkpoint() == null) {
+            Optional<LocalDateTime> deletedAt = softDeleteRepository.findUserDeletedAt(userId);
+            if (deletedAt.isEmpty()) {
+                // Restored, or purged by an earlier job
+                return JobStep.finished(0, null, null);
+            }
+            LocalDateTime purgeAt = deletedAt.get().plus(softDeleteConfig.getRestoreWindow());
+            LocalDateTime now = LocalDateTime.now(clock);
+            if (purgeAt.isAfter(now)) {
+                return JobStep.pause(null, 0, null, Duration.between(now, purgeAt));
+            }
+            return JobStep.next(checkpoint(Phase.MEMBERSHIPS, 0), 0, null);
+        }
+
+        String[] checkpoint = job.checkpoint().split(":");
+        Phase phase = Phase.valueOf(checkpoint[0]);
+        int shard = checkpoint.length > 1 ? Integer.parseInt(checkpoint[1]) : 0;
+        switch (phase) {
+            case MEMBERSHIPS -> {
+                int removed = shardRouting.write(shard,
+                        () -> softDeleteRepository.deleteUserMemberships(userId, batchSize));
+                purgedMemberships.increment(removed);
+                String next = removed < batchSize ? nextShard(phase, shard, Phase.ASSIGNMENTS) : job.checkpoint();
+                return JobStep.next(next, done + removed, null);
+            }
+            case ASSIGNMENTS -> {
+                int unassigned = shardRouting.write(shard, () -> softDeleteRepository.unassignTasks(userId, batchSize));
+                String next = unassigned < batchSize ? nextShard(phase, shard, Phase.USER) : job.checkpoint();
+                return JobStep.next(next, done + unassigned, null);
+            }
+            default -> {
+                if (!deleteCopies(userId)) {
+                    return JobStep.pause(phase.name(), done, null, OWNED_PROJECTS_PAUSE);
+                }
+                if (softDeleteRepository.deleteUser(userId)) {
+                    purgedUsers.increment();
+                    log.info("Purged deleted user {}", userId);
+                    return JobStep.finished(done + 1, done + 1, null);
+                }
+                if (softDeleteRepository.findUserDeletedAt(userId).isEmpty()) {
+                    return JobStep.finished(done, done, null);
+                }
+                return JobStep.pause(phase.name(), done, null, OWNED_PROJECTS_PAUSE);
+            }
+        }
+    }
+
+    /**
+     * The checkpoint for the next shard of a phase, or for the first shard of the next phase after the last.
+     */
+    private String nextShard(Phase phase, int shard, Phase nextPhase) {
+        List<Integer> shards = shardRouting.shards();
+        int index = shards.indexOf(shard);
+        return index + 1 < shards.size()
+                ? checkpoint(phase, shards.get(index + 1))
+                : checkpoint(nextPhase, shards.get(0));
+    }
+
+    private static String checkpoint(Phase phase, int shard) {
+        return shard == 0 ? phase.name() : phase.name() + ":" + shard;
+    }
+
+    /**
+     * Removes the copies of the user on the shards other than shard 0.
+     *
+     * @return whether no copy is left; false while a copy still owns projects
+     */
+    private boolean deleteCopies(long userId) {
+        boolean removed = true;
+        for (int shard : shardRouting.shards().subList(1, shardRouting.shards().size())) {
+            removed &= shardRouting.write(shard, () -> softDeleteRepository.deleteUserCopy(userId));
+        }
+        return removed;
+    }
+
+    private enum Phase {
+        MEMBERSHIPS,
+        ASSIGNMENTS,
+        USER
+    }
+}
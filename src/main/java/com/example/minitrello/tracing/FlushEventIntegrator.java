@@ -0,0 +1,54 @@
+package com.example.minitrello.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marks Hibernate flushes as events on the current span, so the statements that follow can be told
+ * apart from those issued by queries. Auto flushes are the ones Hibernate runs before a query touching
+ * dirty entities; they are only marked when they actually wrote something.
+ */
+@Component
+public class FlushEventIntegrator implements Integrator {
+
+    private final ObservationRegistry observationRegistry;
+
+    public FlushEventIntegrator(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class);
+        // Appended, so they run after the default listeners have done the flush
+        registry.appendListeners(EventType.FLUSH, (FlushEventListener) event -> mark("hibernate.flush", event));
+        registry.appendListeners(EventType.AUTO_FLUSH, (AutoFlushEventListener) event -> {
+            if (event.isFlushRequired()) {
+                mark("hibernate.auto-flush", event);
+            }
+        });
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    private void mark(String name, FlushEvent event) {
+        Observation observation = observationRegistry.getCurrentObservation();
+        if (observation != null) {
+            observation.event(Observation.Event.of(name, String.format("%s entities=%d collections=%d",
+                    name, event.getNumberOfEntitiesProcessed(), event.getNumberOfCollectionsProcessed())));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.minitrello.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opens a {@code repository.method} observation, and with it a span, around every repository call:
+ * the Spring Data interfaces as well as the JDBC repositories in this package. The JDBC statements
+ * a call issues show up as its children.
+ */
+@Aspect
+@Component
+public class RepositoryObservationAspect {
+
+    private final ObservationRegistry observationRegistry;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public RepositoryObservationAspect(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Around("execution(public * *(..)) && (target(org.springframework.data.repository.Repository) "
+            + "|| within(com.example.minitrello.repository..*))")
+    public Object observe(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(),
+                proxyClass -> repositoryName(proxyClass, joinPoint.getTarget()));
+        String method = joinPoint.getSignature().getName();
+        Observation observation = Observation.createNotStarted("repository.method", observationRegistry)
+                .contextualName(repository + "#" + method)
+                .lowCardinalityKeyValue("repository", repository)
+                .lowCardinalityKeyValue("method", method)
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    /**
+     * The repository interface a Spring Data proxy stands for, rather than its generic implementation class.
+     */
+    private static String repositoryName(Class<?> proxyClass, Object target) {
+        return Arrays.stream(proxyClass.getInterfaces())
+                .filter(type -> Repository.class.isAssignableFrom(type) && type != Repository.class)
+                .filter(type -> !type.getPackageName().startsWith("org.springframework."))
+                .findFirst()
+                .map(Class::getSimpleName)
+                .orElseGet(() -> ClassUtils.getUserClass(target).getSimpleName());
+    }
+}
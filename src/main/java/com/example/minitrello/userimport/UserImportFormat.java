@@ -0,0 +1,41 @@
+package com.example.minitrello.userimport;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Input formats of the bulk user import, selected by the request's content type.
+ */
+public enum UserImportFormat {
+    /**
+     * Comma-separated values with a header row naming the columns {@code email}, {@code name},
+     * {@code password} and optionally {@code role}.
+     */
+    CSV("text/csv"),
+
+    /**
+     * One JSON object per line with the same fields as the CSV columns.
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON_VALUE);
+
+    private final MediaType mediaType;
+
+    UserImportFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @throws IllegalArgumentException when the content type is not one of the supported formats
+     */
+    public static UserImportFormat fromContentType(MediaType contentType) {
+        for (UserImportFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+    }
+}
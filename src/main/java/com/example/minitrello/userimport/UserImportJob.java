@@ -0,0 +1,107 @@
+package com.example.minitrello.userimport;
+
+import com.example.minitrello.dto.user.UserImportDto;
+import com.example.minitrello.dto.user.UserImportErrorDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of one bulk import, updated by the import thread and the hashing pool and read by polling requests.
+ */
+public class UserImportJob {
+
+    private final long id;
+    private final UserImportFormat format;
+    private final int totalRows;
+    private final int maxReportedErrors;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    private final AtomicInteger hashedRows = new AtomicInteger();
+    private final AtomicInteger importedRows = new AtomicInteger();
+    private final AtomicInteger duplicateRows = new AtomicInteger();
+    private final AtomicInteger invalidRows = new AtomicInteger();
+    private final List<UserImportErrorDto> errors = new ArrayList<>();
+    private int unreportedErrors;
+
+    private volatile String state = "RUNNING";
+    private volatile String failureMessage;
+    private volatile LocalDateTime finishedAt;
+
+    public UserImportJob(long id, UserImportFormat format, int totalRows, int maxReportedErrors) {
+        this.id = id;
+        this.format = format;
+        this.totalRows = totalRows;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public boolean isRunning() {
+        return finishedAt == null;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void invalid(UserImportErrorDto error) {
+        invalidRows.incrementAndGet();
+        addError(error);
+    }
+
+    public void duplicate(int row, String email, String message) {
+        duplicateRows.incrementAndGet();
+        addError(UserImportErrorDto.builder().row(row).email(email).message(message).build());
+    }
+
+    public void hashed() {
+        hashedRows.incrementAndGet();
+    }
+
+    public void imported(int rows) {
+        importedRows.addAndGet(rows);
+    }
+
+    public void completed() {
+        state = "COMPLETED";
+        finishedAt = LocalDateTime.now();
+    }
+
+    public void failed(String message) {
+        failureMessage = message;
+        state = "FAILED";
+        finishedAt = LocalDateTime.now();
+    }
+
+    public synchronized UserImportDto toDto() {
+        return UserImportDto.builder()
+                .id(id)
+                .state(state)
+                .format(format.name())
+                .totalRows(totalRows)
+                .hashedRows(hashedRows.get())
+                .importedRows(importedRows.get())
+                .duplicateRows(duplicateRows.get())
+                .invalidRows(invalidRows.get())
+                .errors(errors.stream().sorted(Comparator.comparingInt(UserImportErrorDto::getRow)).toList())
+                .errorsTruncated(unreportedErrors > 0)
+                .failureMessage(failureMessage)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .build();
+    }
+
+    private synchronized void addError(UserImportErrorDto error) {
+        if (errors.size() < maxReportedErrors) {
+            errors.add(error);
+        } else {
+            unreportedErrors++;
+        }
+    }
+}
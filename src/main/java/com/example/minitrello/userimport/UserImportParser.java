@@ -0,0 +1,195 @@
+package com.example.minitrello.userimport;
+
+import com.example.minitrello.dto.user.UserImportErrorDto;
+import com.example.minitrello.dto.user.UserImportRow;
+import com.example.minitrello.model.Role;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the rows of a bulk user import as they stream in and validates each one on its own, so that a bad
+ * row is reported with its position instead of failing the whole import. Only a malformed CSV (e.g. an
+ * unterminated quote) or too many rows reject the input as a whole.
+ */
+@Component
+public class UserImportParser {
+
+    private static final TypeReference<Map<String, Object>> FIELDS = new TypeReference<>() {
+    };
+    private static final Set<String> REQUIRED_COLUMNS = Set.of("email", "name", "password");
+    private static final Set<String> KNOWN_COLUMNS = Set.of("email", "name", "password", "role");
+
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    public UserImportParser(ObjectMapper objectMapper, Validator validator) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    /**
+     * Reads and validates all rows of the input.
+     *
+     * @param input the request body
+     * @param format CSV or NDJSON
+     * @param charset the character set of the input
+     * @param maxRows the largest number of rows accepted
+     * @return the valid rows and the errors of the invalid ones
+     * @throws IllegalArgumentException when the input cannot be read as a whole or has too many rows
+     */
+    public ParsedImport parse(InputStream input, UserImportFormat format, Charset charset, int maxRows)
+            throws IOException {
+        ParsedImport parsed = new ParsedImport(new ArrayList<>(), new ArrayList<>());
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, charset));
+        if (format == UserImportFormat.CSV) {
+            parseCsv(reader, parsed, maxRows);
+        } else {
+            parseNdjson(reader, parsed, maxRows);
+        }
+        return parsed;
+    }
+
+    private void parseCsv(Reader reader, ParsedImport parsed, int maxRows) throws IOException {
+        try (MappingIterator<Map<String, Object>> rows = csvMapper.readerFor(FIELDS)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(reader)) {
+            if (!rows.hasNextValue()) {
+                return;
+            }
+            checkHeader((CsvSchema) rows.getParserSchema());
+            int row = 0;
+            while (rows.hasNextValue()) {
+                add(parsed, ++row, rows.nextValue(), maxRows);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed CSV: " + e.getOriginalMessage());
+        }
+    }
+
+    private void parseNdjson(BufferedReader reader, ParsedImport parsed, int maxRows) throws IOException {
+        int row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            row++;
+            try {
+                add(parsed, row, objectMapper.readValue(line, FIELDS), maxRows);
+            } catch (JsonProcessingException e) {
+                checkRowCount(row, maxRows);
+                parsed.errors().add(error(row, null, "Malformed JSON: " + e.getOriginalMessage()));
+            }
+        }
+    }
+
+    private static void checkHeader(CsvSchema header) {
+        Set<String> columns = new HashSet<>();
+        header.forEach(column -> columns.add(column.getName()));
+        if (!columns.containsAll(REQUIRED_COLUMNS)) {
+            throw new IllegalArgumentException("CSV header must name the columns " + String.join(", ",
+                    REQUIRED_COLUMNS.stream().sorted().toList()) + " and optionally role");
+        }
+        if (!KNOWN_COLUMNS.containsAll(columns)) {
+            columns.removeAll(KNOWN_COLUMNS);
+            throw new IllegalArgumentException("Unknown CSV columns: " + String.join(", ", columns));
+        }
+    }
+
+    private void add(ParsedImport parsed, int row, Map<String, Object> fields, int maxRows) {
+        checkRowCount(row, maxRows);
+        String email = text(fields, "email");
+        String roleName = text(fields, "role");
+        Role role;
+        try {
+            role = toRole(roleName);
+        } catch (IllegalArgumentException e) {
+            parsed.errors().add(error(row, email, "Unknown role: " + roleName));
+            return;
+        }
+
+        UserImportRow user = UserImportRow.builder()
+                .email(email)
+                .name(text(fields, "name"))
+                .password(fields.get("password") != null ? fields.get("password").toString() : null)
+                .role(role)
+                .build();
+        Set<ConstraintViolation<UserImportRow>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            parsed.errors().add(error(row, email, violations.stream()
+                    .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                    .map(ConstraintViolation::getMessage)
+                    .collect(Collectors.joining("; "))));
+            return;
+        }
+        parsed.rows().add(new ImportRow(row, user));
+    }
+
+    private static void checkRowCount(int row, int maxRows) {
+        if (row > maxRows) {
+            throw new IllegalArgumentException("An import is limited to " + maxRows + " rows");
+        }
+    }
+
+    private static String text(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (value == null || value.toString().isBlank()) {
+            return null;
+        }
+        return value.toString().trim();
+    }
+
+    /**
+     * Accepts role names with or without the ROLE_ prefix, in any case; no role means ROLE_USER.
+     */
+    private static Role toRole(String name) {
+        if (name == null) {
+            return Role.ROLE_USER;
+        }
+        String upperCase = name.toUpperCase(Locale.ROOT);
+        return Role.valueOf(upperCase.startsWith("ROLE_") ? upperCase : "ROLE_" + upperCase);
+    }
+
+    private static UserImportErrorDto error(int row, String email, String message) {
+        return UserImportErrorDto.builder().row(row).email(email).message(message).build();
+    }
+
+    /**
+     * A valid row with its position in the input.
+     */
+    public record ImportRow(int row, UserImportRow user) {
+    }
+
+    /**
+     * Result of parsing: the valid rows in input order and the errors of the invalid ones.
+     */
+    public record ParsedImport(List<ImportRow> rows, List<UserImportErrorDto> errors) {
+
+        public int totalRows() {
+            return rows.size() + errors.size();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.minitrello.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Utility class for encoding and decoding opaque keyset pagination cursors.
+ * A cursor carries the sort key values of the last row of a page so the next page
+ * can continue with a seek predicate instead of an OFFSET.
+ */
+public class CursorUtils {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes the given sort key values into an opaque, URL-safe cursor.
+     *
+     * @param parts sort key values of the last row in the page
+     * @return the encoded cursor
+     */
+    public static String encode(Object... parts) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode(Object...)}.
+     *
+     * @param cursor the encoded cursor
+     * @param expectedParts number of sort key values the cursor must contain
+     * @return the raw sort key values
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.minitrello.webhook;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox row claimed for delivery.
+ *
+ * @param id the outbox row id, also sent to subscribers as the delivery id
+ * @param subscriptionId the subscription the event is destined for
+ * @param eventType the event type, e.g. "task.moved"
+ * @param payload the event as JSON
+ * @param attempts the number of failed deliveries so far
+ * @param createdAt when the change was committed
+ */
+public record OutboxMessage(long id, long subscriptionId, String eventType, String payload, int attempts,
+                            LocalDateTime createdAt) {
+}
@@ -0,0 +1,71 @@
+package com.example.minitrello.webhook;
+
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.ProjectChangedEvent;
+import com.example.minitrello.event.TaskChangedEvent;
+import com.example.minitrello.event.TaskListChangedEvent;
+import com.example.minitrello.repository.WebhookOutboxRepository;
+import com.example.minitrello.repository.WebhookSubscriptionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes webhook outbox rows for task, task list and project changes. Runs just before commit so the
+ * rows are part of the same transaction as the change: either both are committed or neither is.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxRecorder {
+
+    private final WebhookSubscriptionRepository subscriptionRepository;
+    private final WebhookOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTaskChanged(TaskChangedEvent event) {
+        String type = eventType("task", event.getType());
+        record(event.getProjectId(), type, event);
+        if (event.getPreviousProjectId() != null && !event.getPreviousProjectId().equals(event.getProjectId())) {
+            record(event.getPreviousProjectId(), type, event);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTaskListChanged(TaskListChangedEvent event) {
+        record(event.getProjectId(), eventType("task_list", event.getType()), event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        // Subscriptions are removed together with their project, so there is no one to notify of a deletion
+        if (event.getType() != ChangeType.DELETED) {
+            record(event.getProjectId(), eventType("project", event.getType()), event);
+        }
+    }
+
+    private void record(Long projectId, String type, Object event) {
+        List<Long> subscriptionIds = subscriptionRepository.findActiveIdsByProjectId(projectId);
+        if (subscriptionIds.isEmpty()) {
+            return;
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize webhook event " + type, e);
+        }
+        outboxRepository.insert(subscriptionIds, type, payload, LocalDateTime.now());
+    }
+
+    private static String eventType(String entity, ChangeType type) {
+        return entity + "." + type.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.minitrello.webhook;
+
+import com.example.minitrello.config.WebhookConfig;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+
+/**
+ * Posts batches of webhook events to subscriber endpoints. When the subscription has a secret,
+ * the body is signed with HMAC-SHA256 so receivers can verify where it came from. The host is checked by
+ * {@link WebhookTargetGuard} before every request.
+ */
+@Component
+public class WebhookClient {
+
+    public static final String SIGNATURE_HEADER = "X-MiniTrello-Signature";
+    public static final String EVENT_COUNT_HEADER = "X-MiniTrello-Event-Count";
+
+    private final RestClient restClient;
+    private final WebhookTargetGuard targetGuard;
+
+    public WebhookClient(RestClient.Builder restClientBuilder, WebhookConfig webhookConfig,
+                         WebhookTargetGuard targetGuard) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(webhookConfig.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(webhookConfig.getReadTimeout());
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+        this.targetGuard = targetGuard;
+    }
+
+    /**
+     * Sends one request carrying the given events.
+     *
+     * @param url the subscriber endpoint
+     * @param secret the subscription secret, or null to send unsigned
+     * @param body the JSON body
+     * @param eventCount the number of events in the body
+     * @throws RestClientException if the request fails, the subscriber does not answer with 2xx or its host no
+     *                             longer resolves to a public address
+     */
+    public void deliver(String url, String secret, String body, int eventCount) {
+        try {
+            targetGuard.check(url);
+        } catch (IllegalArgumentException e) {
+            throw new RestClientException(e.getMessage());
+        }
+        RestClient.RequestBodySpec request = restClient.post()
+                .uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(EVENT_COUNT_HEADER, String.valueOf(eventCount));
+        if (secret != null) {
+            request.header(SIGNATURE_HEADER, "sha256=" + sign(secret, body));
+        }
+        request.body(body).retrieve().toBodilessEntity();
+    }
+
+    static String sign(String secret, String body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.minitrello.webhook;
+
+import com.example.minitrello.config.WebhookConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.model.WebhookSubscription;
+import com.example.minitrello.repository.WebhookOutboxRepository;
+import com.example.minitrello.repository.WebhookSubscriptionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Background dispatcher for the webhook outbox. Each round claims subscriptions with due rows and sends each
+ * subscriber its events, in order, in as few requests as possible. A failed delivery is retried with exponential
+ * backoff until the configured number of attempts is reached, and holds back the later events of the subscriber
+ * until then.
+ * Delivery is at least once; receivers should deduplicate on the delivery id. With sharding, every shard's
+ * outbox is drained in turn; delivery ids are unique across shards.
+ */
+@Component
+@Slf4j
+public class WebhookDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final WebhookOutboxRepository outboxRepository;
+    private final WebhookSubscriptionRepository subscriptionRepository;
+    private final WebhookClient webhookClient;
+    private final WebhookConfig webhookConfig;
+    private final ShardRouting shardRouting;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService deliveryExecutor;
+
+    private final Counter deliveredCounter;
+    private final Counter retriedCounter;
+    private final Counter deadCounter;
+    private final Timer lagTimer;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    private final DistributionSummary requestEventsSummary;
+
+    private volatile LocalDateTime oldestPendingCreatedAt;
+
+    public WebhookDispatcher(WebhookOutboxRepository outboxRepository,
+                             WebhookSubscriptionRepository subscriptionRepository,
+                             WebhookClient webhookClient,
+                             WebhookConfig webhookConfig,
+                             ShardRouting shardRouting,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.webhookClient = webhookClient;
+        this.webhookConfig = webhookConfig;
+        this.shardRouting = shardRouting;
+        this.objectMapper = objectMapper;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.deliveryExecutor = Executors.newFixedThreadPool(webhookConfig.getDeliveryThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "webhook-delivery-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.deliveredCounter = Counter.builder("webhooks.events.delivered")
+                .description("Webhook events delivered to subscribers")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("webhooks.events.retried")
+                .description("Webhook events scheduled for another attempt after a failed delivery")
+                .register(meterRegistry);
+        this.deadCounter = Counter.builder("webhooks.events.dead")
+                .description("Webhook events given up on after the maximum number of attempts")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("webhooks.delivery.lag")
+                .description("Time from commit to successful delivery of a webhook event")
+                .register(meterRegistry);
+        this.successTimer = Timer.builder("webhooks.request")
+                .description("Latency of webhook requests")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.failureTimer = Timer.builder("webhooks.request")
+                .description("Latency of webhook requests")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        this.requestEventsSummary = DistributionSummary.builder("webhooks.request.events")
+                .description("Number of events per webhook request")
+                .register(meterRegistry);
+        TimeGauge.builder("webhooks.outbox.oldest", this, TimeUnit.MILLISECONDS, WebhookDispatcher::getOldestPendingAgeMillis)
+                .description("Age of the oldest webhook event waiting for delivery")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Delivers due outbox rows. Keeps claiming while full batches come back so a backlog drains quickly.
+     */
+    @Scheduled(fixedDelayString = "${app.webhooks.poll-interval-ms:1000}")
+    public void dispatch() {
+        if (!webhookConfig.isDispatcherEnabled()) {
+            return;
+        }
+        LocalDateTime oldestPending = null;
+        for (int shard : shardRouting.shards()) {
+            try {
+                LocalDateTime shardOldest = shardRouting.call(shard, this::drainOutbox);
+                if (shardOldest != null && (oldestPending == null || shardOldest.isBefore(oldestPending))) {
+                    oldestPending = shardOldest;
+                }
+            } catch (DataAccessException e) {
+                log.warn("Webhook dispatch round failed: {}", e.getMessage());
+            }
+        }
+        oldestPendingCreatedAt = oldestPending;
+    }
+
+    /**
+     * Delivers the due rows of the outbox of the current shard. Claims as many subscriptions per round as there
+     * are delivery threads, and keeps going while a round was full.
+     *
+     * @return when the oldest row still waiting was written, or null if none is
+     */
+    private LocalDateTime drainOutbox() {
+        int subscriptionLimit = webhookConfig.getDeliveryThreads();
+        int rowLimit = webhookConfig.getClaimBatchSize();
+        boolean full;
+        do {
+            List<Long> subscriptionIds = outboxRepository.claimSubscriptions(subscriptionLimit, webhookConfig.getLease());
+            full = subscriptionIds.size() >= subscriptionLimit;
+            List<OutboxMessage> claimed = new ArrayList<>();
+            for (long subscriptionId : subscriptionIds) {
+                List<OutboxMessage> messages = outboxRepository.findDeliverable(subscriptionId, rowLimit);
+                full |= messages.size() >= rowLimit;
+                claimed.addAll(messages);
+            }
+            try {
+                if (!claimed.isEmpty()) {
+                    deliver(claimed);
+                }
+            } finally {
+                if (!subscriptionIds.isEmpty()) {
+                    outboxRepository.release(subscriptionIds);
+                }
+            }
+        } while (full);
+
+        return outboxRepository.findOldestPendingCreatedAt().orElse(null);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deliveryExecutor.shutdown();
+    }
+
+    long getOldestPendingAgeMillis() {
+        LocalDateTime oldest = oldestPendingCreatedAt;
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis());
+    }
+
+    void deliver(List<OutboxMessage> claimed) {
+        Map<Long, List<OutboxMessage>> bySubscription = claimed.stream()
+                .sorted(Comparator.comparingLong(OutboxMessage::id))
+                .collect(Collectors.groupingBy(OutboxMessage::subscriptionId, LinkedHashMap::new, Collectors.toList()));
+        Map<Long, WebhookSubscription> subscriptions = subscriptionRepository.findAllById(bySubscription.keySet())
+                .stream()
+                .collect(Collectors.toMap(WebhookSubscription::getId, Function.identity()));
+
+        // Deliveries update the outbox rows on the shard they were claimed from
+        int shard = shardRouting.currentShard();
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>();
+        bySubscription.forEach((subscriptionId, messages) -> {
+            WebhookSubscription subscription = subscriptions.get(subscriptionId);
+            if (subscription == null || !Boolean.TRUE.equals(subscription.getActive())) {
+                // Subscription removed or switched off since the rows were written
+                outboxRepository.delete(messages.stream().map(OutboxMessage::id).toList());
+                return;
+            }
+            // Events of one subscriber are sent sequentially to keep them in order
+            deliveries.add(CompletableFuture.runAsync(
+                    () -> shardRouting.run(shard, () -> deliverInChunks(subscription, messages)), deliveryExecutor));
+        });
+        CompletableFuture.allOf(deliveries.toArray(new CompletableFuture[0])).join();
+    }
+
+    private void deliverInChunks(WebhookSubscription subscription, List<OutboxMessage> messages) {
+        int chunkSize = webhookConfig.getMaxEventsPerRequest();
+        for (int from = 0; from < messages.size(); from += chunkSize) {
+            List<OutboxMessage> chunk = messages.subList(from, Math.min(from + chunkSize, messages.size()));
+            if (!deliverChunk(subscription, chunk)) {
+                // Later events are left as they are; the subscription is not claimed again until the failed
+                // events are due, so they stay behind them
+                return;
+            }
+        }
+    }
+
+    private boolean deliverChunk(WebhookSubscription subscription, List<OutboxMessage> chunk) {
+        long start = System.nanoTime();
+        try {
+            webhookClient.deliver(subscription.getUrl(), subscription.getSecret(), toBody(chunk), chunk.size());
+        } catch (RestClientException | IllegalStateException e) {
+            failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.debug("Webhook delivery to subscription {} failed: {}", subscription.getId(), e.getMessage());
+            reschedule(chunk, e.getMessage());
+            return false;
+        }
+        successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        requestEventsSummary.record(chunk.size());
+
+        outboxRepository.delete(chunk.stream().map(OutboxMessage::id).toList());
+        deliveredCounter.increment(chunk.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxMessage message : chunk) {
+            lagTimer.record(Duration.between(message.createdAt(), now));
+        }
+        return true;
+    }
+
+    /**
+     * Schedules another attempt for messages whose delivery failed.
+     */
+    private void reschedule(List<OutboxMessage> messages, String error) {
+        String lastError = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        for (OutboxMessage message : messages) {
+            int attempts = message.attempts() + 1;
+            boolean dead = attempts >= webhookConfig.getMaxAttempts();
+            outboxRepository.reschedule(message.id(), LocalDateTime.now().plus(backoff(attempts)), dead, lastError);
+            if (dead) {
+                deadCounter.increment();
+                log.warn("Giving up on webhook event {} for subscription {} after {} attempts",
+                        message.id(), message.subscriptionId(), attempts);
+            } else {
+                retriedCounter.increment();
+            }
+        }
+    }
+
+    Duration backoff(int attempts) {
+        Duration initial = webhookConfig.getInitialBackoff();
+        Duration max = webhookConfig.getMaxBackoff();
+        // Cap the exponent so the shift cannot overflow
+        long factor = 1L << Math.min(attempts - 1, 20);
+        Duration delay = initial.multipliedBy(factor);
+        return delay.compareTo(max) > 0 ? max : delay;
+    }
+
+    private String toBody(List<OutboxMessage> chunk) {
+        ObjectNode body = objectMapper.createObjectNode();
+        ArrayNode deliveries = body.putArray("deliveries");
+        for (OutboxMessage message : chunk) {
+            ObjectNode delivery = deliveries.addObject();
+            delivery.put("id", message.id());
+            delivery.put("type", message.eventType());
+            delivery.put("occurredAt", message.createdAt().toString());
+            try {
+                delivery.set("data", objectMapper.readTree(message.payload()));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Corrupt webhook payload in outbox row " + message.id(), e);
+            }
+        }
+        return body.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.minitrello.webhook;
+
+import com.example.minitrello.config.WebhookConfig;
+import org.springframework.stereotype.Component;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps webhooks from reaching the internal network. A webhook URL is refused when its host resolves to a
+ * loopback, private, link-local (which includes the cloud metadata address 169.254.169.254), shared or multicast
+ * address, unless the host is listed in {@code app.webhooks.allowed-hosts}. URLs are checked when a subscription
+ * is created and again before every delivery, so that a host whose DNS record changes in between is caught.
+ */
+@Component
+public class WebhookTargetGuard {
+
+    private final Set<String> allowedHosts;
+
+    public WebhookTargetGuard(WebhookConfig webhookConfig) {
+        this.allowedHosts = webhookConfig.getAllowedHosts().stream()
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Checks that a webhook URL points to a public address.
+     *
+     * @param url the webhook URL
+     * @throws IllegalArgumentException if the URL has no host, the host cannot be resolved or one of its addresses
+     *                                  is not public
+     */
+    public void check(String url) {
+        String host;
+        try {
+            host = URI.create(url).getHost();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Webhook URL is not a valid URL");
+        }
+        if (host == null) {
+            throw new IllegalArgumentException("Webhook URL has no host");
+        }
+        if (host.startsWith("[") && host.endsWith("]")) {
+            host = host.substring(1, host.length() - 1);
+        }
+        if (allowedHosts.contains(host.toLowerCase(Locale.ROOT))) {
+            return;
+        }
+
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(host);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Webhook host " + host + " cannot be resolved");
+        }
+        for (InetAddress address : addresses) {
+            if (!isPublic(address)) {
+                throw new IllegalArgumentException("Webhook host " + host + " resolves to a non-public address");
+            }
+        }
+    }
+
+    static boolean isPublic(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet6Address) {
+            // Unique local addresses, fc00::/7, which include the IPv6 metadata address of some clouds
+            return (bytes[0] & 0xfe) != 0xfc;
+        }
+        // 0.0.0.0/8, and the shared address space 100.64.0.0/10, which some clouds use for metadata as well
+        int first = bytes[0] & 0xff;
+        int second = bytes[1] & 0xff;
+        return first != 0 && !(first == 100 && second >= 64 && second < 128);
+    }
+}
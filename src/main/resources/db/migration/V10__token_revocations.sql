@@ -0,0 +1,17 @@
+-- Revoked JWTs: either a single token (token_id, e.g. on logout) or every token of a user issued before
+-- issued_before (e.g. when an admin disables the user). A row is only needed until expires_at, after which
+-- every token it covers has expired on its own.
+CREATE TABLE token_revocations
+(
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    user_id       BIGINT                                  NOT NULL,
+    token_id      VARCHAR(36),
+    issued_before TIMESTAMP WITHOUT TIME ZONE,
+    expires_at    TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    CONSTRAINT pk_token_revocations PRIMARY KEY (id),
+    CONSTRAINT fk_token_revocations_on_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT ck_token_revocations_scope CHECK ((token_id IS NULL) <> (issued_before IS NULL))
+);
+
+CREATE INDEX idx_token_revocations_user_id ON token_revocations (user_id);
+CREATE INDEX idx_token_revocations_expires_at ON token_revocations (expires_at);
@@ -0,0 +1,11 @@
+-- Soft delete: a deleted project or user is only marked here and hidden from every read; the rows below it
+-- (task lists, tasks, memberships) are purged in batches in the background once the restore window is over.
+ALTER TABLE projects ADD COLUMN deleted_at TIMESTAMP WITHOUT TIME ZONE;
+ALTER TABLE users ADD COLUMN deleted_at TIMESTAMP WITHOUT TIME ZONE;
+
+-- Purge and restore paths: only the few deleted rows are indexed
+CREATE INDEX idx_projects_deleted_at ON projects (deleted_at) WHERE deleted_at IS NOT NULL;
+CREATE INDEX idx_users_deleted_at ON users (deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- Listing the projects of an owner, live ones only
+CREATE INDEX idx_projects_owner_live ON projects (owner_id, id) WHERE deleted_at IS NULL;
@@ -0,0 +1,36 @@
+-- Background jobs: long-running operations (purges, exports) run in chunks on a bounded worker pool. Each chunk
+-- commits together with the job's checkpoint, so a job interrupted by a restart resumes after its last chunk.
+CREATE TABLE jobs
+(
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    type             VARCHAR(40)                             NOT NULL,
+    state            VARCHAR(20)                             NOT NULL,
+    -- The user the job runs for, who may follow and cancel it; NULL for system jobs. No foreign key: a job
+    -- outlives the user it runs for, and the purge of a user runs as a job itself
+    user_id          BIGINT,
+    -- The row the job works on, e.g. the project being exported
+    subject_id       BIGINT,
+    priority         INTEGER                                 NOT NULL,
+    checkpoint       TEXT,
+    progress_done    BIGINT                                  NOT NULL DEFAULT 0,
+    progress_total   BIGINT,
+    result           VARCHAR(500),
+    error            VARCHAR(500),
+    attempts         INTEGER                                 NOT NULL DEFAULT 0,
+    cancel_requested BOOLEAN                                 NOT NULL DEFAULT FALSE,
+    run_after        TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    created_at       TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    started_at       TIMESTAMP WITHOUT TIME ZONE,
+    finished_at      TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_jobs PRIMARY KEY (id)
+);
+
+-- Dispatch path: only the waiting jobs are indexed
+CREATE INDEX idx_jobs_queued ON jobs (run_after) WHERE state = 'QUEUED';
+-- Listing the jobs of a user, newest first
+CREATE INDEX idx_jobs_user_id ON jobs (user_id, id);
+-- Retention: only finished jobs are indexed
+CREATE INDEX idx_jobs_finished_at ON jobs (finished_at) WHERE finished_at IS NOT NULL;
+-- At most one waiting or running job of a type per subject and user, e.g. one purge per deleted project
+CREATE UNIQUE INDEX uq_jobs_active_subject ON jobs (type, subject_id, COALESCE(user_id, 0))
+    WHERE state IN ('QUEUED', 'RUNNING') AND subject_id IS NOT NULL;
@@ -0,0 +1,6 @@
+-- Projects marked as templates are the starting point for new projects, which copy them with their task lists,
+-- tasks and members.
+ALTER TABLE projects ADD COLUMN is_template BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Listing the templates: only the few template rows are indexed
+CREATE INDEX idx_projects_templates ON projects (id) WHERE is_template AND deleted_at IS NULL;
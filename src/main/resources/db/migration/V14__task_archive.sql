@@ -0,0 +1,42 @@
+-- Archived tasks and task lists move out of the live tables into these, so that the live tables and their
+-- indexes only hold the cards in use. The columns are those of the live tables, plus when the row was archived;
+-- archived tasks also keep their project, as their list may be archived as well. There are no foreign keys:
+-- a row is checked against the live tables when it is restored.
+CREATE TABLE archived_task_lists
+(
+    id                 BIGINT                      NOT NULL,
+    name               VARCHAR(100),
+    position           INTEGER                     NOT NULL,
+    project_id         BIGINT                      NOT NULL,
+    created_at         TIMESTAMP WITHOUT TIME ZONE,
+    updated_at         TIMESTAMP WITHOUT TIME ZONE,
+    archive_after_days INTEGER,
+    archived_at        TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_archived_task_lists PRIMARY KEY (id)
+);
+
+CREATE TABLE archived_tasks
+(
+    id               BIGINT                      NOT NULL,
+    title            VARCHAR(200),
+    description      VARCHAR(1000),
+    position         INTEGER                     NOT NULL,
+    task_list_id     BIGINT                      NOT NULL,
+    assigned_user_id BIGINT,
+    created_at       TIMESTAMP WITHOUT TIME ZONE,
+    updated_at       TIMESTAMP WITHOUT TIME ZONE,
+    project_id       BIGINT                      NOT NULL,
+    archived_at      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_archived_tasks PRIMARY KEY (id)
+);
+
+-- Browsing the archive of a project, most recently archived first, and purging it with the project
+CREATE INDEX idx_archived_task_lists_project ON archived_task_lists (project_id, archived_at DESC, id DESC);
+CREATE INDEX idx_archived_tasks_project ON archived_tasks (project_id, archived_at DESC, id DESC);
+
+-- Restoring a list brings back the tasks archived with it
+CREATE INDEX idx_archived_tasks_task_list_id ON archived_tasks (task_list_id);
+
+-- Automatic archiving: tasks of the list not updated for this many days are archived
+ALTER TABLE task_lists ADD COLUMN archive_after_days INTEGER;
+CREATE INDEX idx_task_lists_archive_policy ON task_lists (id) WHERE archive_after_days IS NOT NULL;
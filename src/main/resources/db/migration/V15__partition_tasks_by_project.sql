@@ -0,0 +1,142 @@
+-- Hash partitions task_lists and tasks by project, so that the rows of one board share a partition of 1/16th
+-- of the table, with its own smaller indexes, vacuumed on its own. Tasks carry their project for this, kept
+-- in step with their list by a foreign key over both columns.
+--
+-- The rows are copied into partitioned tables, which then take the place of the old ones. Run on its own this
+-- copies everything while holding an exclusive lock on both tables. scripts/partition-tasks-online.sh creates
+-- the same tables ahead of time, from the sections marked below, and fills them while the application keeps
+-- running; this migration then only swaps the tables. See docs/partitioning.md.
+
+LOCK TABLE task_lists, tasks IN ACCESS EXCLUSIVE MODE;
+
+DO $$
+BEGIN
+    IF to_regclass('tasks_partitioned') IS NOT NULL AND to_regclass('tasks_partition_backfill') IS NULL THEN
+        RAISE EXCEPTION 'The online backfill of tasks_partitioned has not completed, '
+                        'run scripts/partition-tasks-online.sh to finish it';
+    END IF;
+END $$;
+
+-- Partitioned tables: begin
+-- Keys must include the partition key. Ids stay unique as they all come from one sequence, and are only
+-- generated by it once the tables have been swapped.
+CREATE TABLE IF NOT EXISTS task_lists_partitioned
+(
+    id                 BIGINT  NOT NULL,
+    name               VARCHAR(100),
+    position           INTEGER NOT NULL,
+    project_id         BIGINT  NOT NULL,
+    created_at         TIMESTAMP WITHOUT TIME ZONE,
+    updated_at         TIMESTAMP WITHOUT TIME ZONE,
+    archive_after_days INTEGER,
+    CONSTRAINT pk_task_lists_partitioned PRIMARY KEY (id, project_id)
+) PARTITION BY HASH (project_id);
+
+CREATE TABLE IF NOT EXISTS tasks_partitioned
+(
+    id               BIGINT  NOT NULL,
+    title            VARCHAR(200),
+    description      VARCHAR(1000),
+    position         INTEGER NOT NULL,
+    task_list_id     BIGINT  NOT NULL,
+    project_id       BIGINT  NOT NULL,
+    assigned_user_id BIGINT,
+    created_at       TIMESTAMP WITHOUT TIME ZONE,
+    updated_at       TIMESTAMP WITHOUT TIME ZONE,
+    search_vector    tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED,
+    CONSTRAINT pk_tasks_partitioned PRIMARY KEY (id, project_id)
+) PARTITION BY HASH (project_id);
+
+DO $$
+BEGIN
+    FOR i IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS task_lists_p%s PARTITION OF task_lists_partitioned '
+                       'FOR VALUES WITH (MODULUS 16, REMAINDER %s)', i, i);
+        EXECUTE format('CREATE TABLE IF NOT EXISTS tasks_p%s PARTITION OF tasks_partitioned '
+                       'FOR VALUES WITH (MODULUS 16, REMAINDER %s)', i, i);
+    END LOOP;
+END $$;
+-- Partitioned tables: end
+
+-- Copied board by board, so each board starts out on as few pages as possible. After an online backfill,
+-- which leaves tasks_partition_backfill behind once complete, the rows are all there already.
+INSERT INTO task_lists_partitioned (id, name, position, project_id, created_at, updated_at, archive_after_days)
+SELECT id, name, position, project_id, created_at, updated_at, archive_after_days
+FROM task_lists
+WHERE to_regclass('tasks_partition_backfill') IS NULL
+ORDER BY project_id, position, id;
+
+INSERT INTO tasks_partitioned (id, title, description, position, task_list_id, project_id, assigned_user_id,
+                               created_at, updated_at)
+SELECT t.id, t.title, t.description, t.position, t.task_list_id, l.project_id, t.assigned_user_id, t.created_at,
+       t.updated_at
+FROM tasks t
+JOIN task_lists l ON l.id = t.task_list_id
+WHERE to_regclass('tasks_partition_backfill') IS NULL
+ORDER BY l.project_id, t.task_list_id, t.position, t.id;
+
+-- Partitioned indexes: begin
+-- The indexes of V5, V6 and V14, now one per partition, and the keys of the old tables
+CREATE INDEX IF NOT EXISTS idx_task_lists_partitioned_project_id ON task_lists_partitioned (project_id);
+CREATE INDEX IF NOT EXISTS idx_task_lists_partitioned_archive_policy
+    ON task_lists_partitioned (id) WHERE archive_after_days IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_partitioned_search_vector ON tasks_partitioned USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_tasks_partitioned_task_list_id ON tasks_partitioned (task_list_id);
+CREATE INDEX IF NOT EXISTS idx_tasks_partitioned_assignee_updated
+    ON tasks_partitioned (assigned_user_id, updated_at DESC, id DESC)
+    INCLUDE (task_list_id, title, position);
+
+-- A task is always in a list of its own project
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'tasks_partitioned'::regclass
+                   AND conname = 'fk_tasks_on_task_list') THEN
+        ALTER TABLE task_lists_partitioned
+            ADD CONSTRAINT fk_task_lists_on_project FOREIGN KEY (project_id) REFERENCES projects (id);
+        ALTER TABLE tasks_partitioned
+            ADD CONSTRAINT fk_tasks_on_assigned_user FOREIGN KEY (assigned_user_id) REFERENCES users (id);
+        ALTER TABLE tasks_partitioned
+            ADD CONSTRAINT fk_tasks_on_task_list FOREIGN KEY (task_list_id, project_id)
+                REFERENCES task_lists_partitioned (id, project_id);
+    END IF;
+END $$;
+-- Partitioned indexes: end
+
+-- New sequences continue where the identity sequences of the old tables left off
+ALTER SEQUENCE task_lists_id_seq RENAME TO task_lists_unpartitioned_id_seq;
+ALTER SEQUENCE tasks_id_seq RENAME TO tasks_unpartitioned_id_seq;
+CREATE SEQUENCE task_lists_id_seq;
+CREATE SEQUENCE tasks_id_seq;
+SELECT setval('task_lists_id_seq', GREATEST((SELECT last_value FROM task_lists_unpartitioned_id_seq),
+                                            (SELECT COALESCE(max(id), 1) FROM task_lists_partitioned)));
+SELECT setval('tasks_id_seq', GREATEST((SELECT last_value FROM tasks_unpartitioned_id_seq),
+                                       (SELECT COALESCE(max(id), 1) FROM tasks_partitioned)));
+
+-- Dropping the old tables also drops the triggers of an online backfill
+DROP TABLE tasks;
+DROP TABLE task_lists;
+DROP FUNCTION IF EXISTS mirror_task_lists_to_partitioned();
+DROP FUNCTION IF EXISTS mirror_tasks_to_partitioned();
+DROP TABLE IF EXISTS tasks_partition_backfill;
+
+ALTER TABLE task_lists_partitioned RENAME TO task_lists;
+ALTER TABLE task_lists RENAME CONSTRAINT pk_task_lists_partitioned TO pk_task_lists;
+ALTER INDEX idx_task_lists_partitioned_project_id RENAME TO idx_task_lists_project_id;
+ALTER INDEX idx_task_lists_partitioned_archive_policy RENAME TO idx_task_lists_archive_policy;
+ALTER SEQUENCE task_lists_id_seq OWNED BY task_lists.id;
+ALTER TABLE task_lists ALTER COLUMN id SET DEFAULT nextval('task_lists_id_seq');
+
+ALTER TABLE tasks_partitioned RENAME TO tasks;
+ALTER TABLE tasks RENAME CONSTRAINT pk_tasks_partitioned TO pk_tasks;
+ALTER INDEX idx_tasks_partitioned_search_vector RENAME TO idx_tasks_search_vector;
+ALTER INDEX idx_tasks_partitioned_task_list_id RENAME TO idx_tasks_task_list_id;
+ALTER INDEX idx_tasks_partitioned_assignee_updated RENAME TO idx_tasks_assignee_updated;
+ALTER SEQUENCE tasks_id_seq OWNED BY tasks.id;
+ALTER TABLE tasks ALTER COLUMN id SET DEFAULT nextval('tasks_id_seq');
+
+ANALYZE task_lists;
+ANALYZE tasks;
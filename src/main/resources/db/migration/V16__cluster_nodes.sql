@@ -0,0 +1,11 @@
+-- Instances serving the application, for routing project requests to the instance that owns the project.
+-- Each instance refreshes its row every few seconds; rows whose heartbeat is older than the node timeout are
+-- ignored, and deleted after a day. Heartbeats are taken from the database clock, with their time zone, so
+-- instances with different clocks or zones agree on who is alive.
+CREATE TABLE cluster_nodes
+(
+    node_id      VARCHAR(255)                NOT NULL,
+    url          VARCHAR(255)                NOT NULL,
+    heartbeat_at TIMESTAMP WITH TIME ZONE    NOT NULL,
+    CONSTRAINT pk_cluster_nodes PRIMARY KEY (node_id)
+);
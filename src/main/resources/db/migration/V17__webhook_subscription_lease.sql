@@ -0,0 +1,9 @@
+-- Dispatchers lease a whole subscription rather than single outbox rows, so the events of one subscriber are
+-- sent by one dispatcher at a time, in order. A subscription is only claimed while the oldest live row of its
+-- outbox is due; a failed row therefore holds back every later row of the subscription until its retry.
+ALTER TABLE webhook_subscriptions ADD COLUMN dispatch_locked_until TIMESTAMP WITHOUT TIME ZONE;
+
+ALTER TABLE webhook_outbox DROP COLUMN locked_until;
+
+-- Head of each subscription's outbox
+CREATE INDEX idx_webhook_outbox_subscription_pending ON webhook_outbox (subscription_id, id) WHERE dead_at IS NULL;
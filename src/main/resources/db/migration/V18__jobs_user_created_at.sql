@@ -0,0 +1,3 @@
+-- A user's jobs are listed by creation time, which is also how the lists of several shards are merged
+DROP INDEX IF EXISTS idx_jobs_user_id;
+CREATE INDEX idx_jobs_user_id ON jobs (user_id, created_at, id);
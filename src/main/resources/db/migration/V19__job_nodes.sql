@@ -0,0 +1,11 @@
+-- The instance a job runs on. A job stays with that instance, which keeps the files it writes, and the instance
+-- renews lease_until while it is alive; a job whose lease has expired is released to the other instances. Kept
+-- after the job finishes, so that its result can be fetched from the instance that holds it.
+ALTER TABLE jobs ADD COLUMN node_id VARCHAR(255);
+ALTER TABLE jobs ADD COLUMN lease_until TIMESTAMP WITHOUT TIME ZONE;
+
+-- Releasing the jobs of instances that are gone
+CREATE INDEX idx_jobs_lease_until ON jobs (lease_until) WHERE state IN ('QUEUED', 'RUNNING') AND node_id IS NOT NULL;
+
+-- Jobs left running before instances were recorded belong to no one; queue them for any instance
+UPDATE jobs SET state = 'QUEUED' WHERE state = 'RUNNING';
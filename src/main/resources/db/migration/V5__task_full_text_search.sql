@@ -0,0 +1,15 @@
+-- Full-text search over task titles and descriptions.
+-- Titles are weighted above descriptions so that title hits rank first.
+ALTER TABLE tasks
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX idx_tasks_search_vector ON tasks USING GIN (search_vector);
+
+-- Foreign key columns used when the access filter is driven from the caller's projects
+CREATE INDEX idx_task_lists_project_id ON task_lists (project_id);
+CREATE INDEX idx_tasks_task_list_id ON tasks (task_list_id);
+CREATE INDEX idx_projects_owner_id ON projects (owner_id);
+CREATE INDEX idx_project_members_user_id ON project_members (user_id);
@@ -0,0 +1,5 @@
+-- Covering index for the "my tasks" listing: seek by assignee in updated_at order,
+-- with the columns needed for the join and the listing carried in the index.
+CREATE INDEX idx_tasks_assignee_updated
+    ON tasks (assigned_user_id, updated_at DESC, id DESC)
+    INCLUDE (task_list_id, title, position);
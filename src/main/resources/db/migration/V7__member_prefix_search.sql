@@ -0,0 +1,3 @@
+-- Prefix search on member names and emails (LOWER(col) LIKE 'abc%') for the assignee picker
+CREATE INDEX idx_users_name_prefix ON users (LOWER(name) text_pattern_ops);
+CREATE INDEX idx_users_email_prefix ON users (LOWER(email) text_pattern_ops);
@@ -0,0 +1,39 @@
+-- Activity feed, written asynchronously in batches by the application.
+-- Range partitioned by month so retention can drop whole partitions instead of deleting rows.
+-- Monthly partitions are created ahead of time by the application; the default partition only
+-- catches rows that fall outside the pre-created range.
+CREATE SEQUENCE activity_log_id_seq;
+
+CREATE TABLE activity_log
+(
+    id          BIGINT       NOT NULL DEFAULT nextval('activity_log_id_seq'),
+    project_id  BIGINT,
+    actor_id    BIGINT,
+    action      VARCHAR(40)  NOT NULL,
+    entity_type VARCHAR(20)  NOT NULL,
+    entity_id   BIGINT,
+    details     VARCHAR(500),
+    created_at  TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_activity_log PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE activity_log_id_seq OWNED BY activity_log.id;
+
+CREATE TABLE activity_log_default PARTITION OF activity_log DEFAULT;
+
+CREATE INDEX idx_activity_log_project_created ON activity_log (project_id, created_at DESC, id DESC);
+
+-- Partitions for the current and next two months; later months are added by the application
+DO
+$$
+DECLARE
+    month_start DATE := date_trunc('month', now())::date;
+BEGIN
+    FOR i IN 0..2 LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS activity_log_p%s PARTITION OF activity_log FOR VALUES FROM (%L) TO (%L)',
+                       to_char(month_start + make_interval(months => i), 'YYYYMM'),
+                       month_start + make_interval(months => i),
+                       month_start + make_interval(months => i + 1));
+    END LOOP;
+END
+$$;
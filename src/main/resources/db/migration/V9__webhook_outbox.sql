@@ -0,0 +1,35 @@
+CREATE TABLE webhook_subscriptions
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    project_id BIGINT                                  NOT NULL,
+    url        VARCHAR(500)                            NOT NULL,
+    secret     VARCHAR(200),
+    active     BOOLEAN                                 NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP WITHOUT TIME ZONE,
+    updated_at TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_webhook_subscriptions PRIMARY KEY (id),
+    CONSTRAINT fk_webhook_subscriptions_on_project FOREIGN KEY (project_id) REFERENCES projects (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_webhook_subscriptions_project_id ON webhook_subscriptions (project_id);
+
+-- Transactional outbox: one row per event and subscription, written in the same transaction as the change
+CREATE TABLE webhook_outbox
+(
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    subscription_id BIGINT                                  NOT NULL,
+    event_type      VARCHAR(40)                             NOT NULL,
+    payload         TEXT                                    NOT NULL,
+    attempts        INTEGER                                 NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    locked_until    TIMESTAMP WITHOUT TIME ZONE,
+    dead_at         TIMESTAMP WITHOUT TIME ZONE,
+    last_error      VARCHAR(500),
+    created_at      TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    CONSTRAINT pk_webhook_outbox PRIMARY KEY (id),
+    CONSTRAINT fk_webhook_outbox_on_subscription FOREIGN KEY (subscription_id) REFERENCES webhook_subscriptions (id) ON DELETE CASCADE
+);
+
+-- Dispatcher claim path: only live rows, oldest first
+CREATE INDEX idx_webhook_outbox_pending ON webhook_outbox (next_attempt_at, id) WHERE dead_at IS NULL;
+CREATE INDEX idx_webhook_outbox_subscription_id ON webhook_outbox (subscription_id);
@@ -0,0 +1,35 @@
+-- Gives every shard its own range of ids when projects are sharded: the sequences of shard k hand out ids from
+-- k << 40 on, so the shard of any row follows from its id (see docs/sharding.md). Runs after every migration,
+-- with shard_index set for each shard by the application; -1 when not sharded, which leaves the sequences
+-- alone. Ids from before sharding are below 1 << 40 and belong to shard 0.
+
+DO $$
+DECLARE
+    shard BIGINT := ${shard_index};
+    low   BIGINT;
+    high  BIGINT;
+    seq   RECORD;
+BEGIN
+    IF shard < 0 THEN
+        RETURN;
+    END IF;
+    low := GREATEST(shard << 40, 1);
+    high := ((shard + 1) << 40) - 1;
+
+    IF EXISTS (SELECT 1 FROM projects WHERE id NOT BETWEEN low AND high) THEN
+        RAISE EXCEPTION 'Shard % holds projects outside its id range; it was used unsharded or as another shard',
+            shard;
+    END IF;
+
+    FOR seq IN SELECT format('%I.%I', schemaname, sequencename) AS name, last_value, min_value, max_value
+               FROM pg_sequences
+               WHERE schemaname = current_schema()
+    LOOP
+        CONTINUE WHEN seq.min_value = low AND seq.max_value = high;
+        IF COALESCE(seq.last_value, 0) < low THEN
+            EXECUTE format('ALTER SEQUENCE %s MINVALUE %s MAXVALUE %s START WITH %s RESTART', seq.name, low, high, low);
+        ELSE
+            EXECUTE format('ALTER SEQUENCE %s MINVALUE %s MAXVALUE %s', seq.name, low, high);
+        END IF;
+    END LOOP;
+END $$;
@@ -0,0 +1,74 @@
+package com.example.minitrello.activity;
+
+import com.example.minitrello.config.ActivityConfig;
+import com.example.minitrello.config.ShardConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.repository.ActivityLogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityPartitionManagerTest {
+
+    @Mock
+    private ActivityLogRepository activityLogRepository;
+
+    private ActivityPartitionManager activityPartitionManager;
+
+    @BeforeEach
+    void setUp() {
+        ActivityConfig config = new ActivityConfig();
+        config.setPartitionsAhead(2);
+        config.setRetentionMonths(3);
+        activityPartitionManager = new ActivityPartitionManager(activityLogRepository,
+                config, new ShardRouting(null, new ShardConfig()));
+    }
+
+    @Test
+    void maintainPartitions_CreateFails_StillCreatesOthersAndDropsExpired() {
+        // Arrange
+        YearMonth current = YearMonth.now();
+        YearMonth expired = current.minusMonths(3);
+        when(activityLogRepository.createMonthlyPartition(current))
+                .thenThrow(new DataIntegrityViolationException("updated partition constraint would be violated"));
+        when(activityLogRepository.findPartitionMonths()).thenReturn(List.of(expired, current.minusMonths(2)));
+
+        // Act
+        activityPartitionManager.maintainPartitions();
+
+        // Assert
+        verify(activityLogRepository).createMonthlyPartition(current.plusMonths(1));
+        verify(activityLogRepository).createMonthlyPartition(current.plusMonths(2));
+        verify(activityLogRepository).dropMonthlyPartition(expired);
+        verify(activityLogRepository, never()).dropMonthlyPartition(current.minusMonths(2));
+        verify(activityLogRepository).deleteFromDefaultPartitionBefore(current.minusMonths(2).atDay(1).atStartOfDay());
+    }
+
+    @Test
+    void maintainPartitions_DropFails_StillCleansDefaultPartition() {
+        // Arrange
+        YearMonth current = YearMonth.now();
+        when(activityLogRepository.findPartitionMonths())
+                .thenReturn(List.of(current.minusMonths(5), current.minusMonths(4)));
+        doThrow(new DataIntegrityViolationException("lock timeout"))
+                .when(activityLogRepository).dropMonthlyPartition(current.minusMonths(5));
+
+        // Act
+        activityPartitionManager.maintainPartitions();
+
+        // Assert
+        verify(activityLogRepository).dropMonthlyPartition(current.minusMonths(4));
+        verify(activityLogRepository).deleteFromDefaultPartitionBefore(any(LocalDateTime.class));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.minitrello.activity;
+
+import com.example.minitrello.config.ActivityConfig;
+import com.example.minitrello.config.ShardConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.repository.ActivityLogRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityWriterTest {
+
+    @Mock
+    private ActivityLogRepository activityLogRepository;
+
+    private MeterRegistry meterRegistry;
+    private ActivityWriter activityWriter;
+
+    @BeforeEach
+    void setUp() {
+        ActivityConfig config = new ActivityConfig();
+        config.setQueueCapacity(3);
+        config.setBatchSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        activityWriter = new ActivityWriter(activityLogRepository, new ShardRouting(null, new ShardConfig()), config,
+                meterRegistry);
+    }
+
+    @Test
+    void submit_QueueFull_DropsAndCountsOverflow() {
+        // Act
+        for (int i = 0; i < 5; i++) {
+            activityWriter.submit(entry(i));
+        }
+
+        // Assert
+        assertEquals(3.0, meterRegistry.get("activity.queue.size").gauge().value());
+        assertEquals(2.0, meterRegistry.get("activity.dropped").tag("reason", "overflow").counter().count());
+        verifyNoInteractions(activityLogRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_WritesQueuedEntriesInBatches() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            activityWriter.submit(entry(i));
+        }
+        ArgumentCaptor<List<ActivityEntry>> batches = ArgumentCaptor.forClass(List.class);
+
+        // Act
+        activityWriter.flush();
+
+        // Assert
+        verify(activityLogRepository, times(2)).insertBatch(batches.capture());
+        assertEquals(3.0, meterRegistry.get("activity.written").counter().count());
+        assertEquals(0.0, meterRegistry.get("activity.queue.size").gauge().value());
+    }
+
+    @Test
+    void flush_RepeatedWriteFailures_CountsDroppedEntries() {
+        // Arrange
+        activityWriter.submit(entry(1));
+        doThrow(new DataAccessResourceFailureException("down")).when(activityLogRepository).insertBatch(anyList());
+
+        // Act
+        activityWriter.flush();
+
+        // Assert
+        verify(activityLogRepository, times(3)).insertBatch(anyList());
+        assertEquals(1.0, meterRegistry.get("activity.dropped").tag("reason", "write_failure").counter().count());
+    }
+
+    private static ActivityEntry entry(long id) {
+        return new ActivityEntry(1L, 1L, ActivityAction.TASK_CREATED, id, "Task " + id, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.minitrello.archive;
+
+import com.example.minitrello.config.ArchiveConfig;
+import com.example.minitrello.event.TasksArchivedEvent;
+import com.example.minitrello.job.Job;
+import com.example.minitrello.job.JobState;
+import com.example.minitrello.job.JobStep;
+import com.example.minitrello.job.JobType;
+import com.example.minitrello.metrics.ReorderMetrics;
+import com.example.minitrello.repository.ArchiveRepository;
+import com.example.minitrello.repository.ArchiveRepository.ArchivePolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskArchiveJobHandlerTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-10T12:00:00Z");
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2025, 2, 8, 12, 0);
+
+    @Mock
+    private ArchiveRepository archiveRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ReorderMetrics reorderMetrics;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TaskArchiveJobHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        ArchiveConfig config = new ArchiveConfig();
+        config.setBatchSize(2);
+        handler = new TaskArchiveJobHandler(archiveRepository, config, eventPublisher, reorderMetrics, meterRegistry,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void runChunk_FirstChunk_FixesCutoffAndCountsDueTasks() {
+        // Arrange
+        when(archiveRepository.findArchivePolicy(1L)).thenReturn(Optional.of(new ArchivePolicy(1L, 7L, 30)));
+        when(archiveRepository.countTasksUpdatedBefore(7L, 1L, CUTOFF)).thenReturn(3L);
+
+        // Act
+        JobStep step = handler.runChunk(job(null, 0));
+
+        // Assert
+        assertEquals(CUTOFF.toString(), step.checkpoint());
+        assertEquals(3L, step.total());
+        verify(archiveRepository, never()).archiveTasksUpdatedBefore(anyLong(), anyLong(), any(), anyInt(), any());
+    }
+
+    @Test
+    void runChunk_FullBatch_ArchivesAndContinuesWithSameCutoff() {
+        // Arrange
+        when(archiveRepository.findArchivePolicy(1L)).thenReturn(Optional.of(new ArchivePolicy(1L, 7L, 30)));
+        when(archiveRepository.archiveTasksUpdatedBefore(eq(7L), eq(1L), eq(CUTOFF), eq(2), any())).thenReturn(2);
+
+        // Act
+        JobStep step = handler.runChunk(job(CUTOFF.toString(), 0));
+
+        // Assert
+        assertFalse(step.finished());
+        assertEquals(CUTOFF.toString(), step.checkpoint());
+        assertEquals(2, step.done());
+        ArgumentCaptor<TasksArchivedEvent> event = ArgumentCaptor.forClass(TasksArchivedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(2, event.getValue().getCount());
+        assertEquals(7L, event.getValue().getProjectId());
+        verify(archiveRepository, never()).normalizeTaskPositions(anyLong());
+    }
+
+    @Test
+    void runChunk_ShortBatch_NormalizesPositionsAndFinishes() {
+        // Arrange
+        when(archiveRepository.findArchivePolicy(1L)).thenReturn(Optional.of(new ArchivePolicy(1L, 7L, 30)));
+        when(archiveRepository.archiveTasksUpdatedBefore(eq(7L), eq(1L), eq(CUTOFF), eq(2), any())).thenReturn(1);
+        when(archiveRepository.normalizeTaskPositions(1L)).thenReturn(4);
+
+        // Act
+        JobStep step = handler.runChunk(job(CUTOFF.toString(), 2));
+
+        // Assert
+        assertTrue(step.finished());
+        assertEquals(3, step.done());
+        verify(reorderMetrics).record(ReorderMetrics.TASK, ReorderMetrics.NORMALIZE, 4);
+        assertEquals(1.0, meterRegistry.get("archive.policy.tasks").counter().count());
+    }
+
+    @Test
+    void runChunk_PolicyTurnedOff_FinishesWithoutArchiving() {
+        // Arrange
+        when(archiveRepository.findArchivePolicy(1L)).thenReturn(Optional.empty());
+
+        // Act
+        JobStep step = handler.runChunk(job(CUTOFF.toString(), 0));
+
+        // Assert
+        assertTrue(step.finished());
+        verify(archiveRepository, never()).archiveTasksUpdatedBefore(anyLong(), anyLong(), any(), anyInt(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private static Job job(String checkpoint, long done) {
+        LocalDateTime now = LocalDateTime.of(2025, 3, 10, 12, 0);
+        return new Job(10L, JobType.TASK_ARCHIVE, JobState.RUNNING, null, 1L, 0, checkpoint, done, 3L, null, null,
+                0, false, now, now, now, null, null);
+    }
+}
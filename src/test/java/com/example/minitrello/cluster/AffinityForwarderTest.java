@@ -0,0 +1,99 @@
+package com.example.minitrello.cluster;
+
+import com.example.minitrello.config.AffinityConfig;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AffinityForwarderTest {
+
+    private static final byte[] RESULT = "{\"type\":\"project\",\"id\":1}\n".repeat(1000)
+            .getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private final AtomicReference<String> receivedForwardedBy = new AtomicReference<>();
+    private final AtomicReference<String> receivedAuthorization = new AtomicReference<>();
+
+    private AffinityForwarder affinityForwarder;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Local stub standing in for the instance that ran the job
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/jobs/5/result", exchange -> {
+            receivedForwardedBy.set(exchange.getRequestHeaders().getFirst(AffinityForwarder.FORWARDED_BY_HEADER));
+            receivedAuthorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+            exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+            exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"export.ndjson\"");
+            exchange.sendResponseHeaders(200, RESULT.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(RESULT);
+            }
+        });
+        server.start();
+        affinityForwarder = new AffinityForwarder(RestClient.builder(), new AffinityConfig());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void stream_JobResult_PassesBodyAndHeadersThrough() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/jobs/5/result");
+        request.addHeader("Authorization", "Bearer token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        affinityForwarder.stream(request, node("runner", url()), node("self", "http://localhost:1"), response);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(RESULT, response.getContentAsByteArray());
+        assertEquals(RESULT.length, response.getContentLengthLong());
+        assertEquals("application/x-ndjson", response.getHeader("Content-Type"));
+        assertEquals("attachment; filename=\"export.ndjson\"", response.getHeader("Content-Disposition"));
+        assertEquals("self", receivedForwardedBy.get());
+        assertEquals("Bearer token", receivedAuthorization.get());
+    }
+
+    @Test
+    void stream_RunnerUnreachable_ThrowsExceptionWithoutWriting() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/jobs/5/result");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String unreachable = url();
+        server.stop(0);
+
+        // Act & Assert
+        ResourceAccessException e = assertThrows(ResourceAccessException.class, () -> affinityForwarder.stream(
+                request, node("runner", unreachable), node("self", "http://localhost:1"), response));
+        assertTrue(AffinityForwarder.neverArrived(e));
+        assertFalse(response.isCommitted());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    private String url() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    private static ClusterNode node(String id, String url) {
+        return new ClusterNode(id, url);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.minitrello.cluster;
+
+import com.example.minitrello.config.AffinityConfig;
+import com.example.minitrello.config.ShardConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.datasource.ShardRoutingDataSource;
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.TaskChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AffinityKeysTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource;
+
+    private AffinityKeys affinityKeys;
+
+    @BeforeEach
+    void setUp() {
+        affinityKeys = new AffinityKeys(jdbcTemplate, new ShardRouting(null, new ShardConfig()),
+                shardRoutingDataSource, new ObjectMapper(), new AffinityConfig());
+    }
+
+    @Test
+    void projectOf_TaskPath_LooksUpTheProjectOnce() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(5L), eq(5L))).thenReturn(List.of(1L));
+
+        // Act
+        Long first = affinityKeys.projectOf("GET", "/api/tasks/5", null);
+        Long second = affinityKeys.projectOf("PUT", "/api/tasks/5/move", null);
+
+        // Assert
+        assertEquals(1L, first);
+        assertEquals(1L, second);
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), eq(5L), eq(5L));
+    }
+
+    @Test
+    void onTaskChanged_MovedToAnotherProject_LooksUpTheNewProject() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(5L), eq(5L)))
+                .thenReturn(List.of(1L), List.of(2L));
+        affinityKeys.projectOf("GET", "/api/tasks/5", null);
+
+        // Act
+        affinityKeys.onTaskChanged(TaskChangedEvent.builder().type(ChangeType.MOVED).taskId(5L).projectId(2L)
+                .previousProjectId(1L).build());
+        Long projectId = affinityKeys.projectOf("GET", "/api/tasks/5", null);
+
+        // Assert
+        assertEquals(2L, projectId);
+    }
+
+    @Test
+    void onTaskChanged_MovedWithinProject_KeepsTheProject() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(5L), eq(5L))).thenReturn(List.of(1L));
+        affinityKeys.projectOf("GET", "/api/tasks/5", null);
+
+        // Act
+        affinityKeys.onTaskChanged(TaskChangedEvent.builder().type(ChangeType.MOVED).taskId(5L).projectId(1L)
+                .build());
+        Long projectId = affinityKeys.projectOf("GET", "/api/tasks/5", null);
+
+        // Assert
+        assertEquals(1L, projectId);
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), eq(5L), eq(5L));
+    }
+}
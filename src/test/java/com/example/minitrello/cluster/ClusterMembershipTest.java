@@ -0,0 +1,116 @@
+package com.example.minitrello.cluster;
+
+import com.example.minitrello.config.AffinityConfig;
+import com.example.minitrello.search.MemberDirectory;
+import com.example.minitrello.search.TypeaheadIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterMembershipTest {
+
+    private static final ClusterNode SELF = new ClusterNode("localhost:8080", "http://localhost:8080");
+    private static final ClusterNode OTHER = new ClusterNode("localhost:8081", "http://localhost:8081");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private MemberDirectory memberDirectory;
+
+    @Mock
+    private TypeaheadIndex typeaheadIndex;
+
+    private ClusterMembership clusterMembership;
+
+    @BeforeEach
+    void setUp() {
+        AffinityConfig config = new AffinityConfig();
+        config.setEnabled(true);
+        clusterMembership = new ClusterMembership(jdbcTemplate, config, memberDirectory, typeaheadIndex,
+                new SimpleMeterRegistry(), 8080);
+    }
+
+    @Test
+    void self_NoAdvertisedUrl_IsNamedAfterLocalhostAndPort() {
+        // Act & Assert
+        assertEquals(SELF, clusterMembership.self());
+    }
+
+    @Test
+    void isLocal_BeforeFirstHeartbeat_ServesEverything() {
+        // Act & Assert
+        assertNull(clusterMembership.ownerOf(42L));
+        assertTrue(clusterMembership.isLocal(42L));
+    }
+
+    @Test
+    void heartbeat_NodeJoins_DropsCachesOfProjectsItTakesOver() {
+        // Arrange
+        liveNodes(List.of(SELF));
+        clusterMembership.heartbeat();
+        liveNodes(List.of(OTHER, SELF));
+
+        // Act
+        clusterMembership.heartbeat();
+
+        // Assert
+        assertEquals(List.of(SELF, OTHER), clusterMembership.nodes());
+        ArgumentCaptor<Predicate<Long>> kept = ArgumentCaptor.captor();
+        verify(memberDirectory, times(2)).retainProjects(kept.capture());
+        verify(typeaheadIndex, times(2)).retainProjects(any());
+        LongStream.range(1, 100).forEach(projectId -> assertEquals(
+                clusterMembership.ownerOf(projectId).equals(SELF), kept.getValue().test(projectId)));
+        assertTrue(LongStream.range(1, 100).anyMatch(projectId -> !clusterMembership.isLocal(projectId)));
+    }
+
+    @Test
+    void heartbeat_SameNodes_KeepsCaches() {
+        // Arrange
+        liveNodes(List.of(SELF, OTHER));
+        clusterMembership.heartbeat();
+
+        // Act
+        clusterMembership.heartbeat();
+
+        // Assert
+        verify(memberDirectory, times(1)).retainProjects(any());
+    }
+
+    @Test
+    void heartbeat_DatabaseDown_KeepsTheView() {
+        // Arrange
+        liveNodes(List.of(SELF, OTHER));
+        clusterMembership.heartbeat();
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        // Act
+        clusterMembership.heartbeat();
+
+        // Assert
+        assertEquals(List.of(SELF, OTHER), clusterMembership.nodes());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void liveNodes(List<ClusterNode> nodes) {
+        when(jdbcTemplate.query(contains("FROM cluster_nodes"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(nodes);
+    }
+}
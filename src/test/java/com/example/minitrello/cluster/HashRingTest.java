@@ -0,0 +1,66 @@
+package com.example.minitrello.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashRingTest {
+
+    private static final ClusterNode A = new ClusterNode("a:8080", "http://a:8080");
+    private static final ClusterNode B = new ClusterNode("b:8080", "http://b:8080");
+    private static final ClusterNode C = new ClusterNode("c:8080", "http://c:8080");
+
+    @Test
+    void ownerOf_EmptyRing_ReturnsNull() {
+        // Act & Assert
+        assertNull(HashRing.empty().ownerOf(1L));
+        assertTrue(HashRing.of(List.of(), 128).isEmpty());
+    }
+
+    @Test
+    void ownerOf_SameNodesInAnyOrder_GivesTheSameOwners() {
+        // Arrange
+        HashRing ring = HashRing.of(List.of(A, B, C), 128);
+        HashRing reordered = HashRing.of(List.of(C, A, B), 128);
+
+        // Act & Assert
+        LongStream.range(1, 1_000).forEach(projectId ->
+                assertEquals(ring.ownerOf(projectId), reordered.ownerOf(projectId)));
+        assertEquals(List.of(A, B, C), reordered.nodes());
+    }
+
+    @Test
+    void ownerOf_SequentialProjects_SpreadsThemOverAllNodes() {
+        // Arrange
+        HashRing ring = HashRing.of(List.of(A, B, C), 128);
+        Map<ClusterNode, Integer> owned = new HashMap<>();
+
+        // Act
+        LongStream.range(1, 30_001).forEach(projectId -> owned.merge(ring.ownerOf(projectId), 1, Integer::sum));
+
+        // Assert
+        for (ClusterNode node : List.of(A, B, C)) {
+            assertTrue(owned.get(node) > 7_500 && owned.get(node) < 12_500, node.id() + " owns " + owned.get(node));
+        }
+    }
+
+    @Test
+    void ownerOf_NodeLeaves_OnlyItsProjectsMove() {
+        // Arrange
+        HashRing before = HashRing.of(List.of(A, B, C), 128);
+        HashRing after = HashRing.of(List.of(A, B), 128);
+
+        // Act & Assert
+        LongStream.range(1, 10_000).forEach(projectId -> {
+            ClusterNode owner = before.ownerOf(projectId);
+            if (!owner.equals(C)) {
+                assertEquals(owner, after.ownerOf(projectId));
+            }
+        });
+    }
+}
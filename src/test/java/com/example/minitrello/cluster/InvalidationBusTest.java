@@ -0,0 +1,128 @@
+package com.example.minitrello.cluster;
+
+import com.example.minitrello.config.InvalidationConfig;
+import com.example.minitrello.config.ShardConfig;
+import com.example.minitrello.search.AccessibleProjects;
+import com.example.minitrello.search.MemberDirectory;
+import com.example.minitrello.search.TypeaheadIndex;
+import com.example.minitrello.security.TokenRevocations;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvalidationBusTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private MemberDirectory memberDirectory;
+
+    @Mock
+    private TypeaheadIndex typeaheadIndex;
+
+    @Mock
+    private TokenRevocations tokenRevocations;
+
+    @Mock
+    private AffinityKeys affinityKeys;
+
+    @Mock
+    private AccessibleProjects accessibleProjects;
+
+    private InvalidationBus invalidationBus;
+
+    @BeforeEach
+    void setUp() {
+        InvalidationConfig config = new InvalidationConfig();
+        config.setEnabled(true);
+        invalidationBus = new InvalidationBus(jdbcTemplate, new DataSourceProperties(), config, new ShardConfig(),
+                memberDirectory, typeaheadIndex, tokenRevocations, affinityKeys, accessibleProjects,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void publish_InTransaction_SendsOneNotificationOnCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            invalidationBus.publish(new InvalidationKey(CacheRegion.PROJECT_TITLES, 1L));
+            invalidationBus.publish(new InvalidationKey(CacheRegion.PROJECT_TITLES, 1L));
+            invalidationBus.publish(new InvalidationKey(CacheRegion.PROJECT_MEMBERS, 1L));
+            verifyNoInteractions(jdbcTemplate);
+
+            // Act
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.beforeCommit(false);
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        verify(jdbcTemplate).query(eq("SELECT pg_notify(?, ?)"), any(RowCallbackHandler.class),
+                eq("cache_invalidation"), eq(invalidationBus.getNodeId() + " t1 m1"));
+        assertNull(TransactionSynchronizationManager.getResource(invalidationBus));
+    }
+
+    @Test
+    void handle_OtherNode_EvictsEachEntryOnce_AndIgnoresOwnMessages() {
+        // Act
+        invalidationBus.handle(List.of(
+                "node2 m1 t1",
+                "node3 t1 u7 r7 p42",
+                invalidationBus.getNodeId() + " m2"));
+
+        // Assert
+        verify(memberDirectory).evict(1L);
+        verify(typeaheadIndex).evict(1L);
+        verify(memberDirectory).evictUser(7L);
+        verify(tokenRevocations).reload(7L);
+        verify(affinityKeys).evictTask(42L);
+        verify(memberDirectory, never()).evict(2L);
+    }
+
+    @Test
+    void handle_AccessChanges_EvictsAccessibleProjects() {
+        // Act
+        invalidationBus.handle(List.of("node2 a7", "node3 o5"));
+
+        // Assert
+        verify(accessibleProjects).evictUser(7L);
+        verify(accessibleProjects).evictAll();
+    }
+
+    @Test
+    void toPayloads_ManyKeys_SplitsBelowNotifyLimit() {
+        // Arrange
+        List<String> keys = List.of("m1");
+        List<String> manyKeys = LongStream.range(0, 2000).mapToObj(id -> "t" + id).toList();
+
+        // Act
+        List<String> single = invalidationBus.toPayloads(keys);
+        List<String> split = invalidationBus.toPayloads(manyKeys);
+
+        // Assert
+        assertEquals(List.of(invalidationBus.getNodeId() + " m1"), single);
+        assertTrue(split.size() > 1);
+        assertTrue(split.stream().allMatch(payload -> payload.length() < 8000));
+        assertEquals(2000, split.stream().mapToInt(payload -> payload.split(" ").length - 1).sum());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.minitrello.cluster;
+
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.ProjectChangedEvent;
+import com.example.minitrello.event.ProjectMembershipChangedEvent;
+import com.example.minitrello.event.TaskChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvalidationRecorderTest {
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    @InjectMocks
+    private InvalidationRecorder invalidationRecorder;
+
+    @Test
+    void onTaskChanged_Created_InvalidatesProjectTitles() {
+        // Act
+        invalidationRecorder.onTaskChanged(task(ChangeType.CREATED).build());
+
+        // Assert
+        verify(invalidationBus).publish(new InvalidationKey(CacheRegion.PROJECT_TITLES, 1L));
+    }
+
+    @Test
+    void onTaskChanged_TitleChanged_InvalidatesProjectTitles() {
+        // Act
+        invalidationRecorder.onTaskChanged(task(ChangeType.UPDATED).previousTitle("Old title").build());
+
+        // Assert
+        verify(invalidationBus).publish(new InvalidationKey(CacheRegion.PROJECT_TITLES, 1L));
+    }
+
+    @Test
+    void onTaskChanged_TitleUnchanged_PublishesNothing() {
+        // Act
+        invalidationRecorder.onTaskChanged(task(ChangeType.UPDATED).previousTitle("Title")
+                .previousAssignedUserId(7L).build());
+
+        // Assert
+        verifyNoInteractions(invalidationBus);
+    }
+
+    @Test
+    void onTaskChanged_MovedWithinProject_PublishesNothing() {
+        // Act
+        invalidationRecorder.onTaskChanged(task(ChangeType.MOVED).previousTaskListId(20L).build());
+
+        // Assert
+        verifyNoInteractions(invalidationBus);
+    }
+
+    @Test
+    void onTaskChanged_MovedToAnotherProject_InvalidatesBothProjectsAndTheTaskProject() {
+        // Act
+        invalidationRecorder.onTaskChanged(task(ChangeType.MOVED).previousProjectId(2L).previousTaskListId(20L).build());
+
+        // Assert
+        verify(invalidationBus).publish(new InvalidationKey(CacheRegion.PROJECT_TITLES, 2L));
+        verify(invalidationBus).publish(new InvalidationKey(CacheRegion.PROJECT_TITLES, 1L));
+        verify(invalidationBus).publish(new InvalidationKey(CacheRegion.TASK_PROJECT, 100L));
+        verifyNoMoreInteractions(invalidationBus);
+    }
+
+    @Test
+    void onMembershipChanged_InvalidatesMembersAndTheUsersProjects() {
+        // Act
+        invalidationRecorder.onMembershipChanged(ProjectMembershipChangedEvent.builder().type(ChangeType.CREATED)
+                .projectId(1L).userId(7L).build());
+
+        // Assert
+        verify(invalidationBus).publish(new InvalidationKey(CacheRegion.PROJECT_MEMBERS, 1L));
+        verify(invalidationBus).publish(new InvalidationKey(CacheRegion.ACCESSIBLE_PROJECTS, 7L));
+    }
+
+    @Test
+    void onProjectChanged_Renamed_KeepsAccessibleProjects() {
+        // Act
+        invalidationRecorder.onProjectChanged(ProjectChangedEvent.builder().type(ChangeType.UPDATED).projectId(1L)
+                .build());
+
+        // Assert
+        verify(invalidationBus).publish(new InvalidationKey(CacheRegion.PROJECT_TITLES, 1L));
+        verifyNoMoreInteractions(invalidationBus);
+    }
+
+    @Test
+    void onProjectChanged_Created_InvalidatesAccessibleProjects() {
+        // Act
+        invalidationRecorder.onProjectChanged(ProjectChangedEvent.builder().type(ChangeType.CREATED).projectId(1L)
+                .build());
+
+        // Assert
+        verify(invalidationBus).publish(new InvalidationKey(CacheRegion.PROJECT_ACCESS, 1L));
+    }
+
+    private static TaskChangedEvent.TaskChangedEventBuilder task(ChangeType type) {
+        return TaskChangedEvent.builder().type(type).taskId(100L).title("Title").projectId(1L).taskListId(10L);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.minitrello.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.ConnectException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectAffinityFilterTest {
+
+    private static final ClusterNode SELF = new ClusterNode("localhost:8080", "http://localhost:8080");
+    private static final ClusterNode OWNER = new ClusterNode("localhost:8081", "http://localhost:8081");
+
+    @Mock
+    private ClusterMembership clusterMembership;
+
+    @Mock
+    private AffinityKeys affinityKeys;
+
+    @Mock
+    private AffinityForwarder affinityForwarder;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final MockFilterChain filterChain = new MockFilterChain();
+
+    private ProjectAffinityFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ProjectAffinityFilter(clusterMembership, affinityKeys, affinityForwarder,
+                new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry);
+        lenient().when(clusterMembership.self()).thenReturn(SELF);
+        lenient().when(affinityKeys.isCandidate(anyString())).thenReturn(true);
+    }
+
+    @Test
+    void doFilter_NoProject_ServesLocallyWithoutHeaders() throws Exception {
+        // Arrange
+        when(affinityKeys.isCandidate("/api/users/me")).thenReturn(false);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+
+        // Act
+        filter.doFilter(request, response, filterChain);
+
+        // Assert
+        assertNotNull(filterChain.getRequest());
+        assertNull(response.getHeader(ProjectAffinityFilter.AFFINITY_KEY_HEADER));
+        verifyNoInteractions(affinityForwarder);
+    }
+
+    @Test
+    void doFilter_OwnedHere_ServesLocallyWithAffinityHeaders() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/projects/7");
+        when(affinityKeys.projectOf(eq("GET"), eq("/api/projects/7"), any())).thenReturn(7L);
+        when(clusterMembership.ownerOf(7L)).thenReturn(SELF);
+
+        // Act
+        filter.doFilter(request, response, filterChain);
+
+        // Assert
+        assertNotNull(filterChain.getRequest());
+        assertEquals("7", response.getHeader(ProjectAffinityFilter.AFFINITY_KEY_HEADER));
+        assertEquals(SELF.id(), response.getHeader(ProjectAffinityFilter.AFFINITY_NODE_HEADER));
+        assertEquals(SELF.id(), response.getHeader(ProjectAffinityFilter.SERVED_BY_HEADER));
+        assertEquals(1.0, meterRegistry.get("cluster.affinity.requests").tag("outcome", "local").counter().count());
+    }
+
+    @Test
+    void doFilter_OwnedElsewhere_ForwardsWithTheBody() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/tasks");
+        request.setContent("{\"taskListId\":3}".getBytes(StandardCharsets.UTF_8));
+        when(affinityKeys.projectOf(eq("POST"), eq("/api/tasks"), any())).thenReturn(7L);
+        when(clusterMembership.ownerOf(7L)).thenReturn(OWNER);
+
+        // Act
+        filter.doFilter(request, response, filterChain);
+
+        // Assert
+        assertNull(filterChain.getRequest());
+        verify(affinityForwarder).forward(any(), eq("{\"taskListId\":3}".getBytes(StandardCharsets.UTF_8)),
+                eq(OWNER), eq(SELF), eq(response));
+        assertEquals(1.0, meterRegistry.get("cluster.affinity.requests").tag("outcome", "forwarded").counter().count());
+    }
+
+    @Test
+    void doFilter_AlreadyForwarded_ServesLocallyWhateverTheView() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/projects/7");
+        request.addHeader(AffinityForwarder.FORWARDED_BY_HEADER, "localhost:8082");
+        when(affinityKeys.projectOf(eq("GET"), eq("/api/projects/7"), any())).thenReturn(7L);
+        when(clusterMembership.ownerOf(7L)).thenReturn(OWNER);
+
+        // Act
+        filter.doFilter(request, response, filterChain);
+
+        // Assert
+        assertNotNull(filterChain.getRequest());
+        assertEquals(SELF.id(), response.getHeader(ProjectAffinityFilter.SERVED_BY_HEADER));
+        verifyNoInteractions(affinityForwarder);
+    }
+
+    @Test
+    void doFilter_OwnerUnreachable_ServesLocallyAndReplaysTheBody() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/tasks/9");
+        request.setContent("{\"title\":\"x\"}".getBytes(StandardCharsets.UTF_8));
+        when(affinityKeys.projectOf(eq("PUT"), eq("/api/tasks/9"), any())).thenReturn(7L);
+        when(clusterMembership.ownerOf(7L)).thenReturn(OWNER);
+        doThrow(new ResourceAccessException("refused", new ConnectException("Connection refused")))
+                .when(affinityForwarder).forward(any(), any(), any(), any(), any());
+
+        // Act
+        filter.doFilter(request, response, filterChain);
+
+        // Assert
+        assertEquals("{\"title\":\"x\"}", new String(filterChain.getRequest().getInputStream().readAllBytes(),
+                StandardCharsets.UTF_8));
+        assertEquals(SELF.id(), response.getHeader(ProjectAffinityFilter.SERVED_BY_HEADER));
+        assertEquals(1.0, meterRegistry.get("cluster.affinity.requests").tag("outcome", "fallback").counter().count());
+    }
+
+    @Test
+    void doFilter_ChangeTimedOutAtOwner_RespondsWithBadGateway() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/tasks/9/archive");
+        when(affinityKeys.projectOf(eq("POST"), eq("/api/tasks/9/archive"), any())).thenReturn(7L);
+        when(clusterMembership.ownerOf(7L)).thenReturn(OWNER);
+        doThrow(new ResourceAccessException("timeout", new HttpTimeoutException("request timed out")))
+                .when(affinityForwarder).forward(any(), any(), any(), any(), any());
+
+        // Act
+        filter.doFilter(request, response, filterChain);
+
+        // Assert
+        assertNull(filterChain.getRequest());
+        assertEquals(502, response.getStatus());
+        assertTrue(response.getContentAsString().contains(OWNER.id()));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.minitrello.config;
+
+import com.example.minitrello.service.AdminServiceImpl;
+import com.example.minitrello.service.UserServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyInitializationConfigTest {
+
+    @Test
+    void postProcessBeanFactory_DeferredClassesAndPackages_AreMarkedLazy() {
+        // Arrange
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("adminService", new RootBeanDefinition(AdminServiceImpl.class));
+        beanFactory.registerBeanDefinition("userService", new RootBeanDefinition(UserServiceImpl.class));
+        beanFactory.registerBeanDefinition("openApiResource", new RootBeanDefinition("org.springdoc.webmvc.api.OpenApiWebMvcResource"));
+        LazyInitializationConfig.DeferredBeansPostProcessor postProcessor = new LazyInitializationConfig.DeferredBeansPostProcessor(
+                List.of(AdminServiceImpl.class.getName(), "org.springdoc."));
+
+        // Act
+        postProcessor.postProcessBeanFactory(beanFactory);
+
+        // Assert
+        assertTrue(beanFactory.getBeanDefinition("adminService").isLazyInit());
+        assertTrue(beanFactory.getBeanDefinition("openApiResource").isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition("userService").isLazyInit());
+    }
+
+    @Test
+    void postProcessBeanFactory_BeanMethodOfDeferredConfiguration_IsMarkedLazy() {
+        // Arrange
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.setActiveProfiles("fast-start");
+        environment.getPropertySources().addFirst(new MapPropertySource("test",
+                Map.of("app.lazy-init.deferred", OpenApiConfig.class.getName())));
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.setEnvironment(environment);
+        context.register(LazyInitializationConfig.class, OpenApiConfig.class);
+
+        // Act
+        context.refresh();
+
+        // Assert
+        assertTrue(context.getBeanFactory().getBeanDefinition("customOpenAPI").isLazyInit());
+        assertFalse(context.getBeanFactory().containsSingleton("customOpenAPI"));
+        assertNotNull(context.getBean("customOpenAPI"));
+        context.close();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.minitrello.config;
+
+import com.example.minitrello.dto.task.TaskDto;
+import com.example.minitrello.exception.ApiErrorResponse;
+import com.example.minitrello.mapper.TaskMapperImpl;
+import com.example.minitrello.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeHintsConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new NativeHintsConfig.MiniTrelloRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_DtosAndErrorResponse_CanBeBoundByJackson() throws Exception {
+        // Assert
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(TaskDto.class.getMethod("getTitle")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ApiErrorResponse.class.getMethod("getMessage")).test(hints));
+    }
+
+    @Test
+    void registerHints_EntitiesMappersAndJjwt_AreReflective() {
+        // Assert
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Task.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TaskMapperImpl.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtParserBuilder"))
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+    }
+
+    @Test
+    void registerHints_MigrationsJjwtServicesAndOpenApi_AreIncludedAsResources() {
+        // Assert
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/V1__initial_schema.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("openapi/api-docs.json").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/services/io.jsonwebtoken.io.Deserializer").test(hints));
+    }
+}
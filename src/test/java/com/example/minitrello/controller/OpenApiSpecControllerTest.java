@@ -0,0 +1,57 @@
+package com.example.minitrello.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against the document generated in the process-classes phase of the build.
+ */
+class OpenApiSpecControllerTest {
+
+    private OpenApiSpecController controller;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        controller = new OpenApiSpecController();
+    }
+
+    @Test
+    void getJson_GeneratedDocument_ContainsControllersWithoutServerUrl() throws Exception {
+        // Act
+        ResponseEntity<byte[]> response = controller.getJson();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        JsonNode document = new ObjectMapper().readTree(response.getBody());
+        assertTrue(document.path("paths").has("/api/projects/{projectId}"));
+        assertTrue(document.path("components").path("securitySchemes").has("bearerAuth"));
+        assertFalse(document.has("servers"));
+    }
+
+    @Test
+    void getJsonAndYaml_SameBuild_AreCacheableWithStableETags() {
+        // Act
+        ResponseEntity<byte[]> first = controller.getJson();
+        ResponseEntity<byte[]> second = controller.getJson();
+        ResponseEntity<byte[]> yaml = controller.getYaml();
+
+        // Assert
+        assertEquals("max-age=3600, public", first.getHeaders().getCacheControl());
+        assertNotNull(first.getHeaders().getETag());
+        assertEquals(first.getHeaders().getETag(), second.getHeaders().getETag());
+        assertNotEquals(first.getHeaders().getETag(), yaml.getHeaders().getETag());
+        assertTrue(new String(yaml.getBody(), StandardCharsets.UTF_8).contains("/api/projects/{projectId}:"));
+        assertEquals("application/vnd.oai.openapi", yaml.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE));
+    }
+}
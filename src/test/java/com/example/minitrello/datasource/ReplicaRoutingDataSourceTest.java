@@ -0,0 +1,138 @@
+package com.example.minitrello.datasource;
+
+import com.example.minitrello.config.ReadReplicaConfig;
+import com.example.minitrello.security.UserDetailsImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        ReadReplicaConfig config = new ReadReplicaConfig();
+        config.setMaxLag(Duration.ofSeconds(5));
+        config.setStickyWindow(Duration.ofMinutes(1));
+        routingDataSource = new ReplicaRoutingDataSource(primary, Map.of("replica-1", replica), config,
+                new SimpleMeterRegistry());
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getConnection_ReadOnlyTransaction_UsesHealthyReplica() throws SQLException {
+        // Arrange
+        givenReplicaLag(100);
+        routingDataSource.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        Connection connection = routingDataSource.getConnection();
+
+        // Assert
+        assertSame(replicaConnection, connection);
+    }
+
+    @Test
+    void getConnection_ReplicaLagging_FallsBackToPrimary() throws SQLException {
+        // Arrange
+        givenReplicaLag(60_000);
+        routingDataSource.checkReplicas();
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        Connection connection = routingDataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, connection);
+    }
+
+    @Test
+    void getConnection_AfterOwnWrite_ReadsStayOnPrimary() throws SQLException {
+        // Arrange
+        givenReplicaLag(0);
+        routingDataSource.checkReplicas();
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        UserDetailsImpl user = new UserDetailsImpl(7L, "alice", "alice@example.com", "secret", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        routingDataSource.getConnection();
+
+        // Act
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Connection connection = routingDataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, connection);
+        verify(replica, times(1)).getConnection();
+    }
+
+    @Test
+    void getConnectionWithCredentials_ReadOnlyTransaction_PassesThemToTheReplica() throws SQLException {
+        // Arrange
+        givenReplicaLag(100);
+        routingDataSource.checkReplicas();
+        when(replica.getConnection("reporting", "secret")).thenReturn(replicaConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        Connection connection = routingDataSource.getConnection("reporting", "secret");
+
+        // Assert
+        assertSame(replicaConnection, connection);
+        verify(primary, never()).getConnection(anyString(), anyString());
+    }
+
+    private void givenReplicaLag(long lagMillis) throws SQLException {
+        Connection healthConnection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(healthConnection, replicaConnection);
+        when(healthConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ReplicaRoutingDataSource.LAG_QUERY)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(lagMillis);
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.minitrello.datasource;
+
+import com.example.minitrello.config.ShardConfig;
+import com.example.minitrello.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRoutingTest {
+
+    private static final long SHARD_1_ID = (1L << ShardRouting.SHARD_SHIFT) + 5;
+
+    private final NoOpTransactionManager transactionManager = new NoOpTransactionManager();
+    private ShardRouting shardRouting;
+
+    @BeforeEach
+    void setUp() {
+        ShardConfig config = new ShardConfig();
+        config.setEnabled(true);
+        config.setUrls(List.of("jdbc:postgresql://localhost:5432/mini_trello_shard1"));
+        shardRouting = new ShardRouting(transactionManager, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        shardRouting.shutdown();
+    }
+
+    @Test
+    void shardOf_Enabled_TakesTheHighBitsOfTheId() {
+        // Act & Assert
+        assertEquals(0, shardRouting.shardOf(50_046L));
+        assertEquals(1, shardRouting.shardOf(SHARD_1_ID));
+        assertFalse(shardRouting.isKnown(2L << ShardRouting.SHARD_SHIFT));
+    }
+
+    @Test
+    void routeByProject_UnknownShard_ThrowsNotFound() {
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> inTransaction(() -> shardRouting.routeByProject(3L << ShardRouting.SHARD_SHIFT)));
+    }
+
+    @Test
+    void routeByProject_RoutesConnectionsOfTheTransaction() {
+        // Act
+        int shard = inTransaction(() -> {
+            shardRouting.routeByProject(SHARD_1_ID);
+            return ShardRouting.connectionShard();
+        });
+
+        // Assert
+        assertEquals(1, shard);
+        assertEquals(0, ShardRouting.connectionShard());
+    }
+
+    @Test
+    void routeByProject_TransactionOnAnotherShard_Throws() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> inTransaction(() -> {
+            ShardRouting.connectionShard();
+            return shardRouting.routeByProject(SHARD_1_ID);
+        }));
+    }
+
+    @Test
+    void read_FromTransactionOnAnotherShard_RunsOnTheShardAndReturns() {
+        // Act
+        List<Integer> shards = inTransaction(() -> {
+            shardRouting.routeTo(0);
+            int read = shardRouting.read(1, ShardRouting::connectionShard);
+            return List.of(read, ShardRouting.connectionShard());
+        });
+
+        // Assert
+        assertEquals(List.of(1, 0), shards);
+    }
+
+    @Test
+    void placeNewProject_TakesShardsInTurn() {
+        // Act
+        int first = inTransaction(shardRouting::placeNewProject);
+        int second = inTransaction(shardRouting::placeNewProject);
+        int third = inTransaction(shardRouting::placeNewProject);
+
+        // Assert
+        assertEquals(List.of(0, 1, 0), List.of(first, second, third));
+    }
+
+    @Test
+    void readPage_MergesTheShardsIntoOnePage() {
+        // Arrange
+        List<List<Long>> rows = List.of(List.of(1L, 4L, 6L), List.of(2L, 3L, 5L));
+
+        // Act
+        Page<Long> page = shardRouting.readPage(PageRequest.of(1, 2), Comparator.naturalOrder(), upToPage -> {
+            List<Long> shardRows = rows.get(ShardRouting.connectionShard());
+            return new PageImpl<>(shardRows.subList(0, Math.min(upToPage.getPageSize(), shardRows.size())),
+                    upToPage, shardRows.size());
+        });
+
+        // Assert
+        assertEquals(List.of(3L, 4L), page.getContent());
+        assertEquals(6, page.getTotalElements());
+    }
+
+    @Test
+    void mergeSorted_SortedLists_KeepsTheFirstRowsOfAll() {
+        // Act
+        List<Integer> merged = ShardRouting.mergeSorted(
+                List.of(List.of(1, 5, 9), List.of(), List.of(2, 3, 10)), Comparator.naturalOrder(), 4);
+
+        // Assert
+        assertEquals(List.of(1, 2, 3, 5), merged);
+    }
+
+    @Test
+    void readMerged_Disabled_RunsInTheCallersContext() {
+        // Arrange
+        ShardRouting disabled = new ShardRouting(null, new ShardConfig());
+
+        // Act
+        List<Integer> rows = disabled.readMerged(Comparator.naturalOrder(), 1, () -> List.of(3, 7));
+
+        // Assert
+        assertEquals(List.of(0), disabled.shards());
+        assertEquals(List.of(3, 7), rows);
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    /**
+     * Opens transactions with synchronization but without any resource, which is all routing needs.
+     */
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return TransactionSynchronizationManager.isActualTransactionActive();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected Object doSuspend(Object transaction) {
+            return transaction;
+        }
+
+        @Override
+        protected void doResume(Object transaction, Object suspendedResources) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.minitrello.diagnostics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The exact database work a test method is expected to cause, checked by {@link QueryCountExtension}
+ * once the method returns. Load counts are only checked when given.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExpectedStatements {
+
+    /**
+     * SQL statements issued by the test.
+     */
+    int value();
+
+    /**
+     * Entities loaded by the test, or -1 to skip the check.
+     */
+    int entityLoads() default -1;
+
+    /**
+     * Lazy collections initialized by the test, or -1 to skip the check.
+     */
+    int collectionLoads() default -1;
+}
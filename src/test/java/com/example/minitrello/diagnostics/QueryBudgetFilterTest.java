@@ -0,0 +1,109 @@
+package com.example.minitrello.diagnostics;
+
+import com.example.minitrello.config.QueryBudgetConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryBudgetFilterTest {
+
+    private static final String ROUTE = "/api/projects/{projectId}";
+
+    private final CountingStatementInspector inspector = new CountingStatementInspector();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private QueryBudgetConfig config;
+    private QueryBudgetFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        config = new QueryBudgetConfig();
+        config.setEnabled(true);
+        config.getBudgets().put("GET " + ROUTE, 2);
+        filter = new QueryBudgetFilter(config, new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry);
+        request = new MockHttpServletRequest("GET", "/api/projects/1");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void doFilter_WithinBudget_ReportsCountsInHeadersAndMetrics() throws Exception {
+        // Act
+        filter.doFilter(request, response, issuing(2));
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertEquals("2", response.getHeader(QueryBudgetFilter.STATEMENTS_HEADER));
+        assertEquals("ok", response.getContentAsString());
+        assertEquals(2.0, meterRegistry.get("http.server.requests.statements").tag("uri", ROUTE)
+                .summary().totalAmount());
+        assertTrue(meterRegistry.find("http.server.requests.query.budget.exceeded").counters().isEmpty());
+    }
+
+    @Test
+    void doFilter_OverBudget_CountsAndPassesResponseThrough() throws Exception {
+        // Act
+        filter.doFilter(request, response, issuing(5));
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertEquals("ok", response.getContentAsString());
+        assertEquals(1.0, meterRegistry.get("http.server.requests.query.budget.exceeded").counter().count());
+    }
+
+    @Test
+    void doFilter_OverBudgetWithFailOnExceed_RespondsWithError() throws Exception {
+        // Arrange
+        config.setFailOnExceed(true);
+
+        // Act
+        filter.doFilter(request, response, issuing(5));
+
+        // Assert
+        assertEquals(500, response.getStatus());
+        assertEquals("5", response.getHeader(QueryBudgetFilter.STATEMENTS_HEADER));
+        assertTrue(response.getContentAsString().contains("issued 5 statements"));
+    }
+
+    @Test
+    void doFilter_BodyLargerThanBuffer_StreamsItAndSetsHeadersBeforeCommit() throws Exception {
+        // Arrange
+        byte[] body = "x".repeat(100).getBytes();
+        response.setBufferSize(16);
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, ROUTE);
+            inspector.inspect("select 1");
+            res.getOutputStream().write(body);
+            assertTrue(res.isCommitted());
+            inspector.inspect("select 1");
+        };
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals("1", response.getHeader(QueryBudgetFilter.STATEMENTS_HEADER));
+        assertArrayEquals(body, response.getContentAsByteArray());
+        assertEquals(2.0, meterRegistry.get("http.server.requests.statements").tag("uri", ROUTE)
+                .summary().totalAmount());
+    }
+
+    private FilterChain issuing(int statements) {
+        return (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, ROUTE);
+            for (int i = 0; i < statements; i++) {
+                inspector.inspect("select 1");
+            }
+            res.getWriter().write("ok");
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.minitrello.diagnostics;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts the statements each test issues through Hibernate and checks them against
+ * {@link ExpectedStatements}. Counting happens on the test thread, so work done by a server thread
+ * (e.g. a {@code RANDOM_PORT} web test) is not included; use {@code MockMvc} for controller tests.
+ * <p>
+ * Use {@link #assertStatements(int)} to check the count at a point inside the test.
+ */
+public class QueryCountExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        QueryCounter.start();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        QueryStats stats = QueryCounter.stop();
+        ExpectedStatements expected = context.getRequiredTestMethod().getAnnotation(ExpectedStatements.class);
+        if (expected == null) {
+            return;
+        }
+        assertEquals(expected.value(), stats.statements(), "SQL statements");
+        if (expected.entityLoads() >= 0) {
+            assertEquals(expected.entityLoads(), stats.entityLoads(), "Entity loads");
+        }
+        if (expected.collectionLoads() >= 0) {
+            assertEquals(expected.collectionLoads(), stats.collectionLoads(), "Collection loads");
+        }
+    }
+
+    /**
+     * Asserts how many statements the current test has issued so far.
+     */
+    public static void assertStatements(int expected) {
+        assertEquals(expected, QueryCounter.current().statements(), "SQL statements");
+    }
+}
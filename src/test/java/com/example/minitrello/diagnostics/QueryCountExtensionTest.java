@@ -0,0 +1,22 @@
+package com.example.minitrello.diagnostics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(QueryCountExtension.class)
+class QueryCountExtensionTest {
+
+    private final CountingStatementInspector inspector = new CountingStatementInspector();
+
+    @Test
+    @ExpectedStatements(value = 2, entityLoads = 1, collectionLoads = 0)
+    void expectedStatements_MatchingCounts_Passes() {
+        // Act
+        inspector.inspect("select * from projects where id = ?");
+        QueryCounter.entityLoad();
+
+        // Assert
+        QueryCountExtension.assertStatements(1);
+        inspector.inspect("select * from task_lists where project_id = ?");
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.minitrello.job;
+
+import com.example.minitrello.config.JobConfig;
+import com.example.minitrello.config.ShardConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.repository.JobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobRunnerTest {
+
+    private static final Instant NOW_INSTANT = Instant.parse("2025-03-10T12:00:00Z");
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 12, 0);
+    private static final String NODE = "localhost:8080";
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private JobHandler handler;
+
+    private final JobConfig config = new JobConfig();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JobRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        config.setWorkers(2);
+        config.setMaxRunningPerUser(1);
+        config.setMaxAttempts(3);
+        config.setRetryBackoff(Duration.ofSeconds(30));
+        when(handler.type()).thenReturn(JobType.PROJECT_EXPORT);
+        runner = new JobRunner(jobRepository, config, transactionManager, new ShardRouting(null, new ShardConfig()),
+                List.of(handler), meterRegistry, Clock.fixed(NOW_INSTANT, ZoneOffset.UTC), NODE);
+    }
+
+    @Test
+    void pickNext_HigherPriority_WinsOverOlderJob() {
+        // Arrange
+        Job purge = job(1L, JobType.PROJECT_PURGE, 7L, 0);
+        Job export = job(2L, JobType.PROJECT_EXPORT, 8L, 10);
+
+        // Act
+        Job next = runner.pickNext(List.of(purge, export));
+
+        // Assert
+        assertEquals(export, next);
+    }
+
+    @Test
+    void dispatch_UserAtRunningLimit_StartsAnotherUsersJob() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        Job first = job(1L, JobType.PROJECT_EXPORT, 7L, 10);
+        Job second = job(2L, JobType.PROJECT_EXPORT, 8L, 10);
+        Job third = job(3L, JobType.PROJECT_EXPORT, 7L, 10);
+        when(jobRepository.findQueuedHeads(NOW, NODE))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third, second))
+                .thenReturn(List.of());
+        when(jobRepository.claim(anyLong(), eq(NODE), any(), eq(NOW))).thenAnswer(invocation ->
+                Optional.of(invocation.getArgument(0, Long.class) == 1L ? first : second));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(handler.runChunk(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return JobStep.finished(1, 1L, "done");
+        });
+        when(jobRepository.saveStep(anyLong(), eq(NODE), any(), eq(NOW))).thenReturn(true);
+
+        // Act
+        runner.start();
+        boolean bothStarted = started.await(5, TimeUnit.SECONDS);
+        release.countDown();
+        runner.stop();
+
+        // Assert
+        assertTrue(bothStarted);
+        verify(jobRepository).claim(1L, NODE, config.getLease(), NOW);
+        verify(jobRepository).claim(2L, NODE, config.getLease(), NOW);
+        verify(jobRepository, never()).claim(eq(3L), any(), any(), any());
+    }
+
+    @Test
+    void execute_ChunksUntilFinished_SavesEveryStep() {
+        // Arrange
+        Job job = job(1L, JobType.PROJECT_EXPORT, 7L, 10);
+        config.setTimeSlice(Duration.ofMinutes(1));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(handler.runChunk(any())).thenReturn(
+                JobStep.next("a", 1, 3L), JobStep.next("b", 2, 3L), JobStep.finished(3, 3L, "file"));
+        when(jobRepository.saveStep(eq(1L), eq(NODE), any(), eq(NOW))).thenReturn(true);
+
+        // Act
+        runner.start();
+        runner.execute(job);
+        runner.stop();
+
+        // Assert
+        verify(jobRepository, times(3)).saveStep(eq(1L), eq(NODE), any(), eq(NOW));
+        verify(handler).runChunk(argThat(resumed -> "b".equals(resumed.checkpoint()) && resumed.progressDone() == 2));
+        verify(jobRepository, never()).requeue(anyLong(), any(), any());
+        assertEquals(1.0, meterRegistry.get("jobs.finished").tag("state", "SUCCEEDED").counter().count());
+    }
+
+    @Test
+    void execute_TimeSliceUsedUp_RequeuesAfterChunk() {
+        // Arrange
+        Job job = job(1L, JobType.PROJECT_EXPORT, 7L, 10);
+        config.setTimeSlice(Duration.ZERO);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(handler.runChunk(job)).thenReturn(JobStep.next("a", 1, 3L));
+        when(jobRepository.saveStep(eq(1L), eq(NODE), any(), eq(NOW))).thenReturn(true);
+
+        // Act
+        runner.start();
+        runner.execute(job);
+        runner.stop();
+
+        // Assert
+        verify(handler, times(1)).runChunk(any());
+        verify(jobRepository).requeue(1L, NODE, NOW);
+    }
+
+    @Test
+    void execute_CancelRequested_RollsBackChunkAndDiscards() {
+        // Arrange
+        Job job = job(1L, JobType.PROJECT_EXPORT, 7L, 10);
+        SimpleTransactionStatus status = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        when(handler.runChunk(job)).thenReturn(JobStep.next("a", 1, 3L));
+        when(jobRepository.saveStep(eq(1L), eq(NODE), any(), eq(NOW))).thenReturn(false);
+
+        // Act
+        runner.execute(job);
+
+        // Assert
+        assertTrue(status.isRollbackOnly());
+        verify(jobRepository).finish(1L, NODE, JobState.CANCELLED, null, NOW);
+        verify(handler).discard(job);
+    }
+
+    @Test
+    void execute_ChunkFails_RetriesFromCheckpointWithBackoff() {
+        // Arrange
+        Job job = job(1L, JobType.PROJECT_EXPORT, 7L, 10);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(handler.runChunk(job)).thenThrow(new IllegalStateException("disk full"));
+
+        // Act
+        runner.execute(job);
+
+        // Assert
+        verify(transactionManager).rollback(any());
+        verify(jobRepository).retry(1L, NODE, "disk full", NOW.plusSeconds(30));
+        verify(handler, never()).discard(any());
+    }
+
+    @Test
+    void execute_LastAttemptFails_FailsJobAndDiscards() {
+        // Arrange
+        Job job = new Job(1L, JobType.PROJECT_EXPORT, JobState.RUNNING, 7L, 1L, 10, "a", 1, 3L, null, null, 2,
+                false, NOW, NOW, NOW, null, null);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(handler.runChunk(job)).thenThrow(new IllegalStateException("disk full"));
+
+        // Act
+        runner.execute(job);
+
+        // Assert
+        verify(jobRepository).finish(1L, NODE, JobState.FAILED, "disk full", NOW);
+        verify(handler).discard(job);
+    }
+
+    @Test
+    void start_RequeuesOnlyItsOwnRunningJobs_AndRenewsTheirLeases() {
+        // Act
+        runner.start();
+        runner.stop();
+
+        // Assert
+        verify(jobRepository).requeueRunning(NODE);
+        verify(jobRepository).renewLeases(NODE, config.getLease());
+    }
+
+    @Test
+    void resultFile_JobRanOnAnotherInstance_IsEmptyHereButReportedAsResult() {
+        // Arrange
+        Job job = new Job(1L, JobType.PROJECT_EXPORT, JobState.SUCCEEDED, 7L, 1L, 10, null, 1, 1L, "export.ndjson",
+                null, 0, false, NOW, NOW, NOW, NOW, "localhost:8081");
+
+        // Act
+        Optional<Path> file = runner.resultFile(job);
+        boolean hasResult = runner.hasResult(job);
+
+        // Assert
+        assertTrue(file.isEmpty());
+        assertTrue(hasResult);
+        verify(handler, never()).resultFile(any());
+    }
+
+    private static Job job(long id, JobType type, Long userId, int priority) {
+        return new Job(id, type, JobState.RUNNING, userId, 100L + id, priority, null, 0, null, null, null, 0,
+                false, NOW, NOW, NOW, null, null);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.minitrello.mapper;
+
+import com.example.minitrello.dto.task.TaskSearchResultDto;
+import com.example.minitrello.repository.projection.TaskSearchRow;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TaskMapperImplTest {
+
+    private final TaskMapperImpl taskMapper = new TaskMapperImpl();
+
+    @Test
+    void toSearchResultDto_MarkupInTitle_EscapesItAndMarksTheMatch() {
+        // Arrange
+        TaskSearchRow row = mock(TaskSearchRow.class);
+        when(row.getTitle()).thenReturn("<script>alert(1)</script> deploy");
+        when(row.getTitleHighlight()).thenReturn("<script>alert(1)</script> \u0002deploy\u0003");
+        when(row.getDescriptionHighlight()).thenReturn("<img src=x onerror=\"alert(1)\"> \u0002deploy\u0003 & ship");
+
+        // Act
+        TaskSearchResultDto dto = taskMapper.toSearchResultDto(row);
+
+        // Assert
+        assertEquals("&lt;script&gt;alert(1)&lt;/script&gt; <mark>deploy</mark>", dto.getTitleHighlight());
+        assertEquals("&lt;img src=x onerror=&quot;alert(1)&quot;&gt; <mark>deploy</mark> &amp; ship",
+                dto.getDescriptionHighlight());
+        assertEquals("<script>alert(1)</script> deploy", dto.getTitle());
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.minitrello.projectexport;
+
+import com.example.minitrello.config.JobConfig;
+import com.example.minitrello.job.Job;
+import com.example.minitrello.job.JobState;
+import com.example.minitrello.job.JobStep;
+import com.example.minitrello.job.JobType;
+import com.example.minitrello.repository.ProjectExportRepository;
+import com.example.minitrello.repository.ProjectExportRepository.ExportedProject;
+import com.example.minitrello.repository.ProjectExportRepository.ExportedTask;
+import com.example.minitrello.repository.ProjectExportRepository.ExportedTaskList;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectExportJobHandlerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    @Mock
+    private ProjectExportRepository projectExportRepository;
+
+    @TempDir
+    private Path resultDirectory;
+
+    private ProjectExportJobHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        JobConfig config = new JobConfig();
+        config.setResultDirectory(resultDirectory);
+        config.setExportBatchSize(2);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        handler = new ProjectExportJobHandler(projectExportRepository, config, objectMapper);
+    }
+
+    @Test
+    void runChunk_FirstChunk_WritesProjectAndTaskListsAndCountsTasks() throws Exception {
+        // Arrange
+        when(projectExportRepository.findProject(1L)).thenReturn(Optional.of(
+                new ExportedProject(1L, "Board", "Desc", 3L, NOW, NOW)));
+        when(projectExportRepository.findTaskLists(1L)).thenReturn(List.of(
+                new ExportedTaskList(10L, "To do", 0, NOW, NOW)));
+        when(projectExportRepository.countTasks(1L)).thenReturn(3L);
+
+        // Act
+        JobStep step = handler.runChunk(job(null, 0));
+
+        // Assert
+        List<String> lines = Files.readAllLines(resultDirectory.resolve("project-1-export-5.ndjson"));
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"type\":\"project\",\"id\":1,\"name\":\"Board\""));
+        assertTrue(lines.get(1).contains("\"type\":\"task_list\""));
+        assertEquals(3L, step.total());
+        assertEquals("0:" + Files.size(resultDirectory.resolve("project-1-export-5.ndjson")), step.checkpoint());
+    }
+
+    @Test
+    void runChunk_ResumedAfterCrash_DropsBytesPastCheckpointAndFinishesOnShortPage() throws Exception {
+        // Arrange
+        Path file = resultDirectory.resolve("project-1-export-5.ndjson");
+        String committed = "{\"type\":\"project\"}\n";
+        Files.writeString(file, committed + "{\"type\":\"task\",\"id\":1", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE);
+        when(projectExportRepository.findTasksAfter(1L, 0L, 2)).thenReturn(List.of(
+                new ExportedTask(1L, "Task", null, 0, 10L, null, NOW, NOW)));
+
+        // Act
+        JobStep step = handler.runChunk(job("0:" + committed.length(), 0));
+
+        // Assert
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).startsWith("{\"type\":\"task\",\"id\":1,\"title\":\"Task\""));
+        assertTrue(step.finished());
+        assertEquals(1, step.done());
+        assertEquals("project-1-export-5.ndjson", step.result());
+    }
+
+    @Test
+    void runChunk_CheckpointWithoutFile_StartsOver() throws Exception {
+        // Arrange
+        when(projectExportRepository.findProject(1L)).thenReturn(Optional.of(
+                new ExportedProject(1L, "Board", "Desc", 3L, NOW, NOW)));
+        when(projectExportRepository.findTaskLists(1L)).thenReturn(List.of());
+        when(projectExportRepository.countTasks(1L)).thenReturn(3L);
+
+        // Act
+        JobStep step = handler.runChunk(job("2:120", 2));
+
+        // Assert
+        List<String> lines = Files.readAllLines(resultDirectory.resolve("project-1-export-5.ndjson"));
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"type\":\"project\",\"id\":1"));
+        assertEquals(0, step.done());
+        assertEquals("0:" + Files.size(resultDirectory.resolve("project-1-export-5.ndjson")), step.checkpoint());
+        verify(projectExportRepository, never()).findTasksAfter(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void discard_RemovesFile() throws Exception {
+        // Arrange
+        Path file = Files.writeString(resultDirectory.resolve("project-1-export-5.ndjson"), "partial");
+
+        // Act
+        handler.discard(job(null, 0));
+
+        // Assert
+        assertFalse(Files.exists(file));
+    }
+
+    private static Job job(String checkpoint, long done) {
+        return new Job(5L, JobType.PROJECT_EXPORT, JobState.RUNNING, 3L, 1L, 10, checkpoint, done, 3L, null, null,
+                0, false, NOW, NOW, NOW, null, null);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.minitrello.search;
+
+import com.example.minitrello.config.ShardConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.ProjectChangedEvent;
+import com.example.minitrello.event.ProjectMembershipChangedEvent;
+import com.example.minitrello.repository.ProjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccessibleProjectsTest {
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    private AccessibleProjects accessibleProjects;
+
+    @BeforeEach
+    void setUp() {
+        accessibleProjects = new AccessibleProjects(projectRepository, new ShardRouting(null, new ShardConfig()), 100);
+    }
+
+    @Test
+    void of_RepeatedCalls_LoadsOnce() {
+        // Arrange
+        when(projectRepository.findAccessibleProjectIds(7L)).thenReturn(List.of(1L, 2L));
+
+        // Act
+        accessibleProjects.of(7L);
+        List<Long> projectIds = accessibleProjects.of(7L);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), projectIds);
+        verify(projectRepository, times(1)).findAccessibleProjectIds(7L);
+    }
+
+    @Test
+    void onMembershipChanged_UserJoined_ReloadsTheirProjects() {
+        // Arrange
+        when(projectRepository.findAccessibleProjectIds(7L)).thenReturn(List.of(1L), List.of(1L, 3L));
+        accessibleProjects.of(7L);
+
+        // Act
+        accessibleProjects.onMembershipChanged(ProjectMembershipChangedEvent.builder().type(ChangeType.CREATED)
+                .projectId(3L).userId(7L).build());
+        List<Long> projectIds = accessibleProjects.of(7L);
+
+        // Assert
+        assertEquals(List.of(1L, 3L), projectIds);
+    }
+
+    @Test
+    void onProjectChanged_RenamedKeepsEntries_DeletedDropsThem() {
+        // Arrange
+        when(projectRepository.findAccessibleProjectIds(7L)).thenReturn(List.of(1L), List.of());
+        accessibleProjects.of(7L);
+
+        // Act
+        accessibleProjects.onProjectChanged(ProjectChangedEvent.builder().type(ChangeType.UPDATED).projectId(1L)
+                .build());
+        List<Long> afterRename = accessibleProjects.of(7L);
+        accessibleProjects.onProjectChanged(ProjectChangedEvent.builder().type(ChangeType.DELETED).projectId(1L)
+                .build());
+        List<Long> afterDelete = accessibleProjects.of(7L);
+
+        // Assert
+        assertEquals(List.of(1L), afterRename);
+        assertEquals(List.of(), afterDelete);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.minitrello.search;
+
+import com.example.minitrello.config.ReadReplicaConfig;
+import com.example.minitrello.datasource.PrimaryReads;
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.ProjectMembershipChangedEvent;
+import com.example.minitrello.event.UserChangedEvent;
+import com.example.minitrello.model.Role;
+import com.example.minitrello.repository.UserRepository;
+import com.example.minitrello.repository.projection.MemberRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MemberDirectoryTest {
+
+    private static final Long PROJECT_ID = 1L;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private MemberDirectory memberDirectory;
+
+    @BeforeEach
+    void setUp() {
+        memberDirectory = new MemberDirectory(userRepository, new PrimaryReads(null, new ReadReplicaConfig()), 100, 10);
+    }
+
+    @Test
+    void search_MatchesNameOrEmailPrefix_OrderedByName() {
+        // Arrange
+        when(userRepository.countProjectMembers(PROJECT_ID)).thenReturn(3L);
+        when(userRepository.findProjectMembers(PROJECT_ID)).thenReturn(List.of(
+                row(1L, "Zoe Adams", "zoe@example.com"),
+                row(2L, "Adam Smith", "smith@example.com"),
+                row(3L, "Bob Jones", "adam.b@example.com")));
+
+        // Act
+        List<MemberDirectory.Member> members = memberDirectory.search(PROJECT_ID, "ADAM", 10);
+
+        // Assert
+        assertEquals(List.of(2L, 3L), members.stream().map(MemberDirectory.Member::id).toList());
+    }
+
+    @Test
+    void search_LoadsDirectoryOnce_UntilMembershipChanges() {
+        // Arrange
+        when(userRepository.countProjectMembers(PROJECT_ID)).thenReturn(1L);
+        when(userRepository.findProjectMembers(PROJECT_ID)).thenReturn(List.of(row(1L, "Alice", "alice@example.com")));
+
+        // Act
+        memberDirectory.search(PROJECT_ID, "a", 10);
+        memberDirectory.search(PROJECT_ID, "al", 10);
+        memberDirectory.onMembershipChanged(ProjectMembershipChangedEvent.builder()
+                .type(ChangeType.CREATED).projectId(PROJECT_ID).userId(2L).build());
+        memberDirectory.search(PROJECT_ID, "ali", 10);
+
+        // Assert
+        verify(userRepository, times(2)).findProjectMembers(PROJECT_ID);
+    }
+
+    @Test
+    void onUserChanged_EvictsDirectoriesContainingUser() {
+        // Arrange
+        when(userRepository.countProjectMembers(PROJECT_ID)).thenReturn(1L);
+        when(userRepository.findProjectMembers(PROJECT_ID))
+                .thenReturn(List.of(row(1L, "Alice", "alice@example.com")))
+                .thenReturn(List.of(row(1L, "Alicia", "alice@example.com")));
+        memberDirectory.search(PROJECT_ID, "a", 10);
+
+        // Act
+        memberDirectory.onUserChanged(UserChangedEvent.builder().type(ChangeType.UPDATED).userId(1L).build());
+        List<MemberDirectory.Member> members = memberDirectory.search(PROJECT_ID, "alicia", 10);
+
+        // Assert
+        assertEquals(1, members.size());
+    }
+
+    @Test
+    void search_OversizedProject_QueriesDatabaseWithEscapedPrefix() {
+        // Arrange
+        when(userRepository.countProjectMembers(PROJECT_ID)).thenReturn(101L);
+        when(userRepository.searchProjectMembers(PROJECT_ID, "a\\_b%", Limit.of(5)))
+                .thenReturn(List.of(row(7L, "a_b", "ab@example.com")));
+
+        // Act
+        List<MemberDirectory.Member> members = memberDirectory.search(PROJECT_ID, "A_b", 5);
+
+        // Assert
+        assertEquals(7L, members.get(0).id());
+        verify(userRepository, never()).findProjectMembers(any());
+    }
+
+    private static MemberRow row(Long id, String name, String email) {
+        return new MemberRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+
+            @Override
+            public Role getRole() {
+                return Role.ROLE_USER;
+            }
+        };
+    }
+}
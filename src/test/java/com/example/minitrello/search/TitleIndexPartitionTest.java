@@ -0,0 +1,81 @@
+package com.example.minitrello.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TitleIndexPartitionTest {
+
+    private TitleIndexPartition partition;
+
+    @BeforeEach
+    void setUp() {
+        partition = TitleIndexPartition.build(List.of(
+                new TitleIndexPartition.Change(TitleIndexPartition.KIND_PROJECT, 1L, "Website Redesign"),
+                new TitleIndexPartition.Change(TitleIndexPartition.KIND_TASK, 10L, "Design landing page"),
+                new TitleIndexPartition.Change(TitleIndexPartition.KIND_TASK, 11L, "Fix login redirect"),
+                new TitleIndexPartition.Change(TitleIndexPartition.KIND_TASK, 12L, "Update design tokens")
+        ));
+    }
+
+    @Test
+    void search_RanksPrefixBeforeWordPrefixBeforeSubstring() {
+        // Act
+        List<TitleIndexPartition.Hit> hits = partition.search("DESIGN", 10);
+
+        // Assert
+        assertEquals(List.of(10L, 12L, 1L), hits.stream().map(TitleIndexPartition.Hit::id).toList());
+        assertEquals(0, hits.get(0).score());
+        assertEquals(1, hits.get(1).score());
+        assertEquals(2, hits.get(2).score());
+    }
+
+    @Test
+    void search_ShortQuery_ScansTitles() {
+        // Act
+        List<TitleIndexPartition.Hit> hits = partition.search("fi", 10);
+
+        // Assert
+        assertEquals(1, hits.size());
+        assertEquals(11L, hits.get(0).id());
+    }
+
+    @Test
+    void search_RespectsLimit() {
+        // Act & Assert
+        assertEquals(1, partition.search("design", 1).size());
+    }
+
+    @Test
+    void withChanges_AppliesUpsertsAndRemovals() {
+        // Act
+        TitleIndexPartition updated = partition.withChanges(List.of(
+                new TitleIndexPartition.Change(TitleIndexPartition.KIND_TASK, 11L, "Fix logout redirect"),
+                new TitleIndexPartition.Change(TitleIndexPartition.KIND_TASK, 12L, null),
+                new TitleIndexPartition.Change(TitleIndexPartition.KIND_TASK, 13L, "Design review")
+        ));
+
+        // Assert
+        assertEquals(4, updated.size());
+        assertTrue(updated.search("login", 10).isEmpty());
+        assertEquals(11L, updated.search("logout", 10).get(0).id());
+        assertEquals(List.of(13L, 10L, 1L),
+                updated.search("design", 10).stream().map(TitleIndexPartition.Hit::id).toList());
+        // The original partition is unchanged
+        assertEquals(4, partition.size());
+        assertFalse(partition.search("login", 10).isEmpty());
+    }
+
+    @Test
+    void search_TaskAndProjectWithSameId_AreDistinctDocuments() {
+        // Act
+        TitleIndexPartition updated = partition.withChanges(List.of(
+                new TitleIndexPartition.Change(TitleIndexPartition.KIND_TASK, 1L, "Website copy")));
+
+        // Assert
+        assertEquals(2, updated.search("website", 10).size());
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.minitrello.security;
+
+import com.example.minitrello.config.PasswordHashingConfig;
+import com.example.minitrello.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        PasswordHashingConfig config = new PasswordHashingConfig();
+        config.setThreads(1);
+        config.setQueueCapacity(1);
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(release), config, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.close();
+    }
+
+    @Test
+    void encode_PoolAndQueueFull_RefusedImmediately() throws Exception {
+        // Arrange: one call hashing, one queued
+        CompletableFuture<String> hashing = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        waitUntilQueued(1);
+
+        // Act
+        TooManyRequestsException refused = assertThrows(TooManyRequestsException.class, () -> encoder.encode("third"));
+
+        // Assert
+        assertEquals(1, refused.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.get("password.hashing.rejected").counter().count());
+        release.countDown();
+        assertEquals("hashed:first", hashing.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed:second", queued.get(5, TimeUnit.SECONDS));
+        assertEquals(2, meterRegistry.get("password.hashing.wait").timer().count());
+    }
+
+    @Test
+    void matches_RunsOnHashingThread() {
+        // Arrange
+        release.countDown();
+
+        // Act & Assert
+        assertTrue(encoder.matches("password-hashing-1", "ignored"));
+    }
+
+    private void waitUntilQueued(int expected) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            if (meterRegistry.get("executor.queued").tag("name", "password.hashing").gauge().value() == expected) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("hashing request was not queued");
+    }
+
+    /**
+     * Encoder that blocks until released, and matches a password equal to the current thread's name.
+     */
+    private record BlockingEncoder(CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return Thread.currentThread().getName().contentEquals(rawPassword);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.minitrello.security;
+
+import com.example.minitrello.config.LoginAdmissionConfig;
+import com.example.minitrello.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginAdmissionTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LoginAdmission loginAdmission;
+
+    @BeforeEach
+    void setUp() {
+        LoginAdmissionConfig config = new LoginAdmissionConfig();
+        config.setAddressBurst(3);
+        config.setAddressPerMinute(6);
+        config.setAccountBurst(2);
+        config.setAccountPerMinute(1);
+        loginAdmission = new LoginAdmission(config, meterRegistry, now::get);
+    }
+
+    @Test
+    void admitAddress_BurstUsedUp_RefusedUntilRefilled() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            loginAdmission.admitAddress("10.0.0.1");
+        }
+
+        // Act
+        TooManyRequestsException refused = assertThrows(TooManyRequestsException.class,
+                () -> loginAdmission.admitAddress("10.0.0.1"));
+
+        // Assert: 6 per minute is one token every 10 seconds
+        assertEquals(10, refused.getRetryAfterSeconds());
+        assertDoesNotThrow(() -> loginAdmission.admitAddress("10.0.0.2"));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertDoesNotThrow(() -> loginAdmission.admitAddress("10.0.0.1"));
+        assertEquals(1, meterRegistry.get("auth.admission.rejected").tag("scope", "address").counter().count());
+    }
+
+    @Test
+    void admitAccount_DifferentCase_SharesBucket() {
+        // Arrange
+        loginAdmission.admitAccount("Alice@Example.com");
+        loginAdmission.admitAccount("alice@example.com");
+
+        // Act & Assert
+        assertThrows(TooManyRequestsException.class, () -> loginAdmission.admitAccount("ALICE@example.com"));
+    }
+
+    @Test
+    void evictRefilledBuckets_OnlyRefilledBuckets_AreDropped() {
+        // Arrange
+        loginAdmission.admitAddress("10.0.0.1");
+        loginAdmission.admitAccount("alice@example.com");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        // Act
+        loginAdmission.evictRefilledBuckets();
+
+        // Assert: the address bucket refilled in 10s, the account needs a minute
+        assertEquals(0, meterRegistry.get("auth.admission.tracked").tag("scope", "address").gauge().value());
+        assertEquals(1, meterRegistry.get("auth.admission.tracked").tag("scope", "account").gauge().value());
+    }
+}
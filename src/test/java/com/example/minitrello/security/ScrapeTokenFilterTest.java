@@ -0,0 +1,97 @@
+package com.example.minitrello.security;
+
+import com.example.minitrello.config.MetricsConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScrapeTokenFilterTest {
+
+    private static final String TOKEN = "scrape-secret";
+
+    @BeforeEach
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_MatchingToken_AuthenticatesWithMetricsRole() throws Exception {
+        // Arrange
+        ScrapeTokenFilter filter = new ScrapeTokenFilter(config(TOKEN));
+        MockHttpServletRequest request = scrape("Bearer " + TOKEN);
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals(ScrapeTokenFilter.METRICS_ROLE,
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).findFirst().orElseThrow());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void doFilter_WrongToken_LeavesRequestUnauthenticated() throws Exception {
+        // Arrange
+        ScrapeTokenFilter filter = new ScrapeTokenFilter(config(TOKEN));
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(scrape("Bearer wrong"), new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void doFilter_OtherPath_IgnoresToken() throws Exception {
+        // Arrange
+        ScrapeTokenFilter filter = new ScrapeTokenFilter(config(TOKEN));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/metrics");
+        request.setServletPath("/actuator/metrics");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void doFilter_NoTokenConfigured_IgnoresEmptyBearer() throws Exception {
+        // Arrange
+        ScrapeTokenFilter filter = new ScrapeTokenFilter(config(""));
+
+        // Act
+        filter.doFilter(scrape("Bearer "), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private static MetricsConfig config(String token) {
+        MetricsConfig config = new MetricsConfig();
+        config.setScrapeToken(token);
+        return config;
+    }
+
+    private static MockHttpServletRequest scrape(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", ScrapeTokenFilter.SCRAPE_PATH);
+        request.setServletPath(ScrapeTokenFilter.SCRAPE_PATH);
+        request.addHeader("Authorization", authorization);
+        return request;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.minitrello.security;
+
+import com.example.minitrello.config.JwtConfig;
+import com.example.minitrello.config.TokenRevocationConfig;
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.TokensRevokedEvent;
+import com.example.minitrello.event.UserChangedEvent;
+import com.example.minitrello.repository.TokenRevocationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationsTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T12:00:00Z");
+
+    @Mock
+    private TokenRevocationRepository repository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(START);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TokenRevocations tokenRevocations;
+
+    @BeforeEach
+    void setUp() {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setExpiration((int) Duration.ofHours(24).toMillis());
+        tokenRevocations = new TokenRevocations(repository, new TokenRevocationConfig(), jwtConfig, eventPublisher,
+                meterRegistry, new MutableClock(now));
+    }
+
+    @Test
+    void revokeToken_AfterCommit_RejectsOnlyThatToken() {
+        // Arrange
+        Instant expiresAt = START.plus(Duration.ofHours(1));
+
+        // Act
+        tokenRevocations.revokeToken(7L, "token-1", expiresAt);
+        tokenRevocations.onTokensRevoked(publishedEvent());
+
+        // Assert
+        verify(repository).insert(new TokenRevocation(7L, "token-1", null, expiresAt));
+        assertTrue(tokenRevocations.isRevoked(7L, START.toEpochMilli(), "token-1"));
+        assertFalse(tokenRevocations.isRevoked(7L, START.toEpochMilli(), "token-2"));
+        assertFalse(tokenRevocations.isRevoked(7L, START.toEpochMilli(), null));
+        assertEquals(1, meterRegistry.get("auth.revocations.rejected").tag("scope", "token").counter().count());
+    }
+
+    @Test
+    void onUserChanged_UserDisabled_RejectsTokensIssuedBefore() {
+        // Act
+        tokenRevocations.onUserChanged(UserChangedEvent.builder()
+                .type(ChangeType.UPDATED).userId(7L).active(false).build());
+        tokenRevocations.onTokensRevoked(publishedEvent());
+
+        // Assert
+        verify(repository).insert(new TokenRevocation(7L, null, START, START.plus(Duration.ofHours(24))));
+        assertTrue(tokenRevocations.isRevoked(7L, START.minusSeconds(60).toEpochMilli(), "token-1"));
+        assertFalse(tokenRevocations.isRevoked(7L, START.plusSeconds(1).toEpochMilli(), "token-2"));
+        assertFalse(tokenRevocations.isRevoked(8L, START.minusSeconds(60).toEpochMilli(), "token-3"));
+    }
+
+    @Test
+    void onUserChanged_ProfileUpdated_RevokesNothing() {
+        // Act
+        tokenRevocations.onUserChanged(UserChangedEvent.builder().type(ChangeType.UPDATED).userId(7L).build());
+        tokenRevocations.onUserChanged(UserChangedEvent.builder()
+                .type(ChangeType.UPDATED).userId(7L).active(true).build());
+
+        // Assert
+        verifyNoInteractions(repository, eventPublisher);
+    }
+
+    @Test
+    void reloadAll_ManyUsers_FindsEveryCutoff() {
+        // Arrange
+        List<TokenRevocation> stored = LongStream.rangeClosed(1, 1000)
+                .mapToObj(userId -> new TokenRevocation(userId, null, START, START.plus(Duration.ofHours(24))))
+                .toList();
+        when(repository.findActive(START)).thenReturn(stored);
+
+        // Act
+        tokenRevocations.reloadAll();
+
+        // Assert
+        for (long userId = 1; userId <= 1000; userId++) {
+            assertTrue(tokenRevocations.isRevoked(userId, START.minusSeconds(1).toEpochMilli(), null));
+        }
+        assertFalse(tokenRevocations.isRevoked(1001L, START.minusSeconds(1).toEpochMilli(), null));
+        assertEquals(1000, meterRegistry.get("auth.revocations.tracked").tag("scope", "user").gauge().value());
+    }
+
+    @Test
+    void prune_ExpiredRevocations_AreForgotten() {
+        // Arrange
+        when(repository.findActive(START)).thenReturn(List.of(
+                new TokenRevocation(7L, "short-lived", null, START.plus(Duration.ofMinutes(5))),
+                new TokenRevocation(7L, "long-lived", null, START.plus(Duration.ofHours(2))),
+                new TokenRevocation(8L, null, START, START.plus(Duration.ofMinutes(5)))));
+        tokenRevocations.reloadAll();
+        now.set(START.plus(Duration.ofMinutes(10)));
+
+        // Act
+        tokenRevocations.prune();
+
+        // Assert
+        verify(repository).deleteExpired(now.get());
+        assertFalse(tokenRevocations.isRevoked(7L, START.toEpochMilli(), "short-lived"));
+        assertTrue(tokenRevocations.isRevoked(7L, START.toEpochMilli(), "long-lived"));
+        assertFalse(tokenRevocations.isRevoked(8L, START.minusSeconds(1).toEpochMilli(), null));
+        assertEquals(1, meterRegistry.get("auth.revocations.tracked").tag("scope", "token").gauge().value());
+    }
+
+    private TokensRevokedEvent publishedEvent() {
+        ArgumentCaptor<TokensRevokedEvent> event = ArgumentCaptor.forClass(TokensRevokedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        return event.getValue();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private final AtomicReference<Instant> now;
+
+        MutableClock(AtomicReference<Instant> now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+    }
+}
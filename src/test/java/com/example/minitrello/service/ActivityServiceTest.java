@@ -0,0 +1,91 @@
+package com.example.minitrello.service;
+
+import com.example.minitrello.config.ShardConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.dto.activity.ActivityDto;
+import com.example.minitrello.dto.common.KeysetPageDto;
+import com.example.minitrello.exception.AccessDeniedException;
+import com.example.minitrello.repository.ActivityLogRepository;
+import com.example.minitrello.repository.ProjectRepository;
+import com.example.minitrello.service.interfaces.AuthService;
+import com.example.minitrello.util.CursorUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long PROJECT_ID = 2L;
+
+    @Mock
+    private ActivityLogRepository activityLogRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private AuthService authService;
+
+    @Spy
+    private ShardRouting shardRouting = new ShardRouting(null, new ShardConfig());
+
+    @InjectMocks
+    private ActivityServiceImpl activityService;
+
+    @Test
+    void getProjectActivity_MoreEntries_ReturnsNextCursor() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 10, 30);
+        ActivityDto first = ActivityDto.builder().id(11L).createdAt(createdAt).build();
+        ActivityDto second = ActivityDto.builder().id(10L).createdAt(createdAt).build();
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        when(projectRepository.hasUserAccess(PROJECT_ID, USER_ID)).thenReturn(true);
+        when(activityLogRepository.findByProject(PROJECT_ID, 2)).thenReturn(List.of(first, second));
+
+        // Act
+        KeysetPageDto<ActivityDto> result = activityService.getProjectActivity(PROJECT_ID, null, 1);
+
+        // Assert
+        assertTrue(result.isHasMore());
+        assertEquals(List.of(first), result.getItems());
+        assertArrayEquals(new String[]{createdAt.toString(), "11"}, CursorUtils.decode(result.getNextCursor(), 2));
+    }
+
+    @Test
+    void getProjectActivity_NoAccess_ThrowsException() {
+        // Arrange
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        when(projectRepository.hasUserAccess(PROJECT_ID, USER_ID)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> activityService.getProjectActivity(PROJECT_ID, null, 20));
+        verifyNoInteractions(activityLogRepository);
+    }
+
+    @Test
+    void getAccountActivity_WithCursor_SeeksAfterLastEntry() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 10, 30);
+        ActivityDto entry = ActivityDto.builder().id(9L).action("USER_DISABLED").createdAt(createdAt).build();
+        when(activityLogRepository.findAccountActivityAfter(createdAt, 10L, 21)).thenReturn(List.of(entry));
+
+        // Act
+        KeysetPageDto<ActivityDto> result = activityService.getAccountActivity(CursorUtils.encode(createdAt, 10L), 20);
+
+        // Assert
+        assertFalse(result.isHasMore());
+        assertEquals(List.of(entry), result.getItems());
+        verifyNoInteractions(projectRepository);
+    }
+}
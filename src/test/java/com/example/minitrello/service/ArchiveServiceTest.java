@@ -0,0 +1,159 @@
+package com.example.minitrello.service;
+
+import com.example.minitrello.config.ShardConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.dto.common.KeysetPageDto;
+import com.example.minitrello.dto.task.ArchivedTaskDto;
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.TaskChangedEvent;
+import com.example.minitrello.exception.AccessDeniedException;
+import com.example.minitrello.exception.ResourceNotFoundException;
+import com.example.minitrello.metrics.ReorderMetrics;
+import com.example.minitrello.repository.ArchiveRepository;
+import com.example.minitrello.repository.ArchiveRepository.ArchivedTask;
+import com.example.minitrello.repository.ProjectRepository;
+import com.example.minitrello.repository.TaskRepository;
+import com.example.minitrello.service.interfaces.AuthService;
+import com.example.minitrello.util.CursorUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ArchiveServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long PROJECT_ID = 2L;
+    private static final Long TASKLIST_ID = 3L;
+    private static final Long TASK_ID = 4L;
+
+    @Mock
+    private ArchiveRepository archiveRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ReorderMetrics reorderMetrics;
+
+    @Spy
+    private ShardRouting shardRouting = new ShardRouting(null, new ShardConfig());
+
+    @InjectMocks
+    private ArchiveServiceImpl archiveService;
+
+    @Test
+    void archiveTask_Success_ClosesGapAndPublishesArchived() {
+        // Arrange
+        when(archiveRepository.findTaskProjectId(TASK_ID)).thenReturn(Optional.of(PROJECT_ID));
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        when(projectRepository.hasUserAccess(PROJECT_ID, USER_ID)).thenReturn(true);
+        when(archiveRepository.archiveTask(eq(PROJECT_ID), eq(TASK_ID), any())).thenReturn(Optional.of(archivedTask(false)));
+        when(archiveRepository.normalizeTaskPositions(TASKLIST_ID)).thenReturn(2);
+
+        // Act
+        ArchivedTaskDto result = archiveService.archiveTask(TASK_ID);
+
+        // Assert
+        assertEquals(TASK_ID, result.getId());
+        verify(reorderMetrics).record(ReorderMetrics.TASK, ReorderMetrics.NORMALIZE, 2);
+        ArgumentCaptor<TaskChangedEvent> event = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(ChangeType.ARCHIVED, event.getValue().getType());
+        assertEquals(PROJECT_ID, event.getValue().getProjectId());
+    }
+
+    @Test
+    void archiveTask_NoAccess_ThrowsException() {
+        // Arrange
+        when(archiveRepository.findTaskProjectId(TASK_ID)).thenReturn(Optional.of(PROJECT_ID));
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        when(projectRepository.hasUserAccess(PROJECT_ID, USER_ID)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> archiveService.archiveTask(TASK_ID));
+        verify(archiveRepository, never()).archiveTask(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void restoreTask_NotArchived_ThrowsResourceNotFoundException() {
+        // Arrange
+        when(archiveRepository.findArchivedTask(TASK_ID)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> archiveService.restoreTask(TASK_ID));
+    }
+
+    @Test
+    void restoreTask_TaskListArchived_ThrowsIllegalStateException() {
+        // Arrange
+        when(archiveRepository.findArchivedTask(TASK_ID)).thenReturn(Optional.of(archivedTask(true)));
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        when(projectRepository.hasUserAccess(PROJECT_ID, USER_ID)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> archiveService.restoreTask(TASK_ID));
+        verify(archiveRepository, never()).restoreTask(anyLong(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void getArchivedTasks_MoreTasks_ReturnsNextCursor() {
+        // Arrange
+        ArchivedTask first = archivedTask(false);
+        ArchivedTask second = new ArchivedTask(5L, "Older", null, TASKLIST_ID, "Done", false, null, PROJECT_ID,
+                first.createdAt(), first.updatedAt(), first.archivedAt().minusDays(1));
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        when(projectRepository.hasUserAccess(PROJECT_ID, USER_ID)).thenReturn(true);
+        when(archiveRepository.findArchivedTasks(PROJECT_ID, 2)).thenReturn(List.of(first, second));
+
+        // Act
+        KeysetPageDto<ArchivedTaskDto> result = archiveService.getArchivedTasks(PROJECT_ID, null, 1);
+
+        // Assert
+        assertTrue(result.isHasMore());
+        assertEquals(1, result.getItems().size());
+        assertArrayEquals(new String[]{first.archivedAt().toString(), TASK_ID.toString()},
+                CursorUtils.decode(result.getNextCursor(), 2));
+    }
+
+    @Test
+    void getArchivedTasks_InvalidCursor_ThrowsIllegalArgumentException() {
+        // Arrange
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        when(projectRepository.hasUserAccess(PROJECT_ID, USER_ID)).thenReturn(true);
+        String cursor = CursorUtils.encode("yesterday", "x");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> archiveService.getArchivedTasks(PROJECT_ID, cursor, 20));
+        verify(archiveRepository, never()).findArchivedTasksAfter(anyLong(), any(), anyLong(), anyInt());
+    }
+
+    private static ArchivedTask archivedTask(boolean taskListArchived) {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 5, 9, 0);
+        return new ArchivedTask(TASK_ID, "Old task", null, TASKLIST_ID, "Done", taskListArchived, null, PROJECT_ID,
+                createdAt, createdAt, LocalDateTime.of(2024, 6, 1, 12, 0));
+    }
+}
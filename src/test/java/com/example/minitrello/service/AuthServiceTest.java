@@ -5,13 +5,18 @@ import com.example.minitrello.dto.auth.LoginResponse;
 import com.example.minitrello.dto.auth.RegisterRequest;
 import com.example.minitrello.dto.user.UserDto;
 import com.example.minitrello.exception.ResourceNotFoundException;
+import com.example.minitrello.exception.TooManyRequestsException;
 import com.example.minitrello.mapper.UserMapper;
 import com.example.minitrello.model.Role;
 import com.example.minitrello.model.User;
 import com.example.minitrello.repository.UserRepository;
 import com.example.minitrello.security.JwtUtils;
+import com.example.minitrello.security.LoginAdmission;
+import com.example.minitrello.security.TokenRevocations;
 import com.example.minitrello.security.UserDetailsImpl;
 import com.example.minitrello.service.interfaces.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -20,6 +25,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -27,7 +33,9 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.Date;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -60,6 +68,12 @@ public class AuthServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private LoginAdmission loginAdmission;
+
+    @Mock
+    private TokenRevocations tokenRevocations;
+
     @Mock
     private Authentication authentication;
 
@@ -202,19 +216,84 @@ public class AuthServiceTest {
         verify(userMapper).toLoginResponse(userDetails, jwtToken);
     }
 
+    @Test
+    @DisplayName("Should refuse login without checking the password when the account is rate limited")
+    void shouldRefuseLoginWhenAccountIsRateLimited() {
+        // Arrange
+        doThrow(new TooManyRequestsException("Too many login attempts for this account", Duration.ofSeconds(12)))
+                .when(loginAdmission).admitAccount(loginRequest.getEmail());
+
+        // Act & Assert
+        assertThatThrownBy(() -> authService.authenticateUser(loginRequest))
+                .isInstanceOf(TooManyRequestsException.class);
+        verifyNoInteractions(authenticationManager);
+    }
+
+    @Test
+    @DisplayName("Should report a full hashing queue during login as too many requests")
+    void shouldUnwrapHashingRefusalFromAuthenticationProvider() {
+        // Arrange
+        TooManyRequestsException refusal = new TooManyRequestsException("Too many authentication requests in progress", Duration.ofSeconds(1));
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new InternalAuthenticationServiceException(refusal.getMessage(), refusal));
+
+        // Act & Assert
+        assertThatThrownBy(() -> authService.authenticateUser(loginRequest)).isSameAs(refusal);
+    }
+
     @Test
     @DisplayName("Should validate JWT token")
     void shouldValidateJwtToken() {
         // Arrange
         String token = "valid.jwt.token";
-        when(jwtUtils.validateJwtToken(token)).thenReturn(true);
+        Claims claims = tokenClaims("token-1");
+        when(jwtUtils.parseValidToken(token)).thenReturn(claims);
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(tokenRevocations.isRevoked(1L, claims.getIssuedAt().getTime(), "token-1")).thenReturn(false);
 
         // Act
         boolean isValid = authService.validateToken(token);
 
         // Assert
         assertThat(isValid).isTrue();
-        verify(jwtUtils, times(1)).validateJwtToken(token);
+        verify(jwtUtils, times(1)).parseValidToken(token);
+    }
+
+    @Test
+    @DisplayName("Should report a revoked token as invalid")
+    void shouldReportRevokedTokenAsInvalid() {
+        // Arrange
+        String token = "revoked.jwt.token";
+        Claims claims = tokenClaims("token-1");
+        when(jwtUtils.parseValidToken(token)).thenReturn(claims);
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(tokenRevocations.isRevoked(1L, claims.getIssuedAt().getTime(), "token-1")).thenReturn(true);
+
+        // Act
+        boolean isValid = authService.validateToken(token);
+
+        // Assert
+        assertThat(isValid).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should revoke the current token on logout")
+    void shouldRevokeCurrentTokenOnLogout() {
+        // Arrange
+        String token = "valid.jwt.token";
+        Claims claims = tokenClaims("token-1");
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+        when(jwtUtils.parseValidToken(token)).thenReturn(claims);
+
+        // Act
+        authService.logout(token);
+
+        // Assert
+        verify(tokenRevocations).revokeToken(1L, "token-1", claims.getExpiration().toInstant());
+        verify(tokenRevocations, never()).revokeAllTokens(anyLong());
     }
 
     @Test
@@ -283,4 +362,12 @@ public class AuthServiceTest {
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("User not found with id : '1'");
     }
-}
\ No newline at end of file
+
+    private static Claims tokenClaims(String tokenId) {
+        Claims claims = Jwts.claims().setSubject("test@example.com");
+        claims.setId(tokenId);
+        claims.setIssuedAt(new Date(1_000_000L));
+        claims.setExpiration(new Date(87_400_000L));
+        return claims;
+    }
+}
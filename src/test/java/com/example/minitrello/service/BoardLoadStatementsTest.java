@@ -0,0 +1,124 @@
+package com.example.minitrello.service;
+
+import com.example.minitrello.diagnostics.ExpectedStatements;
+import com.example.minitrello.diagnostics.QueryCountExtension;
+import com.example.minitrello.dto.project.ProjectDto;
+import com.example.minitrello.dto.tasklist.TaskListDto;
+import com.example.minitrello.security.UserDetailsImpl;
+import com.example.minitrello.service.interfaces.ProjectService;
+import com.example.minitrello.service.interfaces.TaskListService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement counts of the two board loads, so a mapper that starts lazy loading members, owners, task lists or
+ * assignees per row fails here instead of in production. The board is seeded with plain JDBC, which is not
+ * counted, and has several lists, tasks and assignees so per-row loading would add statements. Each test runs
+ * in a transaction that is rolled back.
+ */
+@SpringBootTest
+@Transactional
+@ExtendWith(QueryCountExtension.class)
+class BoardLoadStatementsTest {
+
+    private static final int TASK_LISTS = 3;
+    private static final int TASKS_PER_LIST = 4;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskListService taskListService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long projectId;
+
+    @BeforeEach
+    void setUp() {
+        long owner = insertUser("owner");
+        List<Long> members = List.of(insertUser("member-a"), insertUser("member-b"));
+
+        projectId = nextId("projects_id_seq");
+        jdbcTemplate.update("INSERT INTO projects (id, name, owner_id, created_at, updated_at) "
+                + "VALUES (?, 'Board', ?, now(), now())", projectId, owner);
+        for (Long member : members) {
+            jdbcTemplate.update("INSERT INTO project_members (project_id, user_id) VALUES (?, ?)", projectId, member);
+        }
+        for (int list = 0; list < TASK_LISTS; list++) {
+            long taskListId = nextId("task_lists_id_seq");
+            jdbcTemplate.update("INSERT INTO task_lists (id, name, position, project_id, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, now(), now())", taskListId, "List " + list, list, projectId);
+            for (int task = 0; task < TASKS_PER_LIST; task++) {
+                jdbcTemplate.update("INSERT INTO tasks (id, title, position, task_list_id, project_id, "
+                                + "assigned_user_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, now(), now())",
+                        nextId("tasks_id_seq"), "Task " + task, task, taskListId, projectId,
+                        members.get(task % members.size()));
+            }
+        }
+
+        UserDetailsImpl principal = UserDetailsImpl.builder().id(owner).email("owner@board.test").build();
+        SecurityContextHolder.setContext(new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @ExpectedStatements(value = 5, entityLoads = 19, collectionLoads = 2)
+    void findProjectById_Board_LoadsInFixedStatements() {
+        // Act
+        ProjectDto project = projectService.findProjectById(projectId).orElseThrow();
+
+        // Assert
+        assertEquals(2, project.getMemberCount());
+        assertEquals(TASK_LISTS, project.getTaskListCount());
+        project.getTaskLists().forEach(taskList -> {
+            assertEquals(TASKS_PER_LIST, taskList.getTaskCount());
+            taskList.getTasks().forEach(task -> assertNotNull(task.getAssignedUserName()));
+        });
+    }
+
+    @Test
+    @ExpectedStatements(value = 4, entityLoads = 18, collectionLoads = 2)
+    void findTaskListsByProject_Board_LoadsInFixedStatements() {
+        // Act
+        List<TaskListDto> taskLists = taskListService.findTaskListsByProject(projectId);
+
+        // Assert
+        assertEquals(TASK_LISTS, taskLists.size());
+        taskLists.forEach(taskList -> {
+            assertEquals("Board", taskList.getProjectName());
+            assertEquals(TASKS_PER_LIST, taskList.getTaskCount());
+            taskList.getTasks().forEach(task -> assertNotNull(task.getAssignedUserName()));
+        });
+    }
+
+    private long insertUser(String name) {
+        long id = nextId("users_id_seq");
+        jdbcTemplate.update("INSERT INTO users (id, name, email, password, role, created_at, updated_at) "
+                + "VALUES (?, ?, ?, 'x', 'ROLE_USER', now(), now())", id, name, name + "-" + id + "@board.test");
+        return id;
+    }
+
+    private long nextId(String sequence) {
+        return jdbcTemplate.queryForObject("SELECT nextval('" + sequence + "')", Long.class);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.minitrello.service;
+
+import com.example.minitrello.config.ProfilingConfig;
+import com.example.minitrello.dto.profiling.RecordingDto;
+import com.example.minitrello.dto.profiling.RecordingStartDto;
+import com.example.minitrello.dto.profiling.RecordingSummaryDto;
+import com.example.minitrello.profiling.ProfilingPreset;
+import com.example.minitrello.profiling.RecordingAnalyzer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfilingServiceTest {
+
+    @TempDir
+    private Path directory;
+
+    private ProfilingServiceImpl profilingService;
+
+    @BeforeEach
+    void setUp() {
+        ProfilingConfig config = new ProfilingConfig();
+        config.setDirectory(directory);
+        config.setMaxRecordings(2);
+        profilingService = new ProfilingServiceImpl(config, new RecordingAnalyzer());
+    }
+
+    @AfterEach
+    void tearDown() {
+        profilingService.shutdown();
+    }
+
+    @Test
+    void summarizeRecording_CpuRecording_ReturnsHotMethods() {
+        // Arrange
+        RecordingDto recording = profilingService.startRecording(new RecordingStartDto(ProfilingPreset.CPU, 60L));
+        burnCpu(500);
+        profilingService.stopRecording(recording.getId());
+
+        // Act
+        RecordingSummaryDto summary = profilingService.summarizeRecording(recording.getId(), 5);
+
+        // Assert
+        assertTrue(Files.exists(profilingService.getRecordingFile(recording.getId())));
+        assertEquals(recording.getId(), summary.getRecordingId());
+        assertTrue(summary.getExecutionSamples() > 0);
+        assertFalse(summary.getHotMethods().isEmpty());
+        assertTrue(summary.getHotMethods().size() <= 5);
+    }
+
+    @Test
+    void startRecording_AlreadyRunning_ThrowsIllegalStateException() {
+        // Arrange
+        RecordingDto recording = profilingService.startRecording(new RecordingStartDto(ProfilingPreset.LOCKS, 60L));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> profilingService.startRecording(new RecordingStartDto(ProfilingPreset.CPU, null)));
+        assertThrows(IllegalStateException.class, () -> profilingService.getRecordingFile(recording.getId()));
+    }
+
+    @Test
+    void startRecording_DirectoryFull_DeletesOldestRecording() throws Exception {
+        // Arrange
+        Path oldest = Files.writeString(directory.resolve("cpu-old.jfr"), "old");
+        Path older = Files.writeString(directory.resolve("cpu-older.jfr"), "older");
+        Files.setLastModifiedTime(oldest, FileTime.from(Instant.parse("2020-01-01T00:00:00Z")));
+        Files.setLastModifiedTime(older, FileTime.from(Instant.parse("2020-01-02T00:00:00Z")));
+
+        // Act
+        profilingService.startRecording(new RecordingStartDto(ProfilingPreset.CPU, 60L));
+
+        // Assert
+        assertFalse(Files.exists(oldest));
+        assertTrue(Files.exists(older));
+    }
+
+    private static void burnCpu(long millis) {
+        long end = System.nanoTime() + millis * 1_000_000;
+        double value = 0;
+        while (System.nanoTime() < end) {
+            value += Math.sqrt(value + 1);
+        }
+        assertTrue(value > 0);
+    }
+}
@@ -1,31 +1,64 @@
 package com.example.minitrello.service;
 
+import com.example.minitrello.config.ShardConfig;
+import com.example.minitrello.config.SoftDeleteConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.datasource.ShardUsers;
+import com.example.minitrello.dto.common.KeysetPageDto;
+import com.example.minitrello.dto.job.JobDto;
+import com.example.minitrello.dto.project.DeletedProjectDto;
+import com.example.minitrello.dto.project.ProjectCloneDto;
 import com.example.minitrello.dto.project.ProjectCreateDto;
 import com.example.minitrello.dto.project.ProjectDto;
 import com.example.minitrello.dto.project.ProjectUpdateDto;
+import com.example.minitrello.dto.user.SimpleUserDto;
 import com.example.minitrello.dto.user.UserDto;
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.ProjectChangedEvent;
 import com.example.minitrello.exception.AccessDeniedException;
 import com.example.minitrello.exception.ResourceNotFoundException;
+import com.example.minitrello.job.Job;
+import com.example.minitrello.job.JobRunner;
+import com.example.minitrello.job.JobState;
+import com.example.minitrello.job.JobType;
 import com.example.minitrello.mapper.ProjectMapper;
 import com.example.minitrello.model.Project;
 import com.example.minitrello.model.Role;
+import com.example.minitrello.model.Task;
+import com.example.minitrello.model.TaskList;
 import com.example.minitrello.model.User;
+import com.example.minitrello.repository.ProjectCloneRepository;
+import com.example.minitrello.repository.ProjectCloneRepository.CopiedRows;
+import com.example.minitrello.repository.ProjectCloneRepository.SourceProject;
 import com.example.minitrello.repository.ProjectRepository;
+import com.example.minitrello.repository.SoftDeleteRepository;
+import com.example.minitrello.repository.SoftDeleteRepository.DeletedProject;
+import com.example.minitrello.repository.TaskRepository;
 import com.example.minitrello.repository.UserRepository;
+import com.example.minitrello.search.MemberDirectory;
 import com.example.minitrello.service.interfaces.AuthService;
+import com.example.minitrello.service.interfaces.JobService;
+import com.example.minitrello.util.CursorUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -47,6 +80,36 @@ class ProjectServiceTest {
     @Mock
     private AuthService authService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MemberDirectory memberDirectory;
+
+    @Mock
+    private SoftDeleteRepository softDeleteRepository;
+
+    @Spy
+    private SoftDeleteConfig softDeleteConfig = new SoftDeleteConfig();
+
+    @Mock
+    private JobRunner jobRunner;
+
+    @Mock
+    private JobService jobService;
+
+    @Mock
+    private ProjectCloneRepository projectCloneRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Spy
+    private ShardRouting shardRouting = new ShardRouting(null, new ShardConfig());
+
+    @Mock
+    private ShardUsers shardUsers;
+
     @InjectMocks
     private ProjectServiceImpl projectService;
 
@@ -228,9 +291,14 @@ class ProjectServiceTest {
     void findProjectById_Success() {
         // Arrange
         when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        TaskList taskList = TaskList.builder().id(10L).name("To Do").position(1).project(testProject).build();
+        testProject.getTaskLists().add(taskList);
+        Map<Long, List<Task>> tasksByTaskListId = Map.of(10L, List.of(Task.builder().id(100L).build()));
         when(projectRepository.findByIdWithAccessCheck(PROJECT_ID, USER_ID))
                 .thenReturn(Optional.of(testProject));
-        when(projectMapper.toDto(testProject)).thenReturn(testProjectDto);
+        when(taskRepository.findByProjectIdGroupedByTaskList(PROJECT_ID, List.of(10L)))
+                .thenReturn(tasksByTaskListId);
+        when(projectMapper.toDto(testProject, tasksByTaskListId)).thenReturn(testProjectDto);
 
         // Act
         Optional<ProjectDto> result = projectService.findProjectById(PROJECT_ID);
@@ -239,10 +307,11 @@ class ProjectServiceTest {
         assertTrue(result.isPresent());
         assertEquals(PROJECT_ID, result.get().getId());
 
-        // Verify
+        // Verify: the tasks of all lists are read in one query
         verify(authService).getCurrentAuthenticatedUserId();
         verify(projectRepository).findByIdWithAccessCheck(PROJECT_ID, USER_ID);
-        verify(projectMapper).toDto(testProject);
+        verify(taskRepository).findByProjectIdGroupedByTaskList(PROJECT_ID, List.of(10L));
+        verify(projectMapper).toDto(testProject, tasksByTaskListId);
     }
 
     @Test
@@ -295,8 +364,7 @@ class ProjectServiceTest {
         Page<Project> projectPage = new PageImpl<>(Collections.singletonList(testProject));
 
         when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
-        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(testUser));
-        when(projectRepository.findByOwner(testUser, pageable)).thenReturn(projectPage);
+        when(projectRepository.findByOwnerId(USER_ID, pageable)).thenReturn(projectPage);
         when(projectMapper.toDto(testProject)).thenReturn(testProjectDto);
 
         // Act
@@ -309,11 +377,44 @@ class ProjectServiceTest {
 
         // Verify
         verify(authService).getCurrentAuthenticatedUserId();
-        verify(userRepository).findById(USER_ID);
-        verify(projectRepository).findByOwner(testUser, pageable);
+        verify(projectRepository).findByOwnerId(USER_ID, pageable);
         verify(projectMapper).toDto(testProject);
     }
 
+    @Test
+    void findRecentProjects_MoreProjects_ReturnsNextCursor() {
+        // Arrange
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 3, 1, 9, 0);
+        Project older = Project.builder().id(2L).name("Older").owner(testUser).build();
+        ProjectDto olderDto = ProjectDto.builder().id(2L).updatedAt(updatedAt.minusDays(1)).build();
+        testProjectDto.setUpdatedAt(updatedAt);
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        when(projectRepository.findRecentlyUpdatedProjects(USER_ID, Limit.of(2)))
+                .thenReturn(List.of(testProject, older));
+        when(projectMapper.toDto(testProject)).thenReturn(testProjectDto);
+        when(projectMapper.toDto(older)).thenReturn(olderDto);
+
+        // Act
+        KeysetPageDto<ProjectDto> result = projectService.findRecentProjects(null, 1);
+
+        // Assert
+        assertTrue(result.isHasMore());
+        assertEquals(List.of(testProjectDto), result.getItems());
+        assertArrayEquals(new String[]{updatedAt.toString(), PROJECT_ID.toString()},
+                CursorUtils.decode(result.getNextCursor(), 2));
+    }
+
+    @Test
+    void findRecentProjects_MalformedCursor_ThrowsException() {
+        // Arrange
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        String cursor = CursorUtils.encode("yesterday", "x");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> projectService.findRecentProjects(cursor, 20));
+        verifyNoInteractions(projectRepository);
+    }
+
     @Test
     void findProjectsWhereUserIsMember_Success() {
         // Arrange
@@ -341,28 +442,34 @@ class ProjectServiceTest {
     @Test
     void deleteProject_Success() {
         // Arrange
+        LocalDateTime deletedAt = LocalDateTime.now();
         when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
-        when(projectRepository.findById(PROJECT_ID)).thenReturn(Optional.of(testProject));
+        when(projectRepository.findOwnerIdById(PROJECT_ID)).thenReturn(Optional.of(USER_ID));
+        when(softDeleteRepository.markProjectDeleted(eq(PROJECT_ID), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(new DeletedProject(PROJECT_ID, "Test Project", USER_ID, deletedAt)));
 
         // Act
         boolean result = projectService.deleteProject(PROJECT_ID);
 
         // Assert
         assertTrue(result);
+        ArgumentCaptor<ProjectChangedEvent> event = ArgumentCaptor.forClass(ProjectChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(ChangeType.DELETED, event.getValue().getType());
+        assertEquals("Test Project", event.getValue().getName());
+        verify(jobRunner).enqueue(JobType.PROJECT_PURGE, USER_ID, PROJECT_ID, deletedAt.plusDays(7));
 
         // Verify
         verify(authService).getCurrentAuthenticatedUserId();
-        verify(projectRepository).findById(PROJECT_ID);
-        verify(projectRepository).delete(testProject);
+        verify(projectRepository).findOwnerIdById(PROJECT_ID);
+        verifyNoMoreInteractions(projectRepository);
     }
 
     @Test
     void deleteProject_NotOwner_ThrowsException() {
         // Arrange
-        testProject.setOwner(testMember); // Change owner to someone else
-
         when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
-        when(projectRepository.findById(PROJECT_ID)).thenReturn(Optional.of(testProject));
+        when(projectRepository.findOwnerIdById(PROJECT_ID)).thenReturn(Optional.of(MEMBER_ID));
 
         // Act & Assert
         assertThrows(AccessDeniedException.class, () ->
@@ -370,15 +477,15 @@ class ProjectServiceTest {
 
         // Verify
         verify(authService).getCurrentAuthenticatedUserId();
-        verify(projectRepository).findById(PROJECT_ID);
-        verifyNoMoreInteractions(projectRepository);
+        verify(projectRepository).findOwnerIdById(PROJECT_ID);
+        verifyNoInteractions(softDeleteRepository);
     }
 
     @Test
     void deleteProject_ProjectNotFound_ReturnsFalse() {
         // Arrange
         when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
-        when(projectRepository.findById(PROJECT_ID)).thenReturn(Optional.empty());
+        when(projectRepository.findOwnerIdById(PROJECT_ID)).thenReturn(Optional.empty());
 
         // Act
         boolean result = projectService.deleteProject(PROJECT_ID);
@@ -388,8 +495,185 @@ class ProjectServiceTest {
 
         // Verify
         verify(authService).getCurrentAuthenticatedUserId();
-        verify(projectRepository).findById(PROJECT_ID);
-        verifyNoMoreInteractions(projectRepository);
+        verify(projectRepository).findOwnerIdById(PROJECT_ID);
+        verifyNoInteractions(softDeleteRepository);
+    }
+
+    @Test
+    void restoreProject_WithinRestoreWindow_ReturnsProject() {
+        // Arrange
+        LocalDateTime deletedAt = LocalDateTime.now().minusDays(1);
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        when(softDeleteRepository.findDeletedProject(PROJECT_ID))
+                .thenReturn(Optional.of(new DeletedProject(PROJECT_ID, "Test Project", USER_ID, deletedAt)));
+        when(softDeleteRepository.restoreProject(eq(PROJECT_ID), any(LocalDateTime.class))).thenReturn(true);
+        when(projectRepository.findById(PROJECT_ID)).thenReturn(Optional.of(testProject));
+        when(projectMapper.toDto(testProject)).thenReturn(testProjectDto);
+
+        // Act
+        ProjectDto result = projectService.restoreProject(PROJECT_ID);
+
+        // Assert
+        assertEquals(testProjectDto, result);
+        ArgumentCaptor<LocalDateTime> restorableSince = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(softDeleteRepository).restoreProject(eq(PROJECT_ID), restorableSince.capture());
+        assertTrue(restorableSince.getValue().isBefore(LocalDateTime.now().minusDays(6)));
+        verify(jobRunner).cancelQueued(JobType.PROJECT_PURGE, PROJECT_ID);
+        verify(eventPublisher).publishEvent(any(ProjectChangedEvent.class));
+    }
+
+    @Test
+    void restoreProject_RestoreWindowPassed_ThrowsException() {
+        // Arrange
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        when(softDeleteRepository.findDeletedProject(PROJECT_ID)).thenReturn(Optional.of(
+                new DeletedProject(PROJECT_ID, "Test Project", USER_ID, LocalDateTime.now().minusDays(8))));
+        when(softDeleteRepository.restoreProject(eq(PROJECT_ID), any(LocalDateTime.class))).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> projectService.restoreProject(PROJECT_ID));
+
+        // Verify
+        verifyNoInteractions(eventPublisher, jobRunner);
+    }
+
+    @Test
+    void restoreProject_NotOwner_ThrowsException() {
+        // Arrange
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(MEMBER_ID);
+        when(softDeleteRepository.findDeletedProject(PROJECT_ID)).thenReturn(Optional.of(
+                new DeletedProject(PROJECT_ID, "Test Project", USER_ID, LocalDateTime.now())));
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> projectService.restoreProject(PROJECT_ID));
+
+        // Verify
+        verify(softDeleteRepository, never()).restoreProject(anyLong(), any());
+    }
+
+    @Test
+    void findDeletedProjects_ReturnsPurgeTime() {
+        // Arrange
+        LocalDateTime deletedAt = LocalDateTime.of(2025, 3, 1, 12, 0);
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        when(softDeleteRepository.findDeletedProjects(eq(USER_ID), any(LocalDateTime.class)))
+                .thenReturn(List.of(new DeletedProject(PROJECT_ID, "Test Project", USER_ID, deletedAt)));
+
+        // Act
+        List<DeletedProjectDto> result = projectService.findDeletedProjects();
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(LocalDateTime.of(2025, 3, 8, 12, 0), result.get(0).getPurgeAfter());
+    }
+
+    @Test
+    void cloneProject_WithDefaults_CopiesListsTasksAndMembers() {
+        // Arrange
+        long cloneId = 7L;
+        when(authService.getCurrentAuthenticatedUserDto()).thenReturn(testUserDto);
+        when(projectRepository.hasUserAccess(PROJECT_ID, USER_ID)).thenReturn(true);
+        when(projectCloneRepository.findProject(PROJECT_ID))
+                .thenReturn(Optional.of(new SourceProject(PROJECT_ID, "Template", "Steps", MEMBER_ID)));
+        when(projectCloneRepository.insertProject(eq("Template"), eq("Steps"), eq(USER_ID), any(LocalDateTime.class)))
+                .thenReturn(cloneId);
+        when(projectCloneRepository.copyMembers(PROJECT_ID, cloneId, USER_ID)).thenReturn(1);
+        when(projectCloneRepository.copyTaskListsAndTasks(eq(PROJECT_ID), eq(cloneId), eq(USER_ID), eq(false),
+                any(LocalDateTime.class))).thenReturn(new CopiedRows(8, 50));
+
+        // Act
+        ProjectDto result = projectService.cloneProject(PROJECT_ID, new ProjectCloneDto());
+
+        // Assert
+        assertEquals(cloneId, result.getId());
+        assertEquals("Template", result.getName());
+        assertEquals(USER_ID, result.getOwnerId());
+        assertEquals(1, result.getMemberCount());
+        assertEquals(8, result.getTaskListCount());
+        assertFalse(result.getIsTemplate());
+
+        // Verify
+        ArgumentCaptor<ProjectChangedEvent> eventCaptor = ArgumentCaptor.forClass(ProjectChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(ChangeType.CREATED, eventCaptor.getValue().getType());
+        assertEquals(cloneId, eventCaptor.getValue().getProjectId());
+        verify(projectMapper, never()).toDto(any());
+    }
+
+    @Test
+    void cloneProject_WithoutMembers_SkipsMembersAndUsesGivenName() {
+        // Arrange
+        long cloneId = 7L;
+        ProjectCloneDto cloneDto = ProjectCloneDto.builder()
+                .name("Sprint 12")
+                .includeMembers(false)
+                .includeAssignees(true)
+                .build();
+        when(authService.getCurrentAuthenticatedUserDto()).thenReturn(testUserDto);
+        when(projectRepository.hasUserAccess(PROJECT_ID, USER_ID)).thenReturn(true);
+        when(projectCloneRepository.findProject(PROJECT_ID))
+                .thenReturn(Optional.of(new SourceProject(PROJECT_ID, "Template", "Steps", USER_ID)));
+        when(projectCloneRepository.insertProject(eq("Sprint 12"), eq("Steps"), eq(USER_ID), any(LocalDateTime.class)))
+                .thenReturn(cloneId);
+        when(projectCloneRepository.copyTaskListsAndTasks(eq(PROJECT_ID), eq(cloneId), eq(USER_ID), eq(true),
+                any(LocalDateTime.class))).thenReturn(new CopiedRows(2, 3));
+
+        // Act
+        ProjectDto result = projectService.cloneProject(PROJECT_ID, cloneDto);
+
+        // Assert
+        assertEquals("Sprint 12", result.getName());
+        assertEquals(0, result.getMemberCount());
+
+        // Verify
+        verify(projectCloneRepository, never()).copyMembers(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void cloneProject_NoAccess_ThrowsException() {
+        // Arrange
+        when(authService.getCurrentAuthenticatedUserDto()).thenReturn(testUserDto);
+        when(projectRepository.hasUserAccess(PROJECT_ID, USER_ID)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class,
+                () -> projectService.cloneProject(PROJECT_ID, new ProjectCloneDto()));
+
+        // Verify
+        verifyNoInteractions(projectCloneRepository);
+    }
+
+    @Test
+    void exportProject_HasAccess_QueuesExportJob() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        Job job = new Job(5L, JobType.PROJECT_EXPORT, JobState.QUEUED, USER_ID, PROJECT_ID, 10, null, 0, null,
+                null, null, 0, false, now, now, null, null, null);
+        JobDto jobDto = JobDto.builder().id(5L).state("QUEUED").build();
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        when(projectRepository.hasUserAccess(PROJECT_ID, USER_ID)).thenReturn(true);
+        when(jobRunner.enqueue(eq(JobType.PROJECT_EXPORT), eq(USER_ID), eq(PROJECT_ID), any(LocalDateTime.class)))
+                .thenReturn(job);
+        when(jobService.toDto(job)).thenReturn(jobDto);
+
+        // Act
+        JobDto result = projectService.exportProject(PROJECT_ID);
+
+        // Assert
+        assertEquals(jobDto, result);
+    }
+
+    @Test
+    void exportProject_NoAccess_ThrowsException() {
+        // Arrange
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        when(projectRepository.hasUserAccess(PROJECT_ID, USER_ID)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> projectService.exportProject(PROJECT_ID));
+
+        // Verify
+        verifyNoInteractions(jobRunner);
     }
 
     @Test
@@ -483,4 +767,33 @@ class ProjectServiceTest {
         verify(userRepository).findById(USER_ID);
         verify(projectRepository).findById(PROJECT_ID);
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchMembers_WithAccess_ReturnsMembers() {
+        // Arrange
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        when(projectRepository.hasUserAccess(PROJECT_ID, USER_ID)).thenReturn(true);
+        when(memberDirectory.search(PROJECT_ID, "jo", 10)).thenReturn(List.of(
+                new MemberDirectory.Member(USER_ID, "John", "john@example.com", Role.ROLE_USER)));
+
+        // Act
+        List<SimpleUserDto> result = projectService.searchMembers(PROJECT_ID, "jo", 10);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(USER_ID, result.get(0).getId());
+        assertEquals("john@example.com", result.get(0).getEmail());
+    }
+
+    @Test
+    void searchMembers_NoAccess_ThrowsException() {
+        // Arrange
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        when(projectRepository.hasUserAccess(PROJECT_ID, USER_ID)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () ->
+                projectService.searchMembers(PROJECT_ID, "jo", 10));
+        verifyNoInteractions(memberDirectory);
+    }
+}
@@ -1,31 +1,42 @@
 package com.example.minitrello.service;
 
+import com.example.minitrello.config.ShardConfig;
+import com.example.minitrello.datasource.ShardRouting;
 import com.example.minitrello.dto.tasklist.TaskListCreateDto;
 import com.example.minitrello.dto.tasklist.TaskListDto;
 import com.example.minitrello.dto.tasklist.TaskListUpdateDto;
 import com.example.minitrello.exception.ResourceNotFoundException;
 import com.example.minitrello.mapper.TaskListMapper;
+import com.example.minitrello.metrics.ReorderMetrics;
 import com.example.minitrello.model.Project;
+import com.example.minitrello.model.Task;
 import com.example.minitrello.model.TaskList;
 import com.example.minitrello.model.User;
+import com.example.minitrello.repository.ArchiveRepository;
 import com.example.minitrello.repository.ProjectRepository;
 import com.example.minitrello.repository.TaskListRepository;
+import com.example.minitrello.repository.TaskRepository;
 import com.example.minitrello.service.interfaces.AuthService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,12 +49,27 @@ public class TaskListServiceTest {
     @Mock
     private ProjectRepository projectRepository;
 
+    @Mock
+    private ArchiveRepository archiveRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
     @Mock
     private TaskListMapper taskListMapper;
 
     @Mock
     private AuthService authService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ReorderMetrics reorderMetrics;
+
+    @Spy
+    private ShardRouting shardRouting = new ShardRouting(null, new ShardConfig());
+
     @InjectMocks
     private TaskListServiceImpl taskListService;
 
@@ -176,5 +202,29 @@ public class TaskListServiceTest {
         // Assert
         assertTrue(result);
         verify(taskListRepository).delete(testTaskList);
+        verify(archiveRepository).deleteArchivedTasksOfTaskList(TASKLIST_ID);
+    }
+
+    @Test
+    void findTaskListsByProject_ReadsTasksInOneQuery() {
+        // Arrange
+        TaskList emptyTaskList = TaskList.builder().id(2L).name("Done").position(2).project(testProject).build();
+        testProject.getTaskLists().add(testTaskList);
+        testProject.getTaskLists().add(emptyTaskList);
+        List<Task> tasks = List.of(Task.builder().id(100L).taskList(testTaskList).build());
+        TaskListDto emptyTaskListDto = TaskListDto.builder().id(2L).build();
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        when(projectRepository.findByIdWithAccessCheck(PROJECT_ID, USER_ID)).thenReturn(Optional.of(testProject));
+        when(taskRepository.findByProjectIdGroupedByTaskList(eq(PROJECT_ID), any()))
+                .thenReturn(Map.of(TASKLIST_ID, tasks));
+        when(taskListMapper.toDto(testTaskList, tasks)).thenReturn(testTaskListDto);
+        when(taskListMapper.toDto(emptyTaskList, List.of())).thenReturn(emptyTaskListDto);
+
+        // Act
+        List<TaskListDto> result = taskListService.findTaskListsByProject(PROJECT_ID);
+
+        // Assert
+        assertEquals(List.of(testTaskListDto, emptyTaskListDto), result);
+        verify(taskRepository, times(1)).findByProjectIdGroupedByTaskList(eq(PROJECT_ID), any());
     }
-}
\ No newline at end of file
+}
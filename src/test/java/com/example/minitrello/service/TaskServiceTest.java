@@ -1,12 +1,20 @@
 // TaskServiceTest.java
 package com.example.minitrello.service;
 
+import com.example.minitrello.config.ShardConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.datasource.ShardUsers;
+import com.example.minitrello.dto.common.KeysetPageDto;
+import com.example.minitrello.dto.task.AssignedTaskDto;
+import com.example.minitrello.dto.task.AssignedTaskSort;
 import com.example.minitrello.dto.task.TaskCreateDto;
 import com.example.minitrello.dto.task.TaskDto;
 import com.example.minitrello.dto.task.TaskMoveDto;
+import com.example.minitrello.dto.task.TaskSearchResultDto;
 import com.example.minitrello.dto.task.TaskUpdateDto;
 import com.example.minitrello.exception.ResourceNotFoundException;
 import com.example.minitrello.mapper.TaskMapper;
+import com.example.minitrello.metrics.ReorderMetrics;
 import com.example.minitrello.model.Project;
 import com.example.minitrello.model.Task;
 import com.example.minitrello.model.TaskList;
@@ -15,19 +23,31 @@ import com.example.minitrello.repository.ProjectRepository;
 import com.example.minitrello.repository.TaskListRepository;
 import com.example.minitrello.repository.TaskRepository;
 import com.example.minitrello.repository.UserRepository;
+import com.example.minitrello.repository.projection.AssignedTaskRow;
+import com.example.minitrello.repository.projection.TaskSearchRow;
 import com.example.minitrello.service.interfaces.AuthService;
+import com.example.minitrello.util.CursorUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,6 +71,18 @@ public class TaskServiceTest {
     @Mock
     private AuthService authService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ReorderMetrics reorderMetrics;
+
+    @Spy
+    private ShardRouting shardRouting = new ShardRouting(null, new ShardConfig());
+
+    @Mock
+    private ShardUsers shardUsers;
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
@@ -214,6 +246,7 @@ public class TaskServiceTest {
         assertEquals(targetTaskList, testTask.getTaskList());
         assertEquals(testMoveDto.getPosition(), testTask.getPosition());
         verify(taskRepository).save(testTask);
+        verify(reorderMetrics).record(ReorderMetrics.TASK, ReorderMetrics.SHIFT, 0);
     }
 
     @Test
@@ -230,4 +263,87 @@ public class TaskServiceTest {
         assertTrue(result);
         verify(taskRepository).delete(testTask);
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchTasks_MoreResults_ReturnsNextCursor() {
+        // Arrange
+        TaskSearchRow first = mock(TaskSearchRow.class);
+        TaskSearchRow second = mock(TaskSearchRow.class);
+        when(first.getId()).thenReturn(TASK_ID);
+        when(first.getRank()).thenReturn(0.5f);
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        when(taskRepository.searchAccessibleTasks(USER_ID, "test", 2)).thenReturn(List.of(first, second));
+        when(taskMapper.toSearchResultDto(first)).thenReturn(TaskSearchResultDto.builder().id(TASK_ID).build());
+
+        // Act
+        KeysetPageDto<TaskSearchResultDto> result = taskService.searchTasks("test", null, 1);
+
+        // Assert
+        assertTrue(result.isHasMore());
+        assertEquals(1, result.getItems().size());
+        assertNotNull(result.getNextCursor());
+        verify(taskMapper, never()).toSearchResultDto(second);
+    }
+
+    @Test
+    void searchTasks_WithCursor_SeeksAfterLastRow() {
+        // Arrange
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        String cursor = CursorUtils.encode(0.5f, TASK_ID);
+        when(taskRepository.searchAccessibleTasksAfter(USER_ID, "test", 0.5f, TASK_ID, 21)).thenReturn(List.of());
+
+        // Act
+        KeysetPageDto<TaskSearchResultDto> result = taskService.searchTasks("test", cursor, 20);
+
+        // Assert
+        assertFalse(result.isHasMore());
+        assertNull(result.getNextCursor());
+        verify(taskRepository, never()).searchAccessibleTasks(anyLong(), anyString(), anyInt());
+    }
+
+    @Test
+    void searchTasks_BlankQuery_ThrowsException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> taskService.searchTasks("  ", null, 20));
+        verify(taskRepository, never()).searchAccessibleTasksAfter(anyLong(), anyString(), anyFloat(), anyLong(), anyInt());
+    }
+
+    @Test
+    void findMyTasks_SortedByProject_ReturnsProjectCursor() {
+        // Arrange
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        AssignedTaskRow first = mock(AssignedTaskRow.class);
+        AssignedTaskRow second = mock(AssignedTaskRow.class);
+        when(first.getId()).thenReturn(TASK_ID);
+        when(first.getProjectId()).thenReturn(7L);
+        when(first.getUpdatedAt()).thenReturn(updatedAt);
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        when(taskRepository.findAssignedTasksByProject(USER_ID, null, Limit.of(2))).thenReturn(List.of(first, second));
+        when(taskMapper.toAssignedTaskDto(first)).thenReturn(AssignedTaskDto.builder().id(TASK_ID).build());
+
+        // Act
+        KeysetPageDto<AssignedTaskDto> result = taskService.findMyTasks(null, AssignedTaskSort.PROJECT, null, 1);
+
+        // Assert
+        assertTrue(result.isHasMore());
+        assertEquals(1, result.getItems().size());
+        assertArrayEquals(new String[]{"7", updatedAt.toString(), TASK_ID.toString()},
+                CursorUtils.decode(result.getNextCursor(), 3));
+    }
+
+    @Test
+    void findMyTasks_WithCursor_SeeksAfterLastRow() {
+        // Arrange
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(USER_ID);
+        String cursor = CursorUtils.encode(updatedAt, TASK_ID);
+        when(taskRepository.findAssignedTasksAfter(USER_ID, 7L, updatedAt, TASK_ID, Limit.of(21))).thenReturn(List.of());
+
+        // Act
+        KeysetPageDto<AssignedTaskDto> result = taskService.findMyTasks(7L, AssignedTaskSort.UPDATED_AT, cursor, 20);
+
+        // Assert
+        assertFalse(result.isHasMore());
+        assertNull(result.getNextCursor());
+    }
+}
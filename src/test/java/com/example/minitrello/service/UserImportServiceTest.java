@@ -0,0 +1,154 @@
+package com.example.minitrello.service;
+
+import com.example.minitrello.config.UserImportConfig;
+import com.example.minitrello.dto.user.UserImportDto;
+import com.example.minitrello.dto.user.UserImportErrorDto;
+import com.example.minitrello.dto.user.UserImportRow;
+import com.example.minitrello.model.Role;
+import com.example.minitrello.repository.UserImportRepository;
+import com.example.minitrello.repository.UserImportRepository.NewUser;
+import com.example.minitrello.security.TimedPasswordEncoder;
+import com.example.minitrello.userimport.UserImportFormat;
+import com.example.minitrello.userimport.UserImportJob;
+import com.example.minitrello.userimport.UserImportParser;
+import com.example.minitrello.userimport.UserImportParser.ImportRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    @Mock
+    private UserImportParser userImportParser;
+
+    @Mock
+    private UserImportRepository userImportRepository;
+
+    @Mock
+    private TimedPasswordEncoder passwordEncoder;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UserImportServiceImpl userImportService;
+
+    @BeforeEach
+    void setUp() {
+        UserImportConfig config = new UserImportConfig();
+        config.setHashingParallelism(2);
+        config.setBatchSize(2);
+        userImportService = new UserImportServiceImpl(userImportParser, userImportRepository, passwordEncoder,
+                transactionManager, config, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userImportService.shutdown();
+    }
+
+    @Test
+    void run_DuplicateEmails_SkipsThemAndWritesTheRestInBatches() {
+        // Arrange
+        List<ImportRow> rows = List.of(
+                row(1, "jane@example.com"),
+                row(2, "Bob@example.com"),
+                row(3, "JANE@example.com"),
+                row(4, "taken@example.com"),
+                row(5, "carl@example.com"),
+                row(6, "dana@example.com"));
+        when(userImportRepository.findExistingEmails(any())).thenReturn(Set.of("taken@example.com"));
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hashed-" + invocation.getArgument(0));
+        when(userImportRepository.copyInsert(any(), any())).thenAnswer(invocation -> {
+            Collection<NewUser> users = invocation.getArgument(0);
+            return users.stream().map(NewUser::email).toList();
+        });
+        UserImportJob job = new UserImportJob(1L, UserImportFormat.CSV, rows.size(), 100);
+
+        // Act
+        userImportService.run(job, rows);
+
+        // Assert
+        UserImportDto result = job.toDto();
+        assertEquals("COMPLETED", result.getState());
+        assertEquals(4, result.getImportedRows());
+        assertEquals(4, result.getHashedRows());
+        assertEquals(2, result.getDuplicateRows());
+        assertEquals(List.of("Email already appears on row 1", "Email is already in use"),
+                result.getErrors().stream().map(UserImportErrorDto::getMessage).toList());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<NewUser>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(userImportRepository, times(2)).copyInsert(batches.capture(), any());
+        NewUser first = batches.getAllValues().get(0).iterator().next();
+        assertEquals("jane@example.com", first.email());
+        assertEquals("hashed-password123", first.passwordHash());
+        assertNull(rows.get(0).user().getPassword());
+        assertEquals(4.0, meterRegistry.get("user.import.rows").tag("outcome", "imported").counter().count());
+    }
+
+    @Test
+    void run_EmailTakenWhileImporting_ReportsDuplicate() {
+        // Arrange
+        List<ImportRow> rows = List.of(row(1, "jane@example.com"), row(2, "bob@example.com"));
+        when(userImportRepository.findExistingEmails(any())).thenReturn(Set.of());
+        when(passwordEncoder.encode(anyString())).thenReturn("hashed");
+        when(userImportRepository.copyInsert(any(), any())).thenReturn(List.of("bob@example.com"));
+        UserImportJob job = new UserImportJob(1L, UserImportFormat.NDJSON, rows.size(), 100);
+
+        // Act
+        userImportService.run(job, rows);
+
+        // Assert
+        UserImportDto result = job.toDto();
+        assertEquals(1, result.getImportedRows());
+        assertEquals(1, result.getDuplicateRows());
+        assertEquals(1, result.getErrors().get(0).getRow());
+    }
+
+    @Test
+    void run_WriteFails_MarksImportFailed() {
+        // Arrange
+        List<ImportRow> rows = List.of(row(1, "jane@example.com"));
+        when(userImportRepository.findExistingEmails(any())).thenReturn(Set.of());
+        when(passwordEncoder.encode(anyString())).thenReturn("hashed");
+        when(userImportRepository.copyInsert(any(), any())).thenThrow(new IllegalStateException("COPY failed"));
+        UserImportJob job = new UserImportJob(1L, UserImportFormat.CSV, rows.size(), 100);
+
+        // Act
+        userImportService.run(job, rows);
+
+        // Assert
+        UserImportDto result = job.toDto();
+        assertEquals("FAILED", result.getState());
+        assertEquals("COPY failed", result.getFailureMessage());
+        assertFalse(job.isRunning());
+        verify(transactionManager).rollback(any());
+    }
+
+    private static ImportRow row(int row, String email) {
+        return new ImportRow(row, UserImportRow.builder()
+                .email(email)
+                .name("User " + row)
+                .password("password123")
+                .role(Role.ROLE_USER)
+                .build());
+    }
+}
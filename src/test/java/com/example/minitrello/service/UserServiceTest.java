@@ -1,31 +1,49 @@
 package com.example.minitrello.service;
 
+import com.example.minitrello.config.ShardConfig;
+import com.example.minitrello.config.SoftDeleteConfig;
+import com.example.minitrello.datasource.ShardRouting;
 import com.example.minitrello.dto.user.UserDto;
 import com.example.minitrello.dto.user.UserUpdateDto;
+import com.example.minitrello.event.ChangeType;
+import com.example.minitrello.event.ProjectChangedEvent;
+import com.example.minitrello.event.UserChangedEvent;
+import com.example.minitrello.exception.ResourceNotFoundException;
+import com.example.minitrello.job.JobRunner;
+import com.example.minitrello.job.JobType;
 import com.example.minitrello.mapper.UserMapper;
 import com.example.minitrello.model.Role;
 import com.example.minitrello.model.User;
+import com.example.minitrello.repository.SoftDeleteRepository;
+import com.example.minitrello.repository.SoftDeleteRepository.DeletedProject;
 import com.example.minitrello.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -44,6 +62,21 @@ public class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SoftDeleteRepository softDeleteRepository;
+
+    @Spy
+    private SoftDeleteConfig softDeleteConfig = new SoftDeleteConfig();
+
+    @Mock
+    private JobRunner jobRunner;
+
+    @Spy
+    private ShardRouting shardRouting = new ShardRouting(null, new ShardConfig());
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -213,34 +246,75 @@ public class UserServiceTest {
     }
 
     @Test
-    @DisplayName("Should delete user successfully")
+    @DisplayName("Should delete user with their projects, unassign their tasks and queue their purge")
     void shouldDeleteUserSuccessfully() {
         // Arrange
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        doNothing().when(userRepository).delete(any(User.class));
+        when(softDeleteRepository.markUserDeleted(eq(1L), any(LocalDateTime.class))).thenReturn(true);
+        when(softDeleteRepository.markOwnedProjectsDeleted(eq(1L), any(LocalDateTime.class)))
+                .thenReturn(List.of(new DeletedProject(7L, "Owned", 1L, LocalDateTime.now())));
 
         // Act
         boolean result = userService.deleteUser(1L);
 
         // Assert
         assertThat(result).isTrue();
-        verify(userRepository, times(1)).findById(1L);
-        verify(userRepository, times(1)).delete(testUser);
+        verify(softDeleteRepository, times(1)).unassignTasks(1L);
+        verify(jobRunner).enqueue(eq(JobType.PROJECT_PURGE), eq(1L), eq(7L), any(LocalDateTime.class));
+        verify(jobRunner).enqueue(eq(JobType.USER_PURGE), isNull(), eq(1L), any(LocalDateTime.class));
+        verify(eventPublisher, times(1)).publishEvent(any(ProjectChangedEvent.class));
+        verify(eventPublisher, times(1)).publishEvent(any(UserChangedEvent.class));
+        verify(userRepository, never()).delete(any(User.class));
     }
 
     @Test
     @DisplayName("Should return false when deleting non-existent user")
     void shouldReturnFalseWhenDeletingNonExistentUser() {
         // Arrange
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(softDeleteRepository.markUserDeleted(eq(999L), any(LocalDateTime.class))).thenReturn(false);
 
         // Act
         boolean result = userService.deleteUser(999L);
 
         // Assert
         assertThat(result).isFalse();
-        verify(userRepository, times(1)).findById(999L);
-        verify(userRepository, never()).delete(any(User.class));
+        verify(softDeleteRepository, never()).markOwnedProjectsDeleted(anyLong(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should restore user with the projects deleted with them")
+    void shouldRestoreUserWithTheirProjects() {
+        // Arrange
+        LocalDateTime deletedAt = LocalDateTime.now().minusHours(1);
+        when(softDeleteRepository.findUserDeletedAt(1L)).thenReturn(Optional.of(deletedAt));
+        when(softDeleteRepository.restoreUser(eq(1L), any(LocalDateTime.class))).thenReturn(true);
+        when(softDeleteRepository.restoreProjectsDeletedWith(1L, deletedAt))
+                .thenReturn(List.of(new DeletedProject(7L, "Owned", 1L, deletedAt)));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userMapper.toDto(testUser)).thenReturn(userDto);
+
+        // Act
+        UserDto result = userService.restoreUser(1L);
+
+        // Assert
+        assertThat(result).isEqualTo(userDto);
+        ArgumentCaptor<ProjectChangedEvent> event = ArgumentCaptor.forClass(ProjectChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(ChangeType.RESTORED);
+        verify(eventPublisher).publishEvent(any(UserChangedEvent.class));
+        verify(jobRunner).cancelQueued(JobType.USER_PURGE, 1L);
+        verify(jobRunner).cancelQueued(JobType.PROJECT_PURGE, 7L);
+    }
+
+    @Test
+    @DisplayName("Should throw when restoring a user that is not deleted")
+    void shouldThrowWhenRestoringUserThatIsNotDeleted() {
+        // Arrange
+        when(softDeleteRepository.findUserDeletedAt(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.restoreUser(1L)).isInstanceOf(ResourceNotFoundException.class);
+        verify(softDeleteRepository, never()).restoreUser(anyLong(), any());
     }
 
     @Test
@@ -0,0 +1,109 @@
+package com.example.minitrello.service;
+
+import com.example.minitrello.config.ShardConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.dto.webhook.WebhookCreateDto;
+import com.example.minitrello.dto.webhook.WebhookDto;
+import com.example.minitrello.exception.AccessDeniedException;
+import com.example.minitrello.mapper.WebhookMapper;
+import com.example.minitrello.model.Project;
+import com.example.minitrello.model.User;
+import com.example.minitrello.model.WebhookSubscription;
+import com.example.minitrello.repository.ProjectRepository;
+import com.example.minitrello.repository.WebhookSubscriptionRepository;
+import com.example.minitrello.service.interfaces.AuthService;
+import com.example.minitrello.webhook.WebhookTargetGuard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookServiceTest {
+
+    private static final Long OWNER_ID = 1L;
+    private static final Long PROJECT_ID = 2L;
+
+    @Mock
+    private WebhookSubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private WebhookMapper webhookMapper;
+
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private WebhookTargetGuard targetGuard;
+
+    @Spy
+    private ShardRouting shardRouting = new ShardRouting(null, new ShardConfig());
+
+    @InjectMocks
+    private WebhookServiceImpl webhookService;
+
+    private Project project;
+    private WebhookCreateDto createDto;
+
+    @BeforeEach
+    void setUp() {
+        User owner = User.builder().id(OWNER_ID).build();
+        project = Project.builder().id(PROJECT_ID).owner(owner).build();
+        createDto = new WebhookCreateDto("https://example.com/hook", null);
+    }
+
+    @Test
+    void createWebhook_Owner_SavesSubscription() {
+        // Arrange
+        WebhookSubscription subscription = WebhookSubscription.builder().project(project).url(createDto.getUrl()).build();
+        WebhookDto webhookDto = WebhookDto.builder().id(5L).projectId(PROJECT_ID).url(createDto.getUrl()).build();
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(OWNER_ID);
+        when(projectRepository.findById(PROJECT_ID)).thenReturn(Optional.of(project));
+        when(webhookMapper.toEntity(createDto, project)).thenReturn(subscription);
+        when(subscriptionRepository.save(subscription)).thenReturn(subscription);
+        when(webhookMapper.toDto(subscription)).thenReturn(webhookDto);
+
+        // Act
+        WebhookDto result = webhookService.createWebhook(PROJECT_ID, createDto);
+
+        // Assert
+        assertEquals(webhookDto, result);
+        verify(subscriptionRepository).save(subscription);
+    }
+
+    @Test
+    void createWebhook_NotOwner_ThrowsException() {
+        // Arrange
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(3L);
+        when(projectRepository.findById(PROJECT_ID)).thenReturn(Optional.of(project));
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> webhookService.createWebhook(PROJECT_ID, createDto));
+        verify(subscriptionRepository, never()).save(any());
+    }
+
+    @Test
+    void createWebhook_PrivateAddress_ThrowsException() {
+        // Arrange
+        when(authService.getCurrentAuthenticatedUserId()).thenReturn(OWNER_ID);
+        when(projectRepository.findById(PROJECT_ID)).thenReturn(Optional.of(project));
+        doThrow(new IllegalArgumentException("Webhook host 169.254.169.254 resolves to a non-public address"))
+                .when(targetGuard).check(createDto.getUrl());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> webhookService.createWebhook(PROJECT_ID, createDto));
+        verify(subscriptionRepository, never()).save(any());
+    }
+}
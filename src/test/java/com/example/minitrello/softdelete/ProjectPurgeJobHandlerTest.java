@@ -0,0 +1,149 @@
+package com.example.minitrello.softdelete;
+
+import com.example.minitrello.config.SoftDeleteConfig;
+import com.example.minitrello.job.Job;
+import com.example.minitrello.job.JobState;
+import com.example.minitrello.job.JobStep;
+import com.example.minitrello.job.JobType;
+import com.example.minitrello.repository.SoftDeleteRepository;
+import com.example.minitrello.repository.SoftDeleteRepository.DeletedProject;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectPurgeJobHandlerTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-10T12:00:00Z");
+
+    @Mock
+    private SoftDeleteRepository softDeleteRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ProjectPurgeJobHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        SoftDeleteConfig config = new SoftDeleteConfig();
+        config.setRestoreWindow(Duration.ofDays(7));
+        config.setPurgeBatchSize(2);
+        handler = new ProjectPurgeJobHandler(softDeleteRepository, config, meterRegistry,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void runChunk_FirstChunkPastRestoreWindow_CountsRowsAndStartsWithTasks() {
+        // Arrange
+        when(softDeleteRepository.findDeletedProject(1L)).thenReturn(Optional.of(
+                new DeletedProject(1L, "Old", 3L, LocalDateTime.of(2025, 3, 1, 12, 0))));
+        when(softDeleteRepository.countProjectRows(1L)).thenReturn(9L);
+
+        // Act
+        JobStep step = handler.runChunk(job(null, 0));
+
+        // Assert
+        assertEquals("TASKS", step.checkpoint());
+        assertEquals(9L, step.total());
+        verify(softDeleteRepository, never()).deleteProjectTasks(anyLong(), anyInt());
+    }
+
+    @Test
+    void runChunk_RestoreWindowNotOver_PausesUntilItIs() {
+        // Arrange
+        when(softDeleteRepository.findDeletedProject(1L)).thenReturn(Optional.of(
+                new DeletedProject(1L, "Recent", 3L, LocalDateTime.of(2025, 3, 9, 12, 0))));
+
+        // Act
+        JobStep step = handler.runChunk(job(null, 0));
+
+        // Assert
+        assertFalse(step.finished());
+        assertNull(step.checkpoint());
+        assertEquals(Duration.ofDays(6), step.pause());
+    }
+
+    @Test
+    void runChunk_ProjectRestored_FinishesWithoutRemovingAnything() {
+        // Arrange
+        when(softDeleteRepository.findDeletedProject(1L)).thenReturn(Optional.empty());
+
+        // Act
+        JobStep step = handler.runChunk(job(null, 0));
+
+        // Assert
+        assertTrue(step.finished());
+        verify(softDeleteRepository, never()).countProjectRows(anyLong());
+    }
+
+    @Test
+    void runChunk_FullBatchOfTasks_StaysOnTasksUntilShortBatch() {
+        // Arrange
+        when(softDeleteRepository.deleteProjectTasks(1L, 2)).thenReturn(2, 1);
+
+        // Act
+        JobStep full = handler.runChunk(job("TASKS", 0));
+        JobStep shortBatch = handler.runChunk(job("TASKS", 2));
+
+        // Assert
+        assertEquals("TASKS", full.checkpoint());
+        assertEquals(2, full.done());
+        assertEquals("TASK_LISTS", shortBatch.checkpoint());
+        assertEquals(3, shortBatch.done());
+        assertEquals(3.0, meterRegistry.get("softdelete.purged.rows").tag("table", "tasks").counter().count());
+    }
+
+    @Test
+    void runChunk_ShortBatchOfTaskLists_MovesOnToArchivedRows() {
+        // Arrange
+        when(softDeleteRepository.deleteProjectTaskLists(1L, 2)).thenReturn(1);
+        when(softDeleteRepository.deleteProjectArchivedTasks(1L, 2)).thenReturn(0);
+        when(softDeleteRepository.deleteProjectArchivedTaskLists(1L, 2)).thenReturn(1);
+
+        // Act
+        JobStep taskLists = handler.runChunk(job("TASK_LISTS", 3));
+        JobStep archivedTasks = handler.runChunk(job("ARCHIVED_TASKS", 4));
+        JobStep archivedTaskLists = handler.runChunk(job("ARCHIVED_TASK_LISTS", 4));
+
+        // Assert
+        assertEquals("ARCHIVED_TASKS", taskLists.checkpoint());
+        assertEquals("ARCHIVED_TASK_LISTS", archivedTasks.checkpoint());
+        assertEquals("MEMBERSHIPS", archivedTaskLists.checkpoint());
+        assertEquals(5, archivedTaskLists.done());
+        assertEquals(1.0, meterRegistry.get("softdelete.purged.rows").tag("table", "archived_task_lists")
+                .counter().count());
+    }
+
+    @Test
+    void runChunk_ProjectPhase_RemovesProjectAndFinishes() {
+        // Arrange
+        when(softDeleteRepository.deleteProject(1L)).thenReturn(true);
+
+        // Act
+        JobStep step = handler.runChunk(job("PROJECT", 8));
+
+        // Assert
+        assertTrue(step.finished());
+        assertEquals(9, step.done());
+        assertEquals(1.0, meterRegistry.get("softdelete.purged.rows").tag("table", "projects").counter().count());
+    }
+
+    private static Job job(String checkpoint, long done) {
+        LocalDateTime now = LocalDateTime.of(2025, 3, 10, 12, 0);
+        return new Job(10L, JobType.PROJECT_PURGE, JobState.RUNNING, 3L, 1L, 0, checkpoint, done, 9L, null, null,
+                0, false, now, now, now, null, null);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.minitrello.softdelete;
+
+import com.example.minitrello.config.ShardConfig;
+import com.example.minitrello.config.SoftDeleteConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.job.JobRunner;
+import com.example.minitrello.job.JobType;
+import com.example.minitrello.repository.SoftDeleteRepository;
+import com.example.minitrello.repository.SoftDeleteRepository.DeletedProject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SoftDeletePurgerTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-10T12:00:00Z");
+
+    @Mock
+    private SoftDeleteRepository softDeleteRepository;
+
+    @Mock
+    private JobRunner jobRunner;
+
+    private SoftDeletePurger purger;
+
+    @BeforeEach
+    void setUp() {
+        SoftDeleteConfig config = new SoftDeleteConfig();
+        config.setRestoreWindow(Duration.ofDays(7));
+        config.setPurgeLimit(5);
+        purger = new SoftDeletePurger(softDeleteRepository, config, jobRunner, new ShardRouting(null, new ShardConfig()),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void purge_RowsWithoutPurgeJob_QueuesTheirPurge() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2025, 3, 10, 12, 0);
+        LocalDateTime cutoff = now.minusDays(7);
+        when(softDeleteRepository.findProjectsToPurge(cutoff, 5))
+                .thenReturn(List.of(new DeletedProject(1L, "Old", 3L, cutoff.minusDays(1))));
+        when(softDeleteRepository.findUsersToPurge(cutoff, 5)).thenReturn(List.of(2L));
+
+        // Act
+        purger.purge();
+
+        // Assert
+        verify(jobRunner).enqueue(JobType.PROJECT_PURGE, 3L, 1L, now);
+        verify(jobRunner).enqueue(JobType.USER_PURGE, null, 2L, now);
+    }
+
+    @Test
+    void purge_DatabaseUnavailable_LogsAndReturns() {
+        // Arrange
+        when(softDeleteRepository.findProjectsToPurge(any(), anyInt()))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> purger.purge());
+        verifyNoInteractions(jobRunner);
+    }
+}
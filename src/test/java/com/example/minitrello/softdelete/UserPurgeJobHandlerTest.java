@@ -0,0 +1,96 @@
+package com.example.minitrello.softdelete;
+
+import com.example.minitrello.config.ShardConfig;
+import com.example.minitrello.config.SoftDeleteConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.job.Job;
+import com.example.minitrello.job.JobState;
+import com.example.minitrello.job.JobStep;
+import com.example.minitrello.job.JobType;
+import com.example.minitrello.repository.SoftDeleteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserPurgeJobHandlerTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-10T12:00:00Z");
+
+    @Mock
+    private SoftDeleteRepository softDeleteRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UserPurgeJobHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        SoftDeleteConfig config = new SoftDeleteConfig();
+        config.setRestoreWindow(Duration.ofDays(7));
+        config.setPurgeBatchSize(2);
+        handler = new UserPurgeJobHandler(softDeleteRepository, config, new ShardRouting(null, new ShardConfig()),
+                meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void runChunk_ShortBatchOfAssignments_MovesOnToUser() {
+        // Arrange
+        when(softDeleteRepository.unassignTasks(2L, 2)).thenReturn(1);
+
+        // Act
+        JobStep step = handler.runChunk(job("ASSIGNMENTS"));
+
+        // Assert
+        assertEquals("USER", step.checkpoint());
+        assertEquals(1, step.done());
+    }
+
+    @Test
+    void runChunk_StillOwnsProjects_PausesForTheirPurge() {
+        // Arrange
+        when(softDeleteRepository.deleteUser(2L)).thenReturn(false);
+        when(softDeleteRepository.findUserDeletedAt(2L)).thenReturn(Optional.of(LocalDateTime.of(2025, 3, 1, 0, 0)));
+
+        // Act
+        JobStep step = handler.runChunk(job("USER"));
+
+        // Assert
+        assertFalse(step.finished());
+        assertEquals("USER", step.checkpoint());
+        assertNotNull(step.pause());
+        assertEquals(0.0, meterRegistry.get("softdelete.purged.rows").tag("table", "users").counter().count());
+    }
+
+    @Test
+    void runChunk_UserPhase_RemovesUserAndFinishes() {
+        // Arrange
+        when(softDeleteRepository.deleteUser(2L)).thenReturn(true);
+
+        // Act
+        JobStep step = handler.runChunk(job("USER"));
+
+        // Assert
+        assertTrue(step.finished());
+        assertEquals(1.0, meterRegistry.get("softdelete.purged.rows").tag("table", "users").counter().count());
+    }
+
+    private static Job job(String checkpoint) {
+        LocalDateTime now = LocalDateTime.of(2025, 3, 10, 12, 0);
+        return new Job(11L, JobType.USER_PURGE, JobState.RUNNING, null, 2L, 0, checkpoint, 0, null, null, null,
+                0, false, now, now, now, null, null);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.minitrello.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonFileSpanExporterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void export_NestedSpans_WritesOneLinePerSpanLinkedToParent() throws Exception {
+        // Arrange
+        Path file = directory.resolve("traces/spans.jsonl");
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(new JsonFileSpanExporter(file, objectMapper)))
+                .build();
+        Tracer tracer = tracerProvider.get("test");
+
+        // Act
+        Span parent = tracer.spanBuilder("service").startSpan();
+        try (Scope scope = parent.makeCurrent()) {
+            Span child = tracer.spanBuilder("query").setAttribute("jdbc.query[0]", "select 1").startSpan();
+            child.addEvent("hibernate.flush entities=1 collections=0");
+            child.end();
+        } finally {
+            parent.end();
+        }
+        tracerProvider.shutdown();
+
+        // Assert
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode child = objectMapper.readTree(lines.get(0));
+        JsonNode parentJson = objectMapper.readTree(lines.get(1));
+        assertEquals("query", child.get("name").asText());
+        assertEquals(parentJson.get("spanId").asText(), child.get("parentSpanId").asText());
+        assertEquals(parentJson.get("traceId").asText(), child.get("traceId").asText());
+        assertEquals("select 1", child.get("attributes").get("jdbc.query[0]").asText());
+        assertEquals("hibernate.flush entities=1 collections=0", child.get("events").get(0).get("name").asText());
+        assertFalse(parentJson.has("parentSpanId"));
+    }
+}
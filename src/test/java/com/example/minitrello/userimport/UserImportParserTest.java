@@ -0,0 +1,92 @@
+package com.example.minitrello.userimport;
+
+import com.example.minitrello.dto.user.UserImportErrorDto;
+import com.example.minitrello.model.Role;
+import com.example.minitrello.userimport.UserImportParser.ParsedImport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserImportParserTest {
+
+    private final UserImportParser parser = new UserImportParser(new ObjectMapper(),
+            Validation.buildDefaultValidatorFactory().getValidator());
+
+    @Test
+    void parse_Csv_ValidRowsKeptAndInvalidRowsReported() throws Exception {
+        // Arrange
+        String csv = """
+                email,name,password,role
+                jane@example.com,"Doe, Jane",secret123,
+                bob@example.com,Bob Smith,secret123,admin
+                not-an-email,Al,secret123,USER
+                carl@example.com,Carl Jones,secret123,OWNER
+                """;
+
+        // Act
+        ParsedImport parsed = parse(csv, UserImportFormat.CSV);
+
+        // Assert
+        assertEquals(4, parsed.totalRows());
+        assertEquals(2, parsed.rows().size());
+        assertEquals("Doe, Jane", parsed.rows().get(0).user().getName());
+        assertEquals(Role.ROLE_USER, parsed.rows().get(0).user().getRole());
+        assertEquals(Role.ROLE_ADMIN, parsed.rows().get(1).user().getRole());
+        assertEquals(2, parsed.rows().get(1).row());
+
+        UserImportErrorDto invalid = parsed.errors().get(0);
+        assertEquals(3, invalid.getRow());
+        assertEquals("Email should be valid; Name must be between 3 and 100 characters", invalid.getMessage());
+        assertEquals("Unknown role: OWNER", parsed.errors().get(1).getMessage());
+    }
+
+    @Test
+    void parse_CsvWithoutPasswordColumn_Rejected() {
+        // Act & Assert
+        IllegalArgumentException rejected = assertThrows(IllegalArgumentException.class,
+                () -> parse("email,name\njane@example.com,Jane Doe\n", UserImportFormat.CSV));
+        assertTrue(rejected.getMessage().startsWith("CSV header must name the columns email, name, password"));
+    }
+
+    @Test
+    void parse_Ndjson_MalformedLineReportedAndBlankLinesSkipped() throws Exception {
+        // Arrange
+        String ndjson = """
+                {"email":"jane@example.com","name":"Jane Doe","password":"secret123"}
+
+                {"email":"bob@example.com","name":
+                {"email":"carl@example.com","name":"Carl Jones","password":"secret123","role":"ROLE_ADMIN"}
+                """;
+
+        // Act
+        ParsedImport parsed = parse(ndjson, UserImportFormat.NDJSON);
+
+        // Assert
+        assertEquals(3, parsed.totalRows());
+        assertEquals(2, parsed.rows().size());
+        assertEquals(3, parsed.rows().get(1).row());
+        assertEquals(2, parsed.errors().get(0).getRow());
+        assertTrue(parsed.errors().get(0).getMessage().startsWith("Malformed JSON"));
+    }
+
+    @Test
+    void parse_TooManyRows_Rejected() {
+        // Arrange
+        String csv = "email,name,password\n" + "a@example.com,Ann Lee,secret123\n".repeat(3);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> parser.parse(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), UserImportFormat.CSV,
+                StandardCharsets.UTF_8, 2));
+    }
+
+    private ParsedImport parse(String input, UserImportFormat format) throws Exception {
+        return parser.parse(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), format,
+                StandardCharsets.UTF_8, 100);
+    }
+}
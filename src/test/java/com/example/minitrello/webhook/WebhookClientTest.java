@@ -0,0 +1,90 @@
+package com.example.minitrello.webhook;
+
+import com.example.minitrello.config.WebhookConfig;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookClientTest {
+
+    private static final String BODY = "{\"deliveries\":[]}";
+
+    private HttpServer server;
+    private final AtomicInteger status = new AtomicInteger(204);
+    private final AtomicReference<String> receivedBody = new AtomicReference<>();
+    private final AtomicReference<String> receivedSignature = new AtomicReference<>();
+    private final AtomicReference<String> receivedEventCount = new AtomicReference<>();
+
+    private WebhookClient webhookClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Local stub receiver standing in for a subscriber endpoint
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/hook", exchange -> {
+            receivedBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            receivedSignature.set(exchange.getRequestHeaders().getFirst(WebhookClient.SIGNATURE_HEADER));
+            receivedEventCount.set(exchange.getRequestHeaders().getFirst(WebhookClient.EVENT_COUNT_HEADER));
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        server.start();
+        WebhookConfig config = new WebhookConfig();
+        config.setAllowedHosts(List.of(server.getAddress().getHostString()));
+        webhookClient = new WebhookClient(RestClient.builder(), config, new WebhookTargetGuard(config));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void deliver_SignedSubscription_PostsBodyWithSignature() {
+        // Act
+        webhookClient.deliver(url(), "0123456789abcdef", BODY, 3);
+
+        // Assert
+        assertEquals(BODY, receivedBody.get());
+        assertEquals("sha256=" + WebhookClient.sign("0123456789abcdef", BODY), receivedSignature.get());
+        assertEquals("3", receivedEventCount.get());
+    }
+
+    @Test
+    void deliver_ErrorStatus_ThrowsException() {
+        // Arrange
+        status.set(500);
+
+        // Act & Assert
+        assertThrows(RestClientException.class, () -> webhookClient.deliver(url(), null, BODY, 1));
+        assertNull(receivedSignature.get());
+    }
+
+    @Test
+    void deliver_HostNotAllowedResolvesToLoopback_ThrowsExceptionWithoutSending() {
+        // Arrange
+        WebhookConfig config = new WebhookConfig();
+        WebhookClient guardedClient = new WebhookClient(RestClient.builder(), config, new WebhookTargetGuard(config));
+
+        // Act & Assert
+        assertThrows(RestClientException.class, () -> guardedClient.deliver(url(), null, BODY, 1));
+        assertNull(receivedBody.get());
+    }
+
+    private String url() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/hook";
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.minitrello.webhook;
+
+import com.example.minitrello.config.ShardConfig;
+import com.example.minitrello.config.WebhookConfig;
+import com.example.minitrello.datasource.ShardRouting;
+import com.example.minitrello.model.WebhookSubscription;
+import com.example.minitrello.repository.WebhookOutboxRepository;
+import com.example.minitrello.repository.WebhookSubscriptionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookDispatcherTest {
+
+    private static final String URL = "http://localhost/hook";
+
+    @Mock
+    private WebhookOutboxRepository outboxRepository;
+
+    @Mock
+    private WebhookSubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private WebhookClient webhookClient;
+
+    private MeterRegistry meterRegistry;
+    private WebhookDispatcher webhookDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        WebhookConfig config = new WebhookConfig();
+        config.setMaxEventsPerRequest(2);
+        config.setMaxAttempts(3);
+        config.setInitialBackoff(Duration.ofSeconds(5));
+        config.setMaxBackoff(Duration.ofSeconds(15));
+        meterRegistry = new SimpleMeterRegistry();
+        webhookDispatcher = new WebhookDispatcher(outboxRepository, subscriptionRepository, webhookClient,
+                config, new ShardRouting(null, new ShardConfig()), new ObjectMapper(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        webhookDispatcher.shutdown();
+    }
+
+    @Test
+    void deliver_BatchesEventsPerSubscription_AndDeletesDelivered() {
+        // Arrange
+        when(subscriptionRepository.findAllById(Set.of(1L))).thenReturn(List.of(subscription(1L, true)));
+
+        // Act
+        webhookDispatcher.deliver(List.of(message(10L, 1L, 0), message(11L, 1L, 0), message(12L, 1L, 0)));
+
+        // Assert
+        verify(webhookClient).deliver(eq(URL), isNull(), contains("\"id\":10"), eq(2));
+        verify(webhookClient).deliver(eq(URL), isNull(), contains("\"id\":12"), eq(1));
+        verify(outboxRepository).delete(List.of(10L, 11L));
+        verify(outboxRepository).delete(List.of(12L));
+        assertEquals(3.0, meterRegistry.get("webhooks.events.delivered").counter().count());
+        assertEquals(3, meterRegistry.get("webhooks.delivery.lag").timer().count());
+    }
+
+    @Test
+    void deliver_FailedRequest_ReschedulesWithBackoff_AndGivesUpAfterMaxAttempts() {
+        // Arrange
+        when(subscriptionRepository.findAllById(Set.of(1L))).thenReturn(List.of(subscription(1L, true)));
+        doThrow(new ResourceAccessException("Connection refused"))
+                .when(webhookClient).deliver(anyString(), any(), anyString(), anyInt());
+
+        // Act
+        webhookDispatcher.deliver(List.of(message(10L, 1L, 0), message(11L, 1L, 2)));
+
+        // Assert
+        verify(outboxRepository).reschedule(eq(10L), any(LocalDateTime.class), eq(false), eq("Connection refused"));
+        verify(outboxRepository).reschedule(eq(11L), any(LocalDateTime.class), eq(true), eq("Connection refused"));
+        verify(outboxRepository, never()).delete(anyList());
+        assertEquals(1.0, meterRegistry.get("webhooks.events.dead").counter().count());
+    }
+
+    @Test
+    void deliver_FailedRequest_LeavesLaterEventsUntouched() {
+        // Arrange
+        when(subscriptionRepository.findAllById(Set.of(1L))).thenReturn(List.of(subscription(1L, true)));
+        doThrow(new ResourceAccessException("Connection refused"))
+                .when(webhookClient).deliver(anyString(), any(), anyString(), anyInt());
+
+        // Act
+        webhookDispatcher.deliver(List.of(message(10L, 1L, 0), message(11L, 1L, 0), message(12L, 1L, 0)));
+
+        // Assert
+        verify(webhookClient, times(1)).deliver(anyString(), any(), anyString(), anyInt());
+        verify(outboxRepository).reschedule(eq(10L), any(LocalDateTime.class), eq(false), eq("Connection refused"));
+        verify(outboxRepository).reschedule(eq(11L), any(LocalDateTime.class), eq(false), eq("Connection refused"));
+        verify(outboxRepository, never()).reschedule(eq(12L), any(), anyBoolean(), any());
+        assertEquals(2.0, meterRegistry.get("webhooks.events.retried").counter().count());
+    }
+
+    @Test
+    void dispatch_ClaimsSubscriptions_DeliversTheirEvents_AndReleasesThem() {
+        // Arrange
+        when(outboxRepository.claimSubscriptions(4, Duration.ofMinutes(1))).thenReturn(List.of(1L));
+        when(outboxRepository.findDeliverable(1L, 500)).thenReturn(List.of(message(10L, 1L, 0)));
+        when(subscriptionRepository.findAllById(Set.of(1L))).thenReturn(List.of(subscription(1L, true)));
+
+        // Act
+        webhookDispatcher.dispatch();
+
+        // Assert
+        verify(webhookClient).deliver(eq(URL), isNull(), contains("\"id\":10"), eq(1));
+        verify(outboxRepository).delete(List.of(10L));
+        verify(outboxRepository).release(List.of(1L));
+        verify(outboxRepository, times(1)).claimSubscriptions(anyInt(), any());
+    }
+
+    @Test
+    void deliver_InactiveSubscription_DiscardsEvents() {
+        // Arrange
+        when(subscriptionRepository.findAllById(Set.of(1L))).thenReturn(List.of(subscription(1L, false)));
+
+        // Act
+        webhookDispatcher.deliver(List.of(message(10L, 1L, 0)));
+
+        // Assert
+        verify(outboxRepository).delete(List.of(10L));
+        verifyNoInteractions(webhookClient);
+    }
+
+    @Test
+    void backoff_DoublesUpToMaximum() {
+        // Act & Assert
+        assertEquals(Duration.ofSeconds(5), webhookDispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(10), webhookDispatcher.backoff(2));
+        assertEquals(Duration.ofSeconds(15), webhookDispatcher.backoff(3));
+        assertEquals(Duration.ofSeconds(15), webhookDispatcher.backoff(60));
+    }
+
+    private static WebhookSubscription subscription(Long id, boolean active) {
+        return WebhookSubscription.builder().id(id).url(URL).active(active).build();
+    }
+
+    private static OutboxMessage message(long id, long subscriptionId, int attempts) {
+        return new OutboxMessage(id, subscriptionId, "task.moved", "{\"taskId\":" + id + "}", attempts,
+                LocalDateTime.now().minusSeconds(1));
+    }
+}
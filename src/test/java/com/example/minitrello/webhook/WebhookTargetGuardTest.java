@@ -0,0 +1,50 @@
+package com.example.minitrello.webhook;
+
+import com.example.minitrello.config.WebhookConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookTargetGuardTest {
+
+    private final WebhookTargetGuard targetGuard = new WebhookTargetGuard(new WebhookConfig());
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "http://127.0.0.1/hook", "http://10.0.0.5/hook", "http://172.16.1.1/hook", "http://192.168.1.10/hook",
+            "http://169.254.169.254/latest/meta-data/", "http://100.100.100.200/", "http://0.0.0.0:8080/",
+            "http://[::1]/hook", "http://[fd00:ec2::254]/", "http://[fe80::1]/", "http://[::ffff:127.0.0.1]/"})
+    void check_NonPublicAddress_ThrowsException(String url) {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> targetGuard.check(url));
+    }
+
+    @Test
+    void check_PublicAddress_Passes() {
+        // Act & Assert
+        assertDoesNotThrow(() -> targetGuard.check("https://93.184.216.34/hook"));
+        assertDoesNotThrow(() -> targetGuard.check("https://[2606:4700::1111]/hook"));
+    }
+
+    @Test
+    void check_AllowedHost_PassesWithoutResolving() {
+        // Arrange
+        WebhookConfig config = new WebhookConfig();
+        config.setAllowedHosts(List.of(" Hooks.Internal "));
+        WebhookTargetGuard allowingGuard = new WebhookTargetGuard(config);
+
+        // Act & Assert
+        assertDoesNotThrow(() -> allowingGuard.check("http://hooks.internal:9099/hook"));
+        assertThrows(IllegalArgumentException.class, () -> allowingGuard.check("http://10.0.0.5/hook"));
+    }
+
+    @Test
+    void check_NoHost_ThrowsException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> targetGuard.check("http:///hook"));
+    }
+}